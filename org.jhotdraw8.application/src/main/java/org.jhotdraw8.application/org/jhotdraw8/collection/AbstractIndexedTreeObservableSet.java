@@ -0,0 +1,729 @@
+/*
+ * @(#)AbstractIndexedTreeObservableSet.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.collection;
+
+import javafx.collections.ObservableListBase;
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.annotation.Nullable;
+import org.jhotdraw8.util.Preconditions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * A {@code Set} that provides precise control where each element is inserted.
+ * <p>
+ * The set is backed by an order-statistic tree (an implicit treap with
+ * parent pointers) and a hash map from each element to its tree node.
+ * Insertion and removal at an index, {@code get(index)},
+ * {@code indexOf(element)} and {@code remove(element)} are in
+ * {@code O(log n)}, and the contains check is in {@code O(1)},
+ * where {@code n} is the number of elements.
+ * <p>
+ * Bulk operations ({@link #addAll}, {@link #removeAll}, {@link #retainAll},
+ * {@link #removeRange}, {@link #setAll}) fire a single change event.
+ * Adding {@code k} new elements takes {@code O(k + log n)}, removing
+ * {@code k} elements takes {@code O(k log n)}.
+ * <p>
+ * The mutators have the same semantics as in
+ * {@link AbstractIndexedArrayObservableSet}.
+ *
+ * @param <E> the element type
+ */
+public abstract class AbstractIndexedTreeObservableSet<E> extends ObservableListBase<E>
+        implements Set<E>, ReadOnlySequencedCollection<E>, ReadOnlySet<E> {
+
+    /**
+     * The root of the tree.
+     */
+    private @Nullable Node<E> root;
+    /**
+     * Maps each element to its node in the tree.
+     */
+    private final @NonNull Map<E, Node<E>> nodes = new HashMap<>();
+    /**
+     * State of the xorshift generator for node priorities.
+     */
+    private int seed = 0x2545F491;
+    /**
+     * Result of {@link #split}.
+     */
+    @SuppressWarnings("unchecked")
+    private final Node<E>[] pair = (Node<E>[]) new Node<?>[2];
+
+    /**
+     * Creates a new instance.
+     */
+    public AbstractIndexedTreeObservableSet() {
+    }
+
+    /**
+     * Creates a new instance and adds all elements of the specified collection
+     * to it.
+     *
+     * @param col A collection.
+     */
+    public AbstractIndexedTreeObservableSet(@NonNull Collection<? extends E> col) {
+        setAll(col);
+    }
+
+    @Override
+    public boolean setAll(@NonNull Collection<? extends E> col) {
+        beginChange();
+        try {
+            clear();
+            addAll(col);
+        } finally {
+            endChange();
+        }
+        return true;
+    }
+
+    @Override
+    public boolean addAll(@NonNull Collection<? extends E> c) {
+        int index = size();
+        if (tryAddAllNew(index, c)) {
+            return !c.isEmpty();
+        }
+        beginChange();
+        try {
+            boolean modified = false;
+            for (E e : c) {
+                modified |= doAdd(size(), e);
+            }
+            return modified;
+        } finally {
+            endChange();
+        }
+    }
+
+    @Override
+    public boolean addAll(int index, @NonNull Collection<? extends E> c) {
+        Preconditions.checkIndex(index, size() + 1);
+        if (tryAddAllNew(index, c)) {
+            return !c.isEmpty();
+        }
+        beginChange();
+        try {
+            boolean modified = false;
+            for (E e : c) {
+                add(index++, e);
+                modified = true;
+            }
+            return modified;
+        } finally {
+            endChange();
+        }
+    }
+
+    /**
+     * Inserts all elements of the specified collection at the specified
+     * index, if none of them is already in the set, the collection contains
+     * no duplicates, and all of them may be added.
+     *
+     * @param index an index
+     * @param c     a collection
+     * @return true on success, false if nothing was changed
+     */
+    private boolean tryAddAllNew(int index, @NonNull Collection<? extends E> c) {
+        List<Node<E>> added = new ArrayList<>(c.size());
+        for (E e : c) {
+            Node<E> node = new Node<>(e, nextPriority());
+            if (!mayBeAdded(e) || nodes.putIfAbsent(e, node) != null) {
+                for (Node<E> n : added) {
+                    nodes.remove(n.value);
+                }
+                return false;
+            }
+            added.add(node);
+        }
+        if (added.isEmpty()) {
+            return true;
+        }
+
+        split(root, index);
+        Node<E> left = pair[0], right = pair[1];
+        root = merge(merge(left, build(added)), right);
+        root.parent = null;
+
+        beginChange();
+        nextAdd(index, index + added.size());
+        ++modCount;
+        for (Node<E> n : added) {
+            onAdded(n.value);
+        }
+        endChange();
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(@NonNull Collection<?> c) {
+        int[] indices = new int[min(c.size(), size())];
+        int count = 0;
+        for (Object o : c) {
+            Node<E> node = nodes.get(o);
+            if (node != null) {
+                if (count == indices.length) {
+                    indices = Arrays.copyOf(indices, count * 2);
+                }
+                indices[count++] = indexOfNode(node);
+            }
+        }
+        if (count == 0) {
+            return false;
+        }
+
+        // sort the indices and remove duplicates
+        Arrays.sort(indices, 0, count);
+        int unique = 1;
+        for (int i = 1; i < count; i++) {
+            if (indices[i] != indices[unique - 1]) {
+                indices[unique++] = indices[i];
+            }
+        }
+        removeIndices(indices, unique);
+        return true;
+    }
+
+    @Override
+    public boolean retainAll(@NonNull Collection<?> c) {
+        int[] indices = new int[size()];
+        int count = 0;
+        int index = 0;
+        for (Node<E> node = first(root); node != null; node = successor(node), index++) {
+            if (!c.contains(node.value)) {
+                indices[count++] = index;
+            }
+        }
+        if (count == 0) {
+            return false;
+        }
+        removeIndices(indices, count);
+        return true;
+    }
+
+    /**
+     * Removes the elements at the specified indices.
+     *
+     * @param indices the indices in ascending order
+     * @param count   the number of indices
+     */
+    private void removeIndices(int @NonNull [] indices, int count) {
+        beginChange();
+        // remove runs of consecutive indices, starting with the last run,
+        // so that the indices of the remaining runs stay valid
+        for (int to = count; to > 0; ) {
+            int from = to - 1;
+            while (from > 0 && indices[from - 1] == indices[from] - 1) {
+                from--;
+            }
+            removeRange(indices[from], indices[to - 1] + 1);
+            to = from;
+        }
+        endChange();
+    }
+
+    @Override
+    public void add(int index, E element) {
+        doAdd(index, element);
+    }
+
+    /**
+     * Moves an element at {@code oldIndex} to {@code newIndex}.
+     * <p>
+     * So that {@code indexOf(element) == newIndex};
+     *
+     * @param oldIndex the current index of the element
+     * @param newIndex the desired new index of the element
+     */
+    public void move(int oldIndex, int newIndex) {
+        if (oldIndex == newIndex) {
+            return;
+        }
+        beginChange();
+        Node<E> oldNode = nodeAt(oldIndex);
+        Node<E> newNode = nodeAt(newIndex);
+        E value = oldNode.value;
+        oldNode.value = newNode.value;
+        newNode.value = value;
+        nodes.put(oldNode.value, oldNode);
+        nodes.put(newNode.value, newNode);
+        int from = min(oldIndex, newIndex);
+        int to = max(oldIndex, newIndex) + 1;
+        int[] perm = new int[to - from];
+        for (int i = 1; i < perm.length - 1; i++) {
+            perm[i] = from + i;
+        }
+        perm[oldIndex - from] = newIndex;
+        perm[newIndex - from] = oldIndex;
+        nextPermutation(from, to, perm);
+        endChange();
+    }
+
+    protected boolean doAdd(int index, E element) {
+        if (!mayBeAdded(element)) {
+            return false;
+        }
+        Node<E> node = nodes.get(element);
+        int oldIndex = node == null ? -1 : indexOfNode(node);
+        int clampedIndex = min(index, size() - 1);
+        if (oldIndex < 0) {
+            // the element is not yet in the list => insert it
+            Preconditions.checkIndex(index, size() + 1);
+            node = new Node<>(element, nextPriority());
+            nodes.put(element, node);
+            insertNode(index, node);
+            beginChange();
+            nextAdd(index, index + 1);
+            onAdded(element);
+            ++modCount;
+            endChange();
+            return true;
+        } else if (oldIndex == clampedIndex || index - oldIndex == 1) {
+            // the element is already at the desired index in the list
+            return false;
+        } else {
+            // => move the element from the old index to the desired index
+            beginChange();
+            removeNode(node);
+            nextRemove(oldIndex, element);
+            int addIndex = oldIndex < index ? index - 1 : index;
+            insertNode(addIndex, node);
+            nextAdd(addIndex, addIndex + 1);
+            ++modCount;
+            endChange();
+            return false;
+        }
+    }
+
+    @Override
+    public E set(int index, E element) {
+        int oldIndex = indexOf(element);
+        if (oldIndex < 0) {
+            beginChange();
+            Node<E> node = nodeAt(index);
+            E old = node.value;
+            nodes.remove(old);
+            node.value = element;
+            nodes.put(element, node);
+            onRemoved(old);
+            nextSet(index, old);
+            onAdded(element);
+            endChange();
+            return old;
+        } else if (oldIndex == index) {
+            // the element is replaced by itself
+            return element;
+        } else {
+            // the element at the index is removed
+            beginChange();
+            E old = remove(index);
+            // the old element is permuted
+            if (oldIndex > index) {
+                oldIndex--;
+            }
+            move(oldIndex, oldIndex < index ? index - 1 : index);
+            endChange();
+            return old;
+        }
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return nodes.containsKey(o);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        int i = indexOf(o);
+        if (i != -1) {
+            remove(i);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public E remove(int index) {
+        Node<E> node = nodeAt(index);
+        removeNode(node);
+        nodes.remove(node.value);
+        beginChange();
+        nextRemove(index, node.value);
+        ++modCount;
+        onRemoved(node.value);
+        endChange();
+        return node.value;
+    }
+
+    @Override
+    public void removeRange(int fromIndex, int toIndex) {
+        Preconditions.checkFromToIndex(fromIndex, toIndex, size());
+        if (fromIndex == toIndex) {
+            return;
+        }
+        split(root, toIndex);
+        Node<E> right = pair[1];
+        split(pair[0], fromIndex);
+        Node<E> left = pair[0], middle = pair[1];
+        root = merge(left, right);
+        if (root != null) {
+            root.parent = null;
+        }
+
+        List<E> removed = new ArrayList<>(toIndex - fromIndex);
+        for (Node<E> node = first(middle); node != null; node = successor(node)) {
+            removed.add(node.value);
+            nodes.remove(node.value);
+        }
+        beginChange();
+        nextRemove(fromIndex, removed);
+        ++modCount;
+        for (E old : removed) {
+            onRemoved(old);
+        }
+        endChange();
+    }
+
+    @Override
+    public E get(int index) {
+        return nodeAt(index).value;
+    }
+
+    @Override
+    public int size() {
+        return size(root);
+    }
+
+    @Override
+    public boolean add(E e) {
+        return doAdd(size(), e);
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        Node<E> node = nodes.get(o);
+        return node == null ? -1 : indexOfNode(node);
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    @Override
+    public final E getFirst() {
+        return get(0);
+    }
+
+    @Override
+    public E getLast() {
+        return get(size() - 1);
+    }
+
+    @Override
+    public @NonNull Iterator<E> iterator() {
+        return new TreeIterator();
+    }
+
+    @Override
+    public @NonNull Spliterator<E> spliterator() {
+        return Spliterators.spliterator(this, Spliterator.ORDERED);
+    }
+
+    @Override
+    public @NonNull Stream<E> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    public void fireItemUpdated(int index) {
+        beginChange();
+        nextUpdate(index);
+        endChange();
+    }
+
+    public boolean hasChangeListeners() {
+        return super.hasListeners();
+    }
+
+    /**
+     * This method is invoked after an element has been removed.
+     *
+     * @param e the removed element
+     */
+    protected abstract void onRemoved(E e);
+
+    /**
+     * This method is invoked after an element has been added.
+     *
+     * @param e the added element
+     */
+    protected abstract void onAdded(E e);
+
+    /**
+     * Returns true if the specified element can be added to this
+     * set.
+     * <p>
+     * Subclasses can return false if they only want to include
+     * elements based on a predicate check.
+     *
+     * @param e an object
+     * @return true if the object may be added to this set
+     */
+    protected abstract boolean mayBeAdded(@NonNull E e);
+
+    private int nextPriority() {
+        int x = seed;
+        x ^= x << 13;
+        x ^= x >>> 17;
+        x ^= x << 5;
+        return seed = x;
+    }
+
+    private static int size(@Nullable Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Recomputes the size of the node, and sets the parent of its children.
+     */
+    private static <E> void update(@NonNull Node<E> node) {
+        Node<E> left = node.left, right = node.right;
+        node.size = 1 + size(left) + size(right);
+        if (left != null) {
+            left.parent = node;
+        }
+        if (right != null) {
+            right.parent = node;
+        }
+    }
+
+    /**
+     * Concatenates two trees. The parent of the returned node is undefined.
+     */
+    private static <E> @Nullable Node<E> merge(@Nullable Node<E> a, @Nullable Node<E> b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            update(a);
+            return a;
+        } else {
+            b.left = merge(a, b.left);
+            update(b);
+            return b;
+        }
+    }
+
+    /**
+     * Splits a tree into a tree with the first {@code k} elements and a tree
+     * with the remaining elements, and stores them in {@link #pair}.
+     */
+    private void split(@Nullable Node<E> node, int k) {
+        splitRecursively(node, k);
+        if (pair[0] != null) {
+            pair[0].parent = null;
+        }
+        if (pair[1] != null) {
+            pair[1].parent = null;
+        }
+    }
+
+    private void splitRecursively(@Nullable Node<E> node, int k) {
+        if (node == null) {
+            pair[0] = pair[1] = null;
+        } else if (size(node.left) >= k) {
+            splitRecursively(node.left, k);
+            node.left = pair[1];
+            update(node);
+            pair[1] = node;
+        } else {
+            splitRecursively(node.right, k - size(node.left) - 1);
+            node.right = pair[0];
+            update(node);
+            pair[0] = node;
+        }
+    }
+
+    /**
+     * Builds a tree from a list of nodes in {@code O(n)}, by constructing
+     * the cartesian tree of their priorities.
+     */
+    private static <E> @NonNull Node<E> build(@NonNull List<Node<E>> list) {
+        List<Node<E>> stack = new ArrayList<>();
+        for (Node<E> node : list) {
+            Node<E> last = null;
+            while (!stack.isEmpty() && stack.get(stack.size() - 1).priority < node.priority) {
+                last = stack.remove(stack.size() - 1);
+            }
+            node.left = last;
+            if (!stack.isEmpty()) {
+                stack.get(stack.size() - 1).right = node;
+            }
+            stack.add(node);
+        }
+        Node<E> root = stack.get(0);
+        updateRecursively(root);
+        root.parent = null;
+        return root;
+    }
+
+    private static <E> void updateRecursively(@Nullable Node<E> node) {
+        if (node != null) {
+            updateRecursively(node.left);
+            updateRecursively(node.right);
+            update(node);
+        }
+    }
+
+    private @NonNull Node<E> nodeAt(int index) {
+        Preconditions.checkIndex(index, size());
+        Node<E> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    private int indexOfNode(@NonNull Node<E> node) {
+        int index = size(node.left);
+        for (Node<E> n = node; n.parent != null; n = n.parent) {
+            if (n.parent.right == n) {
+                index += size(n.parent.left) + 1;
+            }
+        }
+        return index;
+    }
+
+    private void insertNode(int index, @NonNull Node<E> node) {
+        node.left = node.right = node.parent = null;
+        node.size = 1;
+        split(root, index);
+        Node<E> left = pair[0], right = pair[1];
+        root = merge(merge(left, node), right);
+        root.parent = null;
+    }
+
+    private void removeNode(@NonNull Node<E> node) {
+        Node<E> merged = merge(node.left, node.right);
+        Node<E> parent = node.parent;
+        if (merged != null) {
+            merged.parent = parent;
+        }
+        if (parent == null) {
+            root = merged;
+        } else {
+            if (parent.left == node) {
+                parent.left = merged;
+            } else {
+                parent.right = merged;
+            }
+            for (Node<E> p = parent; p != null; p = p.parent) {
+                p.size--;
+            }
+        }
+        node.left = node.right = node.parent = null;
+        node.size = 1;
+    }
+
+    private static <E> @Nullable Node<E> first(@Nullable Node<E> node) {
+        if (node != null) {
+            while (node.left != null) {
+                node = node.left;
+            }
+        }
+        return node;
+    }
+
+    private static <E> @Nullable Node<E> successor(@NonNull Node<E> node) {
+        if (node.right != null) {
+            return first(node.right);
+        }
+        Node<E> n = node;
+        while (n.parent != null && n.parent.right == n) {
+            n = n.parent;
+        }
+        return n.parent;
+    }
+
+    private static class Node<E> {
+        private E value;
+        private final int priority;
+        private @Nullable Node<E> left;
+        private @Nullable Node<E> right;
+        private @Nullable Node<E> parent;
+        private int size = 1;
+
+        Node(E value, int priority) {
+            this.value = value;
+            this.priority = priority;
+        }
+    }
+
+    private class TreeIterator implements Iterator<E> {
+        private @Nullable Node<E> next = first(root);
+        private @Nullable Node<E> lastReturned;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public E next() {
+            checkModCount();
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = next;
+            next = successor(next);
+            return lastReturned.value;
+        }
+
+        @Override
+        public void remove() {
+            checkModCount();
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            AbstractIndexedTreeObservableSet.this.remove(indexOfNode(lastReturned));
+            lastReturned = null;
+            expectedModCount = modCount;
+        }
+
+        private void checkModCount() {
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * @(#)IndexedDoubleMinHeap.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+
+package org.jhotdraw8.collection;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * An indexed binary min-heap of {@code int} elements with {@code double}
+ * priorities.
+ * <p>
+ * The elements are integers in the range {@code [0, capacity)}. Each
+ * element can be contained at most once. The heap keeps track of the
+ * position of each element, so that the priority of an element can be
+ * decreased in {@code O(log n)}.
+ * <p>
+ * Once the heap has been created with sufficient capacity, none of its
+ * operations allocate memory. This makes it suitable for graph algorithms
+ * such as Dijkstra's shortest path algorithm.
+ */
+public class IndexedDoubleMinHeap {
+    /**
+     * The elements in heap order.
+     */
+    private int[] heap;
+    /**
+     * The priorities in heap order.
+     */
+    private double[] priorities;
+    /**
+     * Maps an element to its position in the heap, or to {@code -1} if the
+     * element is not in the heap.
+     */
+    private int[] positions;
+    private int size;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param capacity the initial capacity, elements must be in the
+     *                 range {@code [0, capacity)}
+     */
+    public IndexedDoubleMinHeap(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must be >= 0. capacity=" + capacity);
+        }
+        heap = new int[capacity];
+        priorities = new double[capacity];
+        positions = new int[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * Ensures that the heap can hold elements in the range
+     * {@code [0, capacity)}.
+     *
+     * @param capacity the desired capacity
+     */
+    public void ensureCapacity(int capacity) {
+        int oldCapacity = positions.length;
+        if (capacity > oldCapacity) {
+            int newCapacity = Math.max(capacity, oldCapacity + (oldCapacity >> 1));
+            heap = Arrays.copyOf(heap, newCapacity);
+            priorities = Arrays.copyOf(priorities, newCapacity);
+            positions = Arrays.copyOf(positions, newCapacity);
+            Arrays.fill(positions, oldCapacity, newCapacity, -1);
+        }
+    }
+
+    /**
+     * Returns the capacity of the heap.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return positions.length;
+    }
+
+    /**
+     * Inserts the specified element with the specified priority, or
+     * decreases the priority of the element if it is already in the heap
+     * and the specified priority is lower than its current priority.
+     *
+     * @param element  an element in the range {@code [0, capacity)}
+     * @param priority the priority
+     * @return true if the element was inserted, or if its priority was
+     * decreased
+     */
+    public boolean insertOrDecrease(int element, double priority) {
+        int pos = positions[element];
+        if (pos < 0) {
+            pos = size++;
+            heap[pos] = element;
+            priorities[pos] = priority;
+            positions[element] = pos;
+        } else if (priority < priorities[pos]) {
+            priorities[pos] = priority;
+        } else {
+            return false;
+        }
+        siftUp(pos);
+        return true;
+    }
+
+    /**
+     * Returns the element with the lowest priority without removing it.
+     *
+     * @return the element with the lowest priority
+     * @throws NoSuchElementException if the heap is empty
+     */
+    public int elementAsInt() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return heap[0];
+    }
+
+    /**
+     * Returns the lowest priority in the heap.
+     *
+     * @return the lowest priority
+     * @throws NoSuchElementException if the heap is empty
+     */
+    public double elementPriority() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return priorities[0];
+    }
+
+    /**
+     * Removes the element with the lowest priority from the heap.
+     *
+     * @return the element with the lowest priority
+     * @throws NoSuchElementException if the heap is empty
+     */
+    public int removeAsInt() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        int min = heap[0];
+        positions[min] = -1;
+        if (--size > 0) {
+            heap[0] = heap[size];
+            priorities[0] = priorities[size];
+            positions[heap[0]] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    /**
+     * Returns true if the heap contains the specified element.
+     *
+     * @param element an element
+     * @return true if the element is in the heap
+     */
+    public boolean containsAsInt(int element) {
+        return element >= 0 && element < positions.length && positions[element] >= 0;
+    }
+
+    /**
+     * Returns the priority of the specified element.
+     *
+     * @param element an element
+     * @return the priority of the element, or {@link Double#NaN} if the
+     * element is not in the heap
+     */
+    public double getPriority(int element) {
+        return containsAsInt(element) ? priorities[positions[element]] : Double.NaN;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all elements from the heap.
+     * <p>
+     * This operation takes time proportional to the current size of the
+     * heap, and not to its capacity.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int pos) {
+        int element = heap[pos];
+        double priority = priorities[pos];
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if (priorities[parent] <= priority) {
+                break;
+            }
+            move(parent, pos);
+            pos = parent;
+        }
+        place(element, priority, pos);
+    }
+
+    private void siftDown(int pos) {
+        int element = heap[pos];
+        double priority = priorities[pos];
+        int half = size >>> 1;
+        while (pos < half) {
+            int child = 2 * pos + 1;
+            int right = child + 1;
+            if (right < size && priorities[right] < priorities[child]) {
+                child = right;
+            }
+            if (priority <= priorities[child]) {
+                break;
+            }
+            move(child, pos);
+            pos = child;
+        }
+        place(element, priority, pos);
+    }
+
+    private void move(int from, int to) {
+        heap[to] = heap[from];
+        priorities[to] = priorities[from];
+        positions[heap[to]] = to;
+    }
+
+    private void place(int element, double priority, int pos) {
+        heap[pos] = element;
+        priorities[pos] = priority;
+        positions[element] = pos;
+    }
+}
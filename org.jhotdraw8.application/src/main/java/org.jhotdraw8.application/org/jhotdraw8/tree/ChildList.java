@@ -6,15 +6,19 @@
 package org.jhotdraw8.tree;
 
 import org.jhotdraw8.annotation.NonNull;
-import org.jhotdraw8.collection.AbstractIndexedArrayObservableSet;
+import org.jhotdraw8.collection.AbstractIndexedTreeObservableSet;
 
 /**
  * A child list for implementations of the {@link TreeNode} interface.
  * <p>
  * This list maintains the parent of tree nodes that are added/removed
  * from the child list, as described in {@link TreeNode#getChildren()}.
+ * <p>
+ * The list is backed by an order-statistic tree, so that inserting and
+ * removing a child, and looking up the index of a child are in
+ * {@code O(log n)}, where {@code n} is the number of children.
  */
-public class ChildList<E extends TreeNode<E>> extends AbstractIndexedArrayObservableSet<E> {
+public class ChildList<E extends TreeNode<E>> extends AbstractIndexedTreeObservableSet<E> {
 
     private final E parent;
 
@@ -23,11 +27,6 @@ public class ChildList<E extends TreeNode<E>> extends AbstractIndexedArrayObserv
 
     }
 
-    @Override
-    protected Boolean onContains(E e) {
-        return e.getParent() == parent;
-    }
-
     @Override
     protected void onAdded(@NonNull E e) {
         E oldParent = e.getParent();
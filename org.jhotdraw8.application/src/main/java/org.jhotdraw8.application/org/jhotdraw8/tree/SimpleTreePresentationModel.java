@@ -12,7 +12,9 @@ import org.jhotdraw8.event.Listener;
 import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Supplier;
 
 /**
@@ -69,6 +71,9 @@ public class SimpleTreePresentationModel<N> extends AbstractTreePresentationMode
                     break;
                 case SUBTREE_NODES_CHANGED:
                     break;
+                case BATCH_COMMITTED:
+                    onBatchCommitted(event);
+                    break;
                 default:
                     throw new UnsupportedOperationException(event.getEventType()
                             + " not supported");
@@ -164,6 +169,66 @@ public class SimpleTreePresentationModel<N> extends AbstractTreePresentationMode
         items.remove(f);
     }
 
+    /**
+     * Updates the tree items affected by a batch.
+     * <p>
+     * Instead of inserting and removing tree items one by one, this method
+     * drops the items of removed subtrees, recreates the items of added
+     * subtrees, and then sets the children of each changed parent in one go.
+     *
+     * @param event a {@link TreeModelEvent.EventType#BATCH_COMMITTED} event
+     */
+    protected void onBatchCommitted(@NonNull TreeModelEvent<N> event) {
+        TreeModel<N> m = getTreeModel();
+        Set<TreeItem<N>> dirtyParents = new LinkedHashSet<>();
+        for (N node : event.getChangedParents()) {
+            TreeItem<N> item = items.get(node);
+            if (item != null) {
+                dirtyParents.add(item);
+            }
+        }
+        Deque<N> deque = new ArrayDeque<>();
+        for (N node : event.getRemovedSubtrees()) {
+            deque.push(node);
+            while (!deque.isEmpty()) {
+                N n = deque.pop();
+                TreeItem<N> item = items.remove(n);
+                if (item != null && item.getParent() != null && n == node) {
+                    dirtyParents.add(item.getParent());
+                }
+                for (int i = 0, count = m.getChildCount(n); i < count; i++) {
+                    deque.push(m.getChild(n, i));
+                }
+            }
+        }
+        for (N node : event.getAddedSubtrees()) {
+            TreeItem<N> oldItem = items.get(node);
+            if (oldItem != null && oldItem.getParent() != null) {
+                dirtyParents.add(oldItem.getParent());
+            }
+            onNodeAddedToTree(node, null, -1);
+        }
+        for (TreeItem<N> parentItem : dirtyParents) {
+            N parent = parentItem.getValue();
+            if (items.get(parent) != parentItem) {
+                continue;// the parent item has been replaced or removed
+            }
+            Deque<TreeItem<N>> children = new ArrayDeque<>();
+            for (int i = 0, n = m.getChildCount(parent); i < n; i++) {
+                TreeItem<N> childItem = items.computeIfAbsent(m.getChild(parent, i), TreeItem::new);
+                if (reversed) {
+                    children.addFirst(childItem);
+                } else {
+                    children.addLast(childItem);
+                }
+            }
+            parentItem.getChildren().setAll(children);
+        }
+        for (N node : event.getChangedNodes()) {
+            onNodeInvalidated(node);
+        }
+    }
+
     protected void onRootChanged() {
         TreeModel<N> m = getTreeModel();
         N modelRoot = m.getRoot();
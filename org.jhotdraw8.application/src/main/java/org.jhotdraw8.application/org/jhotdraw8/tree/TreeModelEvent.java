@@ -8,6 +8,9 @@ package org.jhotdraw8.tree;
 import org.jhotdraw8.annotation.NonNull;
 import org.jhotdraw8.event.Event;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * TreeModelEvent.
  *
@@ -61,6 +64,23 @@ public class TreeModelEvent<E> extends Event<TreeModel<E>> {
          * The JavaFX Node of a single figure has been invalidated.
          */
         NODE_CHANGED,
+        /**
+         * A batch of changes has been committed.
+         * <ul>
+         * <li>node is the root.</li>
+         * <li>removed subtrees are the roots of the subtrees that are no
+         * longer part of the root.</li>
+         * <li>added subtrees are the roots of the subtrees that have been
+         * added to the root, or that have been moved to another parent.</li>
+         * <li>changed parents are the nodes in the root of which the
+         * children have changed.</li>
+         * <li>changed nodes are the nodes in the root of which the
+         * JavaFX Node has been invalidated.</li>
+         * </ul>
+         * This event is fired instead of the individual events of the
+         * batch.
+         */
+        BATCH_COMMITTED,
 
     }
 
@@ -70,14 +90,29 @@ public class TreeModelEvent<E> extends Event<TreeModel<E>> {
     private final E root;
     private final int index;
     private final TreeModelEvent.EventType eventType;
+    private final @NonNull List<E> removedSubtrees;
+    private final @NonNull List<E> addedSubtrees;
+    private final @NonNull List<E> changedParents;
+    private final @NonNull List<E> changedNodes;
 
     private TreeModelEvent(@NonNull TreeModel<E> source, EventType eventType, E node, E parent, E root, int index) {
+        this(source, eventType, node, parent, root, index,
+                Collections.emptyList(), Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+    }
+
+    private TreeModelEvent(@NonNull TreeModel<E> source, EventType eventType, E node, E parent, E root, int index,
+                           @NonNull List<E> removedSubtrees, @NonNull List<E> addedSubtrees,
+                           @NonNull List<E> changedParents, @NonNull List<E> changedNodes) {
         super(source);
         this.node = node;
         this.parent = parent;
         this.root = root;
         this.index = index;
         this.eventType = eventType;
+        this.removedSubtrees = removedSubtrees;
+        this.addedSubtrees = addedSubtrees;
+        this.changedParents = changedParents;
+        this.changedNodes = changedNodes;
     }
 
     public static @NonNull <E> TreeModelEvent<E> subtreeNodesInvalidated(@NonNull TreeModel<E> source, E subtreeRot) {
@@ -108,6 +143,14 @@ public class TreeModelEvent<E> extends Event<TreeModel<E>> {
         return new TreeModelEvent<>(source, EventType.ROOT_CHANGED, newRoot, oldRoot, newRoot, -1);
     }
 
+    public static @NonNull <E> TreeModelEvent<E> batchCommitted(@NonNull TreeModel<E> source, E root,
+                                                                 @NonNull List<E> removedSubtrees, @NonNull List<E> addedSubtrees,
+                                                                 @NonNull List<E> changedParents, @NonNull List<E> changedNodes) {
+        return new TreeModelEvent<>(source, EventType.BATCH_COMMITTED, root, null, root, -1,
+                Collections.unmodifiableList(removedSubtrees), Collections.unmodifiableList(addedSubtrees),
+                Collections.unmodifiableList(changedParents), Collections.unmodifiableList(changedNodes));
+    }
+
     /**
      * The figure which was added, removed or of which a property changed.
      *
@@ -162,6 +205,46 @@ public class TreeModelEvent<E> extends Event<TreeModel<E>> {
         return eventType;
     }
 
+    /**
+     * If a batch was committed, returns the roots of the subtrees that
+     * have been removed from the root.
+     *
+     * @return the removed subtrees, empty if this is not a batch event
+     */
+    public @NonNull List<E> getRemovedSubtrees() {
+        return removedSubtrees;
+    }
+
+    /**
+     * If a batch was committed, returns the roots of the subtrees that
+     * have been added to the root or moved to another parent.
+     *
+     * @return the added subtrees, empty if this is not a batch event
+     */
+    public @NonNull List<E> getAddedSubtrees() {
+        return addedSubtrees;
+    }
+
+    /**
+     * If a batch was committed, returns the nodes of which the children
+     * have changed.
+     *
+     * @return the changed parents, empty if this is not a batch event
+     */
+    public @NonNull List<E> getChangedParents() {
+        return changedParents;
+    }
+
+    /**
+     * If a batch was committed, returns the nodes that have been
+     * invalidated.
+     *
+     * @return the changed nodes, empty if this is not a batch event
+     */
+    public @NonNull List<E> getChangedNodes() {
+        return changedNodes;
+    }
+
     @Override
     public @NonNull String toString() {
         return "TreeModelEvent{"
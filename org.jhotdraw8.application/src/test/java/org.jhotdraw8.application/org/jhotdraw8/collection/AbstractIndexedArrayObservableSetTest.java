@@ -6,6 +6,7 @@
 package org.jhotdraw8.collection;
 
 import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
 import org.jhotdraw8.annotation.NonNull;
 import org.junit.jupiter.api.DynamicTest;
 import org.junit.jupiter.api.TestFactory;
@@ -28,10 +29,10 @@ import static org.junit.jupiter.api.DynamicTest.dynamicTest;
 
 public abstract class AbstractIndexedArrayObservableSetTest {
 
-    protected abstract AbstractIndexedArrayObservableSet<Character> newInstance(Collection<Character> col);
+    protected abstract ObservableList<Character> newInstance(Collection<Character> col);
 
     public void testAdd(@NonNull String initialList, int index, Character value, @NonNull String expectedListStr, String expectedChanges) throws Exception {
-        AbstractIndexedArrayObservableSet<Character> list = newInstance(asList(initialList));
+        ObservableList<Character> list = newInstance(asList(initialList));
 
         AbstractIndexedArrayObservableSetTest.ChangeRecorder recorder = new AbstractIndexedArrayObservableSetTest.ChangeRecorder();
         list.addListener(recorder);
@@ -80,7 +81,7 @@ public abstract class AbstractIndexedArrayObservableSetTest {
     }
 
     public void testSet(@NonNull String initialList, int index, Character value, @NonNull String expectedListStr, String expectedChanges) throws Exception {
-        AbstractIndexedArrayObservableSet<Character> list = newInstance(asList(initialList));
+        ObservableList<Character> list = newInstance(asList(initialList));
 
         AbstractIndexedArrayObservableSetTest.ChangeRecorder recorder = new AbstractIndexedArrayObservableSetTest.ChangeRecorder();
         list.addListener(recorder);
@@ -0,0 +1,79 @@
+/*
+ * @(#)IndexedDoubleMinHeapTest.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+
+package org.jhotdraw8.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IndexedDoubleMinHeapTest {
+    @Test
+    public void testRemoveReturnsElementsInPriorityOrder() {
+        Random rng = new Random(0);
+        int n = 1000;
+        double[] prio = new double[n];
+        IndexedDoubleMinHeap heap = new IndexedDoubleMinHeap(n);
+        for (int i = 0; i < n; i++) {
+            prio[i] = rng.nextDouble();
+            assertTrue(heap.insertOrDecrease(i, prio[i]));
+        }
+        assertEquals(n, heap.size());
+
+        double[] sorted = prio.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < n; i++) {
+            assertEquals(sorted[i], heap.elementPriority());
+            int e = heap.removeAsInt();
+            assertEquals(sorted[i], prio[e]);
+            assertFalse(heap.containsAsInt(e));
+        }
+        assertTrue(heap.isEmpty());
+        assertThrows(NoSuchElementException.class, heap::removeAsInt);
+    }
+
+    @Test
+    public void testDecreaseKey() {
+        IndexedDoubleMinHeap heap = new IndexedDoubleMinHeap(4);
+        heap.insertOrDecrease(0, 4.0);
+        heap.insertOrDecrease(1, 3.0);
+        heap.insertOrDecrease(2, 2.0);
+        heap.insertOrDecrease(3, 1.0);
+
+        assertFalse(heap.insertOrDecrease(0, 5.0), "increase must be ignored");
+        assertEquals(4.0, heap.getPriority(0));
+        assertTrue(heap.insertOrDecrease(0, 0.5));
+        assertEquals(0.5, heap.getPriority(0));
+        assertEquals(4, heap.size());
+
+        assertEquals(0, heap.removeAsInt());
+        assertEquals(3, heap.removeAsInt());
+        assertEquals(2, heap.removeAsInt());
+        assertEquals(1, heap.removeAsInt());
+    }
+
+    @Test
+    public void testClearAndEnsureCapacity() {
+        IndexedDoubleMinHeap heap = new IndexedDoubleMinHeap(2);
+        heap.insertOrDecrease(1, 1.0);
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        assertFalse(heap.containsAsInt(1));
+
+        heap.ensureCapacity(10);
+        assertTrue(heap.getCapacity() >= 10);
+        heap.insertOrDecrease(9, 2.0);
+        heap.insertOrDecrease(1, 3.0);
+        assertEquals(9, heap.elementAsInt());
+        assertEquals(Double.NaN, heap.getPriority(5));
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * @(#)IndexedTreeSetTest.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.collection;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import org.jhotdraw8.annotation.NonNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link AbstractIndexedTreeObservableSet}.
+ */
+public class IndexedTreeSetTest extends AbstractIndexedArrayObservableSetTest {
+
+    private static class TreeSet<E> extends AbstractIndexedTreeObservableSet<E> {
+        TreeSet(@NonNull Collection<? extends E> col) {
+            super(col);
+        }
+
+        @Override
+        protected void onRemoved(E e) {
+        }
+
+        @Override
+        protected void onAdded(E e) {
+        }
+
+        @Override
+        protected boolean mayBeAdded(@NonNull E e) {
+            return true;
+        }
+    }
+
+    @Override
+    protected ObservableList<Character> newInstance(Collection<Character> col) {
+        return new TreeSet<>(col);
+    }
+
+    @Test
+    public void testRandomEditsMatchArrayList() {
+        Random r = new Random(0);
+        TreeSet<Integer> instance = new TreeSet<>(List.of());
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            int op = r.nextInt(4);
+            if (op < 2 || expected.isEmpty()) {
+                Integer e = i;
+                int index = r.nextInt(expected.size() + 1);
+                instance.add(index, e);
+                expected.add(index, e);
+            } else if (op == 2) {
+                int index = r.nextInt(expected.size());
+                assertEquals(expected.remove(index), instance.remove(index));
+            } else {
+                Integer e = expected.get(r.nextInt(expected.size()));
+                assertEquals(expected.indexOf(e), instance.indexOf(e));
+                assertTrue(instance.remove(e));
+                expected.remove(e);
+            }
+        }
+        assertEquals(expected, instance);
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(i, instance.indexOf(expected.get(i)));
+        }
+    }
+
+    @Test
+    public void testBulkEditsFireSingleChange() {
+        List<Integer> initial = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            initial.add(i);
+        }
+        TreeSet<Integer> instance = new TreeSet<>(initial);
+        List<ListChangeListener.Change<? extends Integer>> changes = new ArrayList<>();
+        instance.addListener((ListChangeListener<Integer>) changes::add);
+
+        List<Integer> removed = new ArrayList<>();
+        for (int i = 0; i < 1000; i += 3) {
+            removed.add(i);
+        }
+        removed.add(3);// duplicate
+        assertTrue(instance.removeAll(removed));
+        List<Integer> expected = new ArrayList<>(initial);
+        expected.removeAll(removed);
+        assertEquals(expected, instance);
+        assertEquals(1, changes.size());
+        assertFalse(instance.contains(3));
+
+        changes.clear();
+        List<Integer> added = new ArrayList<>();
+        for (int i = 1000; i < 1100; i++) {
+            added.add(i);
+        }
+        assertTrue(instance.addAll(10, added));
+        expected.addAll(10, added);
+        assertEquals(expected, instance);
+        assertEquals(1, changes.size());
+        ListChangeListener.Change<? extends Integer> change = changes.get(0);
+        assertTrue(change.next());
+        assertEquals(10, change.getFrom());
+        assertEquals(110, change.getTo());
+        assertFalse(change.next());
+
+        changes.clear();
+        assertTrue(instance.retainAll(added));
+        assertEquals(added, instance);
+        assertEquals(1, changes.size());
+
+        Iterator<Integer> it = instance.iterator();
+        while (it.hasNext()) {
+            if (it.next() % 2 == 0) {
+                it.remove();
+            }
+        }
+        expected = new ArrayList<>(added);
+        expected.removeIf(e -> e % 2 == 0);
+        assertEquals(expected, instance);
+    }
+}
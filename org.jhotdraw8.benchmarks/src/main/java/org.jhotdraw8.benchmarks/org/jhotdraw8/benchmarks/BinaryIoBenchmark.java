@@ -0,0 +1,82 @@
+/*
+ * @(#)BinaryIoBenchmark.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.benchmarks;
+
+import org.jhotdraw8.concurrent.BlackHoleWorkState;
+import org.jhotdraw8.draw.figure.Drawing;
+import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.draw.io.DefaultFigureFactory;
+import org.jhotdraw8.draw.io.FigureFactory;
+import org.jhotdraw8.draw.io.SimpleBinaryReader;
+import org.jhotdraw8.draw.io.SimpleBinaryWriter;
+import org.jhotdraw8.draw.io.SimpleFigureIdFactory;
+import org.jhotdraw8.io.IdFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link SimpleBinaryReader#read} and {@link SimpleBinaryWriter#write}
+ * with in-memory streams, on the same drawings as {@link XmlIoBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinaryIoBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int figureCount;
+
+    private Drawing drawing;
+    private byte[] data;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        drawing = SyntheticDrawings.createDrawing(figureCount);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        createWriter().write(out, null, drawing, new BlackHoleWorkState<>());
+        data = out.toByteArray();
+    }
+
+    private static SimpleBinaryWriter createWriter() {
+        IdFactory idFactory = new SimpleFigureIdFactory();
+        FigureFactory factory = new DefaultFigureFactory(idFactory);
+        return new SimpleBinaryWriter(factory, idFactory);
+    }
+
+    private static SimpleBinaryReader createReader() {
+        IdFactory idFactory = new SimpleFigureIdFactory();
+        FigureFactory factory = new DefaultFigureFactory(idFactory);
+        return new SimpleBinaryReader(factory, idFactory);
+    }
+
+    @Benchmark
+    public Figure read() throws IOException {
+        return createReader().read(new ByteArrayInputStream(data), null, null, new BlackHoleWorkState<>());
+    }
+
+    @Benchmark
+    public int write() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length);
+        createWriter().write(out, null, drawing, new BlackHoleWorkState<>());
+        return out.size();
+    }
+}
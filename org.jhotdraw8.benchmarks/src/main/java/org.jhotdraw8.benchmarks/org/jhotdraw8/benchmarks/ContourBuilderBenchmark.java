@@ -0,0 +1,62 @@
+/*
+ * @(#)ContourBuilderBenchmark.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.benchmarks;
+
+import org.jhotdraw8.geom.contour.ContourBuilder;
+import org.jhotdraw8.geom.contour.PolyArcPath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ContourBuilder#parallelOffset} on a closed star-shaped
+ * polyline. The star has concave corners, so that the raw offset
+ * polyline intersects itself, and has to be sliced and stitched.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContourBuilderBenchmark {
+    @Param({"16", "256", "4096"})
+    public int vertexCount;
+
+    @Param({"-4", "4"})
+    public double offset;
+
+    private PolyArcPath star;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        star = new PolyArcPath(vertexCount);
+        for (int i = 0; i < vertexCount; i++) {
+            double angle = 2 * Math.PI * i / vertexCount;
+            double radius = (i & 1) == 0 ? 100 : 60;
+            // Every fourth vertex gets a bulge, so that arc segments are covered as well.
+            double bulge = (i & 3) == 1 ? 0.25 : 0;
+            star.addVertex(radius * Math.cos(angle), radius * Math.sin(angle), bulge);
+        }
+        star.isClosed(true);
+    }
+
+    @Benchmark
+    public List<PolyArcPath> parallelOffset() {
+        return new ContourBuilder().parallelOffset(star, offset);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * @(#)DrawingModelBenchmark.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.benchmarks;
+
+import org.jhotdraw8.css.CssSize;
+import org.jhotdraw8.draw.figure.Drawing;
+import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.draw.figure.RectangleFigure;
+import org.jhotdraw8.draw.model.SimpleDrawingModel;
+import org.jhotdraw8.draw.render.SimpleRenderContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link SimpleDrawingModel#validate} after a fraction of the
+ * figures of a drawing has been changed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DrawingModelBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int figureCount;
+
+    /**
+     * The percentage of figures that are changed before each validation.
+     */
+    @Param({"1", "100"})
+    public int changedPercentage;
+
+    private SimpleDrawingModel model;
+    private List<Figure> changed;
+    private final SimpleRenderContext ctx = new SimpleRenderContext();
+    private double width;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Drawing drawing = SyntheticDrawings.createDrawing(figureCount);
+        model = new SimpleDrawingModel();
+        model.setDrawing(drawing);
+        drawing.updateAllCss(ctx);
+        drawing.layoutAll(ctx);
+        List<Figure> rectangles = SyntheticDrawings.getRectangles(drawing);
+        changed = rectangles.subList(0, Math.max(1, rectangles.size() * changedPercentage / 100));
+    }
+
+    @Benchmark
+    public Drawing validate() {
+        // Alternate the width, so that every invocation performs a change.
+        width = width == 10 ? 11 : 10;
+        CssSize w = CssSize.from(width);
+        for (Figure f : changed) {
+            model.set(f, RectangleFigure.WIDTH, w);
+        }
+        model.validate(ctx);
+        return model.getDrawing();
+    }
+}
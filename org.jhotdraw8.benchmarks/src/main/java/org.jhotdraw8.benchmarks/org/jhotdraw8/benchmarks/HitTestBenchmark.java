@@ -0,0 +1,181 @@
+/*
+ * @(#)HitTestBenchmark.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.benchmarks;
+
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import javafx.scene.Node;
+import javafx.scene.transform.Translate;
+import org.jhotdraw8.draw.DrawingView;
+import org.jhotdraw8.draw.SimpleDrawingEditor;
+import org.jhotdraw8.draw.figure.Drawing;
+import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.draw.model.SimpleDrawingModel;
+import org.jhotdraw8.draw.render.InteractiveDrawingRenderer;
+import org.jhotdraw8.draw.render.NodeFinder;
+import org.jhotdraw8.draw.render.SimpleRenderContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link InteractiveDrawingRenderer#findFigures}, which queries
+ * the spatial index of the renderer, and then tests the candidate nodes
+ * with a {@link NodeFinder}.
+ * <p>
+ * The renderer runs without a JavaFX application: repaints are performed
+ * synchronously, and the drawing view only provides the identity
+ * transform from view to world coordinates. A linear scan over the nodes
+ * of the renderer serves as a baseline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HitTestBenchmark {
+    private static final double TOLERANCE = 2.0;
+    private static final int POINT_COUNT = 1024;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int figureCount;
+
+    private final HeadlessRenderer renderer = new HeadlessRenderer();
+    private final NodeFinder nodeFinder = new NodeFinder();
+    private List<Figure> figures;
+    private Node[] nodes;
+    private Point2D[] points;
+    private int pointIndex;
+
+    /**
+     * Paints synchronously instead of on the JavaFX application thread.
+     * Like a drawing view, its render context provides the nodes of the
+     * renderer.
+     */
+    private static class HeadlessRenderer extends InteractiveDrawingRenderer {
+        private boolean repaintRequested;
+
+        HeadlessRenderer() {
+            setRenderContext(new SimpleRenderContext() {
+                @Override
+                public Node getNode(Figure figure) {
+                    return HeadlessRenderer.this.getNode(figure);
+                }
+            });
+        }
+
+        @Override
+        public void repaint() {
+            repaintRequested = true;
+        }
+
+        void paintAll() {
+            do {
+                repaintRequested = false;
+                paintImmediately();
+            } while (repaintRequested);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Drawing drawing = SyntheticDrawings.createDrawing(figureCount);
+        double size = SyntheticDrawings.getColumns(figureCount) * SyntheticDrawings.CELL_SIZE;
+
+        SimpleDrawingEditor editor = new SimpleDrawingEditor();
+        editor.setTolerance(TOLERANCE);
+        renderer.editorProperty().set(editor);
+        renderer.setDrawingView(createIdentityView());
+        renderer.setClipBounds(new BoundingBox(0, 0, size, size));
+        SimpleDrawingModel model = new SimpleDrawingModel();
+        model.setDrawing(drawing);
+        renderer.setModel(model);
+        renderer.paintAll();
+
+        figures = SyntheticDrawings.getRectangles(drawing);
+        nodes = new Node[figures.size()];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = renderer.getNode(figures.get(i));
+        }
+        Bounds b = figures.get(0).getLayoutBoundsInWorld();
+        if (renderer.findFigures(b.getCenterX(), b.getCenterY(), false, f -> true).isEmpty()) {
+            throw new IllegalStateException("The renderer does not find the figure at " + b + ".");
+        }
+
+        SplittableRandom random = new SplittableRandom(1);
+        points = new Point2D[POINT_COUNT];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new Point2D(random.nextDouble() * size, random.nextDouble() * size);
+        }
+    }
+
+    /**
+     * Creates a drawing view, that only supports
+     * {@link DrawingView#getViewToWorld()}, and returns the identity.
+     */
+    private static DrawingView createIdentityView() {
+        Translate identity = new Translate();
+        return (DrawingView) Proxy.newProxyInstance(DrawingView.class.getClassLoader(), new Class<?>[]{DrawingView.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "getViewToWorld":
+                        return identity;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    case "toString":
+                        return "IdentityView";
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private Point2D nextPoint() {
+        pointIndex = (pointIndex + 1) & (POINT_COUNT - 1);
+        return points[pointIndex];
+    }
+
+    @Benchmark
+    public List<Map.Entry<Figure, Double>> findFigures() {
+        Point2D p = nextPoint();
+        return renderer.findFigures(p.getX(), p.getY(), false, f -> true);
+    }
+
+    @Benchmark
+    public List<Figure> findFiguresLinear() {
+        Point2D p = nextPoint();
+        List<Figure> found = new ArrayList<>();
+        for (int i = 0, n = nodes.length; i < n; i++) {
+            Figure f = figures.get(i);
+            Bounds b = f.getLayoutBoundsInWorld();
+            if (b.getMinX() - TOLERANCE <= p.getX() && p.getX() <= b.getMaxX() + TOLERANCE
+                    && b.getMinY() - TOLERANCE <= p.getY() && p.getY() <= b.getMaxY() + TOLERANCE
+                    && nodeFinder.contains(nodes[i], p, TOLERANCE) != null) {
+                found.add(f);
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * @(#)IntersectionBenchmark.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.benchmarks;
+
+import org.jhotdraw8.geom.Geom;
+import org.jhotdraw8.geom.intersect.IntersectCubicCurveCubicCurve;
+import org.jhotdraw8.geom.intersect.IntersectCubicCurveLine;
+import org.jhotdraw8.geom.intersect.IntersectLineLine;
+import org.jhotdraw8.geom.intersect.IntersectQuadCurveQuadCurve;
+import org.jhotdraw8.geom.intersect.IntersectionResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the intersection routines for lines and Bézier curves.
+ * <p>
+ * Each invocation intersects the next pair of curves from a fixed set of
+ * random curves, so that the branch predictor cannot learn the results.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IntersectionBenchmark {
+    private static final int CURVE_COUNT = 1024;
+    /**
+     * Each curve has 4 control points with x and y coordinates.
+     */
+    private static final int STRIDE = 8;
+
+    private double[] c;
+    private int index;
+    private final double[] scratch = new double[IntersectCubicCurveCubicCurve.SCRATCH_LENGTH];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(1);
+        c = new double[CURVE_COUNT * STRIDE];
+        for (int i = 0; i < c.length; i++) {
+            c[i] = random.nextDouble() * 100;
+        }
+    }
+
+    /**
+     * Returns the offset of the first curve of the next pair.
+     */
+    private int next() {
+        index = (index + 1) & (CURVE_COUNT - 1);
+        return index * STRIDE;
+    }
+
+    private int other(int i) {
+        return (i + CURVE_COUNT / 2 * STRIDE) % c.length;
+    }
+
+    @Benchmark
+    public IntersectionResult lineLine() {
+        int a = next(), b = other(a);
+        return IntersectLineLine.intersectLineLine(c[a], c[a + 1], c[a + 2], c[a + 3],
+                c[b], c[b + 1], c[b + 2], c[b + 3]);
+    }
+
+    @Benchmark
+    public IntersectionResult quadCurveQuadCurve() {
+        int a = next(), b = other(a);
+        return IntersectQuadCurveQuadCurve.intersectQuadCurveQuadCurve(c[a], c[a + 1], c[a + 2], c[a + 3], c[a + 4], c[a + 5],
+                c[b], c[b + 1], c[b + 2], c[b + 3], c[b + 4], c[b + 5], Geom.REAL_THRESHOLD);
+    }
+
+    @Benchmark
+    public IntersectionResult cubicCurveLine() {
+        int a = next(), b = other(a);
+        return IntersectCubicCurveLine.intersectCubicCurveLine(c[a], c[a + 1], c[a + 2], c[a + 3], c[a + 4], c[a + 5], c[a + 6], c[a + 7],
+                c[b], c[b + 1], c[b + 2], c[b + 3], Geom.REAL_THRESHOLD);
+    }
+
+    @Benchmark
+    public IntersectionResult cubicCurveCubicCurve() {
+        int a = next(), b = other(a);
+        return IntersectCubicCurveCubicCurve.intersectCubicCurveCubicCurve(c[a], c[a + 1], c[a + 2], c[a + 3], c[a + 4], c[a + 5], c[a + 6], c[a + 7],
+                c[b], c[b + 1], c[b + 2], c[b + 3], c[b + 4], c[b + 5], c[b + 6], c[b + 7], Geom.REAL_THRESHOLD, scratch);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * @(#)PersistentTrieBenchmark.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.benchmarks;
+
+import org.jhotdraw8.collection.PersistentTrieMap;
+import org.jhotdraw8.collection.PersistentTrieSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the basic operations of {@link PersistentTrieMap} and
+ * {@link PersistentTrieSet}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistentTrieBenchmark {
+    private static final int KEY_COUNT = 1024;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    private PersistentTrieMap<Integer, Integer> map;
+    private PersistentTrieSet<Integer> set;
+    private List<Integer> elements;
+    /**
+     * Keys that are in the collections.
+     */
+    private Integer[] present;
+    /**
+     * Keys that are not in the collections.
+     */
+    private Integer[] absent;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(1);
+        elements = new ArrayList<>(size);
+        PersistentTrieMap<Integer, Integer> m = PersistentTrieMap.of();
+        for (int i = 0; i < size; i++) {
+            Integer key = random.nextInt();
+            elements.add(key);
+            m = m.copyPut(key, i);
+        }
+        map = m;
+        set = PersistentTrieSet.copyOf(elements);
+
+        present = new Integer[KEY_COUNT];
+        absent = new Integer[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            present[i] = elements.get(random.nextInt(size));
+            Integer key;
+            do {
+                key = random.nextInt();
+            } while (set.contains(key));
+            absent[i] = key;
+        }
+    }
+
+    private int next() {
+        index = (index + 1) & (KEY_COUNT - 1);
+        return index;
+    }
+
+    @Benchmark
+    public Integer mapGet() {
+        return map.get(present[next()]);
+    }
+
+    @Benchmark
+    public PersistentTrieMap<Integer, Integer> mapCopyPut() {
+        return map.copyPut(absent[next()], 0);
+    }
+
+    @Benchmark
+    public PersistentTrieMap<Integer, Integer> mapCopyRemove() {
+        return map.copyRemove(present[next()]);
+    }
+
+    @Benchmark
+    public boolean setContains() {
+        return set.contains(present[next()]);
+    }
+
+    @Benchmark
+    public PersistentTrieSet<Integer> setCopyAdd() {
+        return set.copyAdd(absent[next()]);
+    }
+
+    @Benchmark
+    public PersistentTrieSet<Integer> setCopyRemove() {
+        return set.copyRemove(present[next()]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int setIterate() {
+        int sum = 0;
+        for (Iterator<Integer> i = set.iterator(); i.hasNext(); ) {
+            sum += i.next();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public PersistentTrieSet<Integer> setCopyOf() {
+        return PersistentTrieSet.copyOf(elements);
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * @(#)StylesheetsBenchmark.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.benchmarks;
+
+import javafx.css.StyleOrigin;
+import org.jhotdraw8.css.SimpleStylesheetsManager;
+import org.jhotdraw8.draw.css.FigureSelectorModel;
+import org.jhotdraw8.draw.figure.Drawing;
+import org.jhotdraw8.draw.figure.Figure;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link SimpleStylesheetsManager#applyStylesheetsTo(Iterable)}
+ * on all figures of a drawing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StylesheetsBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int figureCount;
+
+    /**
+     * Whether stylesheets are applied on the style pool or on the
+     * calling thread.
+     */
+    @Param({"true", "false"})
+    public boolean parallel;
+
+    private SimpleStylesheetsManager<Figure> manager;
+    private List<Figure> figures;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Drawing drawing = SyntheticDrawings.createDrawing(figureCount);
+        manager = new SimpleStylesheetsManager<>(new FigureSelectorModel());
+        manager.addStylesheet(StyleOrigin.INLINE, SyntheticDrawings.STYLESHEET, null);
+        if (!parallel) {
+            manager.setStylePool(null);
+        }
+        figures = new ArrayList<>();
+        drawing.preorderIterable().forEach(figures::add);
+    }
+
+    @Benchmark
+    public SimpleStylesheetsManager<Figure> applyStylesheetsTo() {
+        manager.applyStylesheetsTo(figures);
+        return manager;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * @(#)SyntheticDrawings.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.benchmarks;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.collection.ImmutableLists;
+import org.jhotdraw8.collection.ImmutableSets;
+import org.jhotdraw8.draw.figure.Drawing;
+import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.draw.figure.GroupFigure;
+import org.jhotdraw8.draw.figure.LayerFigure;
+import org.jhotdraw8.draw.figure.RectangleFigure;
+import org.jhotdraw8.draw.figure.SimpleLayeredDrawing;
+import org.jhotdraw8.draw.figure.StyleableFigure;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Creates synthetic drawings for benchmarks.
+ * <p>
+ * A synthetic drawing consists of a single layer, which contains groups
+ * of {@value #GROUP_SIZE} rectangles. The rectangles are laid out on
+ * a square grid, so that the density of the drawing does not depend on
+ * the number of figures. Each rectangle has one of
+ * {@value #STYLE_CLASS_COUNT} style classes.
+ * <p>
+ * The drawings are created with a fixed random seed, so that each benchmark
+ * run uses the same drawing.
+ */
+public class SyntheticDrawings {
+    /**
+     * The number of rectangles per group.
+     */
+    public static final int GROUP_SIZE = 100;
+    /**
+     * The number of distinct style classes.
+     */
+    public static final int STYLE_CLASS_COUNT = 10;
+    /**
+     * The size of a grid cell.
+     */
+    public static final double CELL_SIZE = 20;
+
+    private static final long SEED = 0x5eed;
+
+    /**
+     * The stylesheet of the synthetic drawings.
+     */
+    public static final @NonNull String STYLESHEET = createStylesheet();
+
+    private SyntheticDrawings() {
+    }
+
+    private static @NonNull String createStylesheet() {
+        StringBuilder buf = new StringBuilder();
+        buf.append("Rectangle { stroke: black; stroke-width: 1; }\n");
+        for (int i = 0; i < STYLE_CLASS_COUNT; i++) {
+            buf.append(".c").append(i).append(" { fill: rgb(")
+                    .append(i * 25).append(',').append(255 - i * 25).append(",128); }\n");
+        }
+        buf.append("Group > .c0 { stroke-width: 2; }\n");
+        buf.append(".c1 + .c2 { stroke-dasharray: 2 2; }\n");
+        return buf.toString();
+    }
+
+    /**
+     * Returns the number of grid cells along one side of the drawing.
+     *
+     * @param figureCount the number of figures
+     * @return the number of columns
+     */
+    public static int getColumns(int figureCount) {
+        return (int) Math.ceil(Math.sqrt(figureCount));
+    }
+
+    /**
+     * Creates a synthetic drawing.
+     *
+     * @param figureCount the number of rectangles
+     * @return the drawing
+     */
+    public static @NonNull Drawing createDrawing(int figureCount) {
+        int columns = getColumns(figureCount);
+        SimpleLayeredDrawing drawing = new SimpleLayeredDrawing(columns * CELL_SIZE, columns * CELL_SIZE);
+        drawing.set(Drawing.INLINE_STYLESHEETS, ImmutableLists.of(STYLESHEET));
+        LayerFigure layer = new LayerFigure();
+        drawing.getChildren().add(layer);
+
+        SplittableRandom random = new SplittableRandom(SEED);
+        GroupFigure group = null;
+        for (int i = 0; i < figureCount; i++) {
+            if (i % GROUP_SIZE == 0) {
+                group = new GroupFigure();
+                layer.getChildren().add(group);
+            }
+            double x = (i % columns) * CELL_SIZE;
+            double y = (i / columns) * CELL_SIZE;
+            double size = CELL_SIZE * (0.25 + 0.75 * random.nextDouble());
+            RectangleFigure r = new RectangleFigure(x, y, size, size);
+            r.set(StyleableFigure.STYLE_CLASS, ImmutableSets.of("c" + random.nextInt(STYLE_CLASS_COUNT)));
+            group.getChildren().add(r);
+        }
+        return drawing;
+    }
+
+    /**
+     * Returns all rectangles of a synthetic drawing.
+     *
+     * @param drawing a synthetic drawing
+     * @return the rectangles
+     */
+    public static @NonNull List<Figure> getRectangles(@NonNull Drawing drawing) {
+        List<Figure> list = new ArrayList<>();
+        for (Figure f : drawing.preorderIterable()) {
+            if (f instanceof RectangleFigure) {
+                list.add(f);
+            }
+        }
+        return list;
+    }
+}
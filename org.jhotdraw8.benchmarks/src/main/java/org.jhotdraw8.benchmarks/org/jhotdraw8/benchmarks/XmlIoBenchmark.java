@@ -0,0 +1,84 @@
+/*
+ * @(#)XmlIoBenchmark.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.benchmarks;
+
+import org.jhotdraw8.concurrent.BlackHoleWorkState;
+import org.jhotdraw8.draw.figure.Drawing;
+import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.draw.io.DefaultFigureFactory;
+import org.jhotdraw8.draw.io.FigureFactory;
+import org.jhotdraw8.draw.io.SimpleFigureIdFactory;
+import org.jhotdraw8.draw.io.SimpleXmlStaxReader;
+import org.jhotdraw8.draw.io.SimpleXmlWriter;
+import org.jhotdraw8.io.IdFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link SimpleXmlStaxReader#read} and {@link SimpleXmlWriter#write}
+ * with in-memory streams.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XmlIoBenchmark {
+    private static final String NAMESPACE_URI = "http://jhotdraw.org/benchmarks";
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int figureCount;
+
+    private Drawing drawing;
+    private byte[] xml;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        drawing = SyntheticDrawings.createDrawing(figureCount);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        createWriter().write(out, null, drawing, new BlackHoleWorkState<>());
+        xml = out.toByteArray();
+    }
+
+    private static SimpleXmlWriter createWriter() {
+        IdFactory idFactory = new SimpleFigureIdFactory();
+        FigureFactory factory = new DefaultFigureFactory(idFactory);
+        return new SimpleXmlWriter(factory, idFactory, NAMESPACE_URI, null);
+    }
+
+    private static SimpleXmlStaxReader createReader() {
+        IdFactory idFactory = new SimpleFigureIdFactory();
+        FigureFactory factory = new DefaultFigureFactory(idFactory);
+        return new SimpleXmlStaxReader(factory, idFactory, NAMESPACE_URI);
+    }
+
+    @Benchmark
+    public Figure read() throws IOException {
+        return createReader().read(new ByteArrayInputStream(xml), null, null, new BlackHoleWorkState<>());
+    }
+
+    @Benchmark
+    public int write() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(xml.length);
+        createWriter().write(out, null, drawing, new BlackHoleWorkState<>());
+        return out.size();
+    }
+}
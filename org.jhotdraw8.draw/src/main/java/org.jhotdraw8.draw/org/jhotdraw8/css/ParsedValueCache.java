@@ -0,0 +1,202 @@
+/*
+ * @(#)ParsedValueCache.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.css;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.annotation.Nullable;
+import org.jhotdraw8.collection.ReadOnlyList;
+import org.jhotdraw8.text.Converter;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caches values that have been parsed from CSS tokens.
+ * <p>
+ * A stylesheet typically applies the same declaration value to many
+ * elements. This cache ensures that each distinct declaration value
+ * is only parsed once per converter.
+ * <p>
+ * The cache is keyed by the identity of the converter and by the type and
+ * value of the tokens. The position of the tokens in the source
+ * is ignored. The converter must be stateless, so that it always produces
+ * the same value for the same tokens.
+ * <p>
+ * The cache has a bounded size. When the cache is full, it is cleared.
+ * <p>
+ * This class is thread-safe.
+ */
+public class ParsedValueCache {
+    /**
+     * The default maximal number of cached values.
+     */
+    public static final int DEFAULT_MAX_SIZE = 8192;
+    /**
+     * Represents a null value in the cache.
+     */
+    private static final @NonNull Object NULL_VALUE = new Object();
+
+    private final int maxSize;
+    private final @NonNull ConcurrentHashMap<Key, Object> map = new ConcurrentHashMap<>();
+    private final @NonNull LongAdder hitCount = new LongAdder();
+    private final @NonNull LongAdder missCount = new LongAdder();
+
+    /**
+     * Creates a new instance with {@link #DEFAULT_MAX_SIZE}.
+     */
+    public ParsedValueCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param maxSize the maximal number of cached values
+     */
+    public ParsedValueCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize (" + maxSize + ") must be greater than 0");
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Parses a value.
+     */
+    @FunctionalInterface
+    public interface ParseFunction {
+        /**
+         * Parses the specified tokens with the specified converter.
+         *
+         * @param converter the converter
+         * @param tokens    the tokens
+         * @return the parsed value
+         * @throws ParseException on parse failure
+         * @throws IOException    on IO failure
+         */
+        @Nullable Object parse(@NonNull Converter<?> converter, @NonNull ReadOnlyList<CssToken> tokens) throws ParseException, IOException;
+    }
+
+    /**
+     * Returns the cached value for the specified converter and tokens.
+     * If the value is not in the cache, then it is parsed with
+     * the specified function and put into the cache.
+     * <p>
+     * Values that could not be parsed are not cached.
+     *
+     * @param converter the converter
+     * @param tokens    the tokens
+     * @param function  the parse function
+     * @return the parsed value
+     * @throws ParseException on parse failure
+     * @throws IOException    on IO failure
+     */
+    public @Nullable Object computeIfAbsent(@NonNull Converter<?> converter, @NonNull ReadOnlyList<CssToken> tokens,
+                                            @NonNull ParseFunction function) throws ParseException, IOException {
+        Key key = new Key(converter, tokens);
+        Object value = map.get(key);
+        if (value != null) {
+            hitCount.increment();
+            return value == NULL_VALUE ? null : value;
+        }
+        missCount.increment();
+        value = function.parse(converter, tokens);
+        if (map.size() >= maxSize) {
+            map.clear();
+        }
+        map.putIfAbsent(key, value == null ? NULL_VALUE : value);
+        return value;
+    }
+
+    /**
+     * Removes all values from the cache, and resets the counters.
+     */
+    public void clear() {
+        map.clear();
+        hitCount.reset();
+        missCount.reset();
+    }
+
+    /**
+     * Returns the number of cached values.
+     *
+     * @return the number of cached values
+     */
+    public int size() {
+        return map.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the number of times that a value was found in the cache.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Returns the number of times that a value had to be parsed.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    private static class Key {
+        private final @NonNull Converter<?> converter;
+        private final @NonNull ReadOnlyList<CssToken> tokens;
+        private final int hash;
+
+        private Key(@NonNull Converter<?> converter, @NonNull ReadOnlyList<CssToken> tokens) {
+            this.converter = converter;
+            this.tokens = tokens;
+            int h = System.identityHashCode(converter);
+            for (CssToken t : tokens) {
+                h = 31 * h + t.getType();
+                h = 31 * h + Objects.hashCode(t.getStringValue());
+                h = 31 * h + Objects.hashCode(t.getNumericValue());
+            }
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key that = (Key) o;
+            if (hash != that.hash || converter != that.converter || tokens.size() != that.tokens.size()) {
+                return false;
+            }
+            for (int i = 0, n = tokens.size(); i < n; i++) {
+                CssToken a = tokens.get(i);
+                CssToken b = that.tokens.get(i);
+                if (a.getType() != b.getType()
+                        || !Objects.equals(a.getStringValue(), b.getStringValue())
+                        || !Objects.equals(a.getNumericValue(), b.getNumericValue())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -8,13 +8,13 @@ import javafx.css.StyleOrigin;
 import org.jhotdraw8.annotation.NonNull;
 import org.jhotdraw8.annotation.Nullable;
 import org.jhotdraw8.collection.ImmutableList;
-import org.jhotdraw8.collection.OrderedPair;
 import org.jhotdraw8.collection.ReadOnlyList;
+import org.jhotdraw8.concurrent.BlackHoleWorkState;
+import org.jhotdraw8.concurrent.WorkState;
 import org.jhotdraw8.css.ast.Declaration;
 import org.jhotdraw8.css.ast.Selector;
 import org.jhotdraw8.css.ast.StyleRule;
 import org.jhotdraw8.css.ast.Stylesheet;
-import org.jhotdraw8.css.ast.TypeSelector;
 import org.jhotdraw8.css.function.CssFunction;
 import org.jhotdraw8.io.SimpleUriResolver;
 import org.jhotdraw8.io.UriResolver;
@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.net.URI;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -30,16 +31,19 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
 /**
  * SimpleStylesheetsManager.
@@ -68,10 +72,21 @@ public class SimpleStylesheetsManager<E> implements StylesheetsManager<E> {
      * @see #userAgentList
      */
     private @NonNull LinkedHashMap<Object, StylesheetEntry> inlineList = new LinkedHashMap<>();
-    private final @NonNull Executor executor = Executors.newCachedThreadPool();
+    /**
+     * The default number of elements per chunk.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 64;
+    /**
+     * Executor for loading and parsing stylesheets. Shared by all instances.
+     */
+    private static final @NonNull Executor executor = createLoaderExecutor();
+    private @Nullable ForkJoinPool stylePool = DefaultStylePoolHolder.POOL;
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private final @NonNull StyleMetrics metrics = new StyleMetrics();
     private @Nullable Map<String, ImmutableList<CssToken>> cachedAuthorCustomProperties;
     private @Nullable Map<String, ImmutableList<CssToken>> cachedInlineCustomProperties;
     private @Nullable Map<String, ImmutableList<CssToken>> cachedUserAgentCustomProperties;
+    private @Nullable StyleDependencies cachedStyleDependencies;
 
     private @NonNull BiConsumer<String, Throwable> logger = (s, t) -> {
     };
@@ -101,6 +116,85 @@ public class SimpleStylesheetsManager<E> implements StylesheetsManager<E> {
         }
     }
 
+    private static @NonNull Executor createLoaderExecutor() {
+        ThreadPoolExecutor e = new ThreadPoolExecutor(2, 2, 1, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "SimpleStylesheetsManager-loader");
+            t.setDaemon(true);
+            return t;
+        });
+        e.allowCoreThreadTimeOut(true);
+        return e;
+    }
+
+    /**
+     * Lazily creates the default style pool.
+     */
+    private static class DefaultStylePoolHolder {
+        private static final @NonNull ForkJoinPool POOL = new ForkJoinPool(
+                Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+                pool -> {
+                    ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    t.setName("SimpleStylesheetsManager-style-" + t.getPoolIndex());
+                    return t;
+                }, null, false);
+    }
+
+    /**
+     * Returns the pool on which stylesheets are applied to elements.
+     *
+     * @return the style pool, null if stylesheets are applied on the
+     * calling thread
+     */
+    public @Nullable ForkJoinPool getStylePool() {
+        return stylePool;
+    }
+
+    /**
+     * Sets the pool on which stylesheets are applied to elements.
+     * <p>
+     * Per default, this class uses a pool that is shared by all instances
+     * of this class, and that is separate from the common pool.
+     *
+     * @param stylePool the style pool, null applies the stylesheets on the
+     *                  calling thread
+     */
+    public void setStylePool(@Nullable ForkJoinPool stylePool) {
+        this.stylePool = stylePool;
+    }
+
+    /**
+     * Returns the maximal number of consecutive elements that are styled
+     * by a single task.
+     *
+     * @return the chunk size
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Sets the maximal number of consecutive elements that are styled
+     * by a single task.
+     *
+     * @param chunkSize the chunk size, must be greater than 0
+     */
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize (" + chunkSize + ") must be greater than 0");
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Returns the metrics of this style manager.
+     *
+     * @return the metrics
+     */
+    public @NonNull StyleMetrics getMetrics() {
+        return metrics;
+    }
+
     public void setSelectorModel(@NonNull SelectorModel<E> newValue) {
         selectorModel = newValue;
     }
@@ -158,7 +252,8 @@ public class SimpleStylesheetsManager<E> implements StylesheetsManager<E> {
         cachedAuthorCustomProperties = null;
         cachedInlineCustomProperties = null;
         cachedUserAgentCustomProperties = null;
-        candidateRules.clear();
+        cachedStyleDependencies = null;
+        ruleIndices.clear();
     }
 
     @Override
@@ -170,6 +265,7 @@ public class SimpleStylesheetsManager<E> implements StylesheetsManager<E> {
             invalidate();
         } else {
             getMap(origin).clear();
+            invalidate();
         }
     }
 
@@ -250,83 +346,171 @@ public class SimpleStylesheetsManager<E> implements StylesheetsManager<E> {
 
     @Override
     public void applyStylesheetsTo(@NonNull Iterable<E> iterable) {
+        applyStylesheetsTo(iterable, new BlackHoleWorkState<>());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The elements are styled in parallel on the {@link #getStylePool() style pool}.
+     * The elements are split up into chunks of consecutive elements.
+     * If the elements are given in preorder, then a chunk contains
+     * figures that are close together in the tree, and that are thus likely
+     * to match the same style rules.
+     */
+    @Override
+    public void applyStylesheetsTo(@NonNull Iterable<E> iterable, @NonNull WorkState<?> workState) {
         SelectorModel<E> selectorModel = getSelectorModel();
 
         // Compute custom properties
         Map<String, ImmutableList<CssToken>> customProperties = computeCustomProperties();
         final CssFunctionProcessor<E> functionProcessor = functions.isEmpty() ? null : createCssFunctionProcessor(selectorModel, customProperties);
 
-        StreamSupport.stream(iterable.spliterator(), false).collect(Collectors.toList())
-                .stream()
-                .parallel()
-                .forEach(elem -> {
-                    // Clear stylesheet values
-                    selectorModel.reset(elem);
-
-                    // The stylesheet is a user-agent stylesheet
-                    for (ApplicableDeclaration entry : collectApplicableDeclarations(elem, getUserAgentStylesheets())) {
-                        try {
-                            Declaration d = entry.getDeclaration();
-                            doSetAttribute(selectorModel, elem, StyleOrigin.USER_AGENT, d.getNamespace(), d.getPropertyName(), d.getTerms(), customProperties, functionProcessor);
-                        } catch (ParseException e) {
-                            logger.accept("applyStylesheetsTo", e);
-                        }
-                    }
+        List<E> list = new ArrayList<>();
+        iterable.forEach(list::add);
+        long start = System.nanoTime();
+        ForkJoinPool pool = stylePool;
+        ApplyTask task = new ApplyTask(list, 0, list.size(), pool, selectorModel, customProperties, functionProcessor, workState);
+        if (pool == null || list.size() <= chunkSize) {
+            task.compute();
+        } else {
+            pool.invoke(task);
+        }
+        metrics.addElements(task.count, System.nanoTime() - start);
+    }
+
+    /**
+     * Applies the stylesheets to a range of elements.
+     * Splits the range in halves until it is not larger than the chunk size.
+     */
+    private class ApplyTask extends RecursiveAction {
+        private final static long serialVersionUID = 0L;
+        private final @NonNull List<E> list;
+        private final int from;
+        private final int to;
+        private final @Nullable ForkJoinPool pool;
+        private final @NonNull SelectorModel<E> selectorModel;
+        private final @NonNull Map<String, ImmutableList<CssToken>> customProperties;
+        private final @Nullable CssFunctionProcessor<E> functionProcessor;
+        private final @NonNull WorkState<?> workState;
+        /**
+         * The number of styled elements.
+         */
+        private int count;
+
+        private ApplyTask(@NonNull List<E> list, int from, int to, @Nullable ForkJoinPool pool, @NonNull SelectorModel<E> selectorModel,
+                          @NonNull Map<String, ImmutableList<CssToken>> customProperties,
+                          @Nullable CssFunctionProcessor<E> functionProcessor, @NonNull WorkState<?> workState) {
+            this.list = list;
+            this.from = from;
+            this.to = to;
+            this.pool = pool;
+            this.selectorModel = selectorModel;
+            this.customProperties = customProperties;
+            this.functionProcessor = functionProcessor;
+            this.workState = workState;
+        }
 
-                    // The value of a property was set by the user through a call to a set method with StyleOrigin.USER
-                    // ... nothing to do!
+        @Override
+        protected void compute() {
+            if (workState.isCancelled()) {
+                return;
+            }
+            if (to - from > chunkSize && pool != null && getPool() == pool) {
+                int mid = (from + to) >>> 1;
+                ApplyTask left = new ApplyTask(list, from, mid, pool, selectorModel, customProperties, functionProcessor, workState);
+                ApplyTask right = new ApplyTask(list, mid, to, pool, selectorModel, customProperties, functionProcessor, workState);
+                invokeAll(left, right);
+                count = left.count + right.count;
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                if (workState.isCancelled()) {
+                    return;
+                }
+                applyStylesheetsTo(list.get(i), selectorModel, customProperties, functionProcessor);
+                count++;
+            }
+        }
+    }
 
-                    // The stylesheet is an external file
-                    for (ApplicableDeclaration entry : collectApplicableDeclarations(elem, getAuthorStylesheets())) {
-                        try {
-                            Declaration d = entry.getDeclaration();
-                            doSetAttribute(selectorModel, elem, StyleOrigin.AUTHOR, d.getNamespace(), d.getPropertyName(), d.getTerms(), customProperties, functionProcessor);
-                        } catch (ParseException e) {
-                            logger.accept("applyStylesheetsTo", e);
-                        }
-                    }
+    private void applyStylesheetsTo(@NonNull E elem, @NonNull SelectorModel<E> selectorModel,
+                                    @NonNull Map<String, ImmutableList<CssToken>> customProperties,
+                                    @Nullable CssFunctionProcessor<E> functionProcessor) {
+        // Clear stylesheet values
+        selectorModel.reset(elem);
 
-                    // The stylesheet is an internal file
-                    for (ApplicableDeclaration entry : collectApplicableDeclarations(elem, getInlineStylesheets())) {
-                        try {
-                            Declaration d = entry.getDeclaration();
-                            doSetAttribute(selectorModel, elem, StyleOrigin.INLINE, d.getNamespace(), d.getPropertyName(), d.getTerms(), customProperties, functionProcessor);
-                        } catch (ParseException e) {
-                            logger.accept("applyStylesheetsTo", e);
-                        }
-                    }
+        // The stylesheet is a user-agent stylesheet
+        long start = System.nanoTime();
+        for (ApplicableDeclaration entry : collectApplicableDeclarations(elem, getUserAgentStylesheets())) {
+            try {
+                Declaration d = entry.getDeclaration();
+                doSetAttribute(selectorModel, elem, StyleOrigin.USER_AGENT, d.getNamespace(), d.getPropertyName(), d.getTerms(), customProperties, functionProcessor);
+            } catch (ParseException e) {
+                logger.accept("applyStylesheetsTo", e);
+            }
+        }
+        long end = System.nanoTime();
+        metrics.addOriginNanos(StyleOrigin.USER_AGENT, end - start);
+        start = end;
 
-                    // 'inline style attributes' can override all other values
-                    CssParser parser = parserFactory.get();
-                    if (selectorModel.hasAttribute(elem, null, "style")) {
-                        Map<QualifiedName, ImmutableList<CssToken>> inlineDeclarations = new HashMap<>();
-                        String styleValue = selectorModel.getAttributeAsString(elem, null, "style");
-                        if (styleValue != null) {
-                            try {
-                                for (Declaration d : parser.parseDeclarationList(styleValue)) {
-                                    // Declarations without terms are ignored
-                                    if (d.getTerms().isEmpty()) {
-                                        continue;
-                                    }
-
-                                    inlineDeclarations.put(new QualifiedName(d.getNamespace(), d.getPropertyName()), d.getTerms());
-                                }
-                            } catch (IOException ex) {
-                                logger.accept("invalid style attribute on element. style=" + styleValue, null);
-                                ex.printStackTrace();
-                            }
-                        }
-                        Map<String, ImmutableList<CssToken>> inlineStyleAttrCustomProperties = Collections.emptyMap();
-                        for (Map.Entry<QualifiedName, ImmutableList<CssToken>> entry : inlineDeclarations.entrySet()) {
-                            try {
-                                doSetAttribute(selectorModel, elem, StyleOrigin.INLINE, entry.getKey().getNamespace(), entry.getKey().getName(), entry.getValue(), inlineStyleAttrCustomProperties, functionProcessor);
-                            } catch (ParseException e) {
-                                logger.accept("error applying inline style attribute. style=" + styleValue, e);
-                            }
+        // The value of a property was set by the user through a call to a set method with StyleOrigin.USER
+        // ... nothing to do!
+
+        // The stylesheet is an external file
+        for (ApplicableDeclaration entry : collectApplicableDeclarations(elem, getAuthorStylesheets())) {
+            try {
+                Declaration d = entry.getDeclaration();
+                doSetAttribute(selectorModel, elem, StyleOrigin.AUTHOR, d.getNamespace(), d.getPropertyName(), d.getTerms(), customProperties, functionProcessor);
+            } catch (ParseException e) {
+                logger.accept("applyStylesheetsTo", e);
+            }
+        }
+        end = System.nanoTime();
+        metrics.addOriginNanos(StyleOrigin.AUTHOR, end - start);
+        start = end;
+
+        // The stylesheet is an internal file
+        for (ApplicableDeclaration entry : collectApplicableDeclarations(elem, getInlineStylesheets())) {
+            try {
+                Declaration d = entry.getDeclaration();
+                doSetAttribute(selectorModel, elem, StyleOrigin.INLINE, d.getNamespace(), d.getPropertyName(), d.getTerms(), customProperties, functionProcessor);
+            } catch (ParseException e) {
+                logger.accept("applyStylesheetsTo", e);
+            }
+        }
+
+        // 'inline style attributes' can override all other values
+        CssParser parser = parserFactory.get();
+        if (selectorModel.hasAttribute(elem, null, "style")) {
+            Map<QualifiedName, ImmutableList<CssToken>> inlineDeclarations = new HashMap<>();
+            String styleValue = selectorModel.getAttributeAsString(elem, null, "style");
+            if (styleValue != null) {
+                try {
+                    for (Declaration d : parser.parseDeclarationList(styleValue)) {
+                        // Declarations without terms are ignored
+                        if (d.getTerms().isEmpty()) {
+                            continue;
                         }
-                        inlineDeclarations.clear();
+
+                        inlineDeclarations.put(new QualifiedName(d.getNamespace(), d.getPropertyName()), d.getTerms());
                     }
-                });
+                } catch (IOException ex) {
+                    logger.accept("invalid style attribute on element. style=" + styleValue, null);
+                    ex.printStackTrace();
+                }
+            }
+            Map<String, ImmutableList<CssToken>> inlineStyleAttrCustomProperties = Collections.emptyMap();
+            for (Map.Entry<QualifiedName, ImmutableList<CssToken>> entry : inlineDeclarations.entrySet()) {
+                try {
+                    doSetAttribute(selectorModel, elem, StyleOrigin.INLINE, entry.getKey().getNamespace(), entry.getKey().getName(), entry.getValue(), inlineStyleAttrCustomProperties, functionProcessor);
+                } catch (ParseException e) {
+                    logger.accept("error applying inline style attribute. style=" + styleValue, e);
+                }
+            }
+            inlineDeclarations.clear();
+        }
+        metrics.addOriginNanos(StyleOrigin.INLINE, System.nanoTime() - start);
     }
 
     private @NonNull Map<String, ImmutableList<CssToken>> computeCustomProperties() {
@@ -402,27 +586,16 @@ public class SimpleStylesheetsManager<E> implements StylesheetsManager<E> {
         }
     }
 
-    private final @NonNull ConcurrentHashMap<OrderedPair<Stylesheet, QualifiedName>, List<StyleRule>>
-            candidateRules = new ConcurrentHashMap<>();
-
-    private Iterable<StyleRule> getCandidateStyleRules(@NonNull Stylesheet s, @NonNull E elem) {
-        QualifiedName qualifiedTypeName = getSelectorModel().getType(elem);
-        String typeName = qualifiedTypeName.getName();
-        OrderedPair<Stylesheet, QualifiedName> key = new OrderedPair<>(s, qualifiedTypeName);
-        return candidateRules.computeIfAbsent(key, k -> {
-            List<StyleRule> candidates = new ArrayList<>();
-            for (StyleRule styleRule : s.getStyleRules()) {
-                TypeSelector typeSelector = styleRule.getSelectorGroup().matchesOnlyOnASpecificType();
-                String candidateTypeName = typeSelector == null || !Objects.equals(typeSelector.getNamespacePattern(), SelectorModel.ANY_NAMESPACE)
-                        ? null
-                        : typeSelector.getType();
-                if (candidateTypeName == null || candidateTypeName.equals(typeName)) {
-                    candidates.add(styleRule);
-                }
-            }
-            return candidates;
-        });
+    /**
+     * Cache for style rule indices. We use the indices for quickly
+     * finding the style rules that may match an element.
+     */
+    private final @NonNull ConcurrentHashMap<Stylesheet, StyleRuleIndex>
+            ruleIndices = new ConcurrentHashMap<>();
 
+    private @NonNull Iterable<StyleRule> getCandidateStyleRules(@NonNull Stylesheet s, @NonNull E elem) {
+        return ruleIndices.computeIfAbsent(s, StyleRuleIndex::new)
+                .getCandidates(getSelectorModel(), elem);
     }
 
     private @NonNull List<ApplicableDeclaration> collectApplicableDeclarations(
@@ -630,6 +803,29 @@ public class SimpleStylesheetsManager<E> implements StylesheetsManager<E> {
         }
     }
 
+    @Override
+    public @NonNull StyleDependencies getStyleDependencies() {
+        StyleDependencies dependencies = cachedStyleDependencies;
+        if (dependencies == null) {
+            List<Stylesheet> stylesheets = new ArrayList<>();
+            for (LinkedHashMap<Object, StylesheetEntry> map : Arrays.asList(userAgentList, authorList, inlineList)) {
+                for (StylesheetEntry e : map.values()) {
+                    Stylesheet s = e.getStylesheet();
+                    if (s == null && e.future != null) {
+                        // The stylesheet is still being loaded.
+                        return StyleDependencies.ALL;
+                    }
+                    if (s != null) {
+                        stylesheets.add(s);
+                    }
+                }
+            }
+            dependencies = StyleDependencies.of(stylesheets);
+            cachedStyleDependencies = dependencies;
+        }
+        return dependencies;
+    }
+
     @Override
     public List<StylesheetInfo> getStylesheets() {
         final ArrayList<StylesheetInfo> list = new ArrayList<>();
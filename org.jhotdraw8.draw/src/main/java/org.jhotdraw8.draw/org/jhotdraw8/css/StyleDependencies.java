@@ -0,0 +1,263 @@
+/*
+ * @(#)StyleDependencies.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.css;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.css.ast.AbstractAttributeSelector;
+import org.jhotdraw8.css.ast.AndCombinator;
+import org.jhotdraw8.css.ast.ChildCombinator;
+import org.jhotdraw8.css.ast.ClassSelector;
+import org.jhotdraw8.css.ast.Combinator;
+import org.jhotdraw8.css.ast.Declaration;
+import org.jhotdraw8.css.ast.DescendantCombinator;
+import org.jhotdraw8.css.ast.IdSelector;
+import org.jhotdraw8.css.ast.NegationPseudoClassSelector;
+import org.jhotdraw8.css.ast.PseudoClassSelector;
+import org.jhotdraw8.css.ast.Selector;
+import org.jhotdraw8.css.ast.SelectorGroup;
+import org.jhotdraw8.css.ast.StyleRule;
+import org.jhotdraw8.css.ast.Stylesheet;
+import org.jhotdraw8.css.function.AttrCssFunction;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Describes which attributes of an element the selectors and the
+ * declarations of a set of stylesheets depend on.
+ * <p>
+ * When an attribute of an element changes, this class tells which
+ * elements may need to get their stylesheets applied again. For example,
+ * if a stylesheet contains the selector {@code .warning > Text}, then
+ * a change of the {@value #CLASS_ATTRIBUTE} attribute affects the
+ * descendants of the element. If the stylesheets do not refer to
+ * an attribute at all, then a change of the attribute affects no
+ * element.
+ * <p>
+ * Id selectors and class selectors depend on the attributes
+ * {@value #ID_ATTRIBUTE} and {@value #CLASS_ATTRIBUTE}. Attribute selectors
+ * and the {@code attr()} function depend on the attribute with the given
+ * name. The {@value #STYLE_ATTRIBUTE} attribute always affects the element
+ * itself.
+ * <p>
+ * The pseudo-class states of an element are not necessarily held in an
+ * attribute, for example, a selector model may add states of its own.
+ * Therefore, stylesheets with pseudo-class selectors depend on
+ * everything, like {@link #ALL}.
+ * <p>
+ * Instances of this class are immutable.
+ */
+public class StyleDependencies {
+    /**
+     * Describes which elements are affected by a change.
+     */
+    public enum Scope {
+        /**
+         * The element itself.
+         */
+        SELF,
+        /**
+         * The descendants of the element.
+         */
+        DESCENDANTS,
+        /**
+         * The siblings that follow the element.
+         */
+        FOLLOWING_SIBLINGS,
+        /**
+         * The descendants of the siblings that follow the element.
+         */
+        DESCENDANTS_OF_FOLLOWING_SIBLINGS
+    }
+
+    public static final String ID_ATTRIBUTE = "id";
+    public static final String CLASS_ATTRIBUTE = "class";
+    public static final String STYLE_ATTRIBUTE = "style";
+
+    /**
+     * The element is an ancestor of the element that is being styled.
+     */
+    private static final int ANCESTOR = 1;
+    /**
+     * The element is a previous sibling of the element that is being styled.
+     */
+    private static final int SIBLING = 2;
+
+    private static final @NonNull Set<Scope> NONE = Collections.unmodifiableSet(EnumSet.noneOf(Scope.class));
+    private static final @NonNull Set<Scope> ALL_SCOPES = Collections.unmodifiableSet(EnumSet.allOf(Scope.class));
+
+    /**
+     * Dependencies that affect all elements on every change.
+     */
+    public static final @NonNull StyleDependencies ALL = new StyleDependencies(Collections.emptyMap(), ALL_SCOPES, true);
+
+    private final @NonNull Map<String, Set<Scope>> attributeScopes;
+    private final @NonNull Set<Scope> structuralScopes;
+    private final boolean all;
+
+    private StyleDependencies(@NonNull Map<String, Set<Scope>> attributeScopes, @NonNull Set<Scope> structuralScopes, boolean all) {
+        this.attributeScopes = attributeScopes;
+        this.structuralScopes = structuralScopes;
+        this.all = all;
+    }
+
+    /**
+     * Computes the dependencies of the specified stylesheets.
+     *
+     * @param stylesheets the stylesheets
+     * @return the dependencies
+     */
+    public static @NonNull StyleDependencies of(@NonNull Iterable<Stylesheet> stylesheets) {
+        Map<String, EnumSet<Scope>> attributeScopes = new HashMap<>();
+        EnumSet<Scope> structuralScopes = EnumSet.noneOf(Scope.class);
+        attributeScopes.put(STYLE_ATTRIBUTE, EnumSet.of(Scope.SELF));
+        for (Stylesheet stylesheet : stylesheets) {
+            for (StyleRule rule : stylesheet.getStyleRules()) {
+                if (collect(rule.getSelectorGroup(), 0, attributeScopes, structuralScopes)) {
+                    return ALL;
+                }
+                for (Declaration d : rule.getDeclarations()) {
+                    collect(d, attributeScopes);
+                }
+            }
+        }
+        Map<String, Set<Scope>> map = new HashMap<>(attributeScopes.size() * 2);
+        for (Map.Entry<String, EnumSet<Scope>> entry : attributeScopes.entrySet()) {
+            map.put(entry.getKey(), Collections.unmodifiableSet(entry.getValue()));
+        }
+        return new StyleDependencies(map, Collections.unmodifiableSet(structuralScopes), false);
+    }
+
+    /**
+     * Returns the elements that are affected by a change of the specified
+     * attribute of an element.
+     *
+     * @param attributeName the name of the attribute
+     * @return the affected elements
+     */
+    public @NonNull Set<Scope> getScopes(@NonNull String attributeName) {
+        return all ? ALL_SCOPES : attributeScopes.getOrDefault(attributeName, NONE);
+    }
+
+    /**
+     * Returns the elements that are affected by adding an element to a parent or by removing
+     * an element from a parent, in addition to the element itself.
+     *
+     * @return the affected elements
+     */
+    public @NonNull Set<Scope> getStructuralScopes() {
+        return structuralScopes;
+    }
+
+    /**
+     * Returns true if the specified attribute affects any element.
+     *
+     * @param attributeName the name of the attribute
+     * @return true if the attribute affects elements
+     */
+    public boolean dependsOn(@NonNull String attributeName) {
+        return all || attributeScopes.containsKey(attributeName);
+    }
+
+    /**
+     * Collects the dependencies of a selector.
+     *
+     * @param selector   the selector
+     * @param relations  the relations of the element that this selector matches
+     *                   to the element that is being styled
+     * @param attributes the attribute dependencies
+     * @param structural the structural dependencies
+     * @return true if the selector contains a pseudo-class selector
+     */
+    private static boolean collect(@NonNull Selector selector, int relations,
+                                   @NonNull Map<String, EnumSet<Scope>> attributes, @NonNull EnumSet<Scope> structural) {
+        boolean pseudoClass = false;
+        if (selector instanceof SelectorGroup) {
+            for (Selector s : ((SelectorGroup) selector).getSelectors()) {
+                pseudoClass |= collect(s, relations, attributes, structural);
+            }
+        } else if (selector instanceof AndCombinator) {
+            Combinator c = (Combinator) selector;
+            pseudoClass = collect(c.getFirst(), relations, attributes, structural)
+                    | collect(c.getSecond(), relations, attributes, structural);
+        } else if (selector instanceof Combinator) {
+            Combinator c = (Combinator) selector;
+            // The first selector of a combinator matches on an ancestor or
+            // on a previous sibling of the element that the second selector
+            // has matched. If the second selector contains combinators, then
+            // this element is not the element that is being styled.
+            int relation = (c instanceof ChildCombinator || c instanceof DescendantCombinator) ? ANCESTOR : SIBLING;
+            int firstRelations = relations | relation | relationsOf(c.getSecond());
+            addScopes(structural, firstRelations);
+            pseudoClass = collect(c.getFirst(), firstRelations, attributes, structural)
+                    | collect(c.getSecond(), relations, attributes, structural);
+        } else if (selector instanceof IdSelector) {
+            addScopes(attributes.computeIfAbsent(ID_ATTRIBUTE, k -> EnumSet.noneOf(Scope.class)), relations);
+        } else if (selector instanceof ClassSelector) {
+            addScopes(attributes.computeIfAbsent(CLASS_ATTRIBUTE, k -> EnumSet.noneOf(Scope.class)), relations);
+        } else if (selector instanceof AbstractAttributeSelector) {
+            String name = ((AbstractAttributeSelector) selector).getAttributeName();
+            addScopes(attributes.computeIfAbsent(name, k -> EnumSet.noneOf(Scope.class)), relations);
+        } else if (selector instanceof NegationPseudoClassSelector) {
+            pseudoClass = collect(((NegationPseudoClassSelector) selector).getSelector(), relations, attributes, structural);
+        } else if (selector instanceof PseudoClassSelector) {
+            pseudoClass = true;
+        }
+        return pseudoClass;
+    }
+
+    /**
+     * Collects the dependencies of the {@code attr()} functions in
+     * a declaration. The function reads the attribute of the element that
+     * is being styled.
+     */
+    private static void collect(@NonNull Declaration declaration, @NonNull Map<String, EnumSet<Scope>> attributes) {
+        boolean isAttrFunction = false;
+        for (CssToken t : declaration.getTerms()) {
+            if (t.getType() == CssTokenType.TT_FUNCTION) {
+                isAttrFunction = AttrCssFunction.NAME.equals(t.getStringValue());
+            } else if (isAttrFunction && t.getType() == CssTokenType.TT_IDENT) {
+                attributes.computeIfAbsent(t.getStringValueNonNull(), k -> EnumSet.noneOf(Scope.class)).add(Scope.SELF);
+                isAttrFunction = false;
+            } else if (t.getType() != CssTokenType.TT_S) {
+                isAttrFunction = false;
+            }
+        }
+    }
+
+    private static int relationsOf(@NonNull Selector selector) {
+        if (selector instanceof AndCombinator) {
+            Combinator c = (Combinator) selector;
+            return relationsOf(c.getSecond());
+        } else if (selector instanceof Combinator) {
+            Combinator c = (Combinator) selector;
+            int relation = (c instanceof ChildCombinator || c instanceof DescendantCombinator) ? ANCESTOR : SIBLING;
+            return relation | relationsOf(c.getSecond());
+        }
+        return 0;
+    }
+
+    private static void addScopes(@NonNull EnumSet<Scope> scopes, int relations) {
+        switch (relations) {
+        case 0:
+            scopes.add(Scope.SELF);
+            break;
+        case ANCESTOR:
+            scopes.add(Scope.DESCENDANTS);
+            break;
+        case SIBLING:
+            scopes.add(Scope.FOLLOWING_SIBLINGS);
+            break;
+        default:
+            scopes.add(Scope.DESCENDANTS);
+            scopes.add(Scope.FOLLOWING_SIBLINGS);
+            scopes.add(Scope.DESCENDANTS_OF_FOLLOWING_SIBLINGS);
+            break;
+        }
+    }
+}
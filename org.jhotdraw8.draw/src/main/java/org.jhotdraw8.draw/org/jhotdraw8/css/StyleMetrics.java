@@ -0,0 +1,117 @@
+/*
+ * @(#)StyleMetrics.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.css;
+
+import javafx.css.StyleOrigin;
+import org.jhotdraw8.annotation.NonNull;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects metrics about the application of stylesheets to elements.
+ * <p>
+ * The metrics are accumulated over all calls to
+ * {@link StylesheetsManager#applyStylesheetsTo(Iterable)} until
+ * {@link #reset()} is called.
+ * <p>
+ * This class is thread-safe.
+ */
+public class StyleMetrics {
+    private final @NonNull LongAdder elementCount = new LongAdder();
+    private final @NonNull LongAdder elapsedNanos = new LongAdder();
+    private final @NonNull Map<StyleOrigin, LongAdder> originNanos = new EnumMap<>(StyleOrigin.class);
+
+    public StyleMetrics() {
+        for (StyleOrigin origin : StyleOrigin.values()) {
+            originNanos.put(origin, new LongAdder());
+        }
+    }
+
+    /**
+     * Adds the specified number of styled elements and the wall-clock time
+     * that it took to style them.
+     *
+     * @param count the number of elements
+     * @param nanos the elapsed time in nanoseconds
+     */
+    void addElements(long count, long nanos) {
+        elementCount.add(count);
+        elapsedNanos.add(nanos);
+    }
+
+    /**
+     * Adds time spent on applying declarations of the specified origin.
+     *
+     * @param origin the style origin
+     * @param nanos  the time in nanoseconds
+     */
+    void addOriginNanos(@NonNull StyleOrigin origin, long nanos) {
+        originNanos.get(origin).add(nanos);
+    }
+
+    /**
+     * Returns the number of elements that have been styled.
+     *
+     * @return the number of elements
+     */
+    public long getElementCount() {
+        return elementCount.sum();
+    }
+
+    /**
+     * Returns the wall-clock time that has been spent on styling elements.
+     *
+     * @return the elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos.sum();
+    }
+
+    /**
+     * Returns the time that has been spent on applying declarations of the
+     * specified origin. The time is summed up over all threads, and
+     * can thus be greater than {@link #getElapsedNanos()}.
+     *
+     * @param origin the style origin
+     * @return the time in nanoseconds
+     */
+    public long getOriginNanos(@NonNull StyleOrigin origin) {
+        return originNanos.get(origin).sum();
+    }
+
+    /**
+     * Returns the number of elements styled per second.
+     *
+     * @return elements per second, or 0 if no time has elapsed
+     */
+    public double getElementsPerSecond() {
+        long nanos = getElapsedNanos();
+        return nanos == 0 ? 0.0 : getElementCount() * 1e9 / nanos;
+    }
+
+    /**
+     * Resets all metrics to zero.
+     */
+    public void reset() {
+        elementCount.reset();
+        elapsedNanos.reset();
+        for (LongAdder adder : originNanos.values()) {
+            adder.reset();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "StyleMetrics{"
+                + "elements=" + getElementCount()
+                + ", elementsPerSecond=" + (long) getElementsPerSecond()
+                + ", userAgentNanos=" + getOriginNanos(StyleOrigin.USER_AGENT)
+                + ", authorNanos=" + getOriginNanos(StyleOrigin.AUTHOR)
+                + ", inlineNanos=" + getOriginNanos(StyleOrigin.INLINE)
+                + '}';
+    }
+}
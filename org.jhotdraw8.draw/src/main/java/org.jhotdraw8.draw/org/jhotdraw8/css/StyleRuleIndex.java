@@ -0,0 +1,168 @@
+/*
+ * @(#)StyleRuleIndex.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.css;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.annotation.Nullable;
+import org.jhotdraw8.collection.IntArrayList;
+import org.jhotdraw8.collection.ReadOnlyList;
+import org.jhotdraw8.css.ast.ClassSelector;
+import org.jhotdraw8.css.ast.IdSelector;
+import org.jhotdraw8.css.ast.Selector;
+import org.jhotdraw8.css.ast.SimpleSelector;
+import org.jhotdraw8.css.ast.StyleRule;
+import org.jhotdraw8.css.ast.Stylesheet;
+import org.jhotdraw8.css.ast.TypeSelector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Indexes the style rules of a stylesheet by the key selectors of their
+ * selectors.
+ * <p>
+ * Each style rule is put into a bucket for the id, the style class or the
+ * type that an element must have, so that the rule can match the element.
+ * A style rule with a selector that has no key selector is put into the
+ * universal bucket.
+ * <p>
+ * Given an element, the index returns the style rules from the buckets
+ * for the id, the style classes and the type of the element, and from the
+ * universal bucket. The returned style rules are candidates: their
+ * selectors still have to be matched against the element.
+ * <p>
+ * Instances of this class are immutable and thread-safe.
+ */
+class StyleRuleIndex {
+    private static final int @NonNull [] EMPTY = new int[0];
+
+    private final @NonNull ReadOnlyList<StyleRule> rules;
+    private final @NonNull Map<String, int[]> idBuckets;
+    private final @NonNull Map<String, int[]> classBuckets;
+    private final @NonNull Map<String, int[]> typeBuckets;
+    private final int @NonNull [] universalBucket;
+
+    StyleRuleIndex(@NonNull Stylesheet stylesheet) {
+        rules = stylesheet.getStyleRules();
+        Map<String, IntArrayList> ids = new HashMap<>();
+        Map<String, IntArrayList> classes = new HashMap<>();
+        Map<String, IntArrayList> types = new HashMap<>();
+        IntArrayList universal = new IntArrayList();
+        for (int i = 0, n = rules.size(); i < n; i++) {
+            StyleRule rule = rules.get(i);
+            ReadOnlyList<Selector> selectors = rule.getSelectorGroup().getSelectors();
+            boolean isUniversal = selectors.isEmpty();
+            for (Selector selector : selectors) {
+                SimpleSelector key = selector.getKeySelector();
+                if (key instanceof IdSelector) {
+                    addToBucket(ids, ((IdSelector) key).getId(), i);
+                } else if (key instanceof ClassSelector) {
+                    addToBucket(classes, ((ClassSelector) key).getClazz(), i);
+                } else if (key instanceof TypeSelector
+                        && Objects.equals(((TypeSelector) key).getNamespacePattern(), SelectorModel.ANY_NAMESPACE)) {
+                    addToBucket(types, ((TypeSelector) key).getType(), i);
+                } else {
+                    isUniversal = true;
+                }
+            }
+            if (isUniversal) {
+                universal.addAsInt(i);
+            }
+        }
+        idBuckets = toArrays(ids);
+        classBuckets = toArrays(classes);
+        typeBuckets = toArrays(types);
+        universalBucket = universal.toIntArray();
+    }
+
+    private static void addToBucket(@NonNull Map<String, IntArrayList> buckets, @NonNull String key, int index) {
+        IntArrayList bucket = buckets.computeIfAbsent(key, k -> new IntArrayList());
+        // A rule with multiple selectors can have the same key more than once.
+        if (bucket.isEmpty() || bucket.getLastAsInt() != index) {
+            bucket.addAsInt(index);
+        }
+    }
+
+    private static @NonNull Map<String, int[]> toArrays(@NonNull Map<String, IntArrayList> buckets) {
+        Map<String, int[]> map = new HashMap<>(buckets.size() * 2);
+        for (Map.Entry<String, IntArrayList> entry : buckets.entrySet()) {
+            map.put(entry.getKey(), entry.getValue().toIntArray());
+        }
+        return map;
+    }
+
+    /**
+     * Returns the style rules that may match the specified element.
+     *
+     * @param model   the selector model
+     * @param element the element
+     * @param <E>     the element type
+     * @return the candidate style rules in the order in which they
+     * appear in the stylesheet
+     */
+    <E> @NonNull List<StyleRule> getCandidates(@NonNull SelectorModel<E> model, @NonNull E element) {
+        List<int[]> buckets = new ArrayList<>();
+        int count = addBucket(buckets, universalBucket);
+        if (!idBuckets.isEmpty()) {
+            String id = model.getId(element);
+            if (id != null) {
+                count += addBucket(buckets, idBuckets.get(id));
+            }
+        }
+        if (!classBuckets.isEmpty()) {
+            for (String clazz : model.getStyleClasses(element)) {
+                count += addBucket(buckets, classBuckets.get(clazz));
+            }
+        }
+        if (!typeBuckets.isEmpty()) {
+            QualifiedName type = model.getType(element);
+            if (type != null) {
+                count += addBucket(buckets, typeBuckets.get(type.getName()));
+            }
+        }
+
+        int[] indices;
+        switch (buckets.size()) {
+        case 0:
+            indices = EMPTY;
+            break;
+        case 1:
+            indices = buckets.get(0);
+            break;
+        default:
+            // Merge the buckets, and restore the order of the stylesheet.
+            indices = new int[count];
+            int offset = 0;
+            for (int[] bucket : buckets) {
+                System.arraycopy(bucket, 0, indices, offset, bucket.length);
+                offset += bucket.length;
+            }
+            Arrays.sort(indices);
+            break;
+        }
+
+        List<StyleRule> candidates = new ArrayList<>(indices.length);
+        int previous = -1;
+        for (int index : indices) {
+            if (index != previous) {
+                candidates.add(rules.get(index));
+                previous = index;
+            }
+        }
+        return candidates;
+    }
+
+    private static int addBucket(@NonNull List<int[]> buckets, int @Nullable [] bucket) {
+        if (bucket == null || bucket.length == 0) {
+            return 0;
+        }
+        buckets.add(bucket);
+        return bucket.length;
+    }
+}
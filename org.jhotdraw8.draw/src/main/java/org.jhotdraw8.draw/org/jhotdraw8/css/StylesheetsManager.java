@@ -7,6 +7,8 @@ package org.jhotdraw8.css;
 import javafx.css.StyleOrigin;
 import org.jhotdraw8.annotation.NonNull;
 import org.jhotdraw8.annotation.Nullable;
+import org.jhotdraw8.concurrent.BlackHoleWorkState;
+import org.jhotdraw8.concurrent.WorkState;
 import org.jhotdraw8.css.ast.StyleRule;
 import org.jhotdraw8.css.ast.Stylesheet;
 
@@ -14,8 +16,6 @@ import java.net.URI;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
 /**
  * StylesheetsManager.
@@ -61,10 +61,25 @@ public interface StylesheetsManager<E> {
     void addStylesheet(@NonNull StyleOrigin origin, @NonNull String stylesheet, @Nullable URI documentHome);
 
     default void applyStylesheetsTo(@NonNull Iterable<E> iterable) {
-        StreamSupport.stream(iterable.spliterator(), false).collect(Collectors.toList())
-                .stream()
-                .parallel()
-                .forEach(this::applyStylesheetsTo);
+        applyStylesheetsTo(iterable, new BlackHoleWorkState<>());
+    }
+
+    /**
+     * Applies all managed stylesheets to the specified elements.
+     * <p>
+     * Stops applying stylesheets if the work state is cancelled. The
+     * remaining elements keep their previous style values.
+     *
+     * @param iterable  the elements
+     * @param workState the work state
+     */
+    default void applyStylesheetsTo(@NonNull Iterable<E> iterable, @NonNull WorkState<?> workState) {
+        for (E e : iterable) {
+            if (workState.isCancelled()) {
+                return;
+            }
+            applyStylesheetsTo(e);
+        }
     }
 
     /**
@@ -163,6 +178,20 @@ public interface StylesheetsManager<E> {
 
     List<StylesheetInfo> getStylesheets();
 
+    /**
+     * Returns the style dependencies of the stylesheets.
+     * <p>
+     * The dependencies tell which elements need to get the stylesheets
+     * applied again, when an attribute of an element changes.
+     * <p>
+     * The default implementation returns {@link StyleDependencies#ALL}.
+     *
+     * @return the style dependencies
+     */
+    default @NonNull StyleDependencies getStyleDependencies() {
+        return StyleDependencies.ALL;
+    }
+
     interface StylesheetInfo {
         URI getUri();
 
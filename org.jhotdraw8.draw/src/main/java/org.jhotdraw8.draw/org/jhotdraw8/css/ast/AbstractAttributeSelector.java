@@ -4,6 +4,8 @@
  */
 package org.jhotdraw8.css.ast;
 
+import org.jhotdraw8.annotation.NonNull;
+
 /**
  * An abstract "attribute selector" matches an element based on its attributes.
  *
@@ -19,4 +21,11 @@ public abstract class AbstractAttributeSelector extends SimpleSelector {
         return 10;
     }
 
+    /**
+     * Returns the name of the attribute that this selector matches on.
+     *
+     * @return the attribute name
+     */
+    public abstract @NonNull String getAttributeName();
+
 }
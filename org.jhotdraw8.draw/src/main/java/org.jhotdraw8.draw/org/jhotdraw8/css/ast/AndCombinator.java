@@ -59,4 +59,23 @@ public class AndCombinator extends Combinator {
         TypeSelector secondQN = second.matchesOnlyOnASpecificType();
         return firstQN != null ? firstQN : secondQN;
     }
+
+    /**
+     * The key selector of this selector is the key selector of its first
+     * or of its second selector, whichever has the higher specificity.
+     *
+     * @return the key selector or null
+     */
+    @Override
+    public @Nullable SimpleSelector getKeySelector() {
+        SimpleSelector firstKey = first.getKeySelector();
+        SimpleSelector secondKey = second.getKeySelector();
+        if (firstKey == null) {
+            return secondKey;
+        }
+        if (secondKey == null) {
+            return firstKey;
+        }
+        return firstKey.getSpecificity() >= secondKey.getSpecificity() ? firstKey : secondKey;
+    }
 }
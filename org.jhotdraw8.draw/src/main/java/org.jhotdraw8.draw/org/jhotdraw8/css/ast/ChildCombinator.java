@@ -61,4 +61,15 @@ public class ChildCombinator extends Combinator {
     public @Nullable TypeSelector matchesOnlyOnASpecificType() {
         return second.matchesOnlyOnASpecificType();
     }
+
+    /**
+     * The key selector of this selector is the key selector of its second
+     * selector, because the second selector matches the element.
+     *
+     * @return {@code second.getKeySelector()}
+     */
+    @Override
+    public @Nullable SimpleSelector getKeySelector() {
+        return second.getKeySelector();
+    }
 }
@@ -61,4 +61,18 @@ public class ClassSelector extends SimpleSelector {
     public int hashCode() {
         return Objects.hash(clazz);
     }
+
+    public @NonNull String getClazz() {
+        return clazz;
+    }
+
+    /**
+     * This selector is its own key selector.
+     *
+     * @return this
+     */
+    @Override
+    public @NonNull SimpleSelector getKeySelector() {
+        return this;
+    }
 }
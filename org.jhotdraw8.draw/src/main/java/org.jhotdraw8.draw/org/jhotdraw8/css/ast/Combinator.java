@@ -26,6 +26,14 @@ public abstract class Combinator extends Selector {
 
     }
 
+    public @NonNull SimpleSelector getFirst() {
+        return first;
+    }
+
+    public @NonNull Selector getSecond() {
+        return second;
+    }
+
     @Override
     public @NonNull String toString() {
         return "Combinator{" + "simpleSelector=" + first + ", selector=" + second + '}';
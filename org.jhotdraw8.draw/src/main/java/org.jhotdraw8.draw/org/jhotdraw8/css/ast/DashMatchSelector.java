@@ -67,4 +67,9 @@ public class DashMatchSelector extends AbstractAttributeSelector {
     public int hashCode() {
         return Objects.hash(namespace, attributeName, substring);
     }
+
+    @Override
+    public @NonNull String getAttributeName() {
+        return attributeName;
+    }
 }
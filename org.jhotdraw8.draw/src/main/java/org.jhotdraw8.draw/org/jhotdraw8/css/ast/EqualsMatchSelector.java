@@ -67,4 +67,9 @@ public class EqualsMatchSelector extends AbstractAttributeSelector {
     public int hashCode() {
         return Objects.hash(namespace, attributeName, attributeValue);
     }
+
+    @Override
+    public @NonNull String getAttributeName() {
+        return attributeName;
+    }
 }
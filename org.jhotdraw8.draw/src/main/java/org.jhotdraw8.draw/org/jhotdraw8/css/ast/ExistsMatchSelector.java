@@ -63,4 +63,9 @@ public class ExistsMatchSelector extends AbstractAttributeSelector {
     public int hashCode() {
         return Objects.hash(namespace, attributeName);
     }
+
+    @Override
+    public @NonNull String getAttributeName() {
+        return attributeName;
+    }
 }
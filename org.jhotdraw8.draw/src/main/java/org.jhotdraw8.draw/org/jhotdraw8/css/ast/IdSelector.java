@@ -60,4 +60,18 @@ public class IdSelector extends SimpleSelector {
     public int hashCode() {
         return Objects.hash(id);
     }
+
+    public @NonNull String getId() {
+        return id;
+    }
+
+    /**
+     * This selector is its own key selector.
+     *
+     * @return this
+     */
+    @Override
+    public @NonNull SimpleSelector getKeySelector() {
+        return this;
+    }
 }
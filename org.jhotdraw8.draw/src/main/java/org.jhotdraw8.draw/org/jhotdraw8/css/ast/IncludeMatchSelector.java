@@ -67,4 +67,9 @@ public class IncludeMatchSelector extends AbstractAttributeSelector {
     public int hashCode() {
         return Objects.hash(namespace, attributeName, word);
     }
+
+    @Override
+    public @NonNull String getAttributeName() {
+        return attributeName;
+    }
 }
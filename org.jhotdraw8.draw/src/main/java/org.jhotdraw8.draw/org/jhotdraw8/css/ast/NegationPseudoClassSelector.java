@@ -56,4 +56,8 @@ public class NegationPseudoClassSelector extends FunctionPseudoClassSelector {
     public int hashCode() {
         return Objects.hash(super.hashCode(), selector);
     }
+
+    public @NonNull SimpleSelector getSelector() {
+        return selector;
+    }
 }
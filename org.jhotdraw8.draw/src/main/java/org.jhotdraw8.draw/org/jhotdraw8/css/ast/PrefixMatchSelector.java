@@ -68,4 +68,9 @@ public class PrefixMatchSelector extends AbstractAttributeSelector {
     public int hashCode() {
         return Objects.hash(namespace, attributeName, substring);
     }
+
+    @Override
+    public @NonNull String getAttributeName() {
+        return attributeName;
+    }
 }
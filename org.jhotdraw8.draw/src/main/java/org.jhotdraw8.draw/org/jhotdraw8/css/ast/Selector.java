@@ -88,4 +88,22 @@ public abstract class Selector extends AbstractSyntaxTree {
         return null;
     }
 
+    /**
+     * Returns the key selector of this selector.
+     * <p>
+     * The key selector is an id selector, a class selector or a type
+     * selector, which the element must match, if this selector matches
+     * the element. If there are several such selectors, then the one with
+     * the highest specificity is returned.
+     * <p>
+     * A style manager can use the key selector for indexing style rules.
+     * <p>
+     * This implementation returns null.
+     *
+     * @return the key selector or null
+     */
+    public @Nullable SimpleSelector getKeySelector() {
+        return null;
+    }
+
 }
@@ -50,6 +50,10 @@ public class SelectorGroup extends Selector {
         return buf.toString();
     }
 
+    public @NonNull ReadOnlyList<Selector> getSelectors() {
+        return selectors;
+    }
+
     @Override
     public int getSpecificity() {
         return selectors.stream().mapToInt(Selector::getSpecificity).sum();
@@ -90,4 +90,14 @@ public class TypeSelector extends SimpleSelector {
     public @Nullable TypeSelector matchesOnlyOnASpecificType() {
         return this;
     }
+
+    /**
+     * This selector is its own key selector.
+     *
+     * @return this
+     */
+    @Override
+    public @NonNull SimpleSelector getKeySelector() {
+        return this;
+    }
 }
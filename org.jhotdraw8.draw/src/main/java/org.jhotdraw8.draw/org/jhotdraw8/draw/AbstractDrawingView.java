@@ -92,13 +92,18 @@ public abstract class AbstractDrawingView extends AbstractPropertyBean implement
         copy();
         final List<Figure> selectedFigures = new ArrayList<>(getSelectedFigures());
         DrawingModel m = getModel();
-        for (Figure f : selectedFigures) {
-            if (f.isDeletable()) {
-                for (Figure d : f.preorderIterable()) {
-                    m.disconnect(d);
+        m.beginBatch();
+        try {
+            for (Figure f : selectedFigures) {
+                if (f.isDeletable()) {
+                    for (Figure d : f.preorderIterable()) {
+                        m.disconnect(d);
+                    }
+                    m.removeFromParent(f);
                 }
-                m.removeFromParent(f);
             }
+        } finally {
+            m.commitBatch();
         }
     }
 
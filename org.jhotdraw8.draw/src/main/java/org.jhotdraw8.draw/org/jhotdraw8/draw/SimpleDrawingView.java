@@ -7,6 +7,7 @@ package org.jhotdraw8.draw;
 
 import javafx.application.Platform;
 import javafx.beans.Observable;
+import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.ReadOnlyBooleanProperty;
@@ -176,6 +177,47 @@ public class SimpleDrawingView extends AbstractDrawingView {
         return constrainer;
     }
 
+    /**
+     * Whether the rendering of the drawing is virtualized.
+     *
+     * @return the virtualized property
+     * @see InteractiveDrawingRenderer#virtualizedProperty()
+     */
+    public @NonNull BooleanProperty virtualizedProperty() {
+        return drawingRenderer.virtualizedProperty();
+    }
+
+    /**
+     * The minimal size in view coordinates below which figures are rendered
+     * as simplified proxies.
+     *
+     * @return the minimal detail size property
+     * @see InteractiveDrawingRenderer#minDetailSizeProperty()
+     */
+    public @NonNull DoubleProperty minDetailSizeProperty() {
+        return drawingRenderer.minDetailSizeProperty();
+    }
+
+    /**
+     * The figures that are rendered into tiled canvases.
+     *
+     * @return the tiled figures
+     * @see InteractiveDrawingRenderer#getTiledFigures()
+     */
+    public @NonNull ObservableSet<Figure> getTiledFigures() {
+        return drawingRenderer.getTiledFigures();
+    }
+
+    /**
+     * The figure classes whose nodes are recycled in virtualized rendering.
+     *
+     * @return the recyclable figure classes
+     * @see InteractiveDrawingRenderer#getRecyclableFigureClasses()
+     */
+    public @NonNull ObservableSet<Class<? extends Figure>> getRecyclableFigureClasses() {
+        return drawingRenderer.getRecyclableFigureClasses();
+    }
+
 
     @Override
     public @NonNull ReadOnlyObjectProperty<Drawing> drawingProperty() {
@@ -249,6 +291,7 @@ public class SimpleDrawingView extends AbstractDrawingView {
         onDrawingModelChanged(model, null, model.getValue());
         drawingRenderer.modelProperty().bind(this.modelProperty());
         drawingRenderer.clipBoundsProperty().bind(zoomableScrollPane.visibleContentRectProperty());
+        drawingRenderer.zoomFactorProperty().bind(zoomFactorProperty());
         drawingRenderer.editorProperty().bind(this.editorProperty());
         drawingRenderer.setDrawingView(this);
         handleRenderer.modelProperty().bind(this.modelProperty());
@@ -392,6 +435,14 @@ public class SimpleDrawingView extends AbstractDrawingView {
         case SUBTREE_NODES_CHANGED:
             onSubtreeNodesChanged(f);
             break;
+        case BATCH_COMMITTED:
+            for (Figure removed : event.getRemovedSubtrees()) {
+                onNodeRemoved(removed);
+            }
+            for (Figure changed : event.getChangedNodes()) {
+                onNodeChanged(changed);
+            }
+            break;
         default:
             throw new UnsupportedOperationException(event.getEventType()
                     + " not supported");
@@ -541,13 +592,18 @@ public class SimpleDrawingView extends AbstractDrawingView {
                         .forEach(cascade::addFirst);
             }
         }
-        for (Figure f : cascade) {
-            if (f.isDeletable()) {
-                for (Figure d : f.preorderIterable()) {
-                    model.disconnect(d);
+        model.beginBatch();
+        try {
+            for (Figure f : cascade) {
+                if (f.isDeletable()) {
+                    for (Figure d : f.preorderIterable()) {
+                        model.disconnect(d);
+                    }
+                    model.removeFromParent(f);
                 }
-                model.removeFromParent(f);
             }
+        } finally {
+            model.commitBatch();
         }
     }
 
@@ -16,6 +16,7 @@ import org.jhotdraw8.css.CssToken;
 import org.jhotdraw8.css.CssTokenType;
 import org.jhotdraw8.css.CssTokenizer;
 import org.jhotdraw8.css.ListCssTokenizer;
+import org.jhotdraw8.css.ParsedValueCache;
 import org.jhotdraw8.css.QualifiedName;
 import org.jhotdraw8.css.StreamCssTokenizer;
 import org.jhotdraw8.css.text.CssConverter;
@@ -456,16 +457,10 @@ public class FigureSelectorModel extends AbstractSelectorModel<Figure> {
                 if (value == null || isInitial(value)) {
                     elem.remove(origin, k);
                 } else {
-                    @SuppressWarnings("unchecked")
                     Converter<Object> converter = k.getCssConverter();
-                    Object convertedValue;
                     try {
-                        if (converter instanceof CssConverter) {
-                            convertedValue = ((CssConverter<Object>) converter).parse(new ListCssTokenizer(value), null);
-                        } else {
-                            convertedValue = converter.fromString(value.stream().map(CssToken::fromToken).collect(Collectors.joining()));
-                        }
-                        elem.setStyled(origin, k, intern(convertedValue));
+                        Object convertedValue = parsedValueCache.computeIfAbsent(converter, value, this::parseAndIntern);
+                        elem.setStyled(origin, k, convertedValue);
                     } catch (ParseException | IOException ex) {
                         LOGGER.log(Level.WARNING, "error setting attribute " + name + " with tokens " + value, ex);
                     }
@@ -474,6 +469,30 @@ public class FigureSelectorModel extends AbstractSelectorModel<Figure> {
         }
     }
 
+    private @Nullable Object parseAndIntern(@NonNull Converter<?> converter, @NonNull ReadOnlyList<CssToken> value) throws ParseException, IOException {
+        Object convertedValue;
+        if (converter instanceof CssConverter) {
+            convertedValue = ((CssConverter<?>) converter).parse(new ListCssTokenizer(value), null);
+        } else {
+            convertedValue = converter.fromString(value.stream().map(CssToken::fromToken).collect(Collectors.joining()));
+        }
+        return intern(convertedValue);
+    }
+
+    /**
+     * Returns the cache for parsed attribute values.
+     *
+     * @return the cache
+     */
+    public @NonNull ParsedValueCache getParsedValueCache() {
+        return parsedValueCache;
+    }
+
+    /**
+     * Caches the values that {@link #setAttribute} has parsed.
+     */
+    private final @NonNull ParsedValueCache parsedValueCache = new ParsedValueCache();
+
     @NonNull
     private final Map<Object, Object> inlinedValues = new ConcurrentHashMap<>();
 
@@ -24,7 +24,33 @@ import static java.lang.Math.min;
  * @author Werner Randelshofer
  */
 public abstract class AbstractCompositeFigure extends AbstractFigure {
-    private final ChildList<Figure> children = new ChildList<>(this);
+    private final ChildList<Figure> children = new ChildList<Figure>(this) {
+        @Override
+        protected void onAdded(@NonNull Figure e) {
+            super.onAdded(e);
+            invalidateAncestorBounds();
+        }
+
+        @Override
+        protected void onRemoved(@NonNull Figure e) {
+            super.onRemoved(e);
+            invalidateAncestorBounds();
+        }
+    };
+
+    /**
+     * Cached bounds. The bounds are computed from the children on demand,
+     * and are invalidated by {@link #invalidateBounds()}.
+     */
+    private @Nullable Bounds cachedLayoutBounds;
+    private @Nullable Bounds cachedBoundsInLocal;
+    private @Nullable Bounds cachedLayoutBoundsInParent;
+    /**
+     * Whether the bounds have been requested since the last invocation of
+     * {@link #invalidateBoundsOfDescendant()}. Only then can the cached
+     * bounds of the ancestors depend on the bounds of this figure.
+     */
+    private boolean boundsRequested = true;
 
     public AbstractCompositeFigure() {
     }
@@ -39,8 +65,38 @@ public abstract class AbstractCompositeFigure extends AbstractFigure {
         return true;
     }
 
+    @Override
+    public void invalidateBounds() {
+        cachedLayoutBounds = null;
+        cachedBoundsInLocal = null;
+        cachedLayoutBoundsInParent = null;
+    }
+
+    @Override
+    public boolean invalidateBoundsOfDescendant() {
+        invalidateBounds();
+        boolean requested = boundsRequested;
+        boundsRequested = false;
+        return requested;
+    }
+
+    @Override
+    public void invalidateTransforms() {
+        super.invalidateTransforms();
+        cachedLayoutBoundsInParent = null;
+    }
+
     @Override
     public @NonNull Bounds getLayoutBounds() {
+        boundsRequested = true;
+        Bounds b = cachedLayoutBounds;
+        if (b == null) {
+            cachedLayoutBounds = b = computeLayoutBounds();
+        }
+        return b;
+    }
+
+    private @NonNull Bounds computeLayoutBounds() {
         double minX = Double.POSITIVE_INFINITY;
         double maxX = Double.NEGATIVE_INFINITY;
         double minY = Double.POSITIVE_INFINITY;
@@ -58,6 +114,15 @@ public abstract class AbstractCompositeFigure extends AbstractFigure {
 
     @Override
     public @NonNull Bounds getBoundsInLocal() {
+        boundsRequested = true;
+        Bounds b = cachedBoundsInLocal;
+        if (b == null) {
+            cachedBoundsInLocal = b = computeBoundsInLocal();
+        }
+        return b;
+    }
+
+    private @NonNull Bounds computeBoundsInLocal() {
         ObservableList<Figure> children = getChildren();
         if (children.isEmpty()) {
             return new BoundingBox(0, 0, 0, 0);
@@ -84,6 +149,15 @@ public abstract class AbstractCompositeFigure extends AbstractFigure {
 
     @Override
     public @NonNull Bounds getLayoutBoundsInParent() {
+        boundsRequested = true;
+        Bounds b = cachedLayoutBoundsInParent;
+        if (b == null) {
+            cachedLayoutBoundsInParent = b = computeLayoutBoundsInParent();
+        }
+        return b;
+    }
+
+    private @NonNull Bounds computeLayoutBoundsInParent() {
         double minX = Double.POSITIVE_INFINITY;
         double maxX = Double.NEGATIVE_INFINITY;
         double minY = Double.POSITIVE_INFINITY;
@@ -244,6 +244,10 @@ public abstract class AbstractFigure extends AbstractStyleablePropertyBean
         //        change events because this slows everything down!
         // invalidateTransforms();
         // firePropertyChangeEvent(this, key, oldValue, newValue);
+
+        // The change may affect the bounds of this figure, and thus the
+        // cached bounds of its ancestors. Invalidating them is cheap.
+        invalidateAncestorBounds();
     }
 
     @Override
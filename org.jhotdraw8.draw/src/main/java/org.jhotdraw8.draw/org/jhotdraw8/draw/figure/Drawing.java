@@ -14,6 +14,8 @@ import org.jhotdraw8.collection.NonNullKey;
 import org.jhotdraw8.collection.OrderedPair;
 import org.jhotdraw8.collection.SimpleNonNullListKey;
 import org.jhotdraw8.collection.SimpleNullableKey;
+import org.jhotdraw8.concurrent.BlackHoleWorkState;
+import org.jhotdraw8.concurrent.WorkState;
 import org.jhotdraw8.css.CssColor;
 import org.jhotdraw8.css.CssSize;
 import org.jhotdraw8.css.StylesheetsManager;
@@ -213,16 +215,31 @@ public interface Drawing extends Figure {
                 start = end;
             }
         }
+        for (Figure f : postorderIterable()) {
+            f.invalidateBounds();
+        }
     }
 
     default void updateAllCss(@NonNull RenderContext ctx) {
+        updateAllCss(ctx, new BlackHoleWorkState<>());
+    }
+
+    /**
+     * Applies the stylesheets to all figures of the drawing.
+     * <p>
+     * Stops applying stylesheets if the work state is cancelled.
+     *
+     * @param ctx       the render context
+     * @param workState the work state
+     */
+    default void updateAllCss(@NonNull RenderContext ctx, @NonNull WorkState<?> workState) {
         StylesheetsManager<Figure> styleManager = getStyleManager();
         if (styleManager != null) {
             // Performance: We copy preorderIterable into a list, so that it
             //              splits better for parallel execution.
             List<Figure> list = new ArrayList<>();
             preorderIterable().forEach(list::add);
-            styleManager.applyStylesheetsTo(list);
+            styleManager.applyStylesheetsTo(list, workState);
             for (Figure f : preorderIterable()) {
                 // XXX WR why do we updateCss again, after having done applyStylesheetsTo??
                 //f.updateCss(ctx);
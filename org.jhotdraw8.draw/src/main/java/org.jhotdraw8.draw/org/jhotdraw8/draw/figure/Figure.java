@@ -822,6 +822,56 @@ public interface Figure extends StyleablePropertyBean, TreeNode<Figure> {
      */
     void invalidateTransforms();
 
+    /**
+     * Invalidates the cached bounds of this figure, if this figure caches
+     * its bounds.
+     * <p>
+     * A figure which computes its bounds from its children may cache them.
+     * The cache must be invalidated when the bounds or the transformation
+     * of a descendant have changed.
+     * <p>
+     * The default implementation of this method is empty.
+     */
+    default void invalidateBounds() {
+    }
+
+    /**
+     * Invalidates the cached bounds of this figure, because the bounds or
+     * the transformation of a descendant have changed.
+     * <p>
+     * A figure may return false, if its bounds have not been requested since
+     * the last invocation of this method. The cached bounds of its ancestors
+     * can then not depend on the changed descendant, and have already been
+     * invalidated.
+     * <p>
+     * The default implementation invokes {@link #invalidateBounds()} and
+     * returns true.
+     *
+     * @return true if the cached bounds of the ancestors must be invalidated
+     * as well
+     */
+    default boolean invalidateBoundsOfDescendant() {
+        invalidateBounds();
+        return true;
+    }
+
+    /**
+     * Invokes {@link #invalidateBounds()} on this figure, and
+     * {@link #invalidateBoundsOfDescendant()} on its ancestors, up to the
+     * first ancestor whose cached bounds are already invalid.
+     * <p>
+     * This method is invoked on a figure by
+     * {@link org.jhotdraw8.draw.model.DrawingModel} when it determines that
+     * the bounds or the transformation of the figure may have changed.
+     */
+    default void invalidateAncestorBounds() {
+        invalidateBounds();
+        Figure f = getParent();
+        while (f != null && f.invalidateBoundsOfDescendant()) {
+            f = f.getParent();
+        }
+    }
+
     /**
      * Whether children may be added to this figure.
      *
@@ -22,7 +22,8 @@ import java.util.List;
  * @author Werner Randelshofer
  */
 public class GroupFigure extends AbstractCompositeFigure
-        implements Grouping, ResizableFigure, TransformableFigure, HideableFigure, StyleableFigure, LockableFigure, CompositableFigure {
+        implements Grouping, ResizableFigure, TransformableFigure, HideableFigure, StyleableFigure, LockableFigure, CompositableFigure,
+        VirtualizingFigure {
 
     /**
      * The CSS type selector for a label object is {@value #TYPE_SELECTOR}.
@@ -71,7 +72,9 @@ public class GroupFigure extends AbstractCompositeFigure
 
         List<Node> nodes = new ArrayList<>(getChildren().size());
         for (Figure child : getChildren()) {
-            nodes.add(ctx.getNode(child));
+            if (ctx.isMaterialized(child)) {
+                nodes.add(ctx.getNode(child));
+            }
         }
         ObservableList<Node> group = ((javafx.scene.Group) n).getChildren();
         if (!group.equals(nodes)) {
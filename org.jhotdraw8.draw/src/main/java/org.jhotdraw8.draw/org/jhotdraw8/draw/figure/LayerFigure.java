@@ -42,7 +42,8 @@ import static java.lang.Math.max;
  * @author Werner Randelshofer
  */
 public class LayerFigure extends AbstractCompositeFigure
-        implements Layer, StyleableFigure, HideableFigure, LockableFigure, NonTransformableFigure, CompositableFigure {
+        implements Layer, StyleableFigure, HideableFigure, LockableFigure, NonTransformableFigure, CompositableFigure,
+        VirtualizingFigure {
 
     private static final int MIN_NODES_FOR_CLIPPING = 100;
 
@@ -76,17 +77,19 @@ public class LayerFigure extends AbstractCompositeFigure
         List<Node> childNodes;
         int maxNodesPerLayer = ctx.getNonNull(RenderContext.MAX_NODES_PER_LAYER);
         final Bounds clipBounds = ctx.get(RenderContext.CLIP_BOUNDS);
-        if (renderingIntent == RenderingIntent.EDITOR
-                && clipBounds != null && getChildren().size() > MIN_NODES_FOR_CLIPPING) {
+        final Bounds virtualizationBounds = ctx.get(RenderContext.VIRTUALIZATION_BOUNDS);
+        final Bounds cullBounds = virtualizationBounds != null ? virtualizationBounds
+                : getChildren().size() > MIN_NODES_FOR_CLIPPING ? clipBounds : null;
+        if (renderingIntent == RenderingIntent.EDITOR && cullBounds != null) {
             childNodes = getChildren().stream()
                     .parallel()
-                    .filter(child -> child.getVisualBoundsInWorld().intersects(clipBounds))
+                    .filter(child -> child.getVisualBoundsInWorld().intersects(cullBounds))
                     .collect(Collectors.toList()).stream()
                     .map(ctx::getNode)// cannot be done in parallel
                     .collect(Collectors.toList());
 
             if (childNodes.size() > maxNodesPerLayer) {
-                updateNodeWithErrorMessage(ctx, childNodes, clipBounds);
+                updateNodeWithErrorMessage(ctx, childNodes, clipBounds != null ? clipBounds : cullBounds);
             }
         } else {
             childNodes = new ArrayList<>();
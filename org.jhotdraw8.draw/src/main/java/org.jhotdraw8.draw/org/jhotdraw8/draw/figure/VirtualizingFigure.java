@@ -0,0 +1,22 @@
+/*
+ * @(#)VirtualizingFigure.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+
+package org.jhotdraw8.draw.figure;
+
+import org.jhotdraw8.draw.render.RenderContext;
+
+/**
+ * Marker interface for composite figures that only attach the nodes of
+ * children that intersect with the {@link RenderContext#VIRTUALIZATION_BOUNDS}.
+ * <p>
+ * A renderer only updates the nodes of these figures, when the
+ * virtualization bounds change. Composite figures that do not implement
+ * this interface must attach the nodes of all their children.
+ *
+ * @see RenderContext#isMaterialized(Figure)
+ */
+public interface VirtualizingFigure extends Figure {
+
+}
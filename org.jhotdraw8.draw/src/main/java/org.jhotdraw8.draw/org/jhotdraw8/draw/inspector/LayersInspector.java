@@ -114,6 +114,11 @@ public class LayersInspector extends AbstractDrawingInspector {
                     fire = true;
                 }
                 break;
+            case BATCH_COMMITTED:
+                if (event.getChangedParents().contains(root)) {
+                    fire = true;
+                }
+                break;
             case NODE_ADDED_TO_TREE:
             case NODE_REMOVED_FROM_TREE:
             case NODE_CHANGED:
@@ -9,6 +9,7 @@ import org.jhotdraw8.annotation.Nullable;
 import org.jhotdraw8.collection.MapAccessor;
 import org.jhotdraw8.draw.figure.Figure;
 import org.jhotdraw8.io.IdFactory;
+import org.jhotdraw8.io.IdResolver;
 import org.jhotdraw8.text.Converter;
 import org.w3c.dom.Node;
 
@@ -514,9 +515,14 @@ public abstract class AbstractFigureFactory implements FigureFactory {
 
     @Override
     public <T> T stringToValue(@NonNull MapAccessor<T> key, @NonNull String string) throws IOException {
+        return stringToValue(key, string, idFactory);
+    }
+
+    @Override
+    public <T> T stringToValue(@NonNull MapAccessor<T> key, @NonNull String string, @Nullable IdResolver idResolver) throws IOException {
         try {
             Converter<T> converter = getConverter(key);
-            return converter.fromString(string, idFactory);
+            return converter.fromString(string, idResolver);
         } catch (ParseException ex) {
             throw new IOException(ex + "\nstring: \"" + string + "\"", ex);
         }
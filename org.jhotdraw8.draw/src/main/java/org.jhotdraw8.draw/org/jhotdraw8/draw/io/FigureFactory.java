@@ -10,6 +10,7 @@ import org.jhotdraw8.collection.ImmutableList;
 import org.jhotdraw8.collection.MapAccessor;
 import org.jhotdraw8.draw.figure.Drawing;
 import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.io.IdResolver;
 import org.w3c.dom.Node;
 
 import javax.xml.stream.XMLStreamException;
@@ -150,6 +151,20 @@ public interface FigureFactory {
      */
     @Nullable <T> T stringToValue(MapAccessor<T> key, String cdata) throws IOException;
 
+    /**
+     * Maps an XML attribute value to a value, and resolves ids with the
+     * specified id resolver instead of the id factory of this figure factory.
+     *
+     * @param <T>        the type of the value
+     * @param key        the key
+     * @param cdata      the XML attribute value
+     * @param idResolver the id resolver
+     * @return the mapped value
+     * @throws java.io.IOException if the factory does not support a mapping for
+     *                             the specified key
+     */
+    @Nullable <T> T stringToValue(MapAccessor<T> key, String cdata, @Nullable IdResolver idResolver) throws IOException;
+
     <T> boolean needsIdResolver(MapAccessor<T> key) throws IOException;
 
     /**
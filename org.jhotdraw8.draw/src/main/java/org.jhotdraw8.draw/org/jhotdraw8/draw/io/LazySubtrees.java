@@ -0,0 +1,281 @@
+/*
+ * @(#)LazySubtrees.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.draw.io;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.annotation.Nullable;
+import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.draw.figure.HideableFigure;
+import org.jhotdraw8.draw.model.DrawingModel;
+import org.jhotdraw8.draw.model.DrawingModelEvent;
+import org.jhotdraw8.event.Listener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps track of the top-level subtrees of a document, whose children have
+ * not been read yet.
+ * <p>
+ * {@link SimpleBinaryReader#readLazily} creates the top-level figures of a
+ * document with their attributes, but without their children. These
+ * figures are placeholders for their subtrees. The reader returns an
+ * instance of this class, which holds the root figure of the document.
+ * <p>
+ * The children of a placeholder can be loaded on demand with
+ * {@link #load}, when the placeholder becomes visible with
+ * {@link #loadWhenVisible}, or in the background with
+ * {@link #loadInBackground}. The children may be parsed on any thread, but
+ * they are always added through the drawing model, on the thread that owns
+ * the model.
+ * <p>
+ * References to figures in subtrees that have not been loaded yet are
+ * resolved when these subtrees are loaded.
+ */
+public class LazySubtrees {
+    private static final Logger LOGGER = Logger.getLogger(LazySubtrees.class.getName());
+
+    /**
+     * Parses the children of placeholders.
+     * <p>
+     * The methods of the parser are never invoked concurrently.
+     */
+    public interface Parser {
+        /**
+         * Parses the children of the specified placeholder. The children are
+         * not added to the placeholder.
+         *
+         * @param placeholder a placeholder
+         * @return the children
+         * @throws IOException if parsing fails
+         */
+        @NonNull List<Figure> parseChildren(@NonNull Figure placeholder) throws IOException;
+
+        /**
+         * Resolves references to figures that have been parsed since the
+         * last invocation of this method.
+         *
+         * @param model the drawing model
+         * @throws IOException if a reference can not be converted
+         */
+        void resolveReferences(@NonNull DrawingModel model) throws IOException;
+    }
+
+    private final @NonNull Figure root;
+    private final @NonNull Parser parser;
+    /**
+     * Serializes the invocations of the parser.
+     * <p>
+     * The monitor of this object only guards {@link #unloaded} and
+     * {@link #parsed}, so that it is not held while parsing.
+     */
+    private final @NonNull Object parserLock = new Object();
+    /**
+     * Placeholders whose children have not been added yet, in document order.
+     */
+    private final @NonNull Set<Figure> unloaded;
+    /**
+     * Children that have been parsed, but that have not been added yet.
+     */
+    private final @NonNull Map<Figure, List<Figure>> parsed = new HashMap<>();
+
+    public LazySubtrees(@NonNull Figure root, @NonNull Parser parser, @NonNull Collection<Figure> placeholders) {
+        this.root = root;
+        this.parser = parser;
+        this.unloaded = new LinkedHashSet<>(placeholders);
+    }
+
+    /**
+     * Returns the root figure of the document.
+     *
+     * @return the root figure
+     */
+    public @NonNull Figure getRoot() {
+        return root;
+    }
+
+    /**
+     * Whether the children of the specified figure have been loaded.
+     *
+     * @param figure a figure
+     * @return true if the figure is not a placeholder, or if its children
+     * have been loaded
+     */
+    public synchronized boolean isLoaded(@NonNull Figure figure) {
+        return !unloaded.contains(figure);
+    }
+
+    /**
+     * Whether the children of all placeholders have been loaded.
+     *
+     * @return true if all placeholders have been loaded
+     */
+    public synchronized boolean isAllLoaded() {
+        return unloaded.isEmpty();
+    }
+
+    /**
+     * Returns the placeholders whose children have not been loaded yet.
+     *
+     * @return the placeholders in document order
+     */
+    public synchronized @NonNull List<Figure> getUnloaded() {
+        return new ArrayList<>(unloaded);
+    }
+
+    /**
+     * Parses the children of the specified placeholder, if this has not
+     * been done yet.
+     *
+     * @param placeholder a placeholder
+     * @return the children or null if they have already been added
+     * @throws IOException if parsing fails
+     */
+    private @Nullable List<Figure> parse(@NonNull Figure placeholder) throws IOException {
+        synchronized (parserLock) {
+            synchronized (this) {
+                if (!unloaded.contains(placeholder)) {
+                    return null;
+                }
+                List<Figure> children = parsed.get(placeholder);
+                if (children != null) {
+                    return children;
+                }
+            }
+            List<Figure> children = parser.parseChildren(placeholder);
+            synchronized (this) {
+                parsed.put(placeholder, children);
+            }
+            return children;
+        }
+    }
+
+    private void add(@NonNull Figure placeholder, @NonNull List<Figure> children, @NonNull DrawingModel model) throws IOException {
+        synchronized (this) {
+            if (!unloaded.remove(placeholder)) {
+                return;
+            }
+            parsed.remove(placeholder);
+        }
+        model.beginBatch();
+        try {
+            for (Figure child : children) {
+                model.addChildTo(child, placeholder);
+            }
+            synchronized (parserLock) {
+                parser.resolveReferences(model);
+            }
+        } finally {
+            model.commitBatch();
+        }
+    }
+
+    /**
+     * Loads the children of the specified placeholder now, and adds them to
+     * the placeholder. Does nothing if the children have already been
+     * loaded.
+     * <p>
+     * This method must be called on the thread that owns the model.
+     *
+     * @param placeholder a placeholder
+     * @param model       the drawing model
+     * @throws IOException if parsing fails
+     */
+    public void load(@NonNull Figure placeholder, @NonNull DrawingModel model) throws IOException {
+        List<Figure> children = parse(placeholder);
+        if (children != null) {
+            add(placeholder, children, model);
+        }
+    }
+
+    /**
+     * Loads the children of all placeholders in the background.
+     * Visible placeholders are loaded first.
+     *
+     * @param model         the drawing model
+     * @param parseExecutor the executor on which the children are parsed
+     * @param modelExecutor the executor of the thread that owns the model,
+     *                      on which the children are added
+     * @return a future that completes when all placeholders have been loaded
+     */
+    public @NonNull CompletableFuture<Void> loadInBackground(@NonNull DrawingModel model,
+                                                             @NonNull Executor parseExecutor,
+                                                             @NonNull Executor modelExecutor) {
+        List<Figure> placeholders = getUnloaded();
+        placeholders.sort(Comparator.comparing(f -> !f.isVisible()));
+        CompletableFuture<Void> future = CompletableFuture.completedFuture(null);
+        for (Figure placeholder : placeholders) {
+            future = future.thenApplyAsync(v -> {
+                try {
+                    return parse(placeholder);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, parseExecutor).thenAcceptAsync(children -> {
+                if (children != null) {
+                    try {
+                        add(placeholder, children, model);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            }, modelExecutor);
+        }
+        return future;
+    }
+
+    /**
+     * Loads the children of the placeholders that are visible now, and of
+     * each other placeholder as soon as its {@link HideableFigure#VISIBLE}
+     * property is set to true through the specified model.
+     * <p>
+     * This method must be called on the thread that owns the model.
+     *
+     * @param model the drawing model
+     */
+    public void loadWhenVisible(@NonNull DrawingModel model) {
+        for (Figure placeholder : getUnloaded()) {
+            if (placeholder.isVisible()) {
+                try {
+                    load(placeholder, model);
+                } catch (IOException e) {
+                    LOGGER.log(Level.WARNING, "Could not load children of " + placeholder, e);
+                }
+            }
+        }
+        if (isAllLoaded()) {
+            return;
+        }
+        model.addDrawingModelListener(new Listener<DrawingModelEvent>() {
+            @Override
+            public void handle(DrawingModelEvent event) {
+                if (event.getEventType() == DrawingModelEvent.EventType.PROPERTY_VALUE_CHANGED
+                        && HideableFigure.VISIBLE.equals(event.getKey())
+                        && Boolean.TRUE.equals(event.getNewValue())) {
+                    try {
+                        load(event.getNode(), model);
+                    } catch (IOException e) {
+                        LOGGER.log(Level.WARNING, "Could not load children of " + event.getNode(), e);
+                    }
+                }
+                if (isAllLoaded()) {
+                    model.removeDrawingModelListener(this);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,342 @@
+/*
+ * @(#)SimpleBinaryFormat.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.draw.io;
+
+import org.jhotdraw8.annotation.NonNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Constants and primitive encodings of the binary drawing format that is
+ * written by {@link SimpleBinaryWriter} and read by {@link SimpleBinaryReader}.
+ * <p>
+ * The format stores the same figures and attributes as {@link SimpleXmlWriter},
+ * using the element and attribute names of the {@link FigureFactory}.
+ * <pre>
+ * File       = Magic Version StringTable Stylesheets Record ;
+ * Magic      = int32 0x4A484442 ("JHDB"), big endian ;
+ * Version    = varint ;
+ * StringTable= varint count, { Utf }* ;
+ * Stylesheets= varint count, { Utf }* ;
+ * Record     = varint (element name index + 1), varint length,
+ *              Utf id, { Attribute }* varint 0, { Record }* varint 0 ;
+ * Attribute  = varint (attribute name index + 1), byte tag, payload ;
+ * Utf        = varint length, UTF-8 bytes ;
+ * </pre>
+ * A compact double is written as a single varlong if it is integral,
+ * and as raw 64-bit IEEE 754 bits otherwise.
+ * The length of a record covers the bytes of the record that follow the
+ * length field, including the records of all descendants. This allows
+ * to skip a subtree without decoding it.
+ * <p>
+ * Element names, attribute names and units are stored in the string table.
+ * The payload of an attribute depends on its tag, see the {@code TAG_...}
+ * constants.
+ */
+final class SimpleBinaryFormat {
+    /**
+     * The magic number at the start of a file.
+     */
+    static final int MAGIC = 0x4A484442;
+    /**
+     * The version of the format.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * The value is null. No payload.
+     */
+    static final byte TAG_NULL = 0;
+    /**
+     * The value is {@link Boolean#FALSE}. No payload.
+     */
+    static final byte TAG_FALSE = 1;
+    /**
+     * The value is {@link Boolean#TRUE}. No payload.
+     */
+    static final byte TAG_TRUE = 2;
+    /**
+     * The value is an {@link Integer}. Payload: zig-zag varint.
+     */
+    static final byte TAG_INT = 3;
+    /**
+     * The value is a {@link Long}. Payload: zig-zag varlong.
+     */
+    static final byte TAG_LONG = 4;
+    /**
+     * The value is a {@link Double}. Payload: compact double.
+     */
+    static final byte TAG_DOUBLE = 5;
+    /**
+     * The value is a {@link String}. Payload: Utf.
+     */
+    static final byte TAG_STRING = 6;
+    /**
+     * The value is a {@link org.jhotdraw8.css.CssSize}. Payload: compact
+     * double, varint units index.
+     */
+    static final byte TAG_SIZE = 7;
+    /**
+     * The value is a {@link org.jhotdraw8.css.CssPoint2D}. Payload: two
+     * sizes.
+     */
+    static final byte TAG_POINT = 8;
+    /**
+     * The value is a {@link org.jhotdraw8.css.CssDimension2D}. Payload: two
+     * sizes.
+     */
+    static final byte TAG_DIMENSION = 9;
+    /**
+     * The value is a {@link org.jhotdraw8.css.CssRectangle2D}. Payload: four
+     * sizes.
+     */
+    static final byte TAG_RECTANGLE = 10;
+    /**
+     * The value is converted by {@link FigureFactory#stringToValue}.
+     * Payload: Utf.
+     */
+    static final byte TAG_TEXT = 11;
+    /**
+     * The value is converted by {@link FigureFactory#stringToValue} after
+     * all figures have been read, because it refers to other figures.
+     * Payload: Utf.
+     */
+    static final byte TAG_REFERENCE = 12;
+
+    /**
+     * Integral doubles up to this magnitude are written as varlongs.
+     */
+    private static final long MAX_INTEGRAL = 1L << 53;
+    private static final long NEGATIVE_ZERO_BITS = Double.doubleToRawLongBits(-0.0);
+
+    private SimpleBinaryFormat() {
+    }
+
+    /**
+     * A growable byte buffer with the primitive encodings of the format.
+     */
+    static final class Encoder {
+        private byte @NonNull [] buf = new byte[256];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        void reset() {
+            size = 0;
+        }
+
+        private void grow(int n) {
+            if (size + n > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + n));
+            }
+        }
+
+        void writeByte(int b) {
+            grow(1);
+            buf[size++] = (byte) b;
+        }
+
+        void writeInt32(int v) {
+            grow(4);
+            buf[size++] = (byte) (v >>> 24);
+            buf[size++] = (byte) (v >>> 16);
+            buf[size++] = (byte) (v >>> 8);
+            buf[size++] = (byte) v;
+        }
+
+        void writeVarInt(int v) {
+            grow(5);
+            while ((v & ~0x7f) != 0) {
+                buf[size++] = (byte) ((v & 0x7f) | 0x80);
+                v >>>= 7;
+            }
+            buf[size++] = (byte) v;
+        }
+
+        void writeVarLong(long v) {
+            grow(10);
+            while ((v & ~0x7fL) != 0) {
+                buf[size++] = (byte) ((v & 0x7f) | 0x80);
+                v >>>= 7;
+            }
+            buf[size++] = (byte) v;
+        }
+
+        void writeZigZagInt(int v) {
+            writeVarInt((v << 1) ^ (v >> 31));
+        }
+
+        void writeZigZagLong(long v) {
+            writeVarLong((v << 1) ^ (v >> 63));
+        }
+
+        void writeDouble(double v) {
+            long bits = Double.doubleToRawLongBits(v);
+            grow(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buf[size++] = (byte) (bits >>> shift);
+            }
+        }
+
+        /**
+         * Writes a double. Integral values are written as a zig-zag varlong
+         * shifted left by one bit, all other values are written as a varlong 1
+         * followed by the raw 64-bit IEEE 754 bits.
+         */
+        void writeCompactDouble(double v) {
+            long l = (long) v;
+            if (l == v && Math.abs(l) <= MAX_INTEGRAL && Double.doubleToRawLongBits(v) != NEGATIVE_ZERO_BITS) {
+                writeVarLong(((l << 1) ^ (l >> 63)) << 1);
+            } else {
+                writeVarLong(1);
+                writeDouble(v);
+            }
+        }
+
+        void writeUtf(@NonNull String s) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            grow(bytes.length);
+            System.arraycopy(bytes, 0, buf, size, bytes.length);
+            size += bytes.length;
+        }
+
+        void write(@NonNull Encoder that) {
+            grow(that.size);
+            System.arraycopy(that.buf, 0, buf, size, that.size);
+            size += that.size;
+        }
+
+        void writeTo(@NonNull OutputStream out) throws IOException {
+            out.write(buf, 0, size);
+        }
+    }
+
+    /**
+     * Decodes the primitive encodings of the format from a byte buffer.
+     * <p>
+     * The decoder uses absolute reads, so that several decoders can share
+     * the same buffer.
+     */
+    static final class Decoder {
+        private final @NonNull ByteBuffer buf;
+        private final int limit;
+        private int pos;
+
+        Decoder(@NonNull ByteBuffer buf, int offset, int limit) {
+            this.buf = buf;
+            this.pos = offset;
+            this.limit = limit;
+        }
+
+        int position() {
+            return pos;
+        }
+
+        void position(int pos) {
+            this.pos = pos;
+        }
+
+        int limit() {
+            return limit;
+        }
+
+        private void require(int n) throws IOException {
+            if (n < 0 || pos + n > limit) {
+                throw new IOException("Unexpected end of data at offset " + pos + ".");
+            }
+        }
+
+        int readByte() throws IOException {
+            require(1);
+            return buf.get(pos++);
+        }
+
+        int readInt32() throws IOException {
+            require(4);
+            int v = buf.getInt(pos);
+            pos += 4;
+            return v;
+        }
+
+        int readVarInt() throws IOException {
+            int v = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                require(1);
+                byte b = buf.get(pos++);
+                v |= (b & 0x7f) << shift;
+                if (b >= 0) {
+                    return v;
+                }
+            }
+            throw new IOException("Malformed varint at offset " + pos + ".");
+        }
+
+        long readVarLong() throws IOException {
+            long v = 0;
+            for (int shift = 0; shift < 70; shift += 7) {
+                require(1);
+                byte b = buf.get(pos++);
+                v |= (long) (b & 0x7f) << shift;
+                if (b >= 0) {
+                    return v;
+                }
+            }
+            throw new IOException("Malformed varlong at offset " + pos + ".");
+        }
+
+        int readZigZagInt() throws IOException {
+            int v = readVarInt();
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        long readZigZagLong() throws IOException {
+            long v = readVarLong();
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        double readDouble() throws IOException {
+            require(8);
+            double v = Double.longBitsToDouble(buf.getLong(pos));
+            pos += 8;
+            return v;
+        }
+
+        double readCompactDouble() throws IOException {
+            long v = readVarLong();
+            if (v == 1) {
+                return readDouble();
+            }
+            if ((v & 1) != 0) {
+                throw new IOException("Malformed double at offset " + pos + ".");
+            }
+            v >>>= 1;
+            return (double) ((v >>> 1) ^ -(v & 1));
+        }
+
+        @NonNull String readUtf() throws IOException {
+            int length = readVarInt();
+            require(length);
+            String s;
+            if (buf.hasArray()) {
+                s = new String(buf.array(), buf.arrayOffset() + pos, length, StandardCharsets.UTF_8);
+            } else {
+                byte[] bytes = new byte[length];
+                ByteBuffer slice = buf.duplicate();
+                slice.position(pos);
+                slice.get(bytes);
+                s = new String(bytes, StandardCharsets.UTF_8);
+            }
+            pos += length;
+            return s;
+        }
+    }
+}
@@ -0,0 +1,466 @@
+/*
+ * @(#)SimpleBinaryReader.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.draw.io;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.annotation.Nullable;
+import org.jhotdraw8.collection.ImmutableLists;
+import org.jhotdraw8.collection.MapAccessor;
+import org.jhotdraw8.concurrent.BlackHoleWorkState;
+import org.jhotdraw8.concurrent.WorkState;
+import org.jhotdraw8.css.CssDimension2D;
+import org.jhotdraw8.css.CssPoint2D;
+import org.jhotdraw8.css.CssRectangle2D;
+import org.jhotdraw8.css.CssSize;
+import org.jhotdraw8.draw.figure.Drawing;
+import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.draw.figure.StyleableFigure;
+import org.jhotdraw8.draw.model.DrawingModel;
+import org.jhotdraw8.io.IdFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Reads a drawing in the binary format described in {@link SimpleBinaryFormat}.
+ * <p>
+ * Attributes that refer to other figures are resolved after all figures
+ * have been read.
+ * <p>
+ * {@link #readLazily} only reads the attributes of the top-level figures,
+ * and skips their children using the record lengths. The children are
+ * parsed later through the returned {@link LazySubtrees} object. Files are
+ * memory mapped, so that the skipped records are not read from disk until
+ * they are needed.
+ */
+public class SimpleBinaryReader extends AbstractInputFormat {
+    /**
+     * Number of figures between two progress updates.
+     */
+    private static final int PROGRESS_INTERVAL = 4096;
+    /**
+     * Maximal number of distinct converted text values that are kept for
+     * a key.
+     */
+    private static final int MAX_TEXT_VALUES_PER_KEY = 1024;
+    private final @NonNull IdFactory idFactory;
+    private @NonNull FigureFactory figureFactory;
+
+    public SimpleBinaryReader(@NonNull FigureFactory figureFactory, @NonNull IdFactory idFactory) {
+        this.figureFactory = figureFactory;
+        this.idFactory = idFactory;
+    }
+
+    public @NonNull IdFactory getIdFactory() {
+        return idFactory;
+    }
+
+    public void setFigureFactory(@NonNull FigureFactory figureFactory) {
+        this.figureFactory = figureFactory;
+    }
+
+    @Override
+    public @NonNull Figure read(@NonNull Path file, @Nullable Drawing drawing, @NonNull WorkState<Void> workState) throws IOException {
+        return read(new Context(map(file), workState, idFactory, false), getDocumentHome(file));
+    }
+
+    @Override
+    public @NonNull Figure read(@NonNull InputStream in, @Nullable Drawing drawing, @Nullable URI documentHome, @NonNull WorkState<Void> workState) throws IOException {
+        return read(new Context(ByteBuffer.wrap(in.readAllBytes()), workState, idFactory, false), documentHome);
+    }
+
+    /**
+     * Reads the top-level figures of a drawing with their attributes, but
+     * without their children.
+     * <p>
+     * The ids of the drawing are kept in a new {@link IdFactory}, and not in
+     * the id factory of this reader, so that the children can be parsed
+     * after this reader has read other drawings.
+     *
+     * @param file      the file
+     * @param workState the work state
+     * @return the subtrees of the drawing, with the drawing as root
+     * @throws IOException if reading fails
+     */
+    public @NonNull LazySubtrees readLazily(@NonNull Path file, @NonNull WorkState<Void> workState) throws IOException {
+        return readLazily(map(file), getDocumentHome(file), workState);
+    }
+
+    /**
+     * Reads the top-level figures of a drawing with their attributes, but
+     * without their children.
+     *
+     * @param in           the input stream
+     * @param documentHome the document home
+     * @param workState    the work state
+     * @return the subtrees of the drawing, with the drawing as root
+     * @throws IOException if reading fails
+     * @see #readLazily(Path, WorkState)
+     */
+    public @NonNull LazySubtrees readLazily(@NonNull InputStream in, @Nullable URI documentHome, @NonNull WorkState<Void> workState) throws IOException {
+        return readLazily(ByteBuffer.wrap(in.readAllBytes()), documentHome, workState);
+    }
+
+    private @NonNull LazySubtrees readLazily(@NonNull ByteBuffer buffer, @Nullable URI documentHome, @NonNull WorkState<Void> workState) throws IOException {
+        Context ctx = new Context(buffer, workState, new SimpleFigureIdFactory(), true);
+        Figure figure = read(ctx, documentHome);
+        ctx.workState = new BlackHoleWorkState<>();
+        return new LazySubtrees(figure, new SubtreeParser(ctx), ctx.placeholders.keySet());
+    }
+
+    private static @NonNull ByteBuffer map(@NonNull Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File is too large: " + size + " bytes.");
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    private static @NonNull URI getDocumentHome(@NonNull Path file) {
+        return file.getParent() == null ? FileSystems.getDefault().getPath(System.getProperty("user.home")).toUri() : file.getParent().toUri();
+    }
+
+    private @NonNull Figure read(@NonNull Context ctx, @Nullable URI documentHome) throws IOException {
+        ctx.workState.updateProgress(0.0);
+        ctx.idFactory.setDocumentHome(documentHome);
+        SimpleBinaryFormat.Decoder d = ctx.decoder;
+
+        if (ctx.buffer.limit() < 4 || d.readInt32() != SimpleBinaryFormat.MAGIC) {
+            throw new IOException("Input file is not a binary drawing.");
+        }
+        int version = d.readVarInt();
+        if (version != SimpleBinaryFormat.VERSION) {
+            throw new IOException("Unsupported version " + version + ".");
+        }
+        int count = d.readVarInt();
+        ctx.strings = new String[count];
+        for (int i = 0; i < count; i++) {
+            ctx.strings[i] = d.readUtf();
+        }
+        List<URI> stylesheets = new ArrayList<>();
+        for (int i = 0, n = d.readVarInt(); i < n; i++) {
+            stylesheets.add(ctx.idFactory.absolutize(URI.create(d.readUtf())));
+        }
+
+        int elementIndex = d.readVarInt();
+        if (elementIndex == 0) {
+            throw new IOException("Input file is empty.");
+        }
+        Figure figure = readRecord(ctx, null, elementIndex, 0);
+        if (d.position() != d.limit()) {
+            throw new IOException("Unexpected data after the root figure at offset " + d.position() + ".");
+        }
+        if (figureFactory.getStylesheetsKey() != null && !stylesheets.isEmpty()) {
+            figure.set(figureFactory.getStylesheetsKey(), ImmutableLists.copyOf(stylesheets));
+        }
+        ctx.unparsedCount = ctx.placeholders.size();
+        resolveReferences(ctx, null);
+        if ((figure instanceof Drawing)) {
+            figure.set(Drawing.DOCUMENT_HOME, documentHome);
+        }
+        ctx.workState.updateProgress(1.0);
+        return figure;
+    }
+
+    private @NonNull String getString(@NonNull Context ctx, int index) throws IOException {
+        if (index < 0 || index >= ctx.strings.length) {
+            throw new IOException("Illegal string index " + index + " at offset " + ctx.decoder.position() + ".");
+        }
+        return ctx.strings[index];
+    }
+
+    /**
+     * Reads the remainder of a figure record, after its element name index
+     * has been read.
+     * <p>
+     * The figure is not added to the parent.
+     *
+     * @param ctx          the read context
+     * @param parent       the parent figure or null for the root figure
+     * @param elementIndex the element name index + 1
+     * @param depth        the depth of the figure, 0 for the root figure
+     * @return the figure
+     * @throws IOException if reading fails
+     */
+    private @NonNull Figure readRecord(@NonNull Context ctx, @Nullable Figure parent, int elementIndex, int depth) throws IOException {
+        SimpleBinaryFormat.Decoder d = ctx.decoder;
+        String elementName = getString(ctx, elementIndex - 1);
+        int length = d.readVarInt();
+        int end = d.position() + length;
+        if (length < 0 || end > d.limit()) {
+            throw new IOException("Illegal record length " + length + " at offset " + d.position() + ".");
+        }
+        Figure figure;
+        try {
+            figure = figureFactory.createFigureByElementName(elementName);
+        } catch (IOException e) {
+            throw new IOException("Cannot create figure for element <" + elementName + "> at offset " + d.position() + ".", e);
+        }
+        if (parent != null && (!figure.isSuitableParent(parent) || !parent.isSuitableChild(figure))) {
+            throw new IOException("Cannot add figure to parent in element <" + elementName + "> at offset " + d.position() + ".");
+        }
+        if (++ctx.figureCount % PROGRESS_INTERVAL == 0) {
+            if (ctx.workState.isCancelled()) {
+                throw new CancellationException();
+            }
+            ctx.workState.updateProgress((double) d.position() / d.limit());
+        }
+
+        String id = d.readUtf();
+        if (!id.isEmpty()) {
+            ctx.idFactory.putIdToObject(id, figure);
+            figure.set(StyleableFigure.ID, id);
+        }
+        readAttributes(ctx, figure);
+        if (ctx.lazy && depth == 1) {
+            ctx.placeholders.put(figure, new int[]{d.position(), end});
+            d.position(end);
+            return figure;
+        }
+        // We add the children after they have been read, so that setting their
+        // attributes and adding their children does not invalidate their
+        // ancestors. Adding them all at once builds the child list in
+        // linear time, and fires a single change event.
+        List<Figure> children = new ArrayList<>();
+        for (int childIndex = d.readVarInt(); childIndex != 0; childIndex = d.readVarInt()) {
+            children.add(readRecord(ctx, figure, childIndex, depth + 1));
+        }
+        if (d.position() != end) {
+            throw new IOException("Record of element <" + elementName + "> does not end at offset " + end + ".");
+        }
+        figure.getChildren().addAll(children);
+        return figure;
+    }
+
+    private void readAttributes(@NonNull Context ctx, @NonNull Figure figure) throws IOException {
+        SimpleBinaryFormat.Decoder d = ctx.decoder;
+        for (int nameIndex = d.readVarInt(); nameIndex != 0; nameIndex = d.readVarInt()) {
+            MapAccessor<Object> key = getKey(ctx, figure, nameIndex);
+            int tag = d.readByte();
+            switch (tag) {
+            case SimpleBinaryFormat.TAG_NULL:
+                figure.set(key, null);
+                break;
+            case SimpleBinaryFormat.TAG_FALSE:
+                figure.set(key, Boolean.FALSE);
+                break;
+            case SimpleBinaryFormat.TAG_TRUE:
+                figure.set(key, Boolean.TRUE);
+                break;
+            case SimpleBinaryFormat.TAG_INT:
+                figure.set(key, d.readZigZagInt());
+                break;
+            case SimpleBinaryFormat.TAG_LONG:
+                figure.set(key, d.readZigZagLong());
+                break;
+            case SimpleBinaryFormat.TAG_DOUBLE:
+                figure.set(key, d.readCompactDouble());
+                break;
+            case SimpleBinaryFormat.TAG_STRING:
+                figure.set(key, d.readUtf());
+                break;
+            case SimpleBinaryFormat.TAG_SIZE:
+                figure.set(key, readSize(ctx));
+                break;
+            case SimpleBinaryFormat.TAG_POINT:
+                figure.set(key, new CssPoint2D(readSize(ctx), readSize(ctx)));
+                break;
+            case SimpleBinaryFormat.TAG_DIMENSION:
+                figure.set(key, new CssDimension2D(readSize(ctx), readSize(ctx)));
+                break;
+            case SimpleBinaryFormat.TAG_RECTANGLE:
+                figure.set(key, new CssRectangle2D(readSize(ctx), readSize(ctx), readSize(ctx), readSize(ctx)));
+                break;
+            case SimpleBinaryFormat.TAG_TEXT:
+                figure.set(key, textToValue(ctx, key, d.readUtf()));
+                break;
+            case SimpleBinaryFormat.TAG_REFERENCE:
+                ctx.referenceFigures.add(figure);
+                ctx.referenceKeys.add(key);
+                ctx.referenceValues.add(d.readUtf());
+                break;
+            default:
+                throw new IOException("Unsupported value tag " + tag + " in attribute \"" + getString(ctx, nameIndex - 1) + "\" at offset " + d.position() + ".");
+            }
+        }
+    }
+
+    /**
+     * Returns the key for the specified attribute name index.
+     * <p>
+     * The keys are looked up once for each figure class.
+     */
+    private @NonNull MapAccessor<Object> getKey(@NonNull Context ctx, @NonNull Figure figure, int nameIndex) throws IOException {
+        MapAccessor<?>[] keys = ctx.keysByClass.computeIfAbsent(figure.getClass(), k -> new MapAccessor<?>[ctx.strings.length + 1]);
+        if (nameIndex >= keys.length) {
+            throw new IOException("Illegal string index " + (nameIndex - 1) + " at offset " + ctx.decoder.position() + ".");
+        }
+        @SuppressWarnings("unchecked")
+        MapAccessor<Object> key = (MapAccessor<Object>) keys[nameIndex];
+        if (key == null) {
+            String name = getString(ctx, nameIndex - 1);
+            @SuppressWarnings("unchecked")
+            MapAccessor<Object> found = (MapAccessor<Object>) figureFactory.getKeyByAttributeName(figure, name);
+            if (found == null) {
+                throw new IOException("Unsupported attribute \"" + name + "\" at offset " + ctx.decoder.position() + ".");
+            }
+            keys[nameIndex] = key = found;
+        }
+        return key;
+    }
+
+    /**
+     * Converts a text value with {@link FigureFactory#stringToValue}.
+     * <p>
+     * Text values are typically style values, which repeat across many
+     * figures. Since the converted values are immutable, we convert each
+     * distinct text only once per key, and share the value between the
+     * figures.
+     */
+    private @Nullable Object textToValue(@NonNull Context ctx, @NonNull MapAccessor<Object> key, @NonNull String text) throws IOException {
+        Map<String, Object> values = ctx.textValues.computeIfAbsent(key, k -> new HashMap<>());
+        Object value = values.get(text);
+        if (value == null && !values.containsKey(text)) {
+            value = figureFactory.stringToValue(key, text);
+            if (values.size() < MAX_TEXT_VALUES_PER_KEY) {
+                values.put(text, value);
+            }
+        }
+        return value;
+    }
+
+    private @NonNull CssSize readSize(@NonNull Context ctx) throws IOException {
+        double value = ctx.decoder.readCompactDouble();
+        return CssSize.from(value, getString(ctx, ctx.decoder.readVarInt()));
+    }
+
+    /**
+     * Resolves the pending references.
+     * <p>
+     * While there are unparsed subtrees, references to ids that are not
+     * known yet stay pending.
+     *
+     * @param ctx   the read context
+     * @param model the drawing model, or null if the figures are not in a
+     *              model yet
+     * @throws IOException if a reference can not be converted
+     */
+    private void resolveReferences(@NonNull Context ctx, @Nullable DrawingModel model) throws IOException {
+        int pending = 0;
+        for (int i = 0, n = ctx.referenceFigures.size(); i < n; i++) {
+            Figure figure = ctx.referenceFigures.get(i);
+            MapAccessor<Object> key = ctx.referenceKeys.get(i);
+            String value = ctx.referenceValues.get(i);
+            if (ctx.unparsedCount > 0 && ctx.idFactory.getObject(value) == null) {
+                ctx.referenceFigures.set(pending, figure);
+                ctx.referenceKeys.set(pending, key);
+                ctx.referenceValues.set(pending, value);
+                pending++;
+            } else if (model == null) {
+                figure.set(key, figureFactory.stringToValue(key, value, ctx.idFactory));
+            } else {
+                model.set(figure, key, figureFactory.stringToValue(key, value, ctx.idFactory));
+            }
+        }
+        ctx.referenceFigures.subList(pending, ctx.referenceFigures.size()).clear();
+        ctx.referenceKeys.subList(pending, ctx.referenceKeys.size()).clear();
+        ctx.referenceValues.subList(pending, ctx.referenceValues.size()).clear();
+    }
+
+    /**
+     * Parses the children of the top-level figures that were skipped by a
+     * lazy read.
+     */
+    private class SubtreeParser implements LazySubtrees.Parser {
+        private final @NonNull Context ctx;
+
+        private SubtreeParser(@NonNull Context ctx) {
+            this.ctx = ctx;
+        }
+
+        @Override
+        public @NonNull List<Figure> parseChildren(@NonNull Figure placeholder) throws IOException {
+            int[] range = ctx.placeholders.get(placeholder);
+            if (range == null) {
+                throw new IOException("Figure is not a placeholder: " + placeholder + ".");
+            }
+            SimpleBinaryFormat.Decoder d = new SimpleBinaryFormat.Decoder(ctx.buffer, range[0], range[1]);
+            ctx.decoder = d;
+            List<Figure> children = new ArrayList<>();
+            for (int childIndex = d.readVarInt(); childIndex != 0; childIndex = d.readVarInt()) {
+                children.add(readRecord(ctx, placeholder, childIndex, 2));
+            }
+            if (d.position() != range[1]) {
+                throw new IOException("Record of placeholder " + placeholder + " does not end at offset " + range[1] + ".");
+            }
+            ctx.placeholders.remove(placeholder);
+            ctx.unparsedCount--;
+            return children;
+        }
+
+        @Override
+        public void resolveReferences(@NonNull DrawingModel model) throws IOException {
+            SimpleBinaryReader.this.resolveReferences(ctx, model);
+        }
+    }
+
+    /**
+     * Holds the state of a single read operation.
+     * <p>
+     * After a lazy read, the context is kept by the {@link SubtreeParser}.
+     */
+    private static class Context {
+        private final @NonNull ByteBuffer buffer;
+        private @NonNull SimpleBinaryFormat.Decoder decoder;
+        private @NonNull WorkState<Void> workState;
+        /**
+         * Maps ids to figures. After a lazy read, this is not the id factory
+         * of the reader.
+         */
+        private final @NonNull IdFactory idFactory;
+        private final boolean lazy;
+        private String @NonNull [] strings = new String[0];
+        private int figureCount;
+        private final @NonNull Map<Class<?>, MapAccessor<?>[]> keysByClass = new HashMap<>();
+        /**
+         * Maps each key to its converted text values.
+         */
+        private final @NonNull Map<MapAccessor<?>, Map<String, Object>> textValues = new HashMap<>();
+        private final @NonNull List<Figure> referenceFigures = new ArrayList<>();
+        private final @NonNull List<MapAccessor<Object>> referenceKeys = new ArrayList<>();
+        private final @NonNull List<String> referenceValues = new ArrayList<>();
+        /**
+         * Maps each placeholder to the offsets of its child records and of
+         * the end of its record.
+         */
+        private final @NonNull Map<Figure, int[]> placeholders = new LinkedHashMap<>();
+        /**
+         * Number of placeholders whose children have not been parsed yet.
+         */
+        private int unparsedCount;
+
+        private Context(@NonNull ByteBuffer buffer, @NonNull WorkState<Void> workState, @NonNull IdFactory idFactory, boolean lazy) {
+            this.buffer = buffer;
+            this.decoder = new SimpleBinaryFormat.Decoder(buffer, 0, buffer.limit());
+            this.workState = workState;
+            this.idFactory = idFactory;
+            this.lazy = lazy;
+        }
+    }
+}
@@ -0,0 +1,321 @@
+/*
+ * @(#)SimpleBinaryWriter.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.draw.io;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.annotation.Nullable;
+import org.jhotdraw8.collection.CompositeMapAccessor;
+import org.jhotdraw8.collection.ImmutableList;
+import org.jhotdraw8.collection.Key;
+import org.jhotdraw8.collection.MapAccessor;
+import org.jhotdraw8.collection.ReadOnlyMap;
+import org.jhotdraw8.collection.ReadOnlyMapWrapper;
+import org.jhotdraw8.concurrent.WorkState;
+import org.jhotdraw8.css.CssDimension2D;
+import org.jhotdraw8.css.CssPoint2D;
+import org.jhotdraw8.css.CssRectangle2D;
+import org.jhotdraw8.css.CssSize;
+import org.jhotdraw8.css.CssSizeWithUnits;
+import org.jhotdraw8.draw.figure.Drawing;
+import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.io.IdFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes a drawing in the binary format described in {@link SimpleBinaryFormat}.
+ * <p>
+ * Writes the same figures and attributes as {@link SimpleXmlWriter}, so that
+ * a drawing can be converted between the two formats without loss.
+ * <p>
+ * Values of common types are encoded directly, all other values are encoded
+ * with {@link FigureFactory#valueToString}.
+ * <p>
+ * This writer does not support {@link FigureFactory#valueToNodeList}.
+ */
+public class SimpleBinaryWriter implements OutputFormat {
+    protected FigureFactory figureFactory;
+    protected IdFactory idFactory;
+    private @NonNull ReadOnlyMap<Key<?>, Object> options = new ReadOnlyMapWrapper<>(new LinkedHashMap<>());
+    private final @NonNull Map<String, Integer> stringTable = new LinkedHashMap<>();
+    /**
+     * One buffer for each depth of the figure tree.
+     */
+    private final @NonNull List<SimpleBinaryFormat.Encoder> buffers = new ArrayList<>();
+    private final @NonNull Map<Class<?>, Attribute[]> attributesByClass = new HashMap<>();
+
+    public SimpleBinaryWriter(FigureFactory factory, IdFactory idFactory) {
+        this.figureFactory = factory;
+        this.idFactory = idFactory;
+    }
+
+    public void setFigureFactory(FigureFactory figureFactory) {
+        this.figureFactory = figureFactory;
+    }
+
+    @Override
+    public void setOptions(@NonNull ReadOnlyMap<Key<?>, Object> newValue) {
+        options = newValue;
+    }
+
+    @Override
+    public @NonNull ReadOnlyMap<Key<?>, Object> getOptions() {
+        return options;
+    }
+
+    @Override
+    public void write(@NonNull OutputStream out, @Nullable URI documentHome, @NonNull Drawing drawing, @NonNull WorkState<Void> workState) throws IOException {
+        workState.updateProgress(0.0);
+        stringTable.clear();
+        buffers.clear();
+        try {
+            Drawing external = figureFactory.toExternalDrawing(drawing);
+            idFactory.reset();
+            idFactory.setDocumentHome(documentHome);
+
+            SimpleBinaryFormat.Encoder body = new SimpleBinaryFormat.Encoder();
+            writeRecord(body, external, 0);
+
+            SimpleBinaryFormat.Encoder header = new SimpleBinaryFormat.Encoder();
+            header.writeInt32(SimpleBinaryFormat.MAGIC);
+            header.writeVarInt(SimpleBinaryFormat.VERSION);
+            header.writeVarInt(stringTable.size());
+            for (String s : stringTable.keySet()) {
+                header.writeUtf(s);
+            }
+            writeStylesheets(header, external);
+            header.writeTo(out);
+            body.writeTo(out);
+            out.flush();
+        } finally {
+            stringTable.clear();
+            buffers.clear();
+            attributesByClass.clear();
+        }
+        workState.updateProgress(1.0);
+    }
+
+    private @NonNull SimpleBinaryFormat.Encoder getBuffer(int depth) {
+        while (buffers.size() <= depth) {
+            buffers.add(new SimpleBinaryFormat.Encoder());
+        }
+        SimpleBinaryFormat.Encoder buffer = buffers.get(depth);
+        buffer.reset();
+        return buffer;
+    }
+
+    private int indexOf(@NonNull String s) {
+        Integer index = stringTable.get(s);
+        if (index == null) {
+            index = stringTable.size();
+            stringTable.put(s, index);
+        }
+        return index;
+    }
+
+    /**
+     * Writes the record of the specified figure into the output buffer.
+     *
+     * @param out    the output buffer
+     * @param figure the figure
+     * @param depth  the depth of the figure in the tree
+     * @throws IOException if writing fails
+     */
+    protected void writeRecord(@NonNull SimpleBinaryFormat.Encoder out, @NonNull Figure figure, int depth) throws IOException {
+        String elementName = figureFactory.getElementNameByFigure(figure);
+        if (elementName == null) {
+            // => the figureFactory decided that we should skip the figure
+            return;
+        }
+        SimpleBinaryFormat.Encoder buf = getBuffer(depth);
+        try {
+            String id = idFactory.createId(figure);
+            buf.writeUtf(id == null ? "" : id);
+            writeAttributes(buf, figure);
+            buf.writeVarInt(0);
+            for (Figure child : figure.getChildren()) {
+                writeRecord(buf, child, depth + 1);
+            }
+            buf.writeVarInt(0);
+        } catch (IOException | RuntimeException e) {
+            throw new IOException("Error writing figure " + figure, e);
+        }
+        out.writeVarInt(indexOf(elementName) + 1);
+        out.writeVarInt(buf.size());
+        out.write(buf);
+    }
+
+    /**
+     * Returns the attributes that may be written for the specified figure,
+     * in the same order as {@link SimpleXmlWriter} writes them.
+     * <p>
+     * The attributes are computed once for each figure class.
+     *
+     * @param figure a figure
+     * @return the attributes
+     * @throws IOException if the figure factory has no attribute name for a key
+     */
+    private @NonNull Attribute @NonNull [] getAttributes(@NonNull Figure figure) throws IOException {
+        Attribute[] attributes = attributesByClass.get(figure.getClass());
+        if (attributes != null) {
+            return attributes;
+        }
+        final Set<MapAccessor<?>> keys = figureFactory.figureAttributeKeys(figure);
+        Set<MapAccessor<?>> done = new HashSet<>(keys.size());
+        List<Attribute> list = new ArrayList<>(keys.size());
+
+        // First write all non-transient composite attributes, then write the remaining non-transient non-composite attributes
+        for (MapAccessor<?> k : keys) {
+            if (k instanceof CompositeMapAccessor) {
+                done.add(k);
+                if (!k.isTransient()) {
+                    @SuppressWarnings("unchecked") CompositeMapAccessor<Object> cmap = (CompositeMapAccessor<Object>) k;
+                    done.addAll(cmap.getSubAccessors());
+                    addAttribute(list, figure, cmap);
+                }
+            }
+        }
+        for (MapAccessor<?> k : keys) {
+            if (!k.isTransient() && !done.contains(k)) {
+                @SuppressWarnings("unchecked") MapAccessor<Object> cmap = (MapAccessor<Object>) k;
+                addAttribute(list, figure, cmap);
+            }
+        }
+        attributes = list.toArray(new Attribute[0]);
+        attributesByClass.put(figure.getClass(), attributes);
+        return attributes;
+    }
+
+    private void addAttribute(@NonNull List<Attribute> list, @NonNull Figure figure, @NonNull MapAccessor<Object> k) throws IOException {
+        String name = figureFactory.getAttributeNameByKey(figure, k);
+        if (!figureFactory.getObjectIdAttribute().equals(name)) {
+            list.add(new Attribute(k, indexOf(name) + 1));
+        }
+    }
+
+    private void writeAttributes(@NonNull SimpleBinaryFormat.Encoder buf, @NonNull Figure figure) throws IOException {
+        for (Attribute attribute : getAttributes(figure)) {
+            MapAccessor<Object> k = attribute.key;
+            Object value = figure.get(k);
+            if (figureFactory.isDefaultValue(figure, k, value)) {
+                continue;
+            }
+            buf.writeVarInt(attribute.name);
+            if (attribute.isFigure) {
+                String id = idFactory.createId(value);
+                if (id == null) {
+                    buf.writeByte(SimpleBinaryFormat.TAG_NULL);
+                } else {
+                    buf.writeByte(SimpleBinaryFormat.TAG_REFERENCE);
+                    buf.writeUtf(id);
+                }
+            } else if (attribute.needsIdResolver(figureFactory)) {
+                buf.writeByte(SimpleBinaryFormat.TAG_REFERENCE);
+                buf.writeUtf(figureFactory.valueToString(k, value));
+            } else {
+                writeValue(buf, k, value);
+            }
+        }
+    }
+
+    private void writeValue(@NonNull SimpleBinaryFormat.Encoder buf, @NonNull MapAccessor<Object> k, @Nullable Object value) throws IOException {
+        if (value == null) {
+            buf.writeByte(SimpleBinaryFormat.TAG_NULL);
+            return;
+        }
+        Class<?> type = value.getClass();
+        if (type == Boolean.class) {
+            buf.writeByte((Boolean) value ? SimpleBinaryFormat.TAG_TRUE : SimpleBinaryFormat.TAG_FALSE);
+        } else if (type == Integer.class) {
+            buf.writeByte(SimpleBinaryFormat.TAG_INT);
+            buf.writeZigZagInt((Integer) value);
+        } else if (type == Long.class) {
+            buf.writeByte(SimpleBinaryFormat.TAG_LONG);
+            buf.writeZigZagLong((Long) value);
+        } else if (type == Double.class) {
+            buf.writeByte(SimpleBinaryFormat.TAG_DOUBLE);
+            buf.writeCompactDouble((Double) value);
+        } else if (type == String.class) {
+            buf.writeByte(SimpleBinaryFormat.TAG_STRING);
+            buf.writeUtf((String) value);
+        } else if (type == CssSize.class || type == CssSizeWithUnits.class) {
+            buf.writeByte(SimpleBinaryFormat.TAG_SIZE);
+            writeSize(buf, (CssSize) value);
+        } else if (type == CssPoint2D.class) {
+            buf.writeByte(SimpleBinaryFormat.TAG_POINT);
+            CssPoint2D p = (CssPoint2D) value;
+            writeSize(buf, p.getX());
+            writeSize(buf, p.getY());
+        } else if (type == CssDimension2D.class) {
+            buf.writeByte(SimpleBinaryFormat.TAG_DIMENSION);
+            CssDimension2D d = (CssDimension2D) value;
+            writeSize(buf, d.getWidth());
+            writeSize(buf, d.getHeight());
+        } else if (type == CssRectangle2D.class) {
+            buf.writeByte(SimpleBinaryFormat.TAG_RECTANGLE);
+            CssRectangle2D r = (CssRectangle2D) value;
+            writeSize(buf, r.getMinX());
+            writeSize(buf, r.getMinY());
+            writeSize(buf, r.getWidth());
+            writeSize(buf, r.getHeight());
+        } else {
+            buf.writeByte(SimpleBinaryFormat.TAG_TEXT);
+            buf.writeUtf(figureFactory.valueToString(k, value));
+        }
+    }
+
+    private void writeSize(@NonNull SimpleBinaryFormat.Encoder buf, @NonNull CssSize size) {
+        buf.writeCompactDouble(size.getValue());
+        buf.writeVarInt(indexOf(size.getUnits()));
+    }
+
+    private void writeStylesheets(@NonNull SimpleBinaryFormat.Encoder buf, @NonNull Drawing external) {
+        ImmutableList<URI> stylesheets = figureFactory.getStylesheetsKey() == null ? null
+                : external.get(figureFactory.getStylesheetsKey());
+        if (stylesheets == null) {
+            buf.writeVarInt(0);
+            return;
+        }
+        buf.writeVarInt(stylesheets.size());
+        for (URI stylesheet : stylesheets) {
+            buf.writeUtf(idFactory.relativize(stylesheet).toString());
+        }
+    }
+
+    /**
+     * An attribute that may be written for a figure class.
+     */
+    private static class Attribute {
+        private final @NonNull MapAccessor<Object> key;
+        /**
+         * The attribute name index + 1.
+         */
+        private final int name;
+        private final boolean isFigure;
+        private @Nullable Boolean needsIdResolver;
+
+        private Attribute(@NonNull MapAccessor<Object> key, int name) {
+            this.key = key;
+            this.name = name;
+            this.isFigure = Figure.class.isAssignableFrom(key.getRawValueType());
+        }
+
+        private boolean needsIdResolver(@NonNull FigureFactory figureFactory) throws IOException {
+            if (needsIdResolver == null) {
+                needsIdResolver = figureFactory.needsIdResolver(key);
+            }
+            return needsIdResolver;
+        }
+    }
+}
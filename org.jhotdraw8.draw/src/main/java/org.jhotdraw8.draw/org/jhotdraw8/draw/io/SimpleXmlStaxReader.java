@@ -26,18 +26,21 @@ import javax.xml.stream.Location;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.io.StringReader;
-import java.io.UncheckedIOException;
 import java.net.URI;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Deque;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.FutureTask;
@@ -48,8 +51,18 @@ import java.util.regex.Pattern;
 
 /**
  * This reader does not support {@link FigureFactory#nodeListToValue(MapAccessor, List)}.
+ * <p>
+ * Attribute values are converted in batches on worker threads, while the
+ * parser continues. The number of pending batches is bounded, so that the
+ * memory needed for unconverted values does not depend on the size of the
+ * file. Only attributes that refer to other figures are converted after all
+ * figures have been read.
  */
 public class SimpleXmlStaxReader extends AbstractInputFormat implements ClipboardInputFormat {
+    /**
+     * Number of attributes that are converted in one batch.
+     */
+    private static final int BATCH_SIZE = 1024;
     private static final Pattern hrefPattern = Pattern.compile("\\s+href=\"([^\"]*?)\"");
     private final @NonNull IdFactory idFactory;
     private @Nullable String namespaceURI;
@@ -109,7 +122,7 @@ public class SimpleXmlStaxReader extends AbstractInputFormat implements Clipboar
         return read((AutoCloseable) in, drawing, documentHome, workState);
     }
 
-    private Deque<Figure> doRead(AutoCloseable in) throws IOException {
+    private Deque<Figure> doRead(AutoCloseable in, @NonNull WorkState<Void> workState) throws IOException {
         XMLInputFactory dbf = XMLInputFactory.newInstance();
 
         // We do not want that the reader creates a socket connection,
@@ -123,41 +136,29 @@ public class SimpleXmlStaxReader extends AbstractInputFormat implements Clipboar
                             namespace) -> null
         );
         Deque<Figure> stack = new ArrayDeque<>();
-        List<Runnable> secondPass = new ArrayList<>();
-        List<Runnable> parallelPass = new ArrayList<>();
-        List<FutureTask<Void>> futures = new ArrayList<>();
         List<Consumer<Figure>> processingInstructions = new ArrayList<>();
+        CountingInputStream counting = (in instanceof InputStream) ? new CountingInputStream((InputStream) in) : null;
+        AttributePipeline pipeline = new AttributePipeline(workState, counting);
         try {
-            XMLStreamReader xmlStreamReader = (in instanceof InputStream) ? dbf.createXMLStreamReader((InputStream) in)
+            XMLStreamReader xmlStreamReader = (counting != null) ? dbf.createXMLStreamReader(counting)
                     : dbf.createXMLStreamReader((Reader) in);
             while (xmlStreamReader.hasNext()) {
-                readNode(xmlStreamReader, xmlStreamReader.next(), stack, processingInstructions,
-                        secondPass, parallelPass, futures);
+                readNode(xmlStreamReader, xmlStreamReader.next(), stack, processingInstructions, pipeline);
+            }
+            if (stack.size() != 1) {
+                throw new IOException("Illegal stack size! " + stack);
             }
 
-        } catch (XMLStreamException e) {
-            throw new IOException(e);
-        }
-        if (stack.size() != 1) {
-            throw new IOException("Illegal stack size! " + stack);
-        }
-
-        for (Consumer<Figure> processingInstruction : processingInstructions) {
-            processingInstruction.accept(stack.getFirst());
-        }
-        forkParallelPass(futures, parallelPass);
-        try {
-            secondPass.parallelStream().forEach(Runnable::run);
-        } catch (UncheckedIOException e) {
-            throw e.getCause();
-        }
-        try {
-            // If there is not enough parallelism, this future may never return!
-            for (FutureTask<Void> future : futures) {
-                future.get();
+            for (Consumer<Figure> processingInstruction : processingInstructions) {
+                processingInstruction.accept(stack.getFirst());
             }
-        } catch (InterruptedException | ExecutionException e) {
+            pipeline.finish();
+        } catch (XMLStreamException e) {
+            pipeline.cancel();
             throw new IOException(e);
+        } catch (IOException | RuntimeException e) {
+            pipeline.cancel();
+            throw e;
         }
         return stack;
     }
@@ -169,7 +170,7 @@ public class SimpleXmlStaxReader extends AbstractInputFormat implements Clipboar
     private @NonNull Figure read(@NonNull AutoCloseable in, @Nullable Drawing drawing, @Nullable URI documentHome, @NonNull WorkState<Void> workState) throws IOException {
         workState.updateProgress(0.0);
         idFactory.setDocumentHome(documentHome);
-        Deque<Figure> stack = doRead(in);
+        Deque<Figure> stack = doRead(in, workState);
 
         Figure figure = stack.isEmpty() ? null : stack.getFirst();
         if (figure == null) {
@@ -196,19 +197,24 @@ public class SimpleXmlStaxReader extends AbstractInputFormat implements Clipboar
             }
             // FIXME use current layer in drawingView!
             Layer layer = layerFactory.get();
-            for (Figure f : new ArrayList<>(newDrawing.getChildren())) {
-                figures.add(f);
-                newDrawing.removeChild(f);
-                String id = idFactory.createId(f);
-                f.set(StyleableFigure.ID, id);
-                if (f instanceof Layer) {
-                    model.addChildTo(f, drawing);
-                } else {
-                    if (layer.getParent() == null) {
-                        model.addChildTo(layer, drawing);
+            model.beginBatch();
+            try {
+                for (Figure f : new ArrayList<>(newDrawing.getChildren())) {
+                    figures.add(f);
+                    newDrawing.removeChild(f);
+                    String id = idFactory.createId(f);
+                    f.set(StyleableFigure.ID, id);
+                    if (f instanceof Layer) {
+                        model.addChildTo(f, drawing);
+                    } else {
+                        if (layer.getParent() == null) {
+                            model.addChildTo(layer, drawing);
+                        }
+                        model.addChildTo(f, layer);
                     }
-                    model.addChildTo(f, layer);
                 }
+            } finally {
+                model.commitBatch();
             }
             return figures;
         } else {
@@ -217,7 +223,7 @@ public class SimpleXmlStaxReader extends AbstractInputFormat implements Clipboar
 
     }
 
-    private void readAttributes(@NonNull XMLStreamReader r, @NonNull Figure figure, @NonNull List<Runnable> secondPass, @NonNull List<Runnable> parallelPass) throws IOException {
+    private void readAttributes(@NonNull XMLStreamReader r, @NonNull Figure figure, @NonNull AttributePipeline pipeline) throws IOException {
         for (int i = 0, n = r.getAttributeCount(); i < n; i++) {
             String ns = r.getAttributeNamespace(i);
             if (namespaceURI != null && ns != null && !namespaceURI.equals(ns)) {
@@ -236,17 +242,14 @@ public class SimpleXmlStaxReader extends AbstractInputFormat implements Clipboar
                 if (key == null) {
                     throw new IOException("Unsupported attribute \"" + attributeLocalName + "\" at line " + location.getLineNumber() + ", col " + location.getColumnNumber());
                 }
-                List<Runnable> pass = figureFactory.needsIdResolver(key) ? secondPass : parallelPass;
-                pass.add(() -> {
-                    try {
-                        figure.set(key, figureFactory.stringToValue(key, attributeValue));
-                    } catch (IOException e) {
-                        throw new UncheckedIOException(e);
-                    }
-                });
-
+                if (figureFactory.needsIdResolver(key)) {
+                    pipeline.defer(figure, key, attributeValue);
+                } else {
+                    pipeline.add(figure, key, attributeValue);
+                }
             }
         }
+        pipeline.endElement();
     }
 
     private void readEndElement(@NonNull XMLStreamReader r, @NonNull Deque<Figure> stack) {
@@ -255,17 +258,16 @@ public class SimpleXmlStaxReader extends AbstractInputFormat implements Clipboar
 
     private void readNode(XMLStreamReader r, int next, @NonNull Deque<Figure> stack,
                           @NonNull List<Consumer<Figure>> processingInstructions,
-                          @NonNull List<Runnable> secondPass, @NonNull List<Runnable> parallelPass,
-                          @NonNull List<FutureTask<Void>> futures) throws IOException {
+                          @NonNull AttributePipeline pipeline) throws IOException {
         switch (next) {
         case XMLStreamReader.START_ELEMENT:
-            readStartElement(r, stack, secondPass, parallelPass);
+            readStartElement(r, stack, pipeline);
             break;
         case XMLStreamReader.END_ELEMENT:
             readEndElement(r, stack);
             break;
         case XMLStreamReader.PROCESSING_INSTRUCTION:
-            Consumer<Figure> processingInstruction = readProcessingInstruction(r, stack, secondPass);
+            Consumer<Figure> processingInstruction = readProcessingInstruction(r, stack);
             if (processingInstruction != null) {
                 processingInstructions.add(processingInstruction);
             }
@@ -286,32 +288,9 @@ public class SimpleXmlStaxReader extends AbstractInputFormat implements Clipboar
         default:
             throw new IOException("unsupported XMLStream event: " + next);
         }
-
-        if (parallelPass.size() > 1_000) {
-            ArrayList<Runnable> runParallel = new ArrayList<>(parallelPass);
-            parallelPass.clear();
-            forkParallelPass(futures, runParallel);
-        }
-    }
-
-    private void forkParallelPass(List<FutureTask<Void>> futures, List<Runnable> runParallel) {
-        FutureTask<Void> task = new FutureTask<>(() -> {
-            for (final Runnable runner : runParallel) {
-                runner.run();
-            }
-            return null;
-        });
-        if (ForkJoinPool.getCommonPoolParallelism() < 2) {
-            // When there is not enough parallelism, then the reader may saturate
-            // the pool!
-            task.run();
-        } else {
-            ForkJoinPool.commonPool().execute(task);
-        }
-        futures.add(task);
     }
 
-    private Consumer<Figure> readProcessingInstruction(XMLStreamReader r, @NonNull Deque<Figure> stack, List<Runnable> secondPass) {
+    private Consumer<Figure> readProcessingInstruction(XMLStreamReader r, @NonNull Deque<Figure> stack) {
         if (figureFactory.getStylesheetsKey() != null) {
             String piTarget = r.getPITarget();
             String piData = r.getPIData();
@@ -336,13 +315,13 @@ public class SimpleXmlStaxReader extends AbstractInputFormat implements Clipboar
     }
 
     private void readStartElement(@NonNull XMLStreamReader r, @NonNull Deque<Figure> stack,
-                                  @NonNull List<Runnable> secondPass, @NonNull List<Runnable> parallelPass) throws IOException {
+                                  @NonNull AttributePipeline pipeline) throws IOException {
         if (namespaceURI != null && !namespaceURI.equals(r.getNamespaceURI())) {
             return;
         }
 
         Figure figure = createFigure(r, stack);
-        readAttributes(r, figure, secondPass, parallelPass);
+        readAttributes(r, figure, pipeline);
     }
 
     public void setFigureFactory(@NonNull FigureFactory figureFactory) {
@@ -356,4 +335,236 @@ public class SimpleXmlStaxReader extends AbstractInputFormat implements Clipboar
     public void setNamespaceURI(@Nullable String namespaceURI) {
         this.namespaceURI = namespaceURI;
     }
+
+    /**
+     * Converts attribute values in batches of at least {@value #BATCH_SIZE}
+     * on worker threads, while the parser continues.
+     * <p>
+     * A batch always contains all attributes of a figure, because figures
+     * are not thread-safe.
+     * <p>
+     * Reports progress and checks for cancellation whenever a batch is
+     * submitted.
+     */
+    private class AttributePipeline {
+        private final @NonNull WorkState<Void> workState;
+        private final @Nullable CountingInputStream counting;
+        private final long totalBytes;
+        private final int maxPendingBatches;
+        private final @NonNull Deque<FutureTask<Void>> pending = new ArrayDeque<>();
+        private @NonNull AttributeBatch batch = new AttributeBatch(BATCH_SIZE);
+        /**
+         * Attributes that refer to other figures.
+         */
+        private final @NonNull AttributeBatch deferred = new AttributeBatch(16);
+
+        private AttributePipeline(@NonNull WorkState<Void> workState, @Nullable CountingInputStream counting) throws IOException {
+            this.workState = workState;
+            this.counting = counting;
+            this.totalBytes = counting == null ? 0 : counting.available();
+            this.maxPendingBatches = 2 * Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+        }
+
+        private void add(@NonNull Figure figure, @NonNull MapAccessor<Object> key, @NonNull String value) {
+            batch.add(figure, key, value);
+        }
+
+        /**
+         * Submits the current batch if it is full. Must only be called
+         * after all attributes of an element have been added.
+         */
+        private void endElement() throws IOException {
+            if (batch.isFull()) {
+                submit(batch);
+                batch = new AttributeBatch(BATCH_SIZE);
+            }
+        }
+
+        private void defer(@NonNull Figure figure, @NonNull MapAccessor<Object> key, @NonNull String value) {
+            deferred.add(figure, key, value);
+        }
+
+        private void submit(@NonNull Callable<Void> callable) throws IOException {
+            if (workState.isCancelled()) {
+                cancel();
+                throw new CancellationException();
+            }
+            if (counting != null && totalBytes > 0) {
+                workState.updateProgress(Math.min(1.0, (double) counting.getCount() / totalBytes));
+            }
+            while (!pending.isEmpty() && (pending.size() >= maxPendingBatches || pending.getFirst().isDone())) {
+                join(pending.removeFirst());
+            }
+            FutureTask<Void> task = new FutureTask<>(callable);
+            if (ForkJoinPool.getCommonPoolParallelism() < 2) {
+                // When there is not enough parallelism, then the reader may saturate
+                // the pool!
+                task.run();
+            } else {
+                ForkJoinPool.commonPool().execute(task);
+            }
+            pending.addLast(task);
+        }
+
+        /**
+         * Converts the remaining attributes, and then the attributes that
+         * refer to other figures.
+         */
+        private void finish() throws IOException {
+            if (batch.size() > 0) {
+                submit(batch);
+            }
+            joinAll();
+            for (int from = 0, n = deferred.size(); from < n; ) {
+                int to = deferred.endOfFigure(Math.min(n, from + BATCH_SIZE));
+                submit(deferred.range(from, to));
+                from = to;
+            }
+            joinAll();
+        }
+
+        private void joinAll() throws IOException {
+            while (!pending.isEmpty()) {
+                join(pending.removeFirst());
+            }
+        }
+
+        private void join(@NonNull FutureTask<Void> task) throws IOException {
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                cancel();
+                throw new IOException(e);
+            } catch (ExecutionException e) {
+                cancel();
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IOException(cause);
+            }
+        }
+
+        private void cancel() {
+            for (FutureTask<Void> task : pending) {
+                task.cancel(false);
+            }
+            pending.clear();
+        }
+    }
+
+    /**
+     * A batch of attribute values that have not been converted yet.
+     */
+    private class AttributeBatch implements Callable<Void> {
+        private Figure @NonNull [] figures;
+        private MapAccessor<Object> @NonNull [] keys;
+        private String @NonNull [] values;
+        private int size;
+
+        @SuppressWarnings("unchecked")
+        private AttributeBatch(int capacity) {
+            figures = new Figure[capacity];
+            keys = (MapAccessor<Object>[]) new MapAccessor<?>[capacity];
+            values = new String[capacity];
+        }
+
+        private int size() {
+            return size;
+        }
+
+        /**
+         * Whether the batch has reached its initial capacity. The batch
+         * grows when more attributes are added.
+         */
+        private boolean isFull() {
+            return size >= BATCH_SIZE;
+        }
+
+        private void add(@NonNull Figure figure, @NonNull MapAccessor<Object> key, @NonNull String value) {
+            if (size == figures.length) {
+                int capacity = size * 2;
+                figures = Arrays.copyOf(figures, capacity);
+                keys = Arrays.copyOf(keys, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            figures[size] = figure;
+            keys[size] = key;
+            values[size] = value;
+            size++;
+        }
+
+        /**
+         * Returns the first index at or after the specified index, that does
+         * not belong to the same figure as the entry before it.
+         */
+        private int endOfFigure(int index) {
+            while (index > 0 && index < size && figures[index] == figures[index - 1]) {
+                index++;
+            }
+            return index;
+        }
+
+        private @NonNull Callable<Void> range(int from, int to) {
+            return () -> {
+                convert(from, to);
+                return null;
+            };
+        }
+
+        @Override
+        public Void call() throws IOException {
+            convert(0, size);
+            return null;
+        }
+
+        private void convert(int from, int to) throws IOException {
+            for (int i = from; i < to; i++) {
+                figures[i].set(keys[i], figureFactory.stringToValue(keys[i], values[i]));
+            }
+        }
+    }
+
+    /**
+     * Counts the bytes that the parser has read from the input stream.
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        private CountingInputStream(@NonNull InputStream in) {
+            super(in);
+        }
+
+        private long getCount() {
+            return count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte @NonNull [] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
 }
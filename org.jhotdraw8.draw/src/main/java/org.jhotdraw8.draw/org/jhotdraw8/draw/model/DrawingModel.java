@@ -319,6 +319,43 @@ public interface DrawingModel extends Observable, TreeModel<Figure> {
         }
     }
 
+    /**
+     * Begins a batch of changes.
+     * <p>
+     * Until the matching call to {@link #commitBatch()}, the model
+     * accumulates structural and property changes instead of delivering
+     * them one by one to its listeners. Batches may be nested, only the
+     * outermost commit delivers events.
+     * <p>
+     * Callers should commit the batch in a {@code finally} block.
+     * <p>
+     * The default implementation does nothing.
+     */
+    default void beginBatch() {
+    }
+
+    /**
+     * Commits a batch of changes.
+     * <p>
+     * When the outermost batch is committed, the model fires one
+     * {@link TreeModelEvent.EventType#BATCH_COMMITTED} event that covers
+     * the affected subtrees, and one {@code DrawingModelEvent} for each
+     * distinct figure and kind of change.
+     * <p>
+     * The default implementation does nothing.
+     */
+    default void commitBatch() {
+    }
+
+    /**
+     * Whether a batch of changes is in progress.
+     *
+     * @return true if a batch is in progress
+     */
+    default boolean isBatching() {
+        return false;
+    }
+
     /**
      * Validates the model. This method is invoked by {@code DrawingView} each
      * time before it renders the model.
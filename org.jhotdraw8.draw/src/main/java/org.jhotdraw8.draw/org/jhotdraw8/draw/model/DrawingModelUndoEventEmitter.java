@@ -87,6 +87,7 @@ public class DrawingModelUndoEventEmitter {
             case NODE_REMOVED_FROM_PARENT:
             case NODE_ADDED_TO_TREE:
             case NODE_REMOVED_FROM_TREE:
+            case BATCH_COMMITTED:
                 fire(new AbstractUndoableEdit() {
                     private final static long serialVersionUID = 0L;
                     // can not undo/redo yet
@@ -10,12 +10,15 @@ import javafx.beans.property.SimpleObjectProperty;
 import javafx.scene.transform.Transform;
 import org.jhotdraw8.annotation.NonNull;
 import org.jhotdraw8.annotation.Nullable;
+import org.jhotdraw8.collection.CompositeMapAccessor;
 import org.jhotdraw8.collection.Enumerator;
 import org.jhotdraw8.collection.Key;
 import org.jhotdraw8.collection.MapAccessor;
 import org.jhotdraw8.collection.NonNullMapAccessor;
 import org.jhotdraw8.css.CssPoint2D;
 import org.jhotdraw8.css.CssSize;
+import org.jhotdraw8.css.StyleDependencies;
+import org.jhotdraw8.css.StylesheetsManager;
 import org.jhotdraw8.draw.figure.Drawing;
 import org.jhotdraw8.draw.figure.Figure;
 import org.jhotdraw8.draw.figure.FigurePropertyChangeEvent;
@@ -25,14 +28,19 @@ import org.jhotdraw8.draw.render.SimpleRenderContext;
 import org.jhotdraw8.event.Listener;
 import org.jhotdraw8.graph.SimpleMutableDirectedGraph;
 import org.jhotdraw8.graph.algo.TopologicalSortAlgo;
+import org.jhotdraw8.styleable.ReadOnlyStyleableMapAccessor;
 import org.jhotdraw8.tree.TreeModelEvent;
 
 import java.util.AbstractMap;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -110,6 +118,11 @@ public class SimpleDrawingModel extends AbstractDrawingModel {
      * Performance: Every figure has a unique reference. IdentityHashMap is faster than HashMap in this case.
      */
     private final @NonNull Map<Figure, DirtyMask> dirties = new IdentityHashMap<>();
+    /**
+     * Maps a figure class to a map from each key of the class to the CSS
+     * names of the composite keys of the class, that contain the key.
+     */
+    private final @NonNull Map<Class<?>, Map<MapAccessor<?>, List<String>>> compositeCssNames = new HashMap<>();
     private final Listener<FigurePropertyChangeEvent> propertyChangeHandler = this::onPropertyChanged;
     private final @NonNull ObjectProperty<Drawing> root = new SimpleObjectProperty<Drawing>(this, ROOT_PROPERTY) {
         @Override
@@ -125,6 +138,61 @@ public class SimpleDrawingModel extends AbstractDrawingModel {
     private final @NonNull BiFunction<? super DirtyMask, ? super DirtyMask, ? extends DirtyMask> mergeDirtyMask
             = DirtyMask::add;
 
+    /**
+     * Nesting depth of {@link #beginBatch()}.
+     */
+    private int batchDepth;
+    /**
+     * The figures that have been inserted or removed during the batch, and
+     * whether they were part of the drawing before they were touched first.
+     */
+    private final @NonNull Map<Figure, Boolean> batchTouched = new LinkedHashMap<>();
+    /**
+     * The figures of which the children have changed during the batch.
+     */
+    private final @NonNull Set<Figure> batchParents = new LinkedHashSet<>();
+    /**
+     * The figures that have been invalidated during the batch.
+     */
+    private final @NonNull Set<Figure> batchChanged = new LinkedHashSet<>();
+    /**
+     * The drawing model events of the batch, coalesced by figure, event type
+     * and key.
+     */
+    private final @NonNull Map<BatchKey, DrawingModelEvent> batchEvents = new LinkedHashMap<>();
+
+    /**
+     * Identifies a coalesced {@link DrawingModelEvent} in a batch.
+     */
+    private static class BatchKey {
+        private final @NonNull Figure figure;
+        private final DrawingModelEvent.EventType eventType;
+        private final @Nullable Key<?> key;
+
+        BatchKey(@NonNull DrawingModelEvent event) {
+            this.figure = event.getNode();
+            this.eventType = event.getEventType();
+            this.key = event.getKey();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            BatchKey that = (BatchKey) o;
+            return figure == that.figure && eventType == that.eventType && Objects.equals(key, that.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(figure), eventType, key);
+        }
+    }
+
     private void invalidate() {
         if (valid) {
             valid = false;
@@ -169,6 +237,131 @@ public class SimpleDrawingModel extends AbstractDrawingModel {
         dirties.merge(figure, mask, mergeDirtyMask);
     }
 
+    /**
+     * Returns the style dependencies of the drawing that contains the
+     * specified figure.
+     *
+     * @param figure a figure
+     * @return the style dependencies
+     */
+    private @NonNull StyleDependencies getStyleDependencies(@NonNull Figure figure) {
+        Drawing drawing = figure.getDrawing();
+        StylesheetsManager<Figure> styleManager = drawing == null ? null : drawing.getStyleManager();
+        return styleManager == null ? StyleDependencies.ALL : styleManager.getStyleDependencies();
+    }
+
+    /**
+     * Marks the figures as dirty, that need to get their stylesheets applied
+     * again after the value of the specified key has changed.
+     * <p>
+     * A drawing gets always marked, because it reads its stylesheets from
+     * its properties.
+     *
+     * @param figure the figure that has changed
+     * @param key    the key that has changed
+     */
+    private void invalidateStyle(@NonNull Figure figure, @NonNull MapAccessor<?> key) {
+        if (figure instanceof Drawing) {
+            markDirty(figure, DirtyBits.STYLE);
+            return;
+        }
+        StyleDependencies dependencies = getStyleDependencies(figure);
+        if (dependencies == StyleDependencies.ALL) {
+            markDirty(figure, DirtyBits.STYLE);
+            return;
+        }
+        Set<StyleDependencies.Scope> scopes = dependencies.getScopes(getCssName(key));
+        // A selector may refer to a composite key that contains the key.
+        for (String compositeName : getCompositeCssNames(figure, key)) {
+            Set<StyleDependencies.Scope> compositeScopes = dependencies.getScopes(compositeName);
+            if (!scopes.containsAll(compositeScopes)) {
+                EnumSet<StyleDependencies.Scope> union = EnumSet.noneOf(StyleDependencies.Scope.class);
+                union.addAll(scopes);
+                union.addAll(compositeScopes);
+                scopes = union;
+            }
+        }
+        if (!scopes.isEmpty()) {
+            invalidateStyle(figure, scopes);
+        }
+    }
+
+    /**
+     * Returns the CSS names of the composite keys of the specified figure,
+     * that contain the specified key.
+     *
+     * @param figure a figure
+     * @param key    a key
+     * @return the CSS names of the composite keys
+     */
+    private @NonNull List<String> getCompositeCssNames(@NonNull Figure figure, @NonNull MapAccessor<?> key) {
+        Map<MapAccessor<?>, List<String>> map = compositeCssNames.get(figure.getClass());
+        if (map == null) {
+            map = new HashMap<>();
+            for (MapAccessor<?> k : figure.getSupportedKeys()) {
+                if (k instanceof CompositeMapAccessor<?>) {
+                    for (MapAccessor<?> subKey : ((CompositeMapAccessor<?>) k).getSubAccessors()) {
+                        map.computeIfAbsent(subKey, x -> new ArrayList<>()).add(getCssName(k));
+                    }
+                }
+            }
+            compositeCssNames.put(figure.getClass(), map);
+        }
+        return map.getOrDefault(key, Collections.emptyList());
+    }
+
+    private static @NonNull String getCssName(@NonNull MapAccessor<?> key) {
+        return key instanceof ReadOnlyStyleableMapAccessor<?>
+                ? ((ReadOnlyStyleableMapAccessor<?>) key).getCssName()
+                : key.getName();
+    }
+
+    /**
+     * Marks the figures in the specified scopes of a figure with dirty bit
+     * {@link DirtyBits#STYLE}.
+     *
+     * @param figure the figure
+     * @param scopes the scopes
+     */
+    private void invalidateStyle(@NonNull Figure figure, @NonNull Set<StyleDependencies.Scope> scopes) {
+        if (scopes.contains(StyleDependencies.Scope.SELF)) {
+            markDirty(figure, DirtyBits.STYLE);
+        }
+        if (scopes.contains(StyleDependencies.Scope.DESCENDANTS)) {
+            for (Figure child : figure.getChildren()) {
+                invalidateStyleOfSubtree(child);
+            }
+        }
+        Figure parent = figure.getParent();
+        if (parent != null && (scopes.contains(StyleDependencies.Scope.FOLLOWING_SIBLINGS)
+                || scopes.contains(StyleDependencies.Scope.DESCENDANTS_OF_FOLLOWING_SIBLINGS))) {
+            invalidateStyleOfFollowingSiblings(parent, parent.getChildren().indexOf(figure) + 1, scopes);
+        }
+    }
+
+    private void invalidateStyleOfFollowingSiblings(@NonNull Figure parent, int from, @NonNull Set<StyleDependencies.Scope> scopes) {
+        boolean siblings = scopes.contains(StyleDependencies.Scope.FOLLOWING_SIBLINGS);
+        boolean descendantsOfSiblings = scopes.contains(StyleDependencies.Scope.DESCENDANTS_OF_FOLLOWING_SIBLINGS);
+        if (!siblings && !descendantsOfSiblings) {
+            return;
+        }
+        List<Figure> children = parent.getChildren();
+        for (int i = Math.max(0, from), n = children.size(); i < n; i++) {
+            Figure sibling = children.get(i);
+            if (descendantsOfSiblings) {
+                invalidateStyleOfSubtree(sibling);
+            } else {
+                markDirty(sibling, DirtyBits.STYLE);
+            }
+        }
+    }
+
+    private void invalidateStyleOfSubtree(@NonNull Figure figure) {
+        for (Figure f : figure.preorderIterable()) {
+            markDirty(f, DirtyBits.STYLE);
+        }
+    }
+
     private void removeDirty(@NonNull Figure figure) {
         dirties.remove(figure);
     }
@@ -184,8 +377,110 @@ public class SimpleDrawingModel extends AbstractDrawingModel {
         return (ObjectProperty<Figure>) (ObjectProperty<?>) root;
     }
 
+    private boolean isInDrawing(@NonNull Figure figure) {
+        Drawing drawing = getDrawing();
+        return drawing != null && figure.getRoot() == drawing;
+    }
+
+    /**
+     * Records the figure that is about to be inserted or removed in the
+     * current batch.
+     *
+     * @param child a figure
+     */
+    private void touch(@NonNull Figure child) {
+        if (batchDepth > 0 && !batchTouched.containsKey(child)) {
+            batchTouched.put(child, isInDrawing(child));
+        }
+    }
+
+    @Override
+    public void beginBatch() {
+        batchDepth++;
+    }
+
+    @Override
+    public void commitBatch() {
+        if (batchDepth == 0) {
+            throw new IllegalStateException("no batch in progress");
+        }
+        if (--batchDepth > 0) {
+            return;
+        }
+
+        // Partition the touched figures into removed and added subtrees.
+        // A figure that was part of the drawing before and after the batch has
+        // been moved, we report it as added.
+        Set<Figure> removed = new LinkedHashSet<>();
+        Set<Figure> added = new LinkedHashSet<>();
+        for (Map.Entry<Figure, Boolean> entry : batchTouched.entrySet()) {
+            Figure f = entry.getKey();
+            if (isInDrawing(f)) {
+                added.add(f);
+            } else if (entry.getValue()) {
+                removed.add(f);
+            }
+        }
+        List<Figure> changedParents = new ArrayList<>(batchParents.size());
+        for (Figure f : batchParents) {
+            if (isInDrawing(f)) {
+                changedParents.add(f);
+            }
+        }
+        List<Figure> changedNodes = new ArrayList<>(batchChanged.size());
+        for (Figure f : batchChanged) {
+            if (isInDrawing(f)) {
+                changedNodes.add(f);
+            }
+        }
+        List<DrawingModelEvent> events = new ArrayList<>(batchEvents.values());
+        Drawing drawing = getDrawing();
+        TreeModelEvent<Figure> batchEvent = TreeModelEvent.batchCommitted(this, drawing,
+                subtreeRoots(removed), subtreeRoots(added), changedParents, changedNodes);
+        batchTouched.clear();
+        batchParents.clear();
+        batchChanged.clear();
+        batchEvents.clear();
+
+        // The model has already processed the events of the batch,
+        // we only deliver them to the listeners.
+        for (DrawingModelEvent event : events) {
+            super.fireDrawingModelEvent(event);
+        }
+        if (drawing != null) {
+            super.fireTreeModelEvent(batchEvent);
+        }
+    }
+
+    /**
+     * Returns the figures of the specified set that do not have an ancestor
+     * in the set.
+     *
+     * @param figures a set of figures
+     * @return the roots of the subtrees
+     */
+    private static @NonNull List<Figure> subtreeRoots(@NonNull Set<Figure> figures) {
+        List<Figure> roots = new ArrayList<>(figures.size());
+        outer:
+        for (Figure f : figures) {
+            for (Figure p = f.getParent(); p != null; p = p.getParent()) {
+                if (figures.contains(p)) {
+                    continue outer;
+                }
+            }
+            roots.add(f);
+        }
+        return roots;
+    }
+
+    @Override
+    public boolean isBatching() {
+        return batchDepth > 0;
+    }
+
     @Override
     public void removeFromParent(@NonNull Figure child) {
+        touch(child);
         final Figure oldRoot = child.getRoot();
         for (Figure f : child.preorderIterable()) {
             fireTreeModelEvent(TreeModelEvent.nodeRemovedFromTree(this, oldRoot, f));
@@ -204,6 +499,7 @@ public class SimpleDrawingModel extends AbstractDrawingModel {
     @Override
     public Figure removeFromParent(@NonNull Figure parent, int index) {
         Figure child = parent.getChild(index);
+        touch(child);
         final Figure oldRoot = child.getRoot();
         for (Figure f : child.preorderIterable()) {
             fireTreeModelEvent(TreeModelEvent.nodeRemovedFromTree(this, oldRoot, f));
@@ -219,6 +515,7 @@ public class SimpleDrawingModel extends AbstractDrawingModel {
         if (!parent.isSuitableChild(child) || !child.isSuitableParent(parent)) {
             return;
         }
+        touch(child);
         Figure oldRoot = child.getRoot();
         Figure oldParent = child.getParent();
         if (oldParent != null) {
@@ -358,6 +655,7 @@ public class SimpleDrawingModel extends AbstractDrawingModel {
     @Override
     public void layout(@NonNull Figure f, @NonNull RenderContext ctx) {
         f.layoutChanged(ctx);
+        f.invalidateAncestorBounds();
         fireDrawingModelEvent(DrawingModelEvent.layoutChanged(this, f));
         fireTreeModelEvent(TreeModelEvent.nodeChanged(this, f));
     }
@@ -436,6 +734,7 @@ public class SimpleDrawingModel extends AbstractDrawingModel {
                 DirtyMask dm = entry.getValue();
                 if (dm.intersects(dmTransform)) {
                     f.transformChanged();
+                    f.invalidateAncestorBounds();
                 }
             }
 
@@ -508,6 +807,7 @@ public class SimpleDrawingModel extends AbstractDrawingModel {
                             f.stylesheetChanged(ctx);
                         }
                         f.layoutChanged(ctx);
+                        f.invalidateAncestorBounds();
                         markDirty(f, DirtyBits.NODE);
                     }
                 }
@@ -529,6 +829,7 @@ public class SimpleDrawingModel extends AbstractDrawingModel {
                 DirtyMask dm = entry.getValue();
                 if (dm.intersects(dmTransform)) {
                     f.transformChanged();
+                    f.invalidateAncestorBounds();
                 }
             }
             dirties.clear();
@@ -540,13 +841,56 @@ public class SimpleDrawingModel extends AbstractDrawingModel {
 
     @Override
     public void fireDrawingModelEvent(@NonNull DrawingModelEvent event) {
-        super.fireDrawingModelEvent(event);
+        if (batchDepth > 0) {
+            batchEvents.merge(new BatchKey(event), event, this::coalesce);
+        } else {
+            super.fireDrawingModelEvent(event);
+        }
         onDrawingModelEvent(event);
     }
 
+    /**
+     * Coalesces two events of the same figure, event type and key.
+     *
+     * @param first  the first event
+     * @param second the second event
+     * @return the coalesced event
+     */
+    private @NonNull DrawingModelEvent coalesce(@NonNull DrawingModelEvent first, @NonNull DrawingModelEvent second) {
+        return first.getEventType() == DrawingModelEvent.EventType.PROPERTY_VALUE_CHANGED
+                ? DrawingModelEvent.propertyValueChanged(this, first.getNode(), first.getKey(), first.getOldValue(), second.getNewValue())
+                : first;
+    }
+
     @Override
     public void fireTreeModelEvent(@NonNull TreeModelEvent<Figure> event) {
-        super.fireTreeModelEvent(event);
+        if (batchDepth > 0) {
+            switch (event.getEventType()) {
+                case NODE_ADDED_TO_PARENT:
+                case NODE_REMOVED_FROM_PARENT:
+                    batchParents.add(event.getParent());
+                    break;
+                case NODE_CHANGED:
+                    batchChanged.add(event.getNode());
+                    break;
+                case NODE_ADDED_TO_TREE:
+                case NODE_REMOVED_FROM_TREE:
+                    break;
+                case ROOT_CHANGED:
+                    // Listeners rebuild everything, the batch is obsolete.
+                    batchTouched.clear();
+                    batchParents.clear();
+                    batchChanged.clear();
+                    batchEvents.clear();
+                    super.fireTreeModelEvent(event);
+                    break;
+                default:
+                    super.fireTreeModelEvent(event);
+                    break;
+            }
+        } else {
+            super.fireTreeModelEvent(event);
+        }
         onTreeModelEvent(event);
     }
 
@@ -569,14 +913,13 @@ public class SimpleDrawingModel extends AbstractDrawingModel {
                 figure.propertyChanged(key, oldValue, newValue);
 
                 //final DirtyMask dm = fk.getDirtyMask().add(DirtyBits.STYLE);
-                final DirtyMask dm = DirtyMask.of(DirtyBits.STYLE,
+                final DirtyMask dm = DirtyMask.of(
                         DirtyBits.LAYOUT, DirtyBits.NODE, DirtyBits.TRANSFORM,
                         DirtyBits.LAYOUT_OBSERVERS
                 );
-                if (!dm.isEmpty()) {
-                    markDirty(figure, dm);
-                    invalidate();
-                }
+                markDirty(figure, dm);
+                invalidateStyle(figure, key);
+                invalidate();
 
                 break;
             }
@@ -606,6 +949,7 @@ public class SimpleDrawingModel extends AbstractDrawingModel {
         switch (event.getEventType()) {
             case NODE_ADDED_TO_PARENT:
                 markDirty(figure, DirtyBits.LAYOUT, DirtyBits.STYLE);
+                invalidateStyle(figure, getStyleDependencies(figure).getStructuralScopes());
                 invalidate();
                 break;
             case NODE_ADDED_TO_TREE:
@@ -621,6 +965,8 @@ public class SimpleDrawingModel extends AbstractDrawingModel {
                 break;
             case NODE_REMOVED_FROM_PARENT:
                 markDirty(event.getParent(), DirtyBits.LAYOUT_OBSERVERS, DirtyBits.NODE);
+                invalidateStyleOfFollowingSiblings(event.getParent(), event.getIndex(),
+                        getStyleDependencies(event.getParent()).getStructuralScopes());
                 invalidate();
                 break;
             case NODE_CHANGED:
@@ -632,6 +978,7 @@ public class SimpleDrawingModel extends AbstractDrawingModel {
                 valid = true;
                 break;
             case SUBTREE_NODES_CHANGED:
+            case BATCH_COMMITTED:
                 break;
             default:
                 throw new UnsupportedOperationException(event.getEventType()
@@ -0,0 +1,166 @@
+/*
+ * @(#)FrameStatistics.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.draw.render;
+
+/**
+ * Collects statistics about the frames painted by an
+ * {@link InteractiveDrawingRenderer}.
+ * <p>
+ * The statistics are accumulated over all frames until {@link #reset()}
+ * is called.
+ * <p>
+ * This class is not thread-safe. It is updated on the JavaFX application
+ * thread, and should only be read on that thread.
+ */
+public class FrameStatistics {
+    private long frameCount;
+    private long overBudgetFrameCount;
+    private long totalNanos;
+    private long maxNanos;
+    private long lastNanos;
+    private long updatedNodeCount;
+    private int lastUpdatedNodeCount;
+    private int pendingNodeCount;
+    private int deferredNodeCount;
+
+    public FrameStatistics() {
+    }
+
+    /**
+     * Adds a frame.
+     *
+     * @param nanos         the time spent in the frame in nanoseconds
+     * @param updatedNodes  the number of nodes updated in the frame
+     * @param overBudget    whether the frame exceeded its time budget
+     * @param pendingNodes  the number of dirty nodes that are left for
+     *                      the next frame
+     * @param deferredNodes the number of dirty nodes that have been
+     *                      deferred until they become visible
+     */
+    void addFrame(long nanos, int updatedNodes, boolean overBudget, int pendingNodes, int deferredNodes) {
+        frameCount++;
+        if (overBudget) {
+            overBudgetFrameCount++;
+        }
+        totalNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+        lastNanos = nanos;
+        updatedNodeCount += updatedNodes;
+        lastUpdatedNodeCount = updatedNodes;
+        pendingNodeCount = pendingNodes;
+        deferredNodeCount = deferredNodes;
+    }
+
+    /**
+     * Returns the number of painted frames.
+     *
+     * @return the frame count
+     */
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Returns the number of frames that exceeded their time budget.
+     *
+     * @return the number of frames over budget
+     */
+    public long getOverBudgetFrameCount() {
+        return overBudgetFrameCount;
+    }
+
+    /**
+     * Returns the time spent in the last frame.
+     *
+     * @return the time in nanoseconds
+     */
+    public long getLastFrameNanos() {
+        return lastNanos;
+    }
+
+    /**
+     * Returns the time spent in the longest frame.
+     *
+     * @return the time in nanoseconds
+     */
+    public long getMaxFrameNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Returns the average time spent in a frame.
+     *
+     * @return the time in milliseconds, or 0 if no frame has been painted
+     */
+    public double getAverageFrameMillis() {
+        return frameCount == 0 ? 0.0 : totalNanos / 1e6 / frameCount;
+    }
+
+    /**
+     * Returns the number of nodes that have been updated.
+     *
+     * @return the number of updated nodes
+     */
+    public long getUpdatedNodeCount() {
+        return updatedNodeCount;
+    }
+
+    /**
+     * Returns the number of nodes that were updated in the last frame.
+     *
+     * @return the number of updated nodes
+     */
+    public int getLastUpdatedNodeCount() {
+        return lastUpdatedNodeCount;
+    }
+
+    /**
+     * Returns the number of dirty nodes that were left for the next frame
+     * after the last frame.
+     *
+     * @return the number of pending nodes
+     */
+    public int getPendingNodeCount() {
+        return pendingNodeCount;
+    }
+
+    /**
+     * Returns the number of dirty nodes that were deferred after the last
+     * frame, because they are not visible.
+     *
+     * @return the number of deferred nodes
+     */
+    public int getDeferredNodeCount() {
+        return deferredNodeCount;
+    }
+
+    /**
+     * Resets all statistics to zero.
+     */
+    public void reset() {
+        frameCount = 0;
+        overBudgetFrameCount = 0;
+        totalNanos = 0;
+        maxNanos = 0;
+        lastNanos = 0;
+        updatedNodeCount = 0;
+        lastUpdatedNodeCount = 0;
+        pendingNodeCount = 0;
+        deferredNodeCount = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "FrameStatistics{"
+                + "frames=" + frameCount
+                + ", overBudget=" + overBudgetFrameCount
+                + ", averageMillis=" + getAverageFrameMillis()
+                + ", maxMillis=" + maxNanos / 1e6
+                + ", updatedNodes=" + updatedNodeCount
+                + ", pendingNodes=" + pendingNodeCount
+                + ", deferredNodes=" + deferredNodeCount
+                + '}';
+    }
+}
@@ -7,19 +7,27 @@ package org.jhotdraw8.draw.render;
 
 import javafx.application.Platform;
 import javafx.beans.Observable;
+import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.collections.ObservableSet;
+import javafx.collections.SetChangeListener;
 import javafx.geometry.BoundingBox;
 import javafx.geometry.Bounds;
 import javafx.geometry.Point2D;
 import javafx.scene.Group;
 import javafx.scene.Node;
 import javafx.scene.Parent;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import javafx.scene.shape.Rectangle;
 import javafx.scene.transform.NonInvertibleTransformException;
 import javafx.scene.transform.Transform;
 import org.jhotdraw8.annotation.NonNull;
@@ -27,27 +35,40 @@ import org.jhotdraw8.annotation.Nullable;
 import org.jhotdraw8.beans.AbstractPropertyBean;
 import org.jhotdraw8.beans.NonNullObjectProperty;
 import org.jhotdraw8.css.DefaultUnitConverter;
+import org.jhotdraw8.css.Paintable;
 import org.jhotdraw8.draw.DrawingEditor;
 import org.jhotdraw8.draw.DrawingView;
 import org.jhotdraw8.draw.figure.Drawing;
 import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.draw.figure.FillableFigure;
+import org.jhotdraw8.draw.figure.Layer;
+import org.jhotdraw8.draw.figure.StrokableFigure;
+import org.jhotdraw8.draw.figure.VirtualizingFigure;
 import org.jhotdraw8.draw.model.DrawingModel;
 import org.jhotdraw8.draw.model.SimpleDrawingModel;
 import org.jhotdraw8.event.Listener;
 import org.jhotdraw8.geom.FXTransforms;
+import org.jhotdraw8.geom.LooseQuadtree;
 import org.jhotdraw8.tree.TreeModelEvent;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.AbstractMap;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.function.Predicate;
 
 
@@ -55,6 +76,16 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
     public static final String RENDER_CONTEXT_PROPERTY = "renderContext";
     public static final String MODEL_PROPERTY = "model";
     public static final String DRAWING_VIEW_PROPERTY = "drawingView";
+    /**
+     * Up to this number of candidate children, we determine the z-order
+     * of the candidates with linear searches in the child list.
+     */
+    private static final int LINEAR_SEARCH_LIMIT = 16;
+    /**
+     * Maximal number of released nodes per figure class that we keep for
+     * recycling.
+     */
+    private static final int MAX_RECYCLED_NODES_PER_CLASS = 256;
     private final @NonNull NonNullObjectProperty<WritableRenderContext> renderContext //
             = new NonNullObjectProperty<>(this, RENDER_CONTEXT_PROPERTY, new SimpleRenderContext());
     private final @NonNull NonNullObjectProperty<DrawingModel> model //
@@ -72,11 +103,86 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
      * value, then the linked set ensures that all figures are updated eventually.
      */
     private final Set<Figure> dirtyFigureNodes = new LinkedHashSet<>();
+    /**
+     * Dirty figure nodes that are not visible. They are updated when
+     * they scroll into view.
+     * <p>
+     * This must be a linked set, so that figures are updated in first-come
+     * first-serve fashion.
+     */
+    private final Set<Figure> deferredFigureNodes = new LinkedHashSet<>();
+    /**
+     * Spatial index over the visual bounds in world coordinates of the
+     * deferred figure nodes, at the time they were deferred.
+     */
+    private final @NonNull LooseQuadtree<Figure> deferredIndex = new LooseQuadtree<>();
     private final DoubleProperty zoomFactor = new SimpleDoubleProperty(this, "zoomFactor", 1.0);
     /**
      * @see #updateLimitProperty()
      */
     private final IntegerProperty updateLimit = new SimpleIntegerProperty(this, "updateLimit", 10_000);
+    /**
+     * @see #frameBudgetProperty()
+     */
+    private final DoubleProperty frameBudget = new SimpleDoubleProperty(this, "frameBudget", 10.0);
+    private final @NonNull FrameStatistics frameStatistics = new FrameStatistics();
+    /**
+     * @see #virtualizedProperty()
+     */
+    private final BooleanProperty virtualized = new SimpleBooleanProperty(this, "virtualized", false);
+    /**
+     * @see #virtualizationMarginProperty()
+     */
+    private final DoubleProperty virtualizationMargin = new SimpleDoubleProperty(this, "virtualizationMargin", 0.5);
+    /**
+     * The virtualization bounds of the last repaint, or null if the
+     * rendering is not virtualized.
+     */
+    private @Nullable Bounds virtualizationBounds;
+    /**
+     * Set to true if the virtualization bounds have changed, and we need
+     * to release the nodes of figures that are not visible anymore.
+     */
+    private boolean releaseNodesPending;
+    /**
+     * Released nodes of leaf figures, by figure class.
+     */
+    private final Map<Class<?>, Deque<Node>> recycledNodes = new HashMap<>();
+    /**
+     * @see #getRecyclableFigureClasses()
+     */
+    private final ObservableSet<Class<? extends Figure>> recyclableFigureClasses = FXCollections.observableSet(new HashSet<>());
+    /**
+     * @see #minDetailSizeProperty()
+     */
+    private final DoubleProperty minDetailSize = new SimpleDoubleProperty(this, "minDetailSize", 0.0);
+    /**
+     * Figures that are currently rendered with a proxy node.
+     */
+    private final Set<Figure> proxyFigures = Collections.newSetFromMap(new IdentityHashMap<>());
+    /**
+     * The minimal detail size in world coordinates, or 0 if level-of-detail
+     * rendering is disabled.
+     */
+    private double detailSizeThreshold;
+    /**
+     * The figures that have a node, by their detail size, if level-of-detail
+     * rendering is enabled. The detail size of a figure is the larger side
+     * of its visual bounds in world coordinates, when its node was updated.
+     */
+    private final NavigableMap<Double, Set<Figure>> figuresByDetailSize = new TreeMap<>();
+    /**
+     * The detail sizes of the figures in {@link #figuresByDetailSize}.
+     */
+    private final Map<Figure, Double> detailSizes = new IdentityHashMap<>();
+    /**
+     * @see #getTiledFigures()
+     */
+    private final ObservableSet<Figure> tiledFigures = FXCollections.observableSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+    /**
+     * The tiled renderers of the tiled figures that currently have a node.
+     */
+    private final Map<Figure, TiledCanvasRenderer> tiledRenderers = new IdentityHashMap<>();
     private final Map<Figure, Node> figureToNodeMap = new IdentityHashMap<>();
     private final Map<Node, Figure> nodeToFigureMap = new IdentityHashMap<>();
     private final @NonNull ObjectProperty<DrawingView> drawingView = new SimpleObjectProperty<>(this, DRAWING_VIEW_PROPERTY);
@@ -84,11 +190,49 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
     private @Nullable Runnable repainter = null;
     private final @NonNull Listener<TreeModelEvent<Figure>> treeModelListener = this::onTreeModelEvent;
     private final @NonNull NodeFinder nodeFinder = new NodeFinder();
+    /**
+     * Spatial index over the bounds of the figure nodes in world coordinates.
+     * <p>
+     * The {@code findFigures...} methods query this index first, and
+     * then only descend into the nodes of figures that are near the
+     * queried location.
+     * <p>
+     * A figure is added to the index, when its node is updated. It is
+     * removed from the index, when its node is removed.
+     */
+    private final @NonNull LooseQuadtree<Figure> spatialIndex = new LooseQuadtree<>();
+    /**
+     * The figures that implement {@link VirtualizingFigure}, and have
+     * a node that is not a proxy node.
+     */
+    private final Set<Figure> virtualizingFigures = Collections.newSetFromMap(new IdentityHashMap<>());
+    /**
+     * Spatial index over the visual bounds in world coordinates of the
+     * children of virtualizing figures, whose nodes are not attached
+     * to the node of their parent.
+     * <p>
+     * The figures in these subtrees have no nodes. Hit tests outside
+     * the virtualization bounds query this index, instead of walking
+     * the entire drawing.
+     */
+    private final @NonNull LooseQuadtree<Figure> unmaterializedIndex = new LooseQuadtree<>();
+    /**
+     * Roots of unmaterialized subtrees, that contain changed figures.
+     * Their entries in the index are updated after the drawing model has
+     * been validated.
+     */
+    private final Set<Figure> changedUnmaterializedRoots = Collections.newSetFromMap(new IdentityHashMap<>());
 
     public InteractiveDrawingRenderer() {
         drawingPane.setManaged(false);
         model.addListener(this::onDrawingModelChanged);
         clipBounds.addListener(this::onClipBoundsChanged);
+        virtualizationMargin.addListener(this::onClipBoundsChanged);
+        virtualized.addListener(this::onVirtualizedChanged);
+        zoomFactor.addListener(this::onLevelOfDetailChanged);
+        minDetailSize.addListener(this::onLevelOfDetailChanged);
+        tiledFigures.addListener(this::onTiledFiguresChanged);
+        recyclableFigureClasses.addListener(this::onRecyclableFigureClassesChanged);
     }
 
     public ObjectProperty<Bounds> clipBoundsProperty() {
@@ -162,17 +306,123 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
         Point2D pp = vt.transform(vx, vy);
         List<Map.Entry<Figure, Double>> list = new ArrayList<>();
         double tolerance = getEditor().getTolerance();
+        double toleranceInWorld = Math.max(tolerance, vt.deltaTransform(tolerance, 0).magnitude());
+        final Map<Figure, List<Figure>> candidates = findCandidates(
+                pp.getX() - toleranceInWorld, pp.getY() - toleranceInWorld,
+                pp.getX() + toleranceInWorld, pp.getY() + toleranceInWorld);
         final Parent parent = (Parent) figureToNodeMap.get(getDrawing());
-        for (Node child : frontToBack(parent)) {
+        for (Node child : frontToBack(parent, candidates)) {
             findFiguresRecursive(child, child.parentToLocal(pp), list, decompose,
                     predicate,
                     FXTransforms.inverseDeltaTransform(child.getLocalToParentTransform(),
-                            tolerance, 0).magnitude());
+                            tolerance, 0).magnitude(), candidates);
         }
+        findFiguresWithoutNodes(new BoundingBox(pp.getX() - toleranceInWorld, pp.getY() - toleranceInWorld,
+                2 * toleranceInWorld, 2 * toleranceInWorld), false, decompose, predicate, list);
 
         return list;
     }
 
+    /**
+     * If the rendering is virtualized, and the specified rectangle is not
+     * inside the virtualization bounds, or if there are tiled figures, adds
+     * figures that intersect with the rectangle, but have no node, or are
+     * tiled, to the provided list of found figures.
+     * <p>
+     * Since these figures have no node, we can only test their visual bounds.
+     * The figures without node are looked up in the index of unmaterialized
+     * subtrees. The figures in tiled subtrees are looked up in the spatial
+     * index of their tiled renderer.
+     *
+     * @param r            a rectangle in world coordinates
+     * @param mustBeInside whether the visual bounds of a figure must be inside
+     *                     the rectangle
+     * @param decompose    whether to decompose figures
+     * @param predicate    a predicate for adding figures
+     * @param found        the list of found figures
+     */
+    private void findFiguresWithoutNodes(@NonNull Bounds r, boolean mustBeInside, boolean decompose,
+                                         @NonNull Predicate<Figure> predicate,
+                                         @NonNull List<Map.Entry<Figure, Double>> found) {
+        final Drawing drawing = getDrawing();
+        if (drawing == null) {
+            return;
+        }
+        for (TiledCanvasRenderer tiledRenderer : tiledRenderers.values()) {
+            findTiledFigures(tiledRenderer, r, mustBeInside, decompose, predicate, found);
+        }
+        if (virtualizationBounds == null || virtualizationBounds.contains(r)) {
+            return;
+        }
+        final Deque<Figure> stack = new ArrayDeque<>();
+        unmaterializedIndex.visitQuery(r.getMinX(), r.getMinY(), r.getMaxX(), r.getMaxY(), f -> {
+            stack.push(f);
+            return true;
+        });
+        while (!stack.isEmpty()) {
+            final Figure f = stack.pop();
+            if (tiledRenderers.containsKey(f)) {
+                continue;
+            }
+            final Bounds b = f.getVisualBoundsInWorld();
+            if (!b.intersects(r)) {
+                continue;
+            }
+            final boolean isWanted = predicate.test(f);
+            if (hasNode(f)) {
+                if (isWanted && !decompose) {
+                    // This figure has already been tested with its node.
+                    continue;
+                }
+            } else if (isWanted && (!mustBeInside || r.contains(b))
+                    && (!decompose || f.getChildren().isEmpty())) {
+                found.add(new AbstractMap.SimpleImmutableEntry<>(f, 0.0));
+                continue;
+            }
+            final List<Figure> children = f.getChildren();
+            for (int i = 0, n = children.size(); i < n; i++) {
+                stack.push(children.get(i));
+            }
+        }
+    }
+
+    /**
+     * Adds the figures of a tiled subtree that intersect with the specified
+     * rectangle to the provided list of found figures.
+     * <p>
+     * For each painted figure that intersects with the rectangle, adds the
+     * topmost wanted figure on the path from the root of the subtree down
+     * to the painted figure.
+     */
+    private void findTiledFigures(@NonNull TiledCanvasRenderer tiledRenderer, @NonNull Bounds r,
+                                  boolean mustBeInside, boolean decompose,
+                                  @NonNull Predicate<Figure> predicate,
+                                  @NonNull List<Map.Entry<Figure, Double>> found) {
+        final List<Figure> painted = new ArrayList<>();
+        tiledRenderer.findFigures(r, painted);
+        if (painted.isEmpty()) {
+            return;
+        }
+        final Figure root = tiledRenderer.getRoot();
+        final Set<Figure> added = Collections.newSetFromMap(new IdentityHashMap<>());
+        final Deque<Figure> path = new ArrayDeque<>();
+        for (Figure leaf : painted) {
+            path.clear();
+            for (Figure f = leaf; f != null; f = f == root ? null : f.getParent()) {
+                path.push(f);
+            }
+            for (Figure f : path) {
+                if (predicate.test(f) && (!decompose || f.getChildren().isEmpty())
+                        && (!mustBeInside || r.contains(f.getVisualBoundsInWorld()))) {
+                    if (added.add(f)) {
+                        found.add(new AbstractMap.SimpleImmutableEntry<>(f, 0.0));
+                    }
+                    break;
+                }
+            }
+        }
+    }
+
     /**
      * Gets the children of this node in front-to-back order.
      *
@@ -195,6 +445,130 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
         return array;
     }
 
+    /**
+     * Gets the children of this node in front-to-back order, omitting
+     * nodes of figures that are not in the provided candidates map.
+     * <p>
+     * If all children of the node are figure nodes, the children are
+     * retrieved from the candidates map, without iterating over
+     * all children of the node.
+     *
+     * @param parent     a parent node
+     * @param candidates the candidate figures, as returned by
+     *                   {@link #findCandidates}
+     * @return the children of the node in front-to-back-order in a new
+     * mutable array
+     */
+    private @NonNull Node[] frontToBack(@Nullable Parent parent, @NonNull Map<Figure, List<Figure>> candidates) {
+        if (parent == null) {
+            return new Node[0];
+        }
+        final Figure parentFigure = nodeToFigureMap.get(parent);
+        final ObservableList<Node> children = parent.getChildrenUnmodifiable();
+        final List<Figure> candidateChildren = parentFigure == null ? null : candidates.get(parentFigure);
+        if (candidateChildren != null && children.size() == parentFigure.getChildren().size()) {
+            Node[] array = candidateChildrenFrontToBack(parent, parentFigure, candidateChildren, candidates);
+            if (array != null) {
+                return array;
+            }
+        }
+
+        Node[] array = frontToBack(parent);
+        int j = 0;
+        for (Node node : array) {
+            Figure figure = nodeToFigureMap.get(node);
+            if (figure == null || candidates.containsKey(figure)) {
+                array[j++] = node;
+            }
+        }
+        return j == array.length ? array : Arrays.copyOf(array, j);
+    }
+
+    /**
+     * Gets the nodes of the candidate children of the specified parent
+     * figure in front-to-back order.
+     *
+     * @return the nodes or null if one of the nodes is not a child
+     * of the parent node
+     */
+    private @Nullable Node[] candidateChildrenFrontToBack(@NonNull Parent parent, @NonNull Figure parentFigure,
+                                                          @NonNull List<Figure> candidateChildren,
+                                                          @NonNull Map<Figure, List<Figure>> candidates) {
+        final int n = candidateChildren.size();
+        final Node[] array = new Node[n];
+        final List<Figure> siblings = parentFigure.getChildren();
+        if (n <= LINEAR_SEARCH_LIMIT) {
+            // Performance: a few linear searches are faster than iterating over all siblings.
+            final int[] indices = new int[n];
+            for (int i = 0; i < n; i++) {
+                final Figure child = candidateChildren.get(i);
+                final Node node = figureToNodeMap.get(child);
+                if (node == null || node.getParent() != parent) {
+                    return null;
+                }
+                // insertion sort by descending child index
+                final int index = siblings.indexOf(child);
+                int j = i;
+                for (; j > 0 && indices[j - 1] < index; j--) {
+                    indices[j] = indices[j - 1];
+                    array[j] = array[j - 1];
+                }
+                indices[j] = index;
+                array[j] = node;
+            }
+        } else {
+            int j = 0;
+            for (int i = siblings.size() - 1; i >= 0; i--) {
+                final Figure child = siblings.get(i);
+                if (candidates.containsKey(child)) {
+                    final Node node = figureToNodeMap.get(child);
+                    if (node == null || node.getParent() != parent) {
+                        return null;
+                    }
+                    array[j++] = node;
+                }
+            }
+            if (j != n) {
+                return null;
+            }
+        }
+        if (n > 1) {
+            sortByViewOrder(array);
+        }
+        return array;
+    }
+
+    /**
+     * Finds the candidate figures for a hit test in the specified rectangle
+     * in world coordinates.
+     * <p>
+     * The candidates are all figures whose node intersects with the
+     * rectangle, and all their ancestors.
+     *
+     * @return a map from each candidate figure to its candidate children
+     */
+    private @NonNull Map<Figure, List<Figure>> findCandidates(double minX, double minY, double maxX, double maxY) {
+        final Map<Figure, List<Figure>> candidates = new IdentityHashMap<>();
+        spatialIndex.visitQuery(minX, minY, maxX, maxY, f -> {
+            if (!candidates.containsKey(f)) {
+                candidates.put(f, new ArrayList<>());
+                Figure child = f;
+                for (Figure p = f.getParent(); p != null; child = p, p = p.getParent()) {
+                    List<Figure> siblings = candidates.get(p);
+                    if (siblings != null) {
+                        siblings.add(child);
+                        break;
+                    }
+                    siblings = new ArrayList<>();
+                    siblings.add(child);
+                    candidates.put(p, siblings);
+                }
+            }
+            return true;
+        });
+        return candidates;
+    }
+
     private @Nullable Boolean canSortByViewOrder = null;
     private @Nullable Method getViewOrder = null;
 
@@ -226,11 +600,13 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
         BoundingBox r = new BoundingBox(pxy.getX(), pxy.getY(), pwh.getX(), pwh.getY());
         List<Map.Entry<Figure, Double>> list = new ArrayList<>();
 
+        final Map<Figure, List<Figure>> candidates = findCandidates(r.getMinX(), r.getMinY(), r.getMaxX(), r.getMaxY());
         final Parent parent = (Parent) figureToNodeMap.get(getDrawing());
-        for (Node child : frontToBack(parent)) {
+        for (Node child : frontToBack(parent, candidates)) {
             findFiguresInsideRecursive(child, child.parentToLocal(r), list, decompose,
-                    predicate);
+                    predicate, candidates);
         }
+        findFiguresWithoutNodes(r, true, decompose, predicate, list);
         return list;
     }
 
@@ -243,12 +619,14 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
      * @param found     the list of found figures
      * @param decompose whether to decompose figures
      * @param predicate a predicate for adding figures
+     * @param candidates the candidate figures
      * @return true if one or more figures were found
      */
-    private boolean findFiguresInsideRecursive(@NonNull Node node, @NonNull Bounds pp, @NonNull List<Map.Entry<Figure, Double>> found, boolean decompose, Predicate<Figure> predicate) {
+    private boolean findFiguresInsideRecursive(@NonNull Node node, @NonNull Bounds pp, @NonNull List<Map.Entry<Figure, Double>> found, boolean decompose, Predicate<Figure> predicate,
+                                               @NonNull Map<Figure, List<Figure>> candidates) {
         // base case
         // ---------
-        if (!node.isVisible()) {
+        if (!node.isVisible() || isTiledNode(node)) {
             return false;
         }
 
@@ -270,13 +648,14 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
         boolean foundAChildFigure = false;
         if (node instanceof Parent) {
             Parent parent = (Parent) node;
-            for (Node child : frontToBack(parent)) {
+            for (Node child : frontToBack(parent, candidates)) {
                 foundAChildFigure |= findFiguresInsideRecursive(
                         child,
                         child.parentToLocal(pp),
                         found,
                         decompose,
-                        predicate
+                        predicate,
+                        candidates
                 );
             }
         }
@@ -292,18 +671,21 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
         Point2D pwh = vt.deltaTransform(vwidth, vheight);
         BoundingBox r = new BoundingBox(pxy.getX(), pxy.getY(), pwh.getX(), pwh.getY());
         List<Map.Entry<Figure, Double>> list = new ArrayList<>();
+        final Map<Figure, List<Figure>> candidates = findCandidates(r.getMinX(), r.getMinY(), r.getMaxX(), r.getMaxY());
         final Parent parent = (Parent) figureToNodeMap.get(getDrawing());
-        for (Node child : frontToBack(parent)) {
+        for (Node child : frontToBack(parent, candidates)) {
             findFiguresIntersectingRecursive(child, child.parentToLocal(r), list, decompose,
-                    predicate);
+                    predicate, candidates);
         }
+        findFiguresWithoutNodes(r, false, decompose, predicate, list);
         return list;
     }
 
-    private boolean findFiguresIntersectingRecursive(@NonNull Node node, @NonNull Bounds pp, @NonNull List<Map.Entry<Figure, Double>> found, boolean decompose, Predicate<Figure> predicate) {
+    private boolean findFiguresIntersectingRecursive(@NonNull Node node, @NonNull Bounds pp, @NonNull List<Map.Entry<Figure, Double>> found, boolean decompose, Predicate<Figure> predicate,
+                                                     @NonNull Map<Figure, List<Figure>> candidates) {
         // base case
         // ---------
-        if (!node.isVisible()) {
+        if (!node.isVisible() || isTiledNode(node)) {
             return false;
         }
 
@@ -324,13 +706,14 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
         boolean foundAChildFigure = false;
         if (node instanceof Parent) {
             Parent parent = (Parent) node;
-            for (Node child : frontToBack(parent)) {
+            for (Node child : frontToBack(parent, candidates)) {
                 foundAChildFigure |= findFiguresIntersectingRecursive(
                         child,
                         child.parentToLocal(pp),
                         found,
                         decompose,
-                        predicate
+                        predicate,
+                        candidates
                 );
             }
         }
@@ -350,14 +733,16 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
      * @param decompose       whether figures should be decomposed
      * @param figurePredicate only figures which satisfy this predicate are added
      * @param radius          the radius of the circle around the point
+     * @param candidates      the candidate figures
      * @return whether figures were found
      */
     private boolean findFiguresRecursive(@NonNull Node node, @NonNull Point2D center,
                                          @NonNull List<Map.Entry<Figure, Double>> found, boolean decompose,
-                                         @NonNull Predicate<Figure> figurePredicate, double radius) {
+                                         @NonNull Predicate<Figure> figurePredicate, double radius,
+                                         @NonNull Map<Figure, List<Figure>> candidates) {
         // base case
         // ---------
-        if (!node.isVisible()) {
+        if (!node.isVisible() || isTiledNode(node)) {
             return false;
         }
 
@@ -378,7 +763,7 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
         boolean foundAChildFigure = false;
         if (node instanceof Parent) {
             Parent parent = (Parent) node;
-            for (Node child : frontToBack(parent)) {
+            for (Node child : frontToBack(parent, candidates)) {
                 foundAChildFigure |= findFiguresRecursive(
                         child,
                         child.parentToLocal(center),
@@ -387,7 +772,8 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
                         figurePredicate,
                         Math.abs(
                                 FXTransforms.inverseDeltaTransform(
-                                        child.getLocalToParentTransform(), radius, radius).getX()));
+                                        child.getLocalToParentTransform(), radius, radius).getX()),
+                        candidates);
             }
         }
         if (!foundAChildFigure && isWanted) {
@@ -431,7 +817,22 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
         }
         Node n = figureToNodeMap.get(f);
         if (n == null) {
-            n = f.createNode(getRenderContext());
+            if (tiledFigures.contains(f)) {
+                final TiledCanvasRenderer tiledRenderer = new TiledCanvasRenderer(f);
+                tiledRenderers.put(f, tiledRenderer);
+                n = tiledRenderer.getNode();
+            } else if (isProxyWanted(f)) {
+                n = createProxyNode();
+                proxyFigures.add(f);
+            } else {
+                n = pollRecycledNode(f);
+                if (n == null) {
+                    n = f.createNode(getRenderContext());
+                }
+                if (f instanceof VirtualizingFigure) {
+                    virtualizingFigures.add(f);
+                }
+            }
             figureToNodeMap.put(f, n);
             nodeToFigureMap.put(n, f);
             dirtyFigureNodes.add(f);
@@ -460,6 +861,35 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
         zoomFactorProperty().set(newValue);
     }
 
+    private boolean isTiledNode(@NonNull Node node) {
+        final Figure f = nodeToFigureMap.get(node);
+        return f != null && tiledRenderers.containsKey(f);
+    }
+
+    /**
+     * Returns the nearest tiled renderer of the specified figure or one of
+     * its ancestors.
+     *
+     * @param f a figure
+     * @return the tiled renderer or null
+     */
+    private @Nullable TiledCanvasRenderer findTiledRenderer(@Nullable Figure f) {
+        if (tiledRenderers.isEmpty()) {
+            return null;
+        }
+        for (; f != null; f = f.getParent()) {
+            final TiledCanvasRenderer tiledRenderer = tiledRenderers.get(f);
+            if (tiledRenderer != null) {
+                return tiledRenderer;
+            }
+        }
+        return null;
+    }
+
+    private void invalidateTiledFigureNodes() {
+        dirtyFigureNodes.addAll(tiledRenderers.keySet());
+    }
+
     private boolean hasNode(Figure f) {
         return figureToNodeMap.containsKey(f);
     }
@@ -470,6 +900,30 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
         }
     }
 
+    /**
+     * Moves the deferred figure nodes that have become visible back
+     * to the dirty figure nodes.
+     */
+    private void undeferVisibleFigureNodes() {
+        final Bounds visibleRectInWorld = getClipBounds();
+        if (visibleRectInWorld == null || deferredFigureNodes.isEmpty()) {
+            return;
+        }
+        final List<Figure> visible = new ArrayList<>();
+        deferredIndex.query(visibleRectInWorld.getMinX(), visibleRectInWorld.getMinY(),
+                visibleRectInWorld.getMaxX(), visibleRectInWorld.getMaxY(), visible);
+        for (Figure f : visible) {
+            undefer(f);
+            dirtyFigureNodes.add(f);
+        }
+    }
+
+    private void undefer(@NonNull Figure f) {
+        if (deferredFigureNodes.remove(f)) {
+            deferredIndex.remove(f);
+        }
+    }
+
     private void invalidateLayerNodes() {
         Drawing drawing = getDrawing();
         if (drawing != null) {
@@ -483,15 +937,172 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
 
     private void onClipBoundsChanged(Observable observable) {
         invalidateLayerNodes();
+        invalidateTiledFigureNodes();
+        undeferVisibleFigureNodes();
+        if (isVirtualized()) {
+            invalidateVirtualizingFigureNodes(virtualizationBounds, computeVirtualizationBounds());
+            releaseNodesPending = true;
+        }
         repaint();
     }
 
+    private void onVirtualizedChanged(Observable observable) {
+        dirtyFigureNodes.addAll(virtualizingFigures);
+        if (isVirtualized()) {
+            releaseNodesPending = true;
+        } else {
+            recycledNodes.clear();
+            unmaterializedIndex.clear();
+            changedUnmaterializedRoots.clear();
+        }
+        repaint();
+    }
+
+    private void onLevelOfDetailChanged(Observable observable) {
+        if (!tiledRenderers.isEmpty()) {
+            invalidateTiledFigureNodes();
+            repaint();
+        }
+        final double oldThreshold = detailSizeThreshold;
+        final double newThreshold = computeDetailSizeThreshold();
+        if (oldThreshold == newThreshold) {
+            return;
+        }
+        detailSizeThreshold = newThreshold;
+        if (newThreshold == 0) {
+            // Level-of-detail rendering has been disabled.
+            dirtyFigureNodes.addAll(proxyFigures);
+            figuresByDetailSize.clear();
+            detailSizes.clear();
+        } else if (oldThreshold == 0) {
+            // Level-of-detail rendering has been enabled.
+            for (Figure f : figureToNodeMap.keySet()) {
+                if (!tiledFigures.contains(f) && putDetailSize(f) <= newThreshold) {
+                    dirtyFigureNodes.add(f);
+                }
+            }
+        } else {
+            // Only figures with a detail size between the old and the new
+            // threshold switch between a proxy node and a full node.
+            for (Set<Figure> figures : figuresByDetailSize.subMap(Math.min(oldThreshold, newThreshold), true,
+                    Math.max(oldThreshold, newThreshold), true).values()) {
+                dirtyFigureNodes.addAll(figures);
+            }
+        }
+        if (isVirtualized()) {
+            releaseNodesPending = true;
+        }
+        repaint();
+    }
+
+    /**
+     * Computes the minimal detail size in world coordinates.
+     *
+     * @return the minimal detail size, or 0 if level-of-detail rendering is
+     * disabled
+     */
+    private double computeDetailSizeThreshold() {
+        final double minDetailSize = getMinDetailSize();
+        final double zoomFactor = getZoomFactor();
+        return minDetailSize > 0 && zoomFactor > 0 ? minDetailSize / zoomFactor : 0;
+    }
+
+    /**
+     * Puts the current detail size of the specified figure into
+     * {@link #figuresByDetailSize}.
+     *
+     * @param f a figure
+     * @return the detail size
+     */
+    private double putDetailSize(@NonNull Figure f) {
+        final Bounds b = f.getVisualBoundsInWorld();
+        final double size = Math.max(b.getWidth(), b.getHeight());
+        final Double oldSize = detailSizes.put(f, size);
+        if (oldSize == null || oldSize != size) {
+            if (oldSize != null) {
+                removeFromFiguresByDetailSize(f, oldSize);
+            }
+            figuresByDetailSize.computeIfAbsent(size, k -> Collections.newSetFromMap(new IdentityHashMap<>())).add(f);
+        }
+        return size;
+    }
+
+    private void removeDetailSize(@NonNull Figure f) {
+        final Double size = detailSizes.remove(f);
+        if (size != null) {
+            removeFromFiguresByDetailSize(f, size);
+        }
+    }
+
+    private void removeFromFiguresByDetailSize(@NonNull Figure f, double size) {
+        final Set<Figure> figures = figuresByDetailSize.get(size);
+        if (figures != null) {
+            figures.remove(f);
+            if (figures.isEmpty()) {
+                figuresByDetailSize.remove(size);
+            }
+        }
+    }
+
+    /**
+     * Invalidates the nodes of the virtualizing figures, that may attach
+     * different child nodes with the new virtualization bounds than with
+     * the old virtualization bounds.
+     * <p>
+     * A figure whose visual bounds are inside both bounds attaches the
+     * nodes of all children. A figure whose visual bounds are outside of
+     * both bounds attaches no child nodes.
+     *
+     * @param oldBounds the virtualization bounds of the last repaint
+     * @param newBounds the virtualization bounds of the next repaint
+     */
+    private void invalidateVirtualizingFigureNodes(@Nullable Bounds oldBounds, @Nullable Bounds newBounds) {
+        if (oldBounds == null || newBounds == null) {
+            dirtyFigureNodes.addAll(virtualizingFigures);
+            return;
+        }
+        for (Figure f : virtualizingFigures) {
+            final Bounds b = f.getVisualBoundsInWorld();
+            final boolean isInside = oldBounds.contains(b) && newBounds.contains(b);
+            final boolean isOutside = !b.intersects(oldBounds) && !b.intersects(newBounds);
+            if (!isInside && !isOutside) {
+                dirtyFigureNodes.add(f);
+            }
+        }
+    }
+
+    private void onRecyclableFigureClassesChanged(SetChangeListener.Change<? extends Class<? extends Figure>> change) {
+        if (change.wasRemoved()) {
+            recycledNodes.remove(change.getElementRemoved());
+        }
+    }
+
+    private void onTiledFiguresChanged(SetChangeListener.Change<? extends Figure> change) {
+        final Figure f = change.wasAdded() ? change.getElementAdded() : change.getElementRemoved();
+        if (hasNode(f)) {
+            replaceNode(f);
+            repaint();
+        }
+    }
+
     private void onDrawingModelChanged(Observable o, @Nullable DrawingModel oldValue, @Nullable DrawingModel newValue) {
         if (oldValue != null) {
             oldValue.removeTreeModelListener(treeModelListener);
             dirtyFigureNodes.clear();
+            deferredFigureNodes.clear();
+            deferredIndex.clear();
+            recycledNodes.clear();
+            proxyFigures.clear();
+            tiledRenderers.clear();
             figureToNodeMap.clear();
             nodeToFigureMap.clear();
+            spatialIndex.clear();
+            virtualizingFigures.clear();
+            unmaterializedIndex.clear();
+            changedUnmaterializedRoots.clear();
+            figuresByDetailSize.clear();
+            detailSizes.clear();
+            nodeFinder.invalidateAll();
         }
         if (newValue != null) {
             newValue.addTreeModelListener(treeModelListener);
@@ -500,23 +1111,72 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
     }
 
     private void onFigureAddedToParent(@NonNull Figure figure) {
+        invalidateTiledStructure(figure);
         for (Figure f : figure.preorderIterable()) {
             invalidateFigureNode(f);
         }
         repaint();
     }
 
-    private void onFigureRemovedFromParent(@NonNull Figure figure) {
+    private void onFigureRemovedFromParent(@NonNull Figure figure, @Nullable Figure parent) {
         for (Figure f : figure.preorderIterable()) {
             removeNode(f);
+            unmaterializedIndex.remove(f);
+        }
+        if (parent != null) {
+            invalidateTiledStructure(parent);
+        }
+    }
+
+    /**
+     * If the specified figure is inside a tiled figure, invalidates the
+     * structure of the tiled figure.
+     *
+     * @param figure a figure
+     */
+    private void invalidateTiledStructure(@NonNull Figure figure) {
+        final TiledCanvasRenderer tiledRenderer = findTiledRenderer(figure);
+        if (tiledRenderer != null) {
+            tiledRenderer.invalidateStructure();
+            dirtyFigureNodes.add(tiledRenderer.getRoot());
+            repaint();
         }
     }
 
     private void onNodeChanged(@NonNull Figure figure) {
-        invalidateFigureNode(figure);
+        final TiledCanvasRenderer tiledRenderer = findTiledRenderer(figure);
+        if (tiledRenderer != null) {
+            if (tiledRenderer.getRoot() == figure) {
+                tiledRenderer.invalidateAll();
+            } else {
+                tiledRenderer.invalidateFigure(figure);
+            }
+            dirtyFigureNodes.add(tiledRenderer.getRoot());
+        } else {
+            invalidateFigureNode(figure);
+            invalidateUnmaterializedRoot(figure);
+        }
         repaint();
     }
 
+    private void onBatchCommitted(@NonNull TreeModelEvent<Figure> event) {
+        for (Figure f : event.getRemovedSubtrees()) {
+            onFigureRemovedFromParent(f, null);
+        }
+        for (Figure f : event.getChangedParents()) {
+            invalidateTiledStructure(f);
+            onNodeChanged(f);
+        }
+        for (Figure f : event.getAddedSubtrees()) {
+            // A moved figure may need a different node in its new parent.
+            onFigureRemovedFromParent(f, null);
+            onFigureAddedToParent(f);
+        }
+        for (Figure f : event.getChangedNodes()) {
+            onNodeChanged(f);
+        }
+    }
+
     private void onNodeAddedToTree(@NonNull Figure f) {
     }
 
@@ -527,6 +1187,13 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
         ObservableList<Node> children = drawingPane.getChildren();
         nodeToFigureMap.clear();
         figureToNodeMap.clear();
+        spatialIndex.clear();
+        virtualizingFigures.clear();
+        unmaterializedIndex.clear();
+        changedUnmaterializedRoots.clear();
+        figuresByDetailSize.clear();
+        detailSizes.clear();
+        nodeFinder.invalidateAll();
         Node node = getNode(f);
         if (node == null) {
             children.clear();
@@ -534,6 +1201,11 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
             children.setAll(node);
         }
         dirtyFigureNodes.clear();
+        deferredFigureNodes.clear();
+        deferredIndex.clear();
+        recycledNodes.clear();
+        proxyFigures.clear();
+        tiledRenderers.clear();
         if (f != null) {
             dirtyFigureNodes.add(f);
             repaint();
@@ -541,6 +1213,7 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
     }
 
     private void onSubtreeNodesChanged(@NonNull Figure figure) {
+        invalidateTiledStructure(figure);
         for (Figure f : figure.preorderIterable()) {
             dirtyFigureNodes.add(f);
         }
@@ -554,7 +1227,7 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
                 onFigureAddedToParent(f);
                 break;
             case NODE_REMOVED_FROM_PARENT:
-                onFigureRemovedFromParent(f);
+                onFigureRemovedFromParent(f, event.getParent());
                 break;
             case NODE_ADDED_TO_TREE:
                 onNodeAddedToTree(f);
@@ -571,6 +1244,9 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
             case SUBTREE_NODES_CHANGED:
                 onSubtreeNodesChanged(f);
                 break;
+            case BATCH_COMMITTED:
+                onBatchCommitted(event);
+                break;
             default:
                 throw new UnsupportedOperationException(event.getEventType()
                         + " not supported");
@@ -578,19 +1254,37 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
     }
 
     private void paint() {
+        final long start = System.nanoTime();
+        final double budgetMillis = getFrameBudget();
+        final long deadline = budgetMillis > 0 ? start + (long) (budgetMillis * 1e6) : Long.MAX_VALUE;
         updateRenderContext();
 
         // A call to validate() may reveal new dirty nodes, and so may
         // a call to updateNodes().
         // We only update a limited number of figure nodes in one call
-        // to this method. If there are remaining nodes, we update
-        // them later.
+        // to this method, and only until the frame budget is used up.
+        // If there are remaining nodes, we update them later.
         int remainingLimit = Math.max(1, getUpdateLimit());
-        while (!dirtyFigureNodes.isEmpty() && remainingLimit > 0) {
+        int updated = 0;
+        do {
             getModel().validate(getRenderContext());
-            remainingLimit -= updateNodes(remainingLimit);
-        }
+            final int count = updateNodes(remainingLimit, deadline);
+            remainingLimit -= count;
+            updated += count;
+        } while (!dirtyFigureNodes.isEmpty() && remainingLimit > 0 && System.nanoTime() < deadline);
         repainter = null;
+        updateUnmaterializedIndex();
+
+        // Release the nodes of figures that are not visible anymore, after
+        // all composite figures have updated their child nodes.
+        if (releaseNodesPending && dirtyFigureNodes.isEmpty()) {
+            releaseNodesPending = false;
+            releaseDetachedNodes();
+        }
+
+        final long end = System.nanoTime();
+        frameStatistics.addFrame(end - start, updated, end > deadline,
+                dirtyFigureNodes.size(), deferredFigureNodes.size());
         if (!dirtyFigureNodes.isEmpty()) {
             repaint();
         }
@@ -605,17 +1299,122 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
 
     private void updateRenderContext() {
         getRenderContext().set(RenderContext.CLIP_BOUNDS, getClipBounds());
+        virtualizationBounds = computeVirtualizationBounds();
+        getRenderContext().set(RenderContext.VIRTUALIZATION_BOUNDS, virtualizationBounds);
+        getRenderContext().set(RenderContext.VIEW_SCALE, getZoomFactor());
+        getRenderContext().set(RenderContext.MIN_DETAIL_SIZE, getMinDetailSize());
         DefaultUnitConverter units = new DefaultUnitConverter(96, 1.0, 1024.0 / getZoomFactor(), 768 / getZoomFactor());
         getRenderContext().set(RenderContext.UNIT_CONVERTER_KEY, units);
     }
 
+    /**
+     * Computes the virtualization bounds from the current clip bounds.
+     *
+     * @return the virtualization bounds, or null if the rendering is not
+     * virtualized
+     */
+    private @Nullable Bounds computeVirtualizationBounds() {
+        final Bounds clip = getClipBounds();
+        if (!isVirtualized() || clip == null) {
+            return null;
+        }
+        final double margin = Math.max(0, getVirtualizationMargin());
+        final double mx = clip.getWidth() * margin, my = clip.getHeight() * margin;
+        return new BoundingBox(clip.getMinX() - mx, clip.getMinY() - my,
+                clip.getWidth() + 2 * mx, clip.getHeight() + 2 * my);
+    }
+
     private void removeNode(Figure f) {
         Node oldNode = figureToNodeMap.remove(f);
         if (oldNode != null) {
+            nodeFinder.invalidate(oldNode);
             Figure removedFigure = nodeToFigureMap.remove(oldNode);
             figureToNodeMap.remove(removedFigure);
         }
         dirtyFigureNodes.remove(f);
+        undefer(f);
+        proxyFigures.remove(f);
+        removeDetailSize(f);
+        tiledRenderers.remove(f);
+        spatialIndex.remove(f);
+        if (virtualizingFigures.remove(f)) {
+            // The children are now inside the unmaterialized subtree of f
+            // or of an ancestor of f.
+            for (Figure child : f.getChildren()) {
+                unmaterializedIndex.remove(child);
+            }
+        }
+    }
+
+    /**
+     * Releases the nodes of all figures that are not attached to the node
+     * of their parent figure, and the nodes of their descendants.
+     * <p>
+     * If the rendering is virtualized, composite figures only attach the
+     * nodes of children that intersect with the virtualization bounds.
+     * The nodes of leaf figures are kept for recycling.
+     */
+    private void releaseDetachedNodes() {
+        final Drawing drawing = getDrawing();
+        final List<Figure> detached = new ArrayList<>();
+        for (Map.Entry<Figure, Node> entry : figureToNodeMap.entrySet()) {
+            if (entry.getValue().getParent() == null && entry.getKey() != drawing) {
+                detached.add(entry.getKey());
+            }
+        }
+        for (Figure f : detached) {
+            for (Figure d : f.preorderIterable()) {
+                final Node node = figureToNodeMap.get(d);
+                if (node != null) {
+                    final boolean isRecyclable = !proxyFigures.contains(d) && !tiledRenderers.containsKey(d);
+                    removeNode(d);
+                    if (isRecyclable) {
+                        recycleNode(d, node);
+                    }
+                }
+            }
+        }
+    }
+
+    void recycleNode(@NonNull Figure f, @NonNull Node node) {
+        if (isVirtualized() && !f.isAllowsChildren() && recyclableFigureClasses.contains(f.getClass())) {
+            final Deque<Node> pool = recycledNodes.computeIfAbsent(f.getClass(), k -> new ArrayDeque<>());
+            if (pool.size() < MAX_RECYCLED_NODES_PER_CLASS) {
+                pool.add(node);
+            }
+        }
+    }
+
+    @Nullable Node pollRecycledNode(@NonNull Figure f) {
+        if (f.isAllowsChildren()) {
+            return null;
+        }
+        final Deque<Node> pool = recycledNodes.get(f.getClass());
+        final Node node = pool == null ? null : pool.pollLast();
+        if (node != null) {
+            resetNode(node);
+        }
+        return node;
+    }
+
+    /**
+     * Resets the properties of a recycled node, that all figures may set
+     * on their node, to the values of a new node.
+     *
+     * @param node a recycled node
+     */
+    private static void resetNode(@NonNull Node node) {
+        node.getTransforms().clear();
+        node.setEffect(null);
+        node.setClip(null);
+        node.setOpacity(1.0);
+        node.setBlendMode(null);
+        node.setVisible(true);
+        node.setRotate(0.0);
+        node.setScaleX(1.0);
+        node.setScaleY(1.0);
+        node.setTranslateX(0.0);
+        node.setTranslateY(0.0);
     }
 
     public void repaint() {
@@ -627,53 +1426,292 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
 
     /**
      * Updates the nodes of the figures.
+     * <p>
+     * Figures that intersect with the clip bounds are updated first.
+     * Figures that do not intersect with the clip bounds are deferred until
+     * they scroll into view, if their node does not need to be updated
+     * for the drawing to look right; see {@link #isDeferrable}.
      *
-     * @param limit Determines how many nodes we will update in this batch
+     * @param limit    Determines how many nodes we will update in this batch
+     * @param deadline The value of {@link System#nanoTime()} at which we
+     *                 stop updating nodes. At least one node is updated.
      * @return returns the number of updated nodes
      */
-    private int updateNodes(final int limit) {
+    private int updateNodes(final int limit, final long deadline) {
         final Bounds visibleRectInWorld = getClipBounds();
 
         // create copies of the lists to allow for concurrent modification
         final Figure[] copyOfDirtyFigureNodes = dirtyFigureNodes.toArray(new Figure[0]);
 
-        // If there are too many dirty figures, we update the node of
-        // figures that intersect with the visible rect first.
+        // Update the nodes of figures that intersect with the visible rect
+        // first, and defer the nodes of figures that are not visible.
         int count = 0;
-        if (copyOfDirtyFigureNodes.length > limit) {
-            for (int i = 0, n = copyOfDirtyFigureNodes.length; i < n && count < limit; i++) {
-                final Figure f = copyOfDirtyFigureNodes[i];
-                if (f.getVisualBoundsInWorld().intersects(visibleRectInWorld)) {
-                    copyOfDirtyFigureNodes[i] = null;
-                    count++;
-                    final Node node = getNode(f);// this may add the node again to the list of dirties!
-                    if (node != null) {
-                        f.updateNode(getRenderContext(), node);
-                        dirtyFigureNodes.remove(f);
+        for (int i = 0, n = copyOfDirtyFigureNodes.length; i < n && count < limit; i++) {
+            final Figure f = copyOfDirtyFigureNodes[i];
+            final Bounds b = f.getVisualBoundsInWorld();
+            if (b.intersects(visibleRectInWorld)) {
+                copyOfDirtyFigureNodes[i] = null;
+                count++;
+                updateDirtyNode(f);
+                if (System.nanoTime() >= deadline) {
+                    return count;
+                }
+            } else if (isDeferrable(f, visibleRectInWorld)) {
+                copyOfDirtyFigureNodes[i] = null;
+                dirtyFigureNodes.remove(f);
+                deferredFigureNodes.add(f);
+                deferredIndex.put(f, b.getMinX(), b.getMinY(), b.getMaxX(), b.getMaxY());
+            }
+        }
+
+        // Update the remaining figure nodes until we reach the limit.
+        for (int i = 0, n = copyOfDirtyFigureNodes.length; i < n && count < limit; i++) {
+            final Figure f = copyOfDirtyFigureNodes[i];
+            if (f != null) {
+                count++;
+                updateDirtyNode(f);
+                if (System.nanoTime() >= deadline) {
+                    return count;
+                }
+            }
+        }
+
+        return count;
+    }
+
+    private void updateDirtyNode(@NonNull Figure f) {
+        final Node node = getNode(f);// this may add the node again to the list of dirties!
+        if (node != null) {
+            updateNode(f, node);
+            dirtyFigureNodes.remove(f);
+            undefer(f);
+        }
+    }
+
+    /**
+     * Returns true if the update of the node of the specified figure can be
+     * deferred until the figure becomes visible.
+     * <p>
+     * This is the case if the figure is a leaf figure, and neither the figure
+     * nor its current node intersect with the visible rect. The nodes of
+     * composite figures are never deferred, because they manage the nodes
+     * of their children.
+     *
+     * @param f                  a figure that does not intersect with the
+     *                           visible rect
+     * @param visibleRectInWorld the visible rect in world coordinates
+     * @return true if the update can be deferred
+     */
+    private boolean isDeferrable(@NonNull Figure f, @NonNull Bounds visibleRectInWorld) {
+        if (!f.getChildren().isEmpty()) {
+            return false;
+        }
+        // If the node has been updated before, it may still show the figure
+        // at a visible location.
+        final Node node = figureToNodeMap.get(f);
+        return node == null || !spatialIndex.contains(f)
+                || !getBoundsInWorld(f, node).intersects(visibleRectInWorld);
+    }
+
+    /**
+     * Updates the node of the figure, its entry in the spatial index,
+     * and invalidates the cached hit geometry of the node.
+     * <p>
+     * If the transform of the node has changed, then the entries of all
+     * descendant figures are updated as well, because their world bounds
+     * have changed.
+     *
+     * @param f    a figure
+     * @param node the node of the figure
+     */
+    private void updateNode(@NonNull Figure f, @NonNull Node node) {
+        if (!tiledFigures.contains(f)) {
+            if (isProxyWanted(f) != proxyFigures.contains(f)) {
+                node = replaceNode(f);
+            }
+            if (detailSizeThreshold > 0) {
+                putDetailSize(f);
+            }
+        }
+        final TiledCanvasRenderer tiledRenderer = tiledRenderers.get(f);
+        if (tiledRenderer != null) {
+            final Bounds clip = getClipBounds();
+            if (clip != null) {
+                tiledRenderer.paint(getRenderContext(), clip, getZoomFactor());
+            }
+            node.setVisible(f.isVisible());
+            nodeFinder.invalidate(node);
+            updateSpatialIndex(f, node);
+            return;
+        }
+        if (proxyFigures.contains(f)) {
+            updateProxyNode(f, (Rectangle) node);
+            nodeFinder.invalidate(node);
+            updateSpatialIndex(f, node);
+            return;
+        }
+        final Transform oldTransform = f.getChildren().isEmpty() ? null : node.getLocalToParentTransform().clone();
+        f.updateNode(getRenderContext(), node);
+        nodeFinder.invalidate(node);
+        updateSpatialIndex(f, node);
+        if (virtualizationBounds != null && virtualizingFigures.contains(f)) {
+            updateUnmaterializedChildren(f, node);
+        }
+        if (oldTransform != null && !isSameTransform(oldTransform, node.getLocalToParentTransform())) {
+            for (Figure d : f.preorderIterable()) {
+                if (d != f && spatialIndex.contains(d)) {
+                    final Node dn = figureToNodeMap.get(d);
+                    if (dn != null) {
+                        updateSpatialIndex(d, dn);
+                        if (detailSizes.containsKey(d)) {
+                            putDetailSize(d);
+                        }
                     }
                 }
             }
+        }
+    }
+
+    /**
+     * Replaces the node of the specified figure by a proxy node or by
+     * a full node.
+     * <p>
+     * The nodes of the descendants of the figure are removed, and the
+     * parent figure is invalidated, so that it attaches the new node.
+     *
+     * @param f a figure
+     * @return the new node
+     */
+    private @NonNull Node replaceNode(@NonNull Figure f) {
+        for (Figure d : f.preorderIterable()) {
+            removeNode(d);
+        }
+        final Figure parent = f.getParent();
+        if (parent != null && hasNode(parent)) {
+            dirtyFigureNodes.add(parent);
+        }
+        return getNode(f);
+    }
 
-            // If there are more figures intersecting visibleRectInWorld that need
-            // to be updated. Lets update them in the next batch.
-            if (count == limit) {
-                return count;
+    /**
+     * Returns true if the specified figure should be rendered with a proxy
+     * node, because it is below the minimal detail size.
+     * <p>
+     * The drawing and its layers are never rendered as proxies.
+     *
+     * @param f a figure
+     * @return true if a proxy is wanted
+     */
+    private boolean isProxyWanted(@NonNull Figure f) {
+        return getMinDetailSize() > 0 && !tiledFigures.contains(f) && f.getParent() != null && !(f instanceof Layer)
+                && getRenderContext().isBelowMinDetailSize(f);
+    }
+
+    private @NonNull Rectangle createProxyNode() {
+        final Rectangle r = new Rectangle();
+        r.setManaged(false);
+        return r;
+    }
+
+    /**
+     * Updates a proxy node, so that it fills the visual bounds of the figure
+     * with the fill or stroke color of the figure.
+     *
+     * @param f    a figure
+     * @param node the proxy node of the figure
+     */
+    private void updateProxyNode(@NonNull Figure f, @NonNull Rectangle node) {
+        final Bounds b = FXTransforms.transformedBoundingBox(f.getLocalToParent(), f.getVisualBounds());
+        node.setX(b.getMinX());
+        node.setY(b.getMinY());
+        node.setWidth(b.getWidth());
+        node.setHeight(b.getHeight());
+        node.setVisible(f.isVisible());
+        Paint paint = null;
+        if (f instanceof FillableFigure) {
+            paint = Paintable.getPaint(f.getStyled(FillableFigure.FILL), getRenderContext());
+        }
+        if (paint == null && f instanceof StrokableFigure) {
+            paint = Paintable.getPaint(f.getStyled(StrokableFigure.STROKE), getRenderContext());
+        }
+        node.setFill(paint instanceof Color ? paint : Color.GRAY);
+    }
+
+    /**
+     * Adds the children of a virtualizing figure, whose nodes are not
+     * attached to the node of the figure, to the index of unmaterialized
+     * subtrees, and removes the other children from the index.
+     *
+     * @param f    a virtualizing figure
+     * @param node the node of the figure
+     */
+    private void updateUnmaterializedChildren(@NonNull Figure f, @NonNull Node node) {
+        for (Figure child : f.getChildren()) {
+            final Node childNode = figureToNodeMap.get(child);
+            if (childNode != null && childNode.getParent() == node) {
+                unmaterializedIndex.remove(child);
+            } else {
+                putUnmaterialized(child);
             }
         }
+    }
 
+    /**
+     * If the specified figure is in an unmaterialized subtree, marks the
+     * root of the subtree as changed.
+     *
+     * @param figure a changed figure
+     */
+    private void invalidateUnmaterializedRoot(@NonNull Figure figure) {
+        if (unmaterializedIndex.isEmpty()) {
+            return;
+        }
+        for (Figure f = figure; f != null; f = f.getParent()) {
+            if (unmaterializedIndex.contains(f)) {
+                changedUnmaterializedRoots.add(f);
+                return;
+            }
+            if (hasNode(f)) {
+                return;
+            }
+        }
+    }
 
-        // Update figure nodes until we reach the limit.
-        for (int i = 0, n = copyOfDirtyFigureNodes.length; i < n && count < limit; i++) {
-            final Figure f = copyOfDirtyFigureNodes[i];
-            count++;
-            final Node node = getNode(f);// this may add the node again to the list of dirties!
-            if (node != null) {
-                f.updateNode(getRenderContext(), node);
-                dirtyFigureNodes.remove(f);
+    /**
+     * Updates the bounds of the changed roots of unmaterialized subtrees
+     * in the index.
+     */
+    private void updateUnmaterializedIndex() {
+        for (Figure f : changedUnmaterializedRoots) {
+            if (unmaterializedIndex.contains(f)) {
+                putUnmaterialized(f);
             }
         }
+        changedUnmaterializedRoots.clear();
+    }
 
-        return count;
+    private void putUnmaterialized(@NonNull Figure f) {
+        final Bounds b = f.getVisualBoundsInWorld();
+        unmaterializedIndex.put(f, b.getMinX(), b.getMinY(), b.getMaxX(), b.getMaxY());
+    }
+
+    private void updateSpatialIndex(@NonNull Figure f, @NonNull Node node) {
+        final Bounds b = getBoundsInWorld(f, node);
+        spatialIndex.put(f, b.getMinX(), b.getMinY(), b.getMaxX(), b.getMaxY());
+    }
+
+    private @NonNull Bounds getBoundsInWorld(@NonNull Figure f, @NonNull Node node) {
+        final Figure parent = f.getParent();
+        Bounds b = node.getBoundsInParent();
+        if (parent != null) {
+            b = FXTransforms.transformedBoundingBox(parent.getLocalToWorld(), b);
+        }
+        return b;
+    }
+
+    private static boolean isSameTransform(@NonNull Transform a, @NonNull Transform b) {
+        return a.getMxx() == b.getMxx() && a.getMxy() == b.getMxy() && a.getTx() == b.getTx()
+                && a.getMyx() == b.getMyx() && a.getMyy() == b.getMyy() && a.getTy() == b.getTy();
     }
 
     public @NonNull DoubleProperty zoomFactorProperty() {
@@ -693,7 +1731,7 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
      * <p>
      * If the value is set too high, then the editor may be become unresponsive
      * if lots of figures change. (For example, when new stylesheets are applied
-     * to all figures).
+     * to all figures). See also {@link #frameBudgetProperty()}.
      * <p>
      * If this is set to a value smaller or equal to zero, then no figures
      * are updated.
@@ -707,4 +1745,148 @@ public class InteractiveDrawingRenderer extends AbstractPropertyBean {
     public void setUpdateLimit(int updateLimit) {
         this.updateLimit.set(updateLimit);
     }
+
+    public double getFrameBudget() {
+        return frameBudget.get();
+    }
+
+    /**
+     * The time budget of a repaint in milliseconds.
+     * <p>
+     * A repaint stops updating figure nodes when the budget is used up, and
+     * continues with the remaining nodes in the next frame. At least one
+     * node is updated in each repaint.
+     * <p>
+     * If this is set to a value smaller or equal to zero, then a repaint is
+     * only limited by {@link #updateLimitProperty()}.
+     *
+     * @return the frame budget in milliseconds
+     */
+    public @NonNull DoubleProperty frameBudgetProperty() {
+        return frameBudget;
+    }
+
+    public void setFrameBudget(double frameBudget) {
+        this.frameBudget.set(frameBudget);
+    }
+
+    /**
+     * Returns statistics about the painted frames.
+     *
+     * @return the frame statistics
+     */
+    public @NonNull FrameStatistics getFrameStatistics() {
+        return frameStatistics;
+    }
+
+    public boolean isVirtualized() {
+        return virtualized.get();
+    }
+
+    /**
+     * Whether the rendering is virtualized.
+     * <p>
+     * If the rendering is virtualized, then nodes are only created for
+     * figures whose visual bounds intersect with the clip bounds grown by
+     * the {@link #virtualizationMarginProperty()}. Nodes of figures that
+     * scroll out of view are released, and the nodes of leaf figures are
+     * recycled for figures of the same class, if the class is in
+     * {@link #getRecyclableFigureClasses()}.
+     * <p>
+     * Hit-testing falls back to the visual bounds of figures that do not
+     * have a node.
+     *
+     * @return the virtualized property
+     */
+    public @NonNull BooleanProperty virtualizedProperty() {
+        return virtualized;
+    }
+
+    public void setVirtualized(boolean virtualized) {
+        this.virtualized.set(virtualized);
+    }
+
+    public double getVirtualizationMargin() {
+        return virtualizationMargin.get();
+    }
+
+    /**
+     * The margin around the clip bounds in which figures get a node, if the
+     * rendering is virtualized. The margin is given relative to the
+     * size of the clip bounds.
+     * <p>
+     * A larger margin means that fewer nodes need to be created when the
+     * user scrolls, but that more nodes are kept in memory.
+     *
+     * @return the virtualization margin
+     */
+    public @NonNull DoubleProperty virtualizationMarginProperty() {
+        return virtualizationMargin;
+    }
+
+    public void setVirtualizationMargin(double virtualizationMargin) {
+        this.virtualizationMargin.set(virtualizationMargin);
+    }
+
+    public double getMinDetailSize() {
+        return minDetailSize.get();
+    }
+
+    /**
+     * The minimal size in view coordinates below which figures are
+     * rendered as simplified proxies.
+     * <p>
+     * A proxy is a rectangle that fills the visual bounds of the figure
+     * with its fill or stroke color. The proxy of a composite figure
+     * replaces the nodes of all its descendants. When the user zooms in,
+     * the proxies are replaced by the full nodes again.
+     * <p>
+     * If this is set to a value smaller or equal to zero, then
+     * level-of-detail rendering is disabled.
+     *
+     * @return the minimal detail size
+     */
+    public @NonNull DoubleProperty minDetailSizeProperty() {
+        return minDetailSize;
+    }
+
+    public void setMinDetailSize(double minDetailSize) {
+        this.minDetailSize.set(minDetailSize);
+    }
+
+    /**
+     * The figures that are rendered into tiled canvases instead of into
+     * a node for each descendant figure.
+     * <p>
+     * This is useful for layers with many figures that rarely change.
+     * Only the tiles in the region of a changed figure are painted again.
+     * See {@link TiledCanvasRenderer} for the limitations of this mode.
+     * <p>
+     * Hit-testing falls back to the visual bounds of the descendants of
+     * tiled figures.
+     *
+     * @return the tiled figures
+     */
+    public @NonNull ObservableSet<Figure> getTiledFigures() {
+        return tiledFigures;
+    }
+
+    /**
+     * The figure classes whose nodes are recycled, if the rendering is
+     * virtualized.
+     * <p>
+     * A recycled node has been created by another figure of the same
+     * class. Before it is reused, its transforms, effect, clip, opacity,
+     * blend mode and visibility are reset. A figure class may only be
+     * added to this set, if its {@code updateNode} method sets all other
+     * state of the node, including its children, regardless of the
+     * previous state.
+     * <p>
+     * The set is empty by default.
+     *
+     * @return the recyclable figure classes
+     */
+    public @NonNull ObservableSet<Class<? extends Figure>> getRecyclableFigureClasses() {
+        return recyclableFigureClasses;
+    }
 }
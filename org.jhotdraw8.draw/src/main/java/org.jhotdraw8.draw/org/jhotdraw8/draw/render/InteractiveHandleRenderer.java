@@ -280,6 +280,14 @@ public class InteractiveHandleRenderer {
         case SUBTREE_NODES_CHANGED:
             onSubtreeNodesChanged(f);
             break;
+        case BATCH_COMMITTED:
+            if (!event.getRemovedSubtrees().isEmpty() || !event.getAddedSubtrees().isEmpty()) {
+                invalidateHandles();
+            }
+            for (Figure changed : event.getChangedNodes()) {
+                onNodeChanged(changed);
+            }
+            break;
         default:
             throw new UnsupportedOperationException(event.getEventType()
                     + " not supported");
@@ -19,19 +19,70 @@ import org.jhotdraw8.annotation.Nullable;
 import org.jhotdraw8.geom.FXGeom;
 import org.jhotdraw8.geom.FXShapes;
 import org.jhotdraw8.geom.FXTransforms;
-import org.jhotdraw8.geom.Geom;
 
 import java.awt.BasicStroke;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * Provides methods for finding JavaFX nodes within a radius around a point.
+ * <p>
+ * This class caches the geometry of {@code Shape} nodes that is needed for
+ * precise hit tests. The cache of a node must be invalidated with
+ * {@link #invalidate(Node)} when the node is changed. (As a safeguard,
+ * the cache also detects changes of the local bounds of a node).
  */
 public class NodeFinder {
     private static final double LINE45DEG = Math.sqrt(0.5);
+    /**
+     * Cached hit geometries. Nodes use identity equality, the weak keys
+     * ensure that we do not prevent garbage collection of nodes that are
+     * no longer in use.
+     */
+    private final @NonNull Map<Node, NodeHitGeometry> hitGeometries = new WeakHashMap<>();
 
     public NodeFinder() {
     }
 
+    /**
+     * Invalidates the cached hit geometry of the specified node and of
+     * all its descendants.
+     *
+     * @param node a node
+     */
+    public void invalidate(@NonNull Node node) {
+        if (hitGeometries.isEmpty()) {
+            return;
+        }
+        hitGeometries.remove(node);
+        if (node instanceof Parent) {
+            for (Node child : ((Parent) node).getChildrenUnmodifiable()) {
+                invalidate(child);
+            }
+        }
+        final Node clip = node.getClip();
+        if (clip != null) {
+            invalidate(clip);
+        }
+    }
+
+    /**
+     * Removes all cached hit geometries.
+     */
+    public void invalidateAll() {
+        hitGeometries.clear();
+    }
+
+    private @NonNull NodeHitGeometry getHitGeometry(@NonNull Shape shape) {
+        final javafx.geometry.Bounds boundsInLocal = shape.getBoundsInLocal();
+        NodeHitGeometry g = hitGeometries.get(shape);
+        if (g == null || !g.isValidFor(boundsInLocal)) {
+            g = new NodeHitGeometry(boundsInLocal, FXShapes.awtShapeFromFX(shape));
+            hitGeometries.put(shape, g);
+        }
+        return g;
+    }
+
     /**
      * Returns true if the node contains the specified point within a
      * tolerance.
@@ -53,7 +104,7 @@ public class NodeFinder {
         // the clip with tolerance.
         final Node nodeClip = node.getClip();
         if (nodeClip instanceof Shape) {
-            final java.awt.Shape shape = FXShapes.awtShapeFromFX((Shape) nodeClip);
+            final java.awt.Shape shape = getHitGeometry((Shape) nodeClip).getShape();
             if (!shape.intersects(pointInLocal.getX() - toleranceInLocal,
                     pointInLocal.getY() - toleranceInLocal, toleranceInLocal * 2, toleranceInLocal * 2)) {
                 return null;
@@ -110,12 +161,10 @@ public class NodeFinder {
                 default:
                     throw new IllegalArgumentException();
                 }
-                final java.awt.Shape awtShape = FXShapes.awtShapeFromFX(shape);
-                return new BasicStroke(2f * (float) (shape.getStrokeWidth() * widthFactor + toleranceInLocal),
-                        cap, join, (float) shape.getStrokeMiterLimit()
-                ).createStrokedShape(awtShape)
-                        .contains(new java.awt.geom.Point2D.Double(pointInLocal.getX(), pointInLocal.getY()))
-                        ? Geom.distanceFromShape(awtShape, pointInLocal.getX(), pointInLocal.getY()) : null;
+                final NodeHitGeometry hitGeometry = getHitGeometry(shape);
+                return hitGeometry.strokedShapeContains(2f * (float) (shape.getStrokeWidth() * widthFactor + toleranceInLocal),
+                        cap, join, (float) shape.getStrokeMiterLimit(), pointInLocal.getX(), pointInLocal.getY())
+                        ? hitGeometry.distance(pointInLocal.getX(), pointInLocal.getY()) : null;
             } else {
                 return null;
             }
@@ -0,0 +1,233 @@
+/*
+ * @(#)NodeHitGeometry.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+
+package org.jhotdraw8.draw.render;
+
+import javafx.geometry.Bounds;
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.annotation.Nullable;
+import org.jhotdraw8.collection.DoubleArrayList;
+import org.jhotdraw8.geom.Geom;
+
+import java.awt.BasicStroke;
+import java.awt.Shape;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Caches the geometry of a JavaFX {@code Shape} node that is needed for
+ * precise hit tests.
+ * <p>
+ * Holds the AWT shape of the node, its flattened outline with a
+ * bounding box hierarchy over the line segments of the outline, and the
+ * most recently used stroked outline.
+ */
+class NodeHitGeometry {
+    /**
+     * The flatness that is used for flattening the outline.
+     * This is the same value that {@link Geom#distanceFromShape} uses.
+     */
+    private static final double FLATNESS = 1.0;
+    /**
+     * Number of line segments or boxes that are grouped into one
+     * box of the next level of the bounding box hierarchy.
+     */
+    private static final int FANOUT = 8;
+
+    /**
+     * The bounds of the node at the time when this geometry was created.
+     * JavaFX creates a new bounds object whenever the geometry of the node
+     * changes, so this can be used for detecting stale geometry.
+     */
+    private final @NonNull Bounds boundsInLocal;
+    private final @NonNull Shape shape;
+    /**
+     * The line segments of the flattened outline. Contains 4 entries for
+     * each segment: x0,y0,x1,y1.
+     */
+    private final @NonNull double[] segments;
+    private final int segmentCount;
+    /**
+     * The levels of the bounding box hierarchy. Contains 4 entries for each
+     * box: minX,minY,maxX,maxY.
+     * <p>
+     * Box {@code i} on level 0 covers the segments
+     * {@code i*FANOUT} to {@code i*FANOUT+FANOUT-1}.
+     * Box {@code i} on level {@code k} covers the boxes
+     * {@code i*FANOUT} to {@code i*FANOUT+FANOUT-1} on level {@code k-1}.
+     */
+    private final @NonNull double[][] levels;
+
+    private @Nullable Shape strokedShape;
+    private @Nullable Rectangle2D strokedBounds;
+    private float strokeWidth;
+    private int strokeCap;
+    private int strokeJoin;
+    private float strokeMiterLimit;
+
+    NodeHitGeometry(@NonNull Bounds boundsInLocal, @NonNull Shape shape) {
+        this.boundsInLocal = boundsInLocal;
+        this.shape = shape;
+
+        DoubleArrayList segs = new DoubleArrayList();
+        double[] coords = new double[6];
+        double firstX = 0, firstY = 0, lastX = 0, lastY = 0;
+        for (PathIterator it = shape.getPathIterator(null, FLATNESS); !it.isDone(); it.next()) {
+            switch (it.currentSegment(coords)) {
+            case PathIterator.SEG_MOVETO:
+                firstX = lastX = coords[0];
+                firstY = lastY = coords[1];
+                break;
+            case PathIterator.SEG_LINETO:
+                segs.add(lastX);
+                segs.add(lastY);
+                segs.add(lastX = coords[0]);
+                segs.add(lastY = coords[1]);
+                break;
+            case PathIterator.SEG_CLOSE:
+                segs.add(lastX);
+                segs.add(lastY);
+                segs.add(lastX = firstX);
+                segs.add(lastY = firstY);
+                break;
+            default:
+                break;
+            }
+        }
+        segments = segs.toArray();
+        segmentCount = segments.length / 4;
+        levels = buildHierarchy(segments, segmentCount);
+    }
+
+    private static @NonNull double[][] buildHierarchy(@NonNull double[] segments, int segmentCount) {
+        List<double[]> levels = new ArrayList<>();
+        int n = (segmentCount + FANOUT - 1) / FANOUT;
+        double[] boxes = new double[n * 4];
+        for (int i = 0; i < n; i++) {
+            double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+            double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+            for (int j = i * FANOUT, end = Math.min(j + FANOUT, segmentCount); j < end; j++) {
+                int k = j * 4;
+                minX = Math.min(minX, Math.min(segments[k], segments[k + 2]));
+                minY = Math.min(minY, Math.min(segments[k + 1], segments[k + 3]));
+                maxX = Math.max(maxX, Math.max(segments[k], segments[k + 2]));
+                maxY = Math.max(maxY, Math.max(segments[k + 1], segments[k + 3]));
+            }
+            boxes[i * 4] = minX;
+            boxes[i * 4 + 1] = minY;
+            boxes[i * 4 + 2] = maxX;
+            boxes[i * 4 + 3] = maxY;
+        }
+        levels.add(boxes);
+        while (n > FANOUT) {
+            double[] children = boxes;
+            int childCount = n;
+            n = (n + FANOUT - 1) / FANOUT;
+            boxes = new double[n * 4];
+            for (int i = 0; i < n; i++) {
+                double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+                double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+                for (int j = i * FANOUT, end = Math.min(j + FANOUT, childCount); j < end; j++) {
+                    int k = j * 4;
+                    minX = Math.min(minX, children[k]);
+                    minY = Math.min(minY, children[k + 1]);
+                    maxX = Math.max(maxX, children[k + 2]);
+                    maxY = Math.max(maxY, children[k + 3]);
+                }
+                boxes[i * 4] = minX;
+                boxes[i * 4 + 1] = minY;
+                boxes[i * 4 + 2] = maxX;
+                boxes[i * 4 + 3] = maxY;
+            }
+            levels.add(boxes);
+        }
+        return levels.toArray(new double[0][]);
+    }
+
+    /**
+     * Returns true if this geometry was created for the specified bounds
+     * of the node.
+     *
+     * @param boundsInLocal the current bounds of the node
+     * @return true if this geometry is still valid
+     */
+    boolean isValidFor(@NonNull Bounds boundsInLocal) {
+        return this.boundsInLocal == boundsInLocal;
+    }
+
+    @NonNull Shape getShape() {
+        return shape;
+    }
+
+    /**
+     * Returns true if the stroked outline of the shape contains the
+     * specified point.
+     * <p>
+     * The stroked outline is cached, and is only recomputed if the stroke
+     * parameters differ from the previous invocation of this method.
+     */
+    boolean strokedShapeContains(float width, int cap, int join, float miterLimit, double x, double y) {
+        if (strokedShape == null || width != strokeWidth || cap != strokeCap
+                || join != strokeJoin || miterLimit != strokeMiterLimit) {
+            strokedShape = new BasicStroke(width, cap, join, miterLimit).createStrokedShape(shape);
+            strokedBounds = strokedShape.getBounds2D();
+            strokeWidth = width;
+            strokeCap = cap;
+            strokeJoin = join;
+            strokeMiterLimit = miterLimit;
+        }
+        assert strokedBounds != null;
+        return strokedBounds.contains(x, y) && strokedShape.contains(x, y);
+    }
+
+    /**
+     * Computes the distance from the shape to the specified point.
+     * <p>
+     * Returns the same value as {@link Geom#distanceFromShape}.
+     *
+     * @param x x-coordinate of the point
+     * @param y y-coordinate of the point
+     * @return the distance
+     */
+    double distance(double x, double y) {
+        if (shape.contains(x, y)) {
+            return 0;
+        }
+        double best = Double.POSITIVE_INFINITY;
+        int top = levels.length - 1;
+        for (int i = 0, n = levels[top].length / 4; i < n; i++) {
+            best = squaredDistance(top, i, x, y, best);
+        }
+        return Math.sqrt(best);
+    }
+
+    /**
+     * Branch-and-bound search in the bounding box hierarchy.
+     */
+    private double squaredDistance(int level, int index, double x, double y, double best) {
+        double[] boxes = levels[level];
+        int k = index * 4;
+        double dx = Math.max(0, Math.max(boxes[k] - x, x - boxes[k + 2]));
+        double dy = Math.max(0, Math.max(boxes[k + 1] - y, y - boxes[k + 3]));
+        if (dx * dx + dy * dy >= best) {
+            return best;
+        }
+        int from = index * FANOUT;
+        if (level == 0) {
+            for (int j = from, end = Math.min(from + FANOUT, segmentCount); j < end; j++) {
+                int s = j * 4;
+                best = Math.min(best, Geom.squaredDistanceFromLine(segments[s], segments[s + 1],
+                        segments[s + 2], segments[s + 3], x, y));
+            }
+        } else {
+            for (int j = from, end = Math.min(from + FANOUT, levels[level - 1].length / 4); j < end; j++) {
+                best = squaredDistance(level - 1, j, x, y, best);
+            }
+        }
+        return best;
+    }
+}
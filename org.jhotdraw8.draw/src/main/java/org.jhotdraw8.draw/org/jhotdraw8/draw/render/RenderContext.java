@@ -19,6 +19,7 @@ import org.jhotdraw8.css.SystemColorConverter;
 import org.jhotdraw8.css.UnitConverter;
 import org.jhotdraw8.draw.figure.Figure;
 import org.jhotdraw8.draw.figure.Page;
+import org.jhotdraw8.draw.figure.VirtualizingFigure;
 
 import java.time.Instant;
 
@@ -43,6 +44,29 @@ public interface RenderContext extends ReadOnlyPropertyBean {
      */
     @NonNull
     Key<Bounds> CLIP_BOUNDS = new SimpleNullableKey<>("clipBounds", Bounds.class, null);
+    /**
+     * Contains a non-null value if the rendering is virtualized. Composite
+     * figures that implement {@link VirtualizingFigure} only create nodes
+     * for children whose visual bounds intersect with these bounds.
+     * The bounds are given in world coordinates.
+     *
+     * @see #isMaterialized(Figure)
+     */
+    @NonNull
+    Key<Bounds> VIRTUALIZATION_BOUNDS = new SimpleNullableKey<>("virtualizationBounds", Bounds.class, null);
+    /**
+     * The scale factor from world coordinates to view coordinates, for
+     * example the zoom factor of a drawing view.
+     */
+    NonNullObjectKey<Double> VIEW_SCALE = new NonNullObjectKey<>("viewScale", Double.class, 1.0);
+    /**
+     * Figures whose visual bounds are smaller than this size in view
+     * coordinates may be rendered as simplified proxies in the drawing
+     * editor. A value of {@code 0} disables level-of-detail rendering.
+     *
+     * @see #isBelowMinDetailSize(Figure)
+     */
+    NonNullObjectKey<Double> MIN_DETAIL_SIZE = new NonNullObjectKey<>("minDetailSize", Double.class, 0.0);
     /**
      * Number of nodes that can be rendered per layer in the drawing editor..
      */
@@ -70,4 +94,35 @@ public interface RenderContext extends ReadOnlyPropertyBean {
      */
     @Nullable Node getNode(Figure f);
 
+    /**
+     * Returns true if a node should be created for the specified figure.
+     * <p>
+     * This is the case if no {@link #VIRTUALIZATION_BOUNDS} are set, or if
+     * the visual bounds of the figure intersect with them.
+     *
+     * @param f The figure
+     * @return true if the figure needs a node
+     */
+    default boolean isMaterialized(@NonNull Figure f) {
+        final Bounds virtualizationBounds = get(VIRTUALIZATION_BOUNDS);
+        return virtualizationBounds == null || f.getVisualBoundsInWorld().intersects(virtualizationBounds);
+    }
+
+    /**
+     * Returns true if the specified figure is smaller than
+     * {@link #MIN_DETAIL_SIZE} in view coordinates, and may thus be
+     * rendered with less detail.
+     *
+     * @param f The figure
+     * @return true if the figure is below the minimal detail size
+     */
+    default boolean isBelowMinDetailSize(@NonNull Figure f) {
+        final double minDetailSize = getNonNull(MIN_DETAIL_SIZE);
+        if (minDetailSize <= 0 || getNonNull(RENDERING_INTENT) != RenderingIntent.EDITOR) {
+            return false;
+        }
+        final Bounds b = f.getVisualBoundsInWorld();
+        return Math.max(b.getWidth(), b.getHeight()) * getNonNull(VIEW_SCALE) < minDetailSize;
+    }
+
 }
@@ -0,0 +1,389 @@
+/*
+ * @(#)TiledCanvasRenderer.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.draw.render;
+
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Paint;
+import javafx.scene.shape.FillRule;
+import javafx.scene.transform.Affine;
+import javafx.scene.transform.Transform;
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.css.Paintable;
+import org.jhotdraw8.css.UnitConverter;
+import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.draw.figure.FillableFigure;
+import org.jhotdraw8.draw.figure.PathIterableFigure;
+import org.jhotdraw8.draw.figure.StrokableFigure;
+import org.jhotdraw8.geom.FXShapes;
+import org.jhotdraw8.geom.LooseQuadtree;
+
+import java.awt.geom.PathIterator;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Paints the descendants of a figure into a grid of {@link Canvas} tiles,
+ * instead of creating a JavaFX node for each figure.
+ * <p>
+ * This is useful for static content, like a locked background layer with
+ * many figures. A tile is only rasterized again when a figure in its region
+ * changes, or when the scale changes. Tiles are only created for the
+ * visible region.
+ * <p>
+ * The tiles are rasterized from the path geometry and the styled fill and
+ * stroke of figures that implement {@link PathIterableFigure}. Other
+ * figures, and effects, markers, dashes and clips are not painted.
+ * <p>
+ * The node of this renderer is given in the local coordinates of the
+ * parent of the root figure. This class is not thread-safe.
+ */
+public class TiledCanvasRenderer {
+    /**
+     * The default tile size in pixels.
+     */
+    public static final int DEFAULT_TILE_SIZE = 512;
+
+    private final int tileSize;
+    private final @NonNull Figure root;
+    private final @NonNull Group node = new Group();
+    private final @NonNull Map<Long, Tile> tiles = new HashMap<>();
+    /**
+     * Spatial index over the visual bounds of the painted figures in world
+     * coordinates.
+     */
+    private final @NonNull LooseQuadtree<Figure> spatialIndex = new LooseQuadtree<>();
+    /**
+     * The paint order of the painted figures, and the world bounds with
+     * which they have been added to the spatial index.
+     */
+    private final @NonNull Map<Figure, PaintedFigure> paintedFigures = new IdentityHashMap<>();
+    private boolean indexValid;
+    private double scale = Double.NaN;
+
+    private static class Tile {
+        final int col, row;
+        final @NonNull Canvas canvas;
+        boolean dirty = true;
+
+        Tile(int col, int row, int tileSize) {
+            this.col = col;
+            this.row = row;
+            this.canvas = new Canvas(tileSize, tileSize);
+        }
+    }
+
+    private static class PaintedFigure {
+        final int order;
+        @NonNull Bounds bounds;
+
+        PaintedFigure(int order, @NonNull Bounds bounds) {
+            this.order = order;
+            this.bounds = bounds;
+        }
+    }
+
+    /**
+     * Creates a new instance with the default tile size.
+     *
+     * @param root the root figure of the subtree that is painted
+     */
+    public TiledCanvasRenderer(@NonNull Figure root) {
+        this(root, DEFAULT_TILE_SIZE);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param root     the root figure of the subtree that is painted
+     * @param tileSize the tile size in pixels
+     */
+    public TiledCanvasRenderer(@NonNull Figure root, int tileSize) {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("tileSize must be > 0. tileSize=" + tileSize);
+        }
+        this.root = root;
+        this.tileSize = tileSize;
+        node.setManaged(false);
+        node.setAutoSizeChildren(false);
+    }
+
+    /**
+     * Returns the node that holds the tiles.
+     *
+     * @return the node
+     */
+    public @NonNull Node getNode() {
+        return node;
+    }
+
+    public @NonNull Figure getRoot() {
+        return root;
+    }
+
+    /**
+     * Returns the number of tiles that currently exist.
+     *
+     * @return the number of tiles
+     */
+    public int getTileCount() {
+        return tiles.size();
+    }
+
+    /**
+     * Returns the number of tiles that need to be rasterized again.
+     *
+     * @return the number of dirty tiles
+     */
+    public int getDirtyTileCount() {
+        int count = 0;
+        for (Tile tile : tiles.values()) {
+            if (tile.dirty) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Invalidates the tiles in the old and the new region of the specified
+     * figure.
+     *
+     * @param f a descendant of the root figure, whose node would have to be
+     *          updated
+     */
+    public void invalidateFigure(@NonNull Figure f) {
+        if (!indexValid) {
+            return;
+        }
+        if (!f.getChildren().isEmpty()) {
+            // The figure may have been reshaped with all its descendants.
+            for (Figure d : f.preorderIterable()) {
+                if (d != f) {
+                    invalidateFigure(d);
+                }
+            }
+            return;
+        }
+        final PaintedFigure painted = paintedFigures.get(f);
+        if (painted == null) {
+            invalidateStructure();
+            return;
+        }
+        invalidateRegion(painted.bounds);
+        final Bounds b = f.getVisualBoundsInWorld();
+        painted.bounds = b;
+        spatialIndex.put(f, b.getMinX(), b.getMinY(), b.getMaxX(), b.getMaxY());
+        invalidateRegion(b);
+    }
+
+    /**
+     * Invalidates all tiles and the paint order of the figures. This method
+     * must be called when figures are added to or removed from the subtree.
+     */
+    public void invalidateStructure() {
+        indexValid = false;
+        invalidateAll();
+    }
+
+    /**
+     * Invalidates all tiles.
+     */
+    public void invalidateAll() {
+        for (Tile tile : tiles.values()) {
+            tile.dirty = true;
+        }
+    }
+
+    /**
+     * Invalidates the tiles that intersect with the specified region.
+     *
+     * @param worldBounds a region in world coordinates
+     */
+    public void invalidateRegion(@NonNull Bounds worldBounds) {
+        for (Tile tile : tiles.values()) {
+            if (!tile.dirty && getTileBounds(tile.col, tile.row).intersects(worldBounds)) {
+                tile.dirty = true;
+            }
+        }
+    }
+
+    /**
+     * Creates the tiles that intersect with the clip bounds, removes the
+     * other tiles, and rasterizes the dirty tiles.
+     *
+     * @param ctx         the render context
+     * @param clipBounds  the visible region in world coordinates
+     * @param scale       the scale factor from world coordinates to
+     *                    view coordinates
+     * @return the number of tiles that were rasterized
+     */
+    public int paint(@NonNull RenderContext ctx, @NonNull Bounds clipBounds, double scale) {
+        if (scale <= 0 || Double.isNaN(scale) || Double.isInfinite(scale)) {
+            return 0;
+        }
+        if (scale != this.scale) {
+            this.scale = scale;
+            tiles.clear();
+            node.getChildren().clear();
+        }
+        if (!indexValid) {
+            rebuildIndex();
+        }
+        final Transform parentToWorld = root.getParent() == null ? null : root.getParent().getLocalToWorld();
+        final Transform worldToParent = root.getParent() == null ? null : root.getParent().getWorldToLocal();
+
+        final double tileWorldSize = tileSize / scale;
+        final int minCol = (int) Math.floor(clipBounds.getMinX() / tileWorldSize);
+        final int maxCol = Math.max(minCol, (int) Math.ceil(clipBounds.getMaxX() / tileWorldSize) - 1);
+        final int minRow = (int) Math.floor(clipBounds.getMinY() / tileWorldSize);
+        final int maxRow = Math.max(minRow, (int) Math.ceil(clipBounds.getMaxY() / tileWorldSize) - 1);
+
+        // Remove the tiles that are not visible anymore.
+        for (Iterator<Tile> i = tiles.values().iterator(); i.hasNext(); ) {
+            final Tile tile = i.next();
+            if (tile.col < minCol || tile.col > maxCol || tile.row < minRow || tile.row > maxRow) {
+                i.remove();
+                node.getChildren().remove(tile.canvas);
+            }
+        }
+
+        int count = 0;
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                final long key = ((long) row << 32) | (col & 0xffffffffL);
+                Tile tile = tiles.get(key);
+                if (tile == null) {
+                    tile = new Tile(col, row, tileSize);
+                    tiles.put(key, tile);
+                    node.getChildren().add(tile.canvas);
+                }
+                final Affine tileToParent = new Affine(1 / scale, 0, col * tileWorldSize, 0, 1 / scale, row * tileWorldSize);
+                if (worldToParent != null) {
+                    tileToParent.prepend(worldToParent);
+                }
+                tile.canvas.getTransforms().setAll(tileToParent);
+                if (tile.dirty) {
+                    rasterize(ctx, tile);
+                    tile.dirty = false;
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Adds the painted figures whose visual bounds intersect with the
+     * specified region to the provided list, in front-to-back order.
+     *
+     * @param worldBounds a region in world coordinates
+     * @param found       the list of found figures
+     */
+    public void findFigures(@NonNull Bounds worldBounds, @NonNull List<Figure> found) {
+        if (!indexValid) {
+            rebuildIndex();
+        }
+        final int from = found.size();
+        spatialIndex.query(worldBounds.getMinX(), worldBounds.getMinY(), worldBounds.getMaxX(), worldBounds.getMaxY(), found);
+        found.subList(from, found.size()).sort((a, b) -> Integer.compare(paintedFigures.get(b).order, paintedFigures.get(a).order));
+    }
+
+    private @NonNull Bounds getTileBounds(int col, int row) {
+        final double tileWorldSize = tileSize / scale;
+        return new BoundingBox(col * tileWorldSize, row * tileWorldSize, tileWorldSize, tileWorldSize);
+    }
+
+    private void rebuildIndex() {
+        spatialIndex.clear();
+        paintedFigures.clear();
+        int order = 0;
+        for (Figure f : root.preorderIterable()) {
+            if (f != root && f.getChildren().isEmpty() && f instanceof PathIterableFigure) {
+                final Bounds b = f.getVisualBoundsInWorld();
+                paintedFigures.put(f, new PaintedFigure(order++, b));
+                spatialIndex.put(f, b.getMinX(), b.getMinY(), b.getMaxX(), b.getMaxY());
+            }
+        }
+        indexValid = true;
+    }
+
+    private void rasterize(@NonNull RenderContext ctx, @NonNull Tile tile) {
+        final Bounds tb = getTileBounds(tile.col, tile.row);
+        final List<Figure> figures = new ArrayList<>();
+        spatialIndex.query(tb.getMinX(), tb.getMinY(), tb.getMaxX(), tb.getMaxY(), figures);
+        figures.sort((a, b) -> Integer.compare(paintedFigures.get(a).order, paintedFigures.get(b).order));
+
+        final GraphicsContext gc = tile.canvas.getGraphicsContext2D();
+        gc.setTransform(1, 0, 0, 1, 0, 0);
+        gc.clearRect(0, 0, tileSize, tileSize);
+        gc.setTransform(scale, 0, 0, scale, -tb.getMinX() * scale, -tb.getMinY() * scale);
+        final double[] coords = new double[6];
+        for (Figure f : figures) {
+            if (f.isShowing()) {
+                paintFigure(ctx, gc, (PathIterableFigure) f, coords);
+            }
+        }
+    }
+
+    private void paintFigure(@NonNull RenderContext ctx, @NonNull GraphicsContext gc,
+                             @NonNull PathIterableFigure f, double @NonNull [] coords) {
+        final Transform localToWorld = f.getLocalToWorld();
+        final PathIterator it = f.getPathIterator(ctx, FXShapes.awtTransformFromFX(localToWorld));
+        gc.beginPath();
+        for (; !it.isDone(); it.next()) {
+            switch (it.currentSegment(coords)) {
+            case PathIterator.SEG_MOVETO:
+                gc.moveTo(coords[0], coords[1]);
+                break;
+            case PathIterator.SEG_LINETO:
+                gc.lineTo(coords[0], coords[1]);
+                break;
+            case PathIterator.SEG_QUADTO:
+                gc.quadraticCurveTo(coords[0], coords[1], coords[2], coords[3]);
+                break;
+            case PathIterator.SEG_CUBICTO:
+                gc.bezierCurveTo(coords[0], coords[1], coords[2], coords[3], coords[4], coords[5]);
+                break;
+            case PathIterator.SEG_CLOSE:
+                gc.closePath();
+                break;
+            default:
+                break;
+            }
+        }
+        gc.setFillRule(it.getWindingRule() == PathIterator.WIND_EVEN_ODD ? FillRule.EVEN_ODD : FillRule.NON_ZERO);
+
+        if (f instanceof FillableFigure) {
+            final Paint fill = Paintable.getPaint(f.getStyled(FillableFigure.FILL), ctx);
+            if (fill != null) {
+                gc.setFill(fill);
+                gc.fill();
+            }
+        }
+        if (f instanceof StrokableFigure) {
+            final Paint stroke = Paintable.getPaint(f.getStyled(StrokableFigure.STROKE), ctx);
+            if (stroke != null) {
+                final double width = ctx.getNonNull(RenderContext.UNIT_CONVERTER_KEY)
+                        .convert(f.getStyledNonNull(StrokableFigure.STROKE_WIDTH), UnitConverter.DEFAULT);
+                // The path is in world coordinates, the stroke width is in local coordinates.
+                final double det = localToWorld == null ? 1.0 : localToWorld.determinant();
+                gc.setStroke(stroke);
+                gc.setLineWidth(width * Math.sqrt(Math.abs(det)));
+                gc.setLineCap(f.getStyledNonNull(StrokableFigure.STROKE_LINE_CAP));
+                gc.setLineJoin(f.getStyledNonNull(StrokableFigure.STROKE_LINE_JOIN));
+                gc.stroke();
+            }
+        }
+    }
+}
@@ -0,0 +1,435 @@
+/*
+ * @(#)ArcLengthTable.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+
+package org.jhotdraw8.geom;
+
+import org.jhotdraw8.annotation.NonNull;
+
+import java.awt.Shape;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Point2D;
+import java.util.Arrays;
+import java.util.Objects;
+
+import static java.lang.Math.hypot;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * A table that maps between arc lengths and curve parameters of a path.
+ * <p>
+ * The table is built once from a {@link PathIterator}, and can then be
+ * queried repeatedly, for example when a figure places dashes or markers
+ * along its path on every render.
+ * <p>
+ * The table stores the cumulative length at the end of each segment of
+ * the path, and for each curved segment a lookup table with the
+ * cumulative length at {@code samplesPerCurve} equidistant curve parameters.
+ * Quadratic curves are stored as their degree-elevated cubic curves, which
+ * have the same parameterization.
+ * <p>
+ * A query for a distance finds the segment with a binary search over the
+ * segment lengths, and the curve parameter with a binary search over the
+ * samples of the segment, followed by a few Newton steps. Thus, a query
+ * takes O(log n + log samplesPerCurve) time for a path with n segments.
+ * <p>
+ * Segments with a length of less than {@code ε=1e-7} are not included
+ * in the table. The table does not change after it has been built.
+ */
+public class ArcLengthTable {
+    private static final int LINE = 1;
+    private static final int CUBIC = 3;
+    private static final int STRIDE = 8;
+    private static final double EPSILON = 1e-7;
+    private static final int MAX_NEWTON_ITERATIONS = 8;
+
+    /**
+     * Nodes of the 5-point Gauss-Legendre quadrature on the interval [-1,1].
+     */
+    private static final double[] GAUSS_NODES = {
+            0.0,
+            -0.5384693101056831, 0.5384693101056831,
+            -0.9061798459386640, 0.9061798459386640
+    };
+    /**
+     * Weights of the 5-point Gauss-Legendre quadrature.
+     */
+    private static final double[] GAUSS_WEIGHTS = {
+            0.5688888888888889,
+            0.4786286704993665, 0.4786286704993665,
+            0.2369268850561891, 0.2369268850561891
+    };
+
+    private final int samplesPerCurve;
+    private int size;
+    private int @NonNull [] types = new int[8];
+    private int @NonNull [] elementIndices = new int[8];
+    private double @NonNull [] coords = new double[8 * STRIDE];
+    /**
+     * The cumulative length of the path at the end of each segment.
+     */
+    private double @NonNull [] segmentEnds = new double[8];
+    /**
+     * For each segment {@code samplesPerCurve + 1} cumulative lengths
+     * inside the segment, at the curve parameters {@code k / samplesPerCurve}.
+     * Only used for curved segments.
+     */
+    private double @NonNull [] samples;
+    private double length;
+
+    /**
+     * If all segments are degenerated, the table maps all distances to
+     * the last degenerated point.
+     */
+    private double degeneratedX, degeneratedY;
+
+    /**
+     * Creates a new arc length table with 16 samples per curve.
+     *
+     * @param shape a shape
+     */
+    public ArcLengthTable(@NonNull Shape shape) {
+        this(shape.getPathIterator(null), 16);
+    }
+
+    /**
+     * Creates a new arc length table with 16 samples per curve.
+     *
+     * @param it a path iterator
+     */
+    public ArcLengthTable(@NonNull PathIterator it) {
+        this(it, 16);
+    }
+
+    /**
+     * Creates a new arc length table.
+     *
+     * @param it              a path iterator
+     * @param samplesPerCurve the number of samples per curved segment
+     */
+    public ArcLengthTable(@NonNull PathIterator it, int samplesPerCurve) {
+        if (samplesPerCurve < 1) {
+            throw new IllegalArgumentException("samplesPerCurve=" + samplesPerCurve);
+        }
+        this.samplesPerCurve = samplesPerCurve;
+        this.samples = new double[8 * (samplesPerCurve + 1)];
+
+        final double[] seg = new double[6];
+        double startX = 0, startY = 0;
+        double x = 0, y = 0;
+        for (int elementIndex = 0; !it.isDone(); it.next(), elementIndex++) {
+            switch (it.currentSegment(seg)) {
+            case PathIterator.SEG_MOVETO:
+                startX = x = seg[0];
+                startY = y = seg[1];
+                break;
+            case PathIterator.SEG_LINETO:
+                addLine(elementIndex, x, y, seg[0], seg[1]);
+                x = seg[0];
+                y = seg[1];
+                break;
+            case PathIterator.SEG_QUADTO:
+                // degree elevation: the cubic curve has the same parameterization
+                addCubic(elementIndex, x, y,
+                        x + 2.0 / 3.0 * (seg[0] - x), y + 2.0 / 3.0 * (seg[1] - y),
+                        seg[2] + 2.0 / 3.0 * (seg[0] - seg[2]), seg[3] + 2.0 / 3.0 * (seg[1] - seg[3]),
+                        seg[2], seg[3]);
+                x = seg[2];
+                y = seg[3];
+                break;
+            case PathIterator.SEG_CUBICTO:
+                addCubic(elementIndex, x, y, seg[0], seg[1], seg[2], seg[3], seg[4], seg[5]);
+                x = seg[4];
+                y = seg[5];
+                break;
+            case PathIterator.SEG_CLOSE:
+                addLine(elementIndex, x, y, startX, startY);
+                x = startX;
+                y = startY;
+                break;
+            default:
+                throw new IllegalArgumentException("unsupported op-code in PathIterator: " + it.currentSegment(seg));
+            }
+        }
+    }
+
+    private void grow() {
+        if (size == types.length) {
+            int newCapacity = size * 2;
+            types = Arrays.copyOf(types, newCapacity);
+            elementIndices = Arrays.copyOf(elementIndices, newCapacity);
+            coords = Arrays.copyOf(coords, newCapacity * STRIDE);
+            segmentEnds = Arrays.copyOf(segmentEnds, newCapacity);
+            samples = Arrays.copyOf(samples, newCapacity * (samplesPerCurve + 1));
+        }
+    }
+
+    private void addLine(int elementIndex, double x0, double y0, double x1, double y1) {
+        double segmentLength = hypot(x1 - x0, y1 - y0);
+        if (segmentLength <= EPSILON) {
+            degeneratedX = x1;
+            degeneratedY = y1;
+            return;
+        }
+        grow();
+        int i = size * STRIDE;
+        coords[i] = x0;
+        coords[i + 1] = y0;
+        coords[i + 2] = x1;
+        coords[i + 3] = y1;
+        types[size] = LINE;
+        elementIndices[size] = elementIndex;
+        length += segmentLength;
+        segmentEnds[size] = length;
+        size++;
+    }
+
+    private void addCubic(int elementIndex, double x0, double y0, double x1, double y1,
+                          double x2, double y2, double x3, double y3) {
+        grow();
+        int i = size * STRIDE;
+        coords[i] = x0;
+        coords[i + 1] = y0;
+        coords[i + 2] = x1;
+        coords[i + 3] = y1;
+        coords[i + 4] = x2;
+        coords[i + 5] = y2;
+        coords[i + 6] = x3;
+        coords[i + 7] = y3;
+
+        int base = size * (samplesPerCurve + 1);
+        double sum = 0;
+        samples[base] = 0;
+        for (int k = 1; k <= samplesPerCurve; k++) {
+            sum += integrateSpeed(coords, i, (double) (k - 1) / samplesPerCurve, (double) k / samplesPerCurve);
+            samples[base + k] = sum;
+        }
+        if (sum <= EPSILON) {
+            degeneratedX = x3;
+            degeneratedY = y3;
+            return;
+        }
+        types[size] = CUBIC;
+        elementIndices[size] = elementIndex;
+        length += sum;
+        segmentEnds[size] = length;
+        size++;
+    }
+
+    /**
+     * Returns the speed {@code |B'(t)|} of the cubic curve at offset
+     * {@code i} in the coordinates array.
+     */
+    private static double speed(double @NonNull [] c, int i, double t) {
+        double u = 1 - t;
+        double a = 3 * u * u, b = 6 * u * t, d = 3 * t * t;
+        double dx = a * (c[i + 2] - c[i]) + b * (c[i + 4] - c[i + 2]) + d * (c[i + 6] - c[i + 4]);
+        double dy = a * (c[i + 3] - c[i + 1]) + b * (c[i + 5] - c[i + 3]) + d * (c[i + 7] - c[i + 5]);
+        return hypot(dx, dy);
+    }
+
+    /**
+     * Integrates the speed of the cubic curve at offset {@code i} in the
+     * coordinates array from {@code t0} to {@code t1} with the 5-point
+     * Gauss-Legendre quadrature.
+     */
+    private static double integrateSpeed(double @NonNull [] c, int i, double t0, double t1) {
+        double halfRange = 0.5 * (t1 - t0);
+        double mid = 0.5 * (t0 + t1);
+        double sum = 0;
+        for (int k = 0; k < GAUSS_NODES.length; k++) {
+            sum += GAUSS_WEIGHTS[k] * speed(c, i, mid + halfRange * GAUSS_NODES[k]);
+        }
+        return sum * halfRange;
+    }
+
+    /**
+     * Returns the length of the path.
+     *
+     * @return the length
+     */
+    public double getLength() {
+        return length;
+    }
+
+    /**
+     * Returns the number of non-degenerated segments of the path.
+     *
+     * @return the number of segments
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the index of the path element that defines the specified
+     * segment. The indices include {@link PathIterator#SEG_MOVETO} elements.
+     *
+     * @param segment a segment index
+     * @return the path element index
+     */
+    public int getElementIndex(int segment) {
+        Objects.checkIndex(segment, size);
+        return elementIndices[segment];
+    }
+
+    /**
+     * Returns the distance from the start of the path to the start of the
+     * specified segment.
+     *
+     * @param segment a segment index
+     * @return the distance
+     */
+    public double getSegmentStart(int segment) {
+        Objects.checkIndex(segment, size);
+        return segment == 0 ? 0 : segmentEnds[segment - 1];
+    }
+
+    /**
+     * Returns the length of the specified segment.
+     *
+     * @param segment a segment index
+     * @return the length
+     */
+    public double getSegmentLength(int segment) {
+        return segmentEnds[segment] - getSegmentStart(segment);
+    }
+
+    /**
+     * Returns the index of the segment that contains the point at the
+     * given distance from the start of the path. Distances outside of the
+     * path are clamped to the first or the last segment.
+     *
+     * @param distance the distance from the start of the path
+     * @return the segment index, -1 if the table is empty
+     */
+    public int getSegmentAt(double distance) {
+        if (size == 0) {
+            return -1;
+        }
+        int i = Arrays.binarySearch(segmentEnds, 0, size, distance);
+        if (i < 0) {
+            i = ~i;
+        }
+        return min(i, size - 1);
+    }
+
+    /**
+     * Returns the distance from the start of the path to the point at the
+     * curve parameter {@code t} of the specified segment.
+     *
+     * @param segment a segment index
+     * @param t       the curve parameter in [0,1]
+     * @return the distance from the start of the path
+     */
+    public double getLengthAt(int segment, double t) {
+        double start = getSegmentStart(segment);
+        t = Geom.clamp(t, 0, 1);
+        if (types[segment] == LINE) {
+            return start + t * (segmentEnds[segment] - start);
+        }
+        int k = min((int) (t * samplesPerCurve), samplesPerCurve - 1);
+        int base = segment * (samplesPerCurve + 1);
+        return start + samples[base + k]
+                + integrateSpeed(coords, segment * STRIDE, (double) k / samplesPerCurve, t);
+    }
+
+    /**
+     * Returns the curve parameter of the point at the given distance from
+     * the start of the path in the specified segment.
+     *
+     * @param segment  a segment index, see {@link #getSegmentAt(double)}
+     * @param distance the distance from the start of the path
+     * @return the curve parameter in [0,1]
+     */
+    public double getParameterAt(int segment, double distance) {
+        double start = getSegmentStart(segment);
+        double d = Geom.clamp(distance - start, 0, segmentEnds[segment] - start);
+        if (types[segment] == LINE) {
+            return d / (segmentEnds[segment] - start);
+        }
+
+        // find the sample interval [k, k+1] that contains d
+        int base = segment * (samplesPerCurve + 1);
+        int k = Arrays.binarySearch(samples, base, base + samplesPerCurve + 1, d);
+        if (k >= 0) {
+            return (double) (k - base) / samplesPerCurve;
+        }
+        k = max(base, ~k - 1) - base;
+        k = min(k, samplesPerCurve - 1);
+        double l0 = samples[base + k];
+        double l1 = samples[base + k + 1];
+        double t0 = (double) k / samplesPerCurve;
+        double t1 = (double) (k + 1) / samplesPerCurve;
+
+        // refine the linear interpolation with Newton steps
+        int i = segment * STRIDE;
+        double t = l1 > l0 ? t0 + (t1 - t0) * (d - l0) / (l1 - l0) : t0;
+        for (int iter = 0; iter < MAX_NEWTON_ITERATIONS; iter++) {
+            double error = l0 + integrateSpeed(coords, i, t0, t) - d;
+            if (Math.abs(error) <= EPSILON) {
+                break;
+            }
+            double speed = speed(coords, i, t);
+            if (speed <= EPSILON) {
+                break;
+            }
+            t = Geom.clamp(t - error / speed, t0, t1);
+        }
+        return t;
+    }
+
+    /**
+     * Returns the point at the given distance from the start of the path.
+     * Distances outside of the path are clamped to the start or the end of
+     * the path.
+     *
+     * @param distance the distance from the start of the path
+     * @return the point
+     */
+    public @NonNull Point2D.Double getPointAt(double distance) {
+        int segment = getSegmentAt(distance);
+        if (segment < 0) {
+            return new Point2D.Double(degeneratedX, degeneratedY);
+        }
+        double t = getParameterAt(segment, distance);
+        int i = segment * STRIDE;
+        if (types[segment] == LINE) {
+            return Geom.lerp(coords[i], coords[i + 1], coords[i + 2], coords[i + 3], t);
+        }
+        return BezierCurves.evalCubicCurve(coords[i], coords[i + 1], coords[i + 2], coords[i + 3],
+                coords[i + 4], coords[i + 5], coords[i + 6], coords[i + 7], t);
+    }
+
+    /**
+     * Returns the point and the tangent at the given distance from the
+     * start of the path. Distances outside of the path are clamped to the
+     * start or the end of the path.
+     * <p>
+     * If the table is empty, returns {@code point=(x,y), tangent=(1,0)},
+     * where {@code (x,y)} is the last degenerated segment of the path, or
+     * {@code (0,0)} if the path is empty.
+     *
+     * @param distance the distance from the start of the path
+     * @return the point and tangent
+     */
+    public @NonNull PointAndTangent getPointAndTangentAt(double distance) {
+        int segment = getSegmentAt(distance);
+        if (segment < 0) {
+            return new PointAndTangent(degeneratedX, degeneratedY, 1, 0);
+        }
+        double t = getParameterAt(segment, distance);
+        int i = segment * STRIDE;
+        if (types[segment] == LINE) {
+            Point2D.Double p = Geom.lerp(coords[i], coords[i + 1], coords[i + 2], coords[i + 3], t);
+            return new PointAndTangent(p.x, p.y, coords[i + 2] - coords[i], coords[i + 3] - coords[i + 1]);
+        }
+        Point2D.Double p = BezierCurves.evalCubicCurve(coords[i], coords[i + 1], coords[i + 2], coords[i + 3],
+                coords[i + 4], coords[i + 5], coords[i + 6], coords[i + 7], t);
+        Point2D.Double tangent = BezierCurves.evalCubicCurveTangent(coords[i], coords[i + 1], coords[i + 2], coords[i + 3],
+                coords[i + 4], coords[i + 5], coords[i + 6], coords[i + 7], t);
+        return new PointAndTangent(p.x, p.y, tangent.x, tangent.y);
+    }
+}
@@ -17,7 +17,7 @@ import org.jhotdraw8.util.function.Double8Consumer;
 
 import java.awt.geom.CubicCurve2D;
 import java.awt.geom.Point2D;
-import java.util.function.ToDoubleFunction;
+import java.util.function.DoubleUnaryOperator;
 
 import static java.lang.Math.abs;
 import static java.lang.Math.sqrt;
@@ -900,12 +900,12 @@ public class BezierCurves {
     }
 
     public static double arcLengthRomberg(double[] b, double eps) {
-        ToDoubleFunction<Double> f = getLengthIntegrand(b);
+        DoubleUnaryOperator f = getLengthIntegrand(b);
         return IntegralAlgorithms.rombergQuadrature(f, 0, 1, eps);
     }
 
     public static double arcLengthSimpson(double[] b, double eps) {
-        ToDoubleFunction<Double> f = getLengthIntegrand(b);
+        DoubleUnaryOperator f = getLengthIntegrand(b);
         return IntegralAlgorithms.simpson(f, 0, 1, eps);
     }
 
@@ -915,7 +915,7 @@ public class BezierCurves {
      * @param v a cubic bezier curve
      * @return the
      */
-    private static ToDoubleFunction<Double> getLengthIntegrand(double[] v) {
+    private static DoubleUnaryOperator getLengthIntegrand(double[] v) {
         // Calculate the coefficients of a Bezier derivative.
         double x0 = v[0], y0 = v[1],
                 x1 = v[2], y1 = v[3],
@@ -6,14 +6,25 @@ package org.jhotdraw8.geom;
 
 import javafx.geometry.Point2D;
 import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.annotation.Nullable;
+import org.jhotdraw8.collection.DoubleArrayList;
 import org.jhotdraw8.collection.IntArrayList;
 import org.jhotdraw8.geom.intersect.IntersectLinePoint;
 
+import java.awt.geom.PathIterator;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
+ * Fits bezier paths to digitized points.
+ * <p>
+ * For live input, where the points are still arriving, see
+ * {@link IncrementalBezierFit}.
+ * <p>
  * References:
  * <pre>
  *     GraphicsGems.c
@@ -46,6 +57,29 @@ public class BezierFit {
         }
     }
 
+    /**
+     * Minimal angle in radians between a point and its predecessor and
+     * successor, at which the point is considered to be a corner.
+     */
+    static final double CORNER_ANGLE = 77 / 180d * Math.PI;
+    /**
+     * Weight of the current point when reducing noise.
+     */
+    static final double NOISE_WEIGHT = 0.8;
+    /**
+     * Corner classification: the point is a corner.
+     */
+    static final int CORNER = 1;
+    /**
+     * Corner classification: the point is not a corner.
+     */
+    static final int NO_CORNER = 0;
+    /**
+     * Corner classification: the point can not be classified yet, because
+     * there is no succeeding point that is far enough away from it.
+     */
+    static final int UNDECIDED = -1;
+
     /**
      * Fits a bezier path to the specified list of digitized points.
      * <p>
@@ -69,66 +103,13 @@ public class BezierFit {
      *                        digitized points.
      */
     public static void fitBezierPath(@NonNull PathBuilder<?> builder, @NonNull java.util.List<Point2D> digitizedPoints, double error) {
-        // Split into segments at corners
-        ArrayList<ArrayList<Point2D>> segments;
-        segments = splitAtCorners(digitizedPoints, 77 / 180d * Math.PI, error * error);
-
-        // Clean up the data in the segments
-        for (int i = 0, n = segments.size(); i < n; i++) {
-            ArrayList<Point2D> seg = segments.get(i);
-            seg = removeClosePoints(seg, error * 2);
-            seg = reduceNoise(seg, 0.8);
-
-            segments.set(i, seg);
-        }
-
-        // Quickly deal with empty dataset
-        boolean isEmpty = false;
-        for (ArrayList<Point2D> seg : segments) {
-            if (seg.isEmpty()) {
-                isEmpty = false;
-                break;
-            }
-        }
-        if (!isEmpty) {
-            // Process each segment of digitized points
-            double errorSquared = error * error;
-            boolean first = true;
-            for (ArrayList<Point2D> seg : segments) {
-                switch (seg.size()) {
-                case 0:
-                    break;
-                case 1:
-                    if (first) {
-                        builder.moveTo(seg.get(0).getX(), seg.get(0).getY());
-                        first = false;
-                    } else {
-                        builder.lineTo(seg.get(0).getX(), seg.get(0).getY());
-                    }
-                    break;
-                case 2:
-                    if (first) {
-                        builder.moveTo(seg.get(0).getX(), seg.get(0).getY());
-                        first = false;
-                    }
-                    builder.lineTo(seg.get(1).getX(), seg.get(1).getY());
-                    break;
-                default:
-                    if (first) {
-                        builder.moveTo(seg.get(0).getX(), seg.get(0).getY());
-                        first = false;
-                    }
-                    /*  Unit tangent vectors at endpoints */
-                    Point2D tHat1;
-                    Point2D tHat2;
-                    tHat1 = computeLeftTangent(seg, 0);
-                    tHat2 = computeRightTangent(seg, seg.size() - 1);
-
-                    fitCubic(builder, seg, 0, seg.size() - 1, tHat1, tHat2, errorSquared);
-                    break;
-                }
-            }
+        double[] xy = new double[digitizedPoints.size() * 2];
+        int i = 0;
+        for (Point2D p : digitizedPoints) {
+            xy[i++] = p.getX();
+            xy[i++] = p.getY();
         }
+        fitBezierPath(builder, xy, digitizedPoints.size(), error, null);
     }
 
     /**
@@ -142,11 +123,83 @@ public class BezierFit {
      *                        digitized points.
      */
     public static void fitBezierPath(@NonNull PathBuilder<?> builder, @NonNull BezierNodePath digitizedPoints, double error) {
-        List<Point2D> d = new ArrayList<>();
-        for (BezierNode n : digitizedPoints.getNodes()) {
-            d.add(new Point2D(n.getX0(), n.getY0()));
+        List<BezierNode> nodes = digitizedPoints.getNodes();
+        double[] xy = new double[nodes.size() * 2];
+        int i = 0;
+        for (BezierNode n : nodes) {
+            xy[i++] = n.getX0();
+            xy[i++] = n.getY0();
+        }
+        fitBezierPath(builder, xy, nodes.size(), error, null);
+    }
+
+    /**
+     * Fits a bezier path to the specified digitized points.
+     * <p>
+     * This is a convenience method for calling {@link #fitBezierPath}.
+     *
+     * @param builder the builder for the bezier path
+     * @param xy      the digitized points given as interleaved x- and
+     *                y-coordinates
+     * @param n       the number of digitized points
+     * @param error   the maximal allowed error between the bezier path and the
+     *                digitized points.
+     */
+    public static void fitBezierPath(@NonNull PathBuilder<?> builder, double @NonNull [] xy, int n, double error) {
+        fitBezierPath(builder, xy, n, error, null);
+    }
+
+    /**
+     * Fits a bezier path to the specified digitized points.
+     * <p>
+     * The digitized points are split into runs at corners. Each run is
+     * cleaned up and fitted independently of the other runs, and thus
+     * the runs can be fitted in parallel. The fitted runs are then added
+     * to the builder in their original order, so the result does not depend
+     * on whether a pool is used.
+     *
+     * @param builder the builder for the bezier path
+     * @param xy      the digitized points given as interleaved x- and
+     *                y-coordinates
+     * @param n       the number of digitized points
+     * @param error   the maximal allowed error between the bezier path and the
+     *                digitized points.
+     * @param pool    the pool on which the runs are fitted, or null to fit
+     *                them in the calling thread
+     */
+    public static void fitBezierPath(@NonNull PathBuilder<?> builder, double @NonNull [] xy, int n, double error,
+                                     @Nullable ForkJoinPool pool) {
+        Objects.checkFromIndexSize(0, n * 2, xy.length);
+        if (n == 0) {
+            return;
+        }
+
+        // Split into runs at corners
+        IntArrayList corners = findCorners(xy, n, CORNER_ANGLE, error * error);
+        FittedRun[] runs = new FittedRun[corners.size() + 1];
+
+        // Fit each run of digitized points
+        if (pool == null || runs.length == 1) {
+            for (int i = 0; i < runs.length; i++) {
+                runs[i] = fitRun(xy, runStart(corners, i), runEnd(corners, i, n), error,
+                        Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+            }
+        } else {
+            pool.invoke(new FitTask(xy, n, corners, error, runs, 0, runs.length));
+        }
+
+        boolean first = true;
+        for (FittedRun run : runs) {
+            first = run.replayInto(builder, first);
         }
-        fitBezierPath(builder, d, error);
+    }
+
+    private static int runStart(@NonNull IntArrayList corners, int run) {
+        return run == 0 ? 0 : corners.getAsInt(run - 1);
+    }
+
+    private static int runEnd(@NonNull IntArrayList corners, int run, int n) {
+        return run == corners.size() ? n - 1 : corners.getAsInt(run);
     }
 
     /**
@@ -262,56 +315,13 @@ public class BezierFit {
      * @return list of corner indices.
      */
     public static @NonNull IntArrayList findCorners(@NonNull java.util.List<Point2D> digitizedPoints, double minAngle, double minDistance) {
-        IntArrayList cornerIndices = new IntArrayList();
-
-        double squaredDistance = minDistance * minDistance;
-
-        int previousCorner = -1;
-        double previousCornerAngle = 0;
-
-        for (int i = 1, n = digitizedPoints.size(); i < n - 1; i++) {
-            Point2D p = digitizedPoints.get(i);
-
-            // search for a preceding point for corner detection
-            Point2D prev = null;
-            boolean intersectsPreviousCorner = false;
-            for (int j = i - 1; j >= 0; j--) {
-                if (j == previousCorner || v2SquaredDistanceBetween2Points(digitizedPoints.get(j), p) >= squaredDistance) {
-                    prev = digitizedPoints.get(j);
-                    intersectsPreviousCorner = j < previousCorner;
-                    break;
-                }
-            }
-            if (prev == null) {
-                continue;
-            }
-
-            // search for a succeeding point for corner detection
-            Point2D next = null;
-            for (int j = i + 1; j < n; j++) {
-                if (v2SquaredDistanceBetween2Points(digitizedPoints.get(j), p) >= squaredDistance) {
-                    next = digitizedPoints.get(j);
-                    break;
-                }
-            }
-            if (next == null) {
-                continue;
-            }
-
-            double aPrev = Geom.atan2(prev.getY() - p.getY(), prev.getX() - p.getX());
-            double aNext = Geom.atan2(next.getY() - p.getY(), next.getX() - p.getX());
-            double angle = Math.abs(aPrev - aNext);
-            if (angle < Math.PI - minAngle || angle > Math.PI + minAngle) {
-                if (intersectsPreviousCorner) {
-                    cornerIndices.setAsInt(cornerIndices.size() - 1, i);
-                } else {
-                    cornerIndices.addAsInt(i);
-                }
-                previousCorner = i;
-                previousCornerAngle = angle;
-            }
+        double[] xy = new double[digitizedPoints.size() * 2];
+        int i = 0;
+        for (Point2D p : digitizedPoints) {
+            xy[i++] = p.getX();
+            xy[i++] = p.getY();
         }
-        return cornerIndices;
+        return findCorners(xy, digitizedPoints.size(), minAngle, minDistance);
     }
 
     /**
@@ -348,90 +358,261 @@ public class BezierFit {
         return cleaned;
     }
 
+    /**
+     * Finds corners in the provided digitized points, and returns their indices.
+     *
+     * @param xy          the digitized points given as interleaved x- and
+     *                    y-coordinates
+     * @param n           the number of digitized points
+     * @param minAngle    Minimal angle for corner points
+     * @param minDistance Minimal distance between a point and adjacent points
+     *                    for corner detection
+     * @return list of corner indices.
+     */
+    private static @NonNull IntArrayList findCorners(double @NonNull [] xy, int n, double minAngle, double minDistance) {
+        IntArrayList cornerIndices = new IntArrayList();
+        double squaredDistance = minDistance * minDistance;
+        int previousCorner = -1;
+        for (int i = 1; i < n - 1; i++) {
+            if (classifyCorner(xy, n, i, previousCorner, squaredDistance, minAngle) == CORNER) {
+                cornerIndices.addAsInt(i);
+                previousCorner = i;
+            }
+        }
+        return cornerIndices;
+    }
+
+    /**
+     * Determines whether the point at index {@code i} is a corner.
+     * <p>
+     * The angle is measured between the nearest preceding and the nearest
+     * succeeding point that are at least the minimal distance away from
+     * the point. The search for a preceding point stops at the previous
+     * corner.
+     *
+     * @param xy              the digitized points given as interleaved x- and
+     *                        y-coordinates
+     * @param n               the number of digitized points
+     * @param i               the index of the point
+     * @param previousCorner  the index of the previous corner, or -1
+     * @param squaredDistance the squared minimal distance
+     * @param minAngle        minimal angle for corner points
+     * @return {@link #CORNER}, {@link #NO_CORNER} or {@link #UNDECIDED}
+     */
+    static int classifyCorner(double @NonNull [] xy, int n, int i, int previousCorner, double squaredDistance, double minAngle) {
+        double px = xy[i * 2], py = xy[i * 2 + 1];
+
+        // search for a preceding point for corner detection
+        int prev = -1;
+        for (int j = i - 1; j >= 0; j--) {
+            if (j == previousCorner || squaredDistance(xy, j, px, py) >= squaredDistance) {
+                prev = j;
+                break;
+            }
+        }
+        if (prev == -1) {
+            return NO_CORNER;
+        }
+
+        // search for a succeeding point for corner detection
+        int next = -1;
+        for (int j = i + 1; j < n; j++) {
+            if (squaredDistance(xy, j, px, py) >= squaredDistance) {
+                next = j;
+                break;
+            }
+        }
+        if (next == -1) {
+            return UNDECIDED;
+        }
+
+        double aPrev = Geom.atan2(xy[prev * 2 + 1] - py, xy[prev * 2] - px);
+        double aNext = Geom.atan2(xy[next * 2 + 1] - py, xy[next * 2] - px);
+        double angle = Math.abs(aPrev - aNext);
+        return angle < Math.PI - minAngle || angle > Math.PI + minAngle ? CORNER : NO_CORNER;
+    }
+
+    private static double squaredDistance(double @NonNull [] xy, int j, double px, double py) {
+        double dx = xy[j * 2] - px;
+        double dy = xy[j * 2 + 1] - py;
+        return (dx * dx) + (dy * dy);
+    }
+
+    /**
+     * Cleans up and fits a run of digitized points that contains no corners.
+     *
+     * @param xy    the digitized points given as interleaved x- and
+     *              y-coordinates
+     * @param from  the index of the first point of the run
+     * @param to    the index of the last point of the run (inclusive)
+     * @param error the maximal allowed error
+     * @param tx1   x-coordinate of the unit tangent at the start point, or
+     *              NaN to estimate it from the points
+     * @param ty1   y-coordinate of the unit tangent at the start point
+     * @param tx2   x-coordinate of the unit tangent at the end point, or
+     *              NaN to estimate it from the points
+     * @param ty2   y-coordinate of the unit tangent at the end point
+     * @return the fitted run
+     */
+    static @NonNull FittedRun fitRun(double @NonNull [] xy, int from, int to, double error,
+                                     double tx1, double ty1, double tx2, double ty2) {
+        // Clean up the data in the run
+        double[] d = new double[(to - from + 2) * 2];
+        int count = removeClosePoints(xy, from, to, error * 2, d);
+        reduceNoise(d, count, NOISE_WEIGHT);
+
+        FittedRun run = new FittedRun(d[0], d[1], count);
+        switch (count) {
+        case 1:
+            break;
+        case 2:
+            run.lineTo(d[2], d[3]);
+            break;
+        default:
+            /*  Unit tangent vectors at endpoints */
+            if (Double.isNaN(tx1)) {
+                tx1 = d[2] - d[0];
+                ty1 = d[3] - d[1];
+                double len = Math.sqrt((tx1 * tx1) + (ty1 * ty1));
+                if (len != 0.0) {
+                    tx1 = tx1 / len;
+                    ty1 = ty1 / len;
+                }
+            }
+            if (Double.isNaN(tx2)) {
+                int end = count - 1;
+                tx2 = d[end * 2 - 2] - d[end * 2];
+                ty2 = d[end * 2 - 1] - d[end * 2 + 1];
+                double len = Math.sqrt((tx2 * tx2) + (ty2 * ty2));
+                if (len != 0.0) {
+                    tx2 = tx2 / len;
+                    ty2 = ty2 / len;
+                }
+            }
+            fitCubic(run, d, count, 0, count - 1, tx1, ty1, tx2, ty2, error * error);
+            break;
+        }
+        return run;
+    }
+
+    /**
+     * Removes points which are closer together than the specified minimal
+     * distance from the run {@code from..to}, and writes the remaining
+     * points into {@code out}.
+     *
+     * @return the number of points written into {@code out}
+     */
+    private static int removeClosePoints(double @NonNull [] xy, int from, int to, double minDistance, double @NonNull [] out) {
+        double squaredDistance = minDistance * minDistance;
+        double prevX = xy[from * 2], prevY = xy[from * 2 + 1];
+        out[0] = prevX;
+        out[1] = prevY;
+        int count = 1;
+        for (int i = from; i <= to; i++) {
+            double x = xy[i * 2], y = xy[i * 2 + 1];
+            boolean keep;
+            if (minDistance == 0) {
+                keep = prevX != x || prevY != y;
+            } else {
+                double dx = prevX - x, dy = prevY - y;
+                keep = (dx * dx) + (dy * dy) > squaredDistance;
+            }
+            if (keep) {
+                out[count * 2] = x;
+                out[count * 2 + 1] = y;
+                count++;
+                prevX = x;
+                prevY = y;
+            }
+        }
+        if (minDistance != 0) {
+            double lastX = xy[to * 2], lastY = xy[to * 2 + 1];
+            if (prevX != lastX || prevY != lastY) {
+                out[count * 2 - 2] = lastX;
+                out[count * 2 - 1] = lastY;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Reduces noise from the first {@code count} points in {@code d} in place.
+     *
+     * @see #reduceNoise(List, double)
+     */
+    private static void reduceNoise(double @NonNull [] d, int count, double weight) {
+        double pnWeight = (1d - weight) / 2d; // weight of previous and next
+        double prevX = d[0], prevY = d[1];
+        for (int i = 1, n = count - 1; i < n; i++) {
+            double curX = d[i * 2], curY = d[i * 2 + 1];
+            double nextX = d[i * 2 + 2], nextY = d[i * 2 + 3];
+            d[i * 2] = curX * weight + pnWeight * prevX + pnWeight * nextX;
+            d[i * 2 + 1] = curY * weight + pnWeight * prevY + pnWeight * nextY;
+            prevX = curX;
+            prevY = curY;
+        }
+    }
+
     /**
      * Fit one or multiple subsequent cubic bezier curves to a (sub)set of
      * digitized points. The digitized points represent a smooth curve without
      * corners.
      *
-     * @param d            Array of digitized points. Must not contain subsequent
+     * @param run          Run to which the bezier curve segments are added.
+     * @param d            Array of digitized points given as interleaved x-
+     *                     and y-coordinates. Must not contain subsequent
      *                     coincident points.
+     * @param count        Number of points in d.
      * @param first        Indice of first point in d.
      * @param last         Indice of last point in d.
-     * @param tHat1        Unit tangent vectors at start point.
-     * @param tHat2        Unit tangent vector at end point.
+     * @param tx1          Unit tangent vector at start point.
+     * @param ty1          Unit tangent vector at start point.
+     * @param tx2          Unit tangent vector at end point.
+     * @param ty2          Unit tangent vector at end point.
      * @param errorSquared User-defined errorSquared squared.
-     * @param builder      Path to which the bezier curve segments are added.
      */
-    private static void fitCubic(@NonNull PathBuilder<?> builder, @NonNull ArrayList<Point2D> d, int first, int last,
-                                 Point2D tHat1, Point2D tHat2,
+    private static void fitCubic(@NonNull FittedRun run, double @NonNull [] d, int count, int first, int last,
+                                 double tx1, double ty1, double tx2, double ty2,
                                  double errorSquared) {
-
-        Point2D[] bezCurve;
-        /*Control points of fitted BezierFit curve*/
-        double[] u;
-        /*  Parameter values for point  */
-        double maxError;
-        /*  Maximum fitting errorSquared	 */
-        int[] splitPoint = new int[1];
-        /*  Point to split point set at.
-        This is an array of size one, because we need it as an input/output parameter.
-         */
-        int nPts;
-        /*  Number of points in subset  */
-        double iterationError;
         /* Error below which you try iterating  */
-        int maxIterations = 4;
+        double iterationError = errorSquared * errorSquared;
         /*  Max times to try iterating  */
-        Point2D tHatCenter;
-        /* Unit tangent vector at splitPoint */
-        int i;
-
-        iterationError = errorSquared * errorSquared;
-        nPts = last - first + 1;
+        int maxIterations = 4;
+        /*  Number of points in subset  */
+        int nPts = last - first + 1;
 
         /*  Use heuristic if region only has two points in it */
         if (nPts == 2) {
-            double dist = v2DistanceBetween2Points(d.get(last), d.get(first)) / 3.0;
-
-            Point2D bezCurve0 = d.get(first);
-            Point2D bezCurve3 = d.get(last);
-            Point2D bezCurve1 = v2Add(bezCurve0, tHat1 = v2Scale(tHat1, dist));
-            Point2D bezCurve2 = v2Add(bezCurve3, tHat2 = v2Scale(tHat2, dist));
-
-            builder.curveTo(
-                    bezCurve1.getX(),
-                    bezCurve1.getY(),
-                    bezCurve2.getX(),
-                    bezCurve2.getY(),
-                    bezCurve3.getX(),
-                    bezCurve3.getY()
-            );
+            double[] bezCurve = new double[8];
+            generateBezier(d, first, last, tx1, ty1, tx2, ty2, bezCurve);
+            run.curveTo(bezCurve[2], bezCurve[3], bezCurve[4], bezCurve[5], bezCurve[6], bezCurve[7]);
             return;
         }
 
         /*  Parameterize points, and attempt to fit curve */
-        u = chordLengthParameterize(d, first, last);
-        bezCurve = generateBezier(d, first, last, u, tHat1, tHat2);
+        double[] u = chordLengthParameterize(d, first, last);
+        /*Control points of fitted bezier curve*/
+        double[] bezCurve = new double[8];
+        generateBezier(d, first, last, tx1, ty1, tx2, ty2, bezCurve);
 
         /*  Find max deviation of points to fitted curve */
-        maxError = computeMaxError(d, first, last, bezCurve, u, splitPoint);
+        int[] splitPoint = new int[1];
+        double maxError = computeMaxError(d, first, last, bezCurve, u, splitPoint);
+        boolean connectsCorners = first == 0 && last == count - 1;
         if (maxError < errorSquared) {
-            addCurveTo(builder, bezCurve, errorSquared, first == 0 && last == d.size() - 1);
+            addCurveTo(run, bezCurve, errorSquared, connectsCorners);
             return;
         }
 
-
         /*  If errorSquared not too large, try some reparameterization  */
         /*  and iteration */
         if (maxError < iterationError) {
-            double[] uPrime;
-            /*  Improved parameter values */
-            for (i = 0; i < maxIterations; i++) {
-                uPrime = reparameterize(d, first, last, u, bezCurve);
-                bezCurve = generateBezier(d, first, last, uPrime, tHat1, tHat2);
+            for (int i = 0; i < maxIterations; i++) {
+                double[] uPrime = reparameterize(d, first, last, u, bezCurve);
+                generateBezier(d, first, last, tx1, ty1, tx2, ty2, bezCurve);
                 maxError = computeMaxError(d, first, last, bezCurve, uPrime, splitPoint);
                 if (maxError < errorSquared) {
-                    addCurveTo(builder, bezCurve, errorSquared, first == 0 && last == d.size() - 1);
+                    addCurveTo(run, bezCurve, errorSquared, connectsCorners);
                     return;
                 }
                 u = uPrime;
@@ -439,88 +620,40 @@ public class BezierFit {
         }
 
         /* Fitting failed -- split at max errorSquared point and fit recursively */
-        tHatCenter = computeCenterTangent(d, splitPoint[0]);
-        if (first < splitPoint[0]) {
-            fitCubic(builder, d, first, splitPoint[0], tHat1, tHatCenter, errorSquared);
+        int split = splitPoint[0];
+        double v1x = d[split * 2 - 2] - d[split * 2], v1y = d[split * 2 - 1] - d[split * 2 + 1];
+        double v2x = d[split * 2] - d[split * 2 + 2], v2y = d[split * 2 + 1] - d[split * 2 + 3];
+        double cx = (v1x + v2x) / 2.0, cy = (v1y + v2y) / 2.0;
+        double len = Math.sqrt((cx * cx) + (cy * cy));
+        if (len != 0.0) {
+            cx = cx / len;
+            cy = cy / len;
+        }
+        if (first < split) {
+            fitCubic(run, d, count, first, split, tx1, ty1, cx, cy, errorSquared);
         } else {
-            builder.lineTo(d.get(splitPoint[0]).getX(), d.get(splitPoint[0]).getY());
-            //   System.err.println("Can't split any further " + first + ".." + splitPoint[0]);
+            run.lineTo(d[split * 2], d[split * 2 + 1]);
         }
-        tHatCenter = v2Negate(tHatCenter);
-        if (splitPoint[0] < last) {
-            fitCubic(builder, d, splitPoint[0], last, tHatCenter, tHat2, errorSquared);
+        if (split < last) {
+            fitCubic(run, d, count, split, last, -cx, -cy, tx2, ty2, errorSquared);
         } else {
-            builder.lineTo(d.get(last).getX(), d.get(last).getY());
-            //  System.err.println("Can't split any further " + splitPoint[0] + ".." + last);
+            run.lineTo(d[last * 2], d[last * 2 + 1]);
         }
     }
 
     /**
-     * Adds the curve to the bezier path.
-     *
-     * @param bezCurve
-     * @param builder
+     * Adds the curve to the run.
      */
-    private static void addCurveTo(@NonNull PathBuilder<?> builder, Point2D[] bezCurve, double errorSquared, boolean connectsCorners) {
-        java.awt.geom.Point2D.Double lastNode = builder.getLastPoint();
+    private static void addCurveTo(@NonNull FittedRun run, double @NonNull [] bezCurve, double errorSquared, boolean connectsCorners) {
         double error = Math.sqrt(errorSquared);
-        if (connectsCorners && IntersectLinePoint.lineContainsPoint(lastNode.getX(), lastNode.getY(), bezCurve[3].getX(), bezCurve[3].getY(), bezCurve[1].getX(), bezCurve[1].getY(), error)
-                && IntersectLinePoint.lineContainsPoint(lastNode.getX(), lastNode.getY(), bezCurve[3].getX(), bezCurve[3].getY(), bezCurve[2].getX(), bezCurve[2].getY(), error)) {
-            builder.lineTo(
-                    bezCurve[3].getX(), bezCurve[3].getY());
-
+        if (connectsCorners && IntersectLinePoint.lineContainsPoint(run.lastX, run.lastY, bezCurve[6], bezCurve[7], bezCurve[2], bezCurve[3], error)
+                && IntersectLinePoint.lineContainsPoint(run.lastX, run.lastY, bezCurve[6], bezCurve[7], bezCurve[4], bezCurve[5], error)) {
+            run.lineTo(bezCurve[6], bezCurve[7]);
         } else {
-            builder.curveTo(
-                    bezCurve[1].getX(), bezCurve[1].getY(),
-                    bezCurve[2].getX(), bezCurve[2].getY(),
-                    bezCurve[3].getX(), bezCurve[3].getY());
+            run.curveTo(bezCurve[2], bezCurve[3], bezCurve[4], bezCurve[5], bezCurve[6], bezCurve[7]);
         }
     }
 
-    /**
-     * Approximate unit tangents at "left" endpoint of digitized curve.
-     *
-     * @param d   Digitized points.
-     * @param end Index to "left" end of region.
-     */
-    private static Point2D computeLeftTangent(@NonNull ArrayList<Point2D> d, int end) {
-        Point2D tHat1;
-        tHat1 = v2SubII(d.get(end + 1), d.get(end));
-        tHat1 = v2Normalize(tHat1);
-        return tHat1;
-    }
-
-    /**
-     * Approximate unit tangents at "right" endpoint of digitized curve.
-     *
-     * @param d   Digitized points.
-     * @param end Index to "right" end of region.
-     */
-    private static Point2D computeRightTangent(@NonNull ArrayList<Point2D> d, int end) {
-        Point2D tHat2;
-        tHat2 = v2SubII(d.get(end - 1), d.get(end));
-        tHat2 = v2Normalize(tHat2);
-        return tHat2;
-    }
-
-    /**
-     * Approximate unit tangents at "center" of digitized curve.
-     *
-     * @param d      Digitized points.
-     * @param center Index to "center" end of region.
-     */
-    private static Point2D computeCenterTangent(@NonNull ArrayList<Point2D> d, int center) {
-        Point2D V1, V2,
-                tHatCenter;
-
-        V1 = v2SubII(d.get(center - 1), d.get(center));
-        V2 = v2SubII(d.get(center), d.get(center + 1));
-        tHatCenter = new Point2D((V1.getX() + V2.getX()) / 2.0,
-                (V1.getY() + V2.getY()) / 2.0);
-        tHatCenter = v2Normalize(tHatCenter);
-        return tHatCenter;
-    }
-
     /**
      * Assign parameter values to digitized points using relative distances
      * between points.
@@ -529,24 +662,17 @@ public class BezierFit {
      * @param first Indice of first point of region in d.
      * @param last  Indice of last point of region in d.
      */
-    private static double[] chordLengthParameterize(@NonNull ArrayList<Point2D> d, int first, int last) {
-        int i;
-        double[] u;
-        /*  Parameterization		*/
-
-        u = new double[last - first + 1];
-
+    private static double @NonNull [] chordLengthParameterize(double @NonNull [] d, int first, int last) {
+        double[] u = new double[last - first + 1];
         u[0] = 0.0;
-        for (i = first + 1; i <= last; i++) {
-            u[i - first] = u[i - first - 1]
-                    + v2DistanceBetween2Points(d.get(i), d.get(i - 1));
+        for (int i = first + 1; i <= last; i++) {
+            double dx = d[i * 2] - d[i * 2 - 2], dy = d[i * 2 + 1] - d[i * 2 - 1];
+            u[i - first] = u[i - first - 1] + Math.sqrt((dx * dx) + (dy * dy));
         }
-
-        for (i = first + 1; i <= last; i++) {
+        for (int i = first + 1; i <= last; i++) {
             u[i - first] = u[i - first] / u[last - first];
         }
-
-        return (u);
+        return u;
     }
 
     /**
@@ -559,65 +685,43 @@ public class BezierFit {
      * @param u        Current parameter values.
      * @param bezCurve Current fitted curve.
      */
-    private static double[] reparameterize(@NonNull ArrayList<Point2D> d, int first, int last, double[] u, Point2D[] bezCurve) {
-        int nPts = last - first + 1;
-        int i;
-        double[] uPrime;
-        /*  New parameter values	*/
-
-        uPrime = new double[nPts];
-        for (i = first; i <= last; i++) {
-            uPrime[i - first] = newtonRaphsonRootFind(bezCurve, d.get(i), u[i - first]);
+    private static double @NonNull [] reparameterize(double @NonNull [] d, int first, int last, double @NonNull [] u, double @NonNull [] bezCurve) {
+        double[] uPrime = new double[last - first + 1];
+        for (int i = first; i <= last; i++) {
+            uPrime[i - first] = newtonRaphsonRootFind(bezCurve, d[i * 2], d[i * 2 + 1], u[i - first]);
         }
-        return (uPrime);
+        return uPrime;
     }
 
     /**
      * Use Newton-Raphson iteration to find better root.
      *
-     * @param Q Current fitted bezier curve.
-     * @param P Digitized point.
-     * @param u Parameter value for P.
-     */
-    private static double newtonRaphsonRootFind(Point2D[] Q, @NonNull Point2D P, double u) {
-        double numerator, denominator;
-        Point2D[] Q1 = new Point2D[3], Q2 = new Point2D[2];
-        /*  Q' and Q''			*/
-        Point2D Q_u, Q1_u, Q2_u;
-        /*u evaluated at Q, Q', & Q''	*/
-        double uPrime;
-        /*  Improved u	*/
-        int i;
-
+     * @param q  Current fitted bezier curve.
+     * @param px Digitized point.
+     * @param py Digitized point.
+     * @param u  Parameter value for P.
+     */
+    private static double newtonRaphsonRootFind(double @NonNull [] q, double px, double py, double u) {
         /* Compute Q(u)	*/
-        Q_u = bezierII(3, Q, u);
-
-        /* Generate control points for Q'	*/
-        for (i = 0; i <= 2; i++) {
-            Q1[i] = new Point2D(
-                    (Q[i + 1].getX() - Q[i].getX()) * 3.0,
-                    (Q[i + 1].getY() - Q[i].getY()) * 3.0);
-        }
-
-        /* Generate control points for Q'' */
-        for (i = 0; i <= 1; i++) {
-            Q2[i] = new Point2D(
-                    (Q1[i + 1].getX() - Q1[i].getX()) * 2.0,
-                    (Q1[i + 1].getY() - Q1[i].getY()) * 2.0);
-        }
-
-        /* Compute Q'(u) and Q''(u)	*/
-        Q1_u = bezierII(2, Q1, u);
-        Q2_u = bezierII(1, Q2, u);
+        double qx = cubic(q[0], q[2], q[4], q[6], u);
+        double qy = cubic(q[1], q[3], q[5], q[7], u);
+
+        /* Generate control points for Q' and Q'', and compute Q'(u) and Q''(u) */
+        double q10x = (q[2] - q[0]) * 3.0, q10y = (q[3] - q[1]) * 3.0;
+        double q11x = (q[4] - q[2]) * 3.0, q11y = (q[5] - q[3]) * 3.0;
+        double q12x = (q[6] - q[4]) * 3.0, q12y = (q[7] - q[5]) * 3.0;
+        double q1x = quadratic(q10x, q11x, q12x, u);
+        double q1y = quadratic(q10y, q11y, q12y, u);
+        double q2x = linear((q11x - q10x) * 2.0, (q12x - q11x) * 2.0, u);
+        double q2y = linear((q11y - q10y) * 2.0, (q12y - q11y) * 2.0, u);
 
         /* Compute f(u)/f'(u) */
-        numerator = (Q_u.getX() - P.getX()) * (Q1_u.getX()) + (Q_u.getY() - P.getY()) * (Q1_u.getY());
-        denominator = (Q1_u.getX()) * (Q1_u.getX()) + (Q1_u.getY()) * (Q1_u.getY())
-                + (Q_u.getX() - P.getX()) * (Q2_u.getX()) + (Q_u.getY() - P.getY()) * (Q2_u.getY());
+        double numerator = (qx - px) * (q1x) + (qy - py) * (q1y);
+        double denominator = (q1x) * (q1x) + (q1y) * (q1y)
+                + (qx - px) * (q2x) + (qy - py) * (q2y);
 
         /* u = u - f(u)/f'(u) */
-        uPrime = u - (numerator / denominator);
-        return (uPrime);
+        return u - (numerator / denominator);
     }
 
     /**
@@ -626,227 +730,198 @@ public class BezierFit {
      * @param d          Digitized points.
      * @param first      Indice of first point of region in d.
      * @param last       Indice of last point of region in d.
-     * @param bezCurve   Fitted BezierFit curve
+     * @param bezCurve   Fitted bezier curve
      * @param u          Parameterization of points
      * @param splitPoint Point of maximum error (input/output parameter, must be
      *                   an array of 1)
      */
-    private static double computeMaxError(@NonNull ArrayList<Point2D> d, int first, int last, Point2D[] bezCurve, double[] u, int[] splitPoint) {
-        int i;
-        double maxDist;
-        /*  Maximum error */
-        double dist;
-        /*  Current error */
-        Point2D P;
-        /*  Point on curve */
-        Point2D v;
-        /*  Vector from point to curve */
-
+    private static double computeMaxError(double @NonNull [] d, int first, int last, double @NonNull [] bezCurve, double @NonNull [] u, int @NonNull [] splitPoint) {
         splitPoint[0] = (last - first + 1) / 2;
-        maxDist = 0.0;
-        for (i = first + 1; i < last; i++) {
-            P = bezierII(3, bezCurve, u[i - first]);
-            v = v2SubII(P, d.get(i));
-            dist = v2SquaredLength(v);
+        double maxDist = 0.0;
+        for (int i = first + 1; i < last; i++) {
+            double vx = cubic(bezCurve[0], bezCurve[2], bezCurve[4], bezCurve[6], u[i - first]) - d[i * 2];
+            double vy = cubic(bezCurve[1], bezCurve[3], bezCurve[5], bezCurve[7], u[i - first]) - d[i * 2 + 1];
+            double dist = (vx * vx) + (vy * vy);
             if (dist >= maxDist) {
                 maxDist = dist;
                 splitPoint[0] = i;
             }
         }
-        return (maxDist);
-    }
-
-    /**
-     * Use least-squares method to find BezierFit control points for region.
-     *
-     * @param d      Array of digitized points.
-     * @param first  Indice of first point in d.
-     * @param last   Indice of last point in d.
-     * @param uPrime Parameter values for region .
-     * @param tHat1  Unit tangent vectors at start point.
-     * @param tHat2  Unit tanget vector at end point.
-     * @return A cubic bezier curve consisting of 4 control points.
-     */
-    private static Point2D[] generateBezier(@NonNull ArrayList<Point2D> d, int first, int last, double[] uPrime, @NonNull Point2D tHat1, @NonNull Point2D tHat2) {
-        Point2D[] bezCurve;
-
-        bezCurve = new Point2D[4];
-        for (int i = 0; i < bezCurve.length; i++) {
-        }
-
-
-        /*  Use the Wu/Barsky heuristic*/
-        double dist = v2DistanceBetween2Points(d.get(last), d.get(first)) / 3.0;
-
-        bezCurve[0] = d.get(first);
-        bezCurve[3] = d.get(last);
-        bezCurve[1] = v2Add(bezCurve[0], v2Scale(tHat1, dist));
-        bezCurve[2] = v2Add(bezCurve[3], v2Scale(tHat2, dist));
-        return (bezCurve);
+        return maxDist;
     }
 
     /**
-     * Evaluate a BezierFit curve at a particular parameter value.
+     * Uses the Wu/Barsky heuristic to find bezier control points for region.
      *
-     * @param degree The degree of the bezier curve.
-     * @param V      Array of control points.
-     * @param t      Parametric value to find point for.
-     */
-    private static Point2D bezierII(int degree, Point2D[] V, double t) {
-        int i, j;
-        Point2D q;
-        /* Point on curve at parameter t	*/
-        Point2D[] vTemp;
-        /* Local copy of control points		*/
-
-        /* Copy array	*/
-        vTemp = new Point2D[degree + 1];
-        for (i = 0; i <= degree; i++) {
-            vTemp[i] = V[i];
-        }
-
-        /* Triangle computation	*/
-        for (i = 1; i <= degree; i++) {
-            for (j = 0; j <= degree - i; j++) {
-                vTemp[j] = new Point2D((1.0 - t) * vTemp[j].getX() + t * vTemp[j + 1].getX(),
-                        (1.0 - t) * vTemp[j].getY() + t * vTemp[j + 1].getY());
-            }
+     * @param d        Array of digitized points.
+     * @param first    Indice of first point in d.
+     * @param last     Indice of last point in d.
+     * @param tx1      Unit tangent vector at start point.
+     * @param ty1      Unit tangent vector at start point.
+     * @param tx2      Unit tangent vector at end point.
+     * @param ty2      Unit tangent vector at end point.
+     * @param bezCurve A cubic bezier curve consisting of 4 control points
+     *                 (output parameter, must be an array of 8)
+     */
+    private static void generateBezier(double @NonNull [] d, int first, int last, double tx1, double ty1, double tx2, double ty2, double @NonNull [] bezCurve) {
+        double dx = d[last * 2] - d[first * 2], dy = d[last * 2 + 1] - d[first * 2 + 1];
+        double dist = Math.sqrt((dx * dx) + (dy * dy)) / 3.0;
+
+        bezCurve[0] = d[first * 2];
+        bezCurve[1] = d[first * 2 + 1];
+        bezCurve[6] = d[last * 2];
+        bezCurve[7] = d[last * 2 + 1];
+        double len1 = Math.sqrt((tx1 * tx1) + (ty1 * ty1));
+        if (len1 != 0.0) {
+            tx1 *= dist / len1;
+            ty1 *= dist / len1;
         }
-
-        q = vTemp[0];
-        return q;
-    }
-
-
-    /**
-     * Return the distance between two points
-     */
-    private static double v2DistanceBetween2Points(@NonNull Point2D a, @NonNull Point2D b) {
-        return Math.sqrt(v2SquaredDistanceBetween2Points(a, b));
-    }
-
-    /**
-     * Return the distance between two points
-     */
-    private static double v2SquaredDistanceBetween2Points(@NonNull Point2D a, @NonNull Point2D b) {
-        double dx = a.getX() - b.getX();
-        double dy = a.getY() - b.getY();
-        return (dx * dx) + (dy * dy);
-    }
-
-    /**
-     * Scales the input vector to the new length and returns it.
-     */
-    private static @NonNull Point2D v2Scale(@NonNull Point2D v, double newlen) {
-        double len = v2Length(v);
-        double x = v.getX(), y = v.getY();
-        if (len != 0.0) {
-            x *= newlen / len;
-            y *= newlen / len;
+        double len2 = Math.sqrt((tx2 * tx2) + (ty2 * ty2));
+        if (len2 != 0.0) {
+            tx2 *= dist / len2;
+            ty2 *= dist / len2;
         }
-
-        return new Point2D(x, y);
+        bezCurve[2] = bezCurve[0] + tx1;
+        bezCurve[3] = bezCurve[1] + ty1;
+        bezCurve[4] = bezCurve[6] + tx2;
+        bezCurve[5] = bezCurve[7] + ty2;
     }
 
     /**
-     * Scales the input vector by the specified factor and returns it.
+     * Evaluates a linear bezier curve with de Casteljau's algorithm.
      */
-    private static @NonNull Point2D v2ScaleIII(@NonNull Point2D v, double s) {
-        Point2D result = new Point2D(v.getX() * s, v.getY() * s);
-        return result;
+    private static double linear(double v0, double v1, double t) {
+        return (1.0 - t) * v0 + t * v1;
     }
 
     /**
-     * Returns length of input vector.
+     * Evaluates a quadratic bezier curve with de Casteljau's algorithm.
      */
-    private static double v2Length(@NonNull Point2D a) {
-        return Math.sqrt(v2SquaredLength(a));
+    private static double quadratic(double v0, double v1, double v2, double t) {
+        return linear(linear(v0, v1, t), linear(v1, v2, t), t);
     }
 
     /**
-     * Returns squared length of input vector.
+     * Evaluates a cubic bezier curve with de Casteljau's algorithm.
      */
-    private static double v2SquaredLength(@NonNull Point2D a) {
-        return (a.getX() * a.getX()) + (a.getY() * a.getY());
+    private static double cubic(double v0, double v1, double v2, double v3, double t) {
+        double a0 = linear(v0, v1, t), a1 = linear(v1, v2, t), a2 = linear(v2, v3, t);
+        return linear(linear(a0, a1, t), linear(a1, a2, t), t);
     }
 
     /**
-     * Return vector sum c = a+b.
+     * Return the squared distance between two points
      */
-    private static @NonNull Point2D v2Add(@NonNull Point2D a, @NonNull Point2D b) {
-        return new Point2D(a.getX() + b.getX(),
-                a.getY() + b.getY());
+    private static double v2SquaredDistanceBetween2Points(@NonNull Point2D a, @NonNull Point2D b) {
+        double dx = a.getX() - b.getX();
+        double dy = a.getY() - b.getY();
+        return (dx * dx) + (dy * dy);
     }
 
     /**
-     * Return vector sum = a+b.
+     * Records the path elements of a fitted run, so that runs can be fitted
+     * independently of each other, and added to a builder later on.
      */
-    private static @NonNull Point2D v2AddII(@NonNull Point2D a, @NonNull Point2D b) {
-        return new Point2D(
-                a.getX() + b.getX(),
-                a.getY() + b.getY());
-    }
+    static class FittedRun {
+        private final double startX;
+        private final double startY;
+        private final int pointCount;
+        private final @NonNull IntArrayList ops = new IntArrayList();
+        private final @NonNull DoubleArrayList coords = new DoubleArrayList();
+        private double lastX;
+        private double lastY;
 
-    /**
-     * Negates the input vector and returns it.
-     */
-    private static @NonNull Point2D v2Negate(@NonNull Point2D v) {
-        return new Point2D(-v.getX(),
-                -v.getY());
-    }
-
-    /**
-     * Return the dot product of vectors a and b.
-     */
-    private static double v2Dot(@NonNull Point2D a, @NonNull Point2D b) {
-        return (a.getX() * b.getX()) + (a.getY() * b.getY());
-    }
+        FittedRun(double startX, double startY, int pointCount) {
+            this.startX = this.lastX = startX;
+            this.startY = this.lastY = startY;
+            this.pointCount = pointCount;
+        }
 
-    /**
-     * Normalizes the input vector and returns it.
-     */
-    private static @NonNull Point2D v2Normalize(@NonNull Point2D v) {
-        double len = v2Length(v);
-        if (len != 0.0) {
-            return new Point2D(v.getX() / len,
-                    v.getY() / len);
+        void lineTo(double x, double y) {
+            ops.addAsInt(PathIterator.SEG_LINETO);
+            coords.add(x);
+            coords.add(y);
+            lastX = x;
+            lastY = y;
         }
 
-        return v;
-    }
+        void curveTo(double x1, double y1, double x2, double y2, double x, double y) {
+            ops.addAsInt(PathIterator.SEG_CUBICTO);
+            coords.add(x1);
+            coords.add(y1);
+            coords.add(x2);
+            coords.add(y2);
+            coords.add(x);
+            coords.add(y);
+            lastX = x;
+            lastY = y;
+        }
 
-    /**
-     * Subtract Vector a from Vector b.
-     *
-     * @param a Vector a - the value is not changed by this method
-     * @param b Vector b - the value is not changed by this method
-     * @return Vector a subtracted by Vector v.
-     */
-    private static @NonNull Point2D v2SubII(@NonNull Point2D a, @NonNull Point2D b) {
-        Point2D c = new Point2D(a.getX() - b.getX(),
-                a.getY() - b.getY());
-        return (c);
+        /**
+         * Adds the recorded path elements to the builder.
+         *
+         * @param builder a builder
+         * @param first   whether this is the first run of the path
+         * @return whether the next run is still the first run of the path
+         */
+        boolean replayInto(@NonNull PathBuilder<?> builder, boolean first) {
+            if (pointCount == 0) {
+                return first;
+            }
+            if (first) {
+                builder.moveTo(startX, startY);
+            } else if (pointCount == 1) {
+                builder.lineTo(startX, startY);
+            }
+            for (int i = 0, j = 0, n = ops.size(); i < n; i++) {
+                if (ops.getAsInt(i) == PathIterator.SEG_LINETO) {
+                    builder.lineTo(coords.get(j), coords.get(j + 1));
+                    j += 2;
+                } else {
+                    builder.curveTo(coords.get(j), coords.get(j + 1), coords.get(j + 2), coords.get(j + 3),
+                            coords.get(j + 4), coords.get(j + 5));
+                    j += 6;
+                }
+            }
+            return false;
+        }
     }
 
     /**
-     * B0, B1, B2, B3 : BezierFit multipliers
-     */
-    private static double b0(double u) {
-        double tmp = 1.0 - u;
-        return (tmp * tmp * tmp);
-    }
-
-    private static double b1(double u) {
-        double tmp = 1.0 - u;
-        return (3 * u * (tmp * tmp));
-    }
-
-    private static double b2(double u) {
-        double tmp = 1.0 - u;
-        return (3 * u * u * tmp);
-    }
+     * Fits the runs {@code from..to} by recursively splitting the range
+     * in halves.
+     */
+    private static class FitTask extends RecursiveAction {
+        private static final long serialVersionUID = 0L;
+        private final double @NonNull [] xy;
+        private final int n;
+        private final @NonNull IntArrayList corners;
+        private final double error;
+        private final FittedRun @NonNull [] runs;
+        private final int from;
+        private final int to;
+
+        FitTask(double @NonNull [] xy, int n, @NonNull IntArrayList corners, double error,
+                FittedRun @NonNull [] runs, int from, int to) {
+            this.xy = xy;
+            this.n = n;
+            this.corners = corners;
+            this.error = error;
+            this.runs = runs;
+            this.from = from;
+            this.to = to;
+        }
 
-    private static double b3(double u) {
-        return (u * u * u);
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                runs[from] = fitRun(xy, runStart(corners, from), runEnd(corners, from, n), error,
+                        Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new FitTask(xy, n, corners, error, runs, from, mid),
+                        new FitTask(xy, n, corners, error, runs, mid, to));
+            }
+        }
     }
 }
@@ -0,0 +1,191 @@
+/*
+ * @(#)IncrementalBezierFit.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.geom;
+
+import org.jhotdraw8.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Fits a bezier path to digitized points while the points are still
+ * arriving.
+ * <p>
+ * Points are added with {@link #addPoint}. As soon as a corner point is
+ * detected, the run of points up to the corner is fitted and added to the
+ * builder, and the points before the corner are dropped. Thus the work per
+ * added point is bounded by the length of the current run, and not by the
+ * total number of points.
+ * <p>
+ * The path is identical to the path that
+ * {@link BezierFit#fitBezierPath(PathBuilder, double[], int, double)}
+ * produces for all points, unless a maximal run length is specified.
+ * Runs that exceed the maximal run length are split at a point where no corner
+ * has been detected. Both parts use the tangent at the split point, so that the path
+ * stays G1 continuous there.
+ * <p>
+ * This class is not thread-safe.
+ */
+public class IncrementalBezierFit {
+    private final @NonNull PathBuilder<?> builder;
+    private final double error;
+    private final double squaredDistance;
+    private final int maxRunLength;
+
+    /**
+     * The points of the current run, given as interleaved x- and
+     * y-coordinates. The first point is the start point of the run.
+     */
+    private double @NonNull [] xy = new double[64];
+    private int size;
+    /**
+     * Index of the previous corner in {@link #xy}, or -1.
+     */
+    private int previousCorner = -1;
+    /**
+     * Index of the next point that needs to be classified.
+     */
+    private int scanIndex = 1;
+    /**
+     * Unit tangent at the start of the current run, or NaN if it must be
+     * estimated from the points.
+     */
+    private double startTx = Double.NaN;
+    private double startTy = Double.NaN;
+    private boolean first = true;
+    private boolean finished;
+
+    /**
+     * Creates a new instance without a maximal run length.
+     *
+     * @param builder the builder for the bezier path
+     * @param error   the maximal allowed error between the bezier path and the
+     *                digitized points.
+     */
+    public IncrementalBezierFit(@NonNull PathBuilder<?> builder, double error) {
+        this(builder, error, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param builder      the builder for the bezier path
+     * @param error        the maximal allowed error between the bezier path and the
+     *                     digitized points.
+     * @param maxRunLength the maximal number of pending points, must be at
+     *                     least 3
+     */
+    public IncrementalBezierFit(@NonNull PathBuilder<?> builder, double error, int maxRunLength) {
+        if (maxRunLength < 3) {
+            throw new IllegalArgumentException("maxRunLength must be >= 3, maxRunLength=" + maxRunLength);
+        }
+        this.builder = builder;
+        this.error = error;
+        double minDistance = error * error;
+        this.squaredDistance = minDistance * minDistance;
+        this.maxRunLength = maxRunLength;
+    }
+
+    /**
+     * Adds a digitized point. Fitted segments are added to the builder as
+     * soon as they are final.
+     *
+     * @param x the x-coordinate of the point
+     * @param y the y-coordinate of the point
+     * @throws IllegalStateException if {@link #finish()} has been called
+     */
+    public void addPoint(double x, double y) {
+        if (finished) {
+            throw new IllegalStateException("finished");
+        }
+        if (size * 2 == xy.length) {
+            xy = Arrays.copyOf(xy, xy.length * 2);
+        }
+        xy[size * 2] = x;
+        xy[size * 2 + 1] = y;
+        size++;
+        scan(false);
+    }
+
+    /**
+     * Fits the remaining points and adds them to the builder.
+     * <p>
+     * No more points can be added after this method has been called.
+     */
+    public void finish() {
+        if (!finished) {
+            finished = true;
+            scan(true);
+            if (size > 0) {
+                emitRun(size - 1, Double.NaN, Double.NaN);
+                size = 0;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of points that have been added, but whose
+     * segments have not been added to the builder yet.
+     *
+     * @return the number of pending points
+     */
+    public int getPendingPointCount() {
+        return size;
+    }
+
+    /**
+     * Classifies the pending points, and emits a run at each corner.
+     *
+     * @param last whether no more points will arrive; in this case, points
+     *             that can not be classified are not corners
+     */
+    private void scan(boolean last) {
+        while (scanIndex < size - 1) {
+            int c = BezierFit.classifyCorner(xy, size, scanIndex, previousCorner, squaredDistance, BezierFit.CORNER_ANGLE);
+            if (c == BezierFit.CORNER) {
+                emitRun(scanIndex, Double.NaN, Double.NaN);
+            } else if (scanIndex >= maxRunLength - 1 || c == BezierFit.UNDECIDED && size >= maxRunLength) {
+                splitRun(scanIndex);
+            } else if (c == BezierFit.NO_CORNER || last) {
+                scanIndex++;
+            } else {
+                // we need more points to decide
+                return;
+            }
+        }
+    }
+
+    /**
+     * Splits the current run at a smooth point.
+     */
+    private void splitRun(int split) {
+        double v1x = xy[split * 2 - 2] - xy[split * 2], v1y = xy[split * 2 - 1] - xy[split * 2 + 1];
+        double v2x = xy[split * 2] - xy[split * 2 + 2], v2y = xy[split * 2 + 1] - xy[split * 2 + 3];
+        double cx = (v1x + v2x) / 2.0, cy = (v1y + v2y) / 2.0;
+        double len = Math.sqrt((cx * cx) + (cy * cy));
+        if (len != 0.0) {
+            cx = cx / len;
+            cy = cy / len;
+        }
+        emitRun(split, cx, cy);
+        startTx = -cx;
+        startTy = -cy;
+    }
+
+    /**
+     * Fits the points up to the specified index, adds them to the builder,
+     * and drops them except for the point at the index, which becomes the
+     * start point of the next run.
+     */
+    private void emitRun(int end, double tx2, double ty2) {
+        BezierFit.FittedRun run = BezierFit.fitRun(xy, 0, end, error, startTx, startTy, tx2, ty2);
+        first = run.replayInto(builder, first);
+        startTx = startTy = Double.NaN;
+
+        System.arraycopy(xy, end * 2, xy, 0, (size - end) * 2);
+        size -= end;
+        previousCorner = 0;
+        scanIndex = 1;
+    }
+}
@@ -7,7 +7,7 @@ package org.jhotdraw8.geom;
 
 import org.jhotdraw8.annotation.NonNull;
 
-import java.util.function.ToDoubleFunction;
+import java.util.function.DoubleUnaryOperator;
 
 import static java.lang.Math.abs;
 
@@ -38,7 +38,7 @@ public class IntegralAlgorithms {
      * @param epsilon the desired precision
      * @return the estimated integral
      */
-    static double rombergQuadrature(ToDoubleFunction<Double> f, double t0, double t1, double epsilon) {
+    static double rombergQuadrature(@NonNull DoubleUnaryOperator f, double t0, double t1, double epsilon) {
         int maxSteps = 5;
         double h = t1 - t0;
 
@@ -79,7 +79,7 @@ public class IntegralAlgorithms {
      * @param max  the upper bound of the interval
      * @return the area under the curve
      */
-    public static double simpson(@NonNull ToDoubleFunction<Double> func, double min, double max, double eps) {
+    public static double simpson(@NonNull DoubleUnaryOperator func, double min, double max, double eps) {
 
         double range = max - min;
         double st = 0.5 * range * (func.applyAsDouble(min) + func.applyAsDouble(max));
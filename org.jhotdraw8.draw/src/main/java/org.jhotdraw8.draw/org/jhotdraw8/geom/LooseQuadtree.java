@@ -0,0 +1,383 @@
+/*
+ * @(#)LooseQuadtree.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.geom;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * A loose quadtree that maps elements to axis-aligned bounding boxes.
+ * <p>
+ * Unlike {@link org.jhotdraw8.geom.contour.StaticSpatialIndex}, this
+ * spatial index supports incremental insertion, update and removal of
+ * elements.
+ * <p>
+ * Each element is stored in exactly one cell of the tree. The cell is
+ * chosen by the center and by the size of the bounding box of the element.
+ * The bounds of a cell are 'loose': they extend by half of the cell size
+ * on each side. Therefore, an element never needs to be split up
+ * over multiple cells, and an update of its bounding box is in
+ * {@code O(depth)}.
+ * <p>
+ * The tree grows automatically if an element is added outside of its
+ * current bounds. Elements with non-finite bounding boxes are stored
+ * separately and are returned by all queries.
+ * <p>
+ * Elements are compared by identity.
+ * <p>
+ * References:
+ * <dl>
+ *     <dt>Thatcher Ulrich, Loose Octrees, Game Programming Gems, 2000.</dt>
+ *     <dd><a href="http://tulrich.com/geekstuff/partitioning.html">tulrich.com</a></dd>
+ * </dl>
+ *
+ * @param <E> the element type
+ */
+public class LooseQuadtree<E> {
+    /**
+     * The default half size of the root cell.
+     */
+    private static final double DEFAULT_HALF_SIZE = 512.0;
+    /**
+     * The maximal depth that is used when a new element is inserted
+     * into the tree.
+     */
+    private static final int MAX_DEPTH = 24;
+    /**
+     * The maximal number of times that the tree may grow for inserting
+     * a single element.
+     */
+    private static final int MAX_GROWTH = 64;
+
+    private final double initialHalfSize;
+    private final @NonNull Map<E, Item<E>> items = new IdentityHashMap<>();
+    private final @NonNull ArrayList<Item<E>> unbounded = new ArrayList<>();
+    private @Nullable Cell<E> root;
+
+    /**
+     * Creates a new instance.
+     */
+    public LooseQuadtree() {
+        this(DEFAULT_HALF_SIZE);
+    }
+
+    /**
+     * Creates a new instance with the specified initial half size of the
+     * root cell.
+     *
+     * @param initialHalfSize the initial half size of the root cell
+     */
+    public LooseQuadtree(double initialHalfSize) {
+        if (!(initialHalfSize > 0) || !Double.isFinite(initialHalfSize)) {
+            throw new IllegalArgumentException("initialHalfSize (" + initialHalfSize + ") must be a finite value greater than 0");
+        }
+        this.initialHalfSize = initialHalfSize;
+    }
+
+    /**
+     * Adds the specified element, or updates its bounding box if the
+     * element is already in the tree.
+     *
+     * @param element an element
+     * @param minX    the minimal x coordinate of the bounding box
+     * @param minY    the minimal y coordinate of the bounding box
+     * @param maxX    the maximal x coordinate of the bounding box
+     * @param maxY    the maximal y coordinate of the bounding box
+     */
+    public void put(@NonNull E element, double minX, double minY, double maxX, double maxY) {
+        Item<E> item = items.get(element);
+        if (item == null) {
+            item = new Item<>(element);
+            items.put(element, item);
+        } else {
+            if (item.minX == minX && item.minY == minY && item.maxX == maxX && item.maxY == maxY) {
+                return;
+            }
+            unlink(item);
+        }
+        item.minX = Math.min(minX, maxX);
+        item.minY = Math.min(minY, maxY);
+        item.maxX = Math.max(minX, maxX);
+        item.maxY = Math.max(minY, maxY);
+        link(item);
+    }
+
+    /**
+     * Removes the specified element.
+     *
+     * @param element an element
+     * @return true if the element was in the tree
+     */
+    public boolean remove(@NonNull E element) {
+        Item<E> item = items.remove(element);
+        if (item == null) {
+            return false;
+        }
+        unlink(item);
+        return true;
+    }
+
+    /**
+     * Returns true if the tree contains the specified element.
+     *
+     * @param element an element
+     * @return true if the element is in the tree
+     */
+    public boolean contains(@NonNull E element) {
+        return items.containsKey(element);
+    }
+
+    /**
+     * Removes all elements.
+     */
+    public void clear() {
+        items.clear();
+        unbounded.clear();
+        root = null;
+    }
+
+    /**
+     * Returns the number of elements.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return items.size();
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    /**
+     * Adds all elements whose bounding box intersects with the specified
+     * rectangle to the provided collection.
+     *
+     * @param minX    the minimal x coordinate of the rectangle
+     * @param minY    the minimal y coordinate of the rectangle
+     * @param maxX    the maximal x coordinate of the rectangle
+     * @param maxY    the maximal y coordinate of the rectangle
+     * @param results the results
+     */
+    public void query(double minX, double minY, double maxX, double maxY, @NonNull Collection<? super E> results) {
+        visitQuery(minX, minY, maxX, maxY, e -> {
+            results.add(e);
+            return true;
+        });
+    }
+
+    /**
+     * Invokes the visitor for each element whose bounding box intersects with
+     * the specified rectangle. The query stops early if the visitor returns
+     * false.
+     *
+     * @param minX    the minimal x coordinate of the rectangle
+     * @param minY    the minimal y coordinate of the rectangle
+     * @param maxX    the maximal x coordinate of the rectangle
+     * @param maxY    the maximal y coordinate of the rectangle
+     * @param visitor the visitor
+     */
+    public void visitQuery(double minX, double minY, double maxX, double maxY, @NonNull Predicate<? super E> visitor) {
+        for (Item<E> item : unbounded) {
+            if (!visitor.test(item.element)) {
+                return;
+            }
+        }
+        if (root == null) {
+            return;
+        }
+        ArrayDeque<Cell<E>> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Cell<E> cell = stack.pop();
+            double looseHalfSize = cell.halfSize * 2;
+            if (maxX < cell.cx - looseHalfSize || maxY < cell.cy - looseHalfSize
+                    || minX > cell.cx + looseHalfSize || minY > cell.cy + looseHalfSize) {
+                continue;
+            }
+            for (int i = 0, n = cell.items.size(); i < n; i++) {
+                Item<E> item = cell.items.get(i);
+                if (maxX < item.minX || maxY < item.minY || minX > item.maxX || minY > item.maxY) {
+                    continue;
+                }
+                if (!visitor.test(item.element)) {
+                    return;
+                }
+            }
+            if (cell.children != null) {
+                for (Cell<E> child : cell.children) {
+                    if (child != null) {
+                        stack.push(child);
+                    }
+                }
+            }
+        }
+    }
+
+    private void link(@NonNull Item<E> item) {
+        double w = Math.max(item.maxX - item.minX, item.maxY - item.minY);
+        double x = (item.minX + item.maxX) * 0.5;
+        double y = (item.minY + item.maxY) * 0.5;
+        if (!Double.isFinite(w) || !Double.isFinite(x) || !Double.isFinite(y)) {
+            addToUnbounded(item);
+            return;
+        }
+
+        if (root == null || root.count == 0) {
+            double halfSize = initialHalfSize;
+            while (halfSize < w) {
+                halfSize *= 2;
+            }
+            root = new Cell<>(null, x, y, halfSize);
+        }
+        for (int i = 0; !root.fits(x, y, w); i++) {
+            if (i == MAX_GROWTH) {
+                addToUnbounded(item);
+                return;
+            }
+            grow(x, y);
+        }
+
+        Cell<E> cell = root;
+        for (int depth = 0; depth < MAX_DEPTH && w <= cell.halfSize; depth++) {
+            int quadrant = cell.quadrantOf(x, y);
+            if (cell.children == null) {
+                @SuppressWarnings("unchecked")
+                Cell<E>[] children = (Cell<E>[]) new Cell<?>[4];
+                cell.children = children;
+            }
+            Cell<E> child = cell.children[quadrant];
+            if (child == null) {
+                double h = cell.halfSize * 0.5;
+                child = new Cell<>(cell,
+                        (quadrant & 1) == 0 ? cell.cx - h : cell.cx + h,
+                        (quadrant & 2) == 0 ? cell.cy - h : cell.cy + h,
+                        h);
+                cell.children[quadrant] = child;
+            }
+            cell = child;
+        }
+
+        item.cell = cell;
+        item.index = cell.items.size();
+        cell.items.add(item);
+        for (Cell<E> c = cell; c != null; c = c.parent) {
+            c.count++;
+        }
+    }
+
+    private void addToUnbounded(@NonNull Item<E> item) {
+        item.cell = null;
+        item.index = unbounded.size();
+        unbounded.add(item);
+    }
+
+    /**
+     * Grows the root cell into the direction of the specified point.
+     */
+    private void grow(double x, double y) {
+        Cell<E> oldRoot = root;
+        assert oldRoot != null;
+        double h = oldRoot.halfSize;
+        Cell<E> newRoot = new Cell<>(null,
+                x < oldRoot.cx ? oldRoot.cx - h : oldRoot.cx + h,
+                y < oldRoot.cy ? oldRoot.cy - h : oldRoot.cy + h,
+                h * 2);
+        @SuppressWarnings("unchecked")
+        Cell<E>[] children = (Cell<E>[]) new Cell<?>[4];
+        newRoot.children = children;
+        children[newRoot.quadrantOf(oldRoot.cx, oldRoot.cy)] = oldRoot;
+        newRoot.count = oldRoot.count;
+        oldRoot.parent = newRoot;
+        root = newRoot;
+    }
+
+    private void unlink(@NonNull Item<E> item) {
+        Cell<E> cell = item.cell;
+        ArrayList<Item<E>> list = cell == null ? unbounded : cell.items;
+        Item<E> last = list.remove(list.size() - 1);
+        if (last != item) {
+            list.set(item.index, last);
+            last.index = item.index;
+        }
+        item.cell = null;
+        if (cell == null) {
+            return;
+        }
+
+        // Decrement counts and prune empty cells
+        for (Cell<E> c = cell; c != null; c = c.parent) {
+            c.count--;
+            if (c.count == 0 && c.parent != null) {
+                Cell<E>[] siblings = c.parent.children;
+                assert siblings != null;
+                for (int i = 0; i < siblings.length; i++) {
+                    if (siblings[i] == c) {
+                        siblings[i] = null;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private static class Item<E> {
+        private final @NonNull E element;
+        private double minX, minY, maxX, maxY;
+        private @Nullable Cell<E> cell;
+        private int index;
+
+        private Item(@NonNull E element) {
+            this.element = element;
+        }
+    }
+
+    private static class Cell<E> {
+        private @Nullable Cell<E> parent;
+        /**
+         * The center of the cell.
+         */
+        private final double cx, cy;
+        /**
+         * Half of the side length of the cell. The loose bounds of the
+         * cell have twice this size.
+         */
+        private final double halfSize;
+        private final @NonNull ArrayList<Item<E>> items = new ArrayList<>(0);
+        private @Nullable Cell<E>[] children;
+        /**
+         * The number of items in this cell and in all its descendant cells.
+         */
+        private int count;
+
+        private Cell(@Nullable Cell<E> parent, double cx, double cy, double halfSize) {
+            this.parent = parent;
+            this.cx = cx;
+            this.cy = cy;
+            this.halfSize = halfSize;
+        }
+
+        /**
+         * Returns true if an item with the specified center and size
+         * fits into the loose bounds of this cell.
+         */
+        private boolean fits(double x, double y, double w) {
+            return w <= halfSize * 2
+                    && cx - halfSize <= x && x <= cx + halfSize
+                    && cy - halfSize <= y && y <= cy + halfSize;
+        }
+
+        private int quadrantOf(double x, double y) {
+            return (x < cx ? 0 : 1) | (y < cy ? 0 : 2);
+        }
+    }
+}
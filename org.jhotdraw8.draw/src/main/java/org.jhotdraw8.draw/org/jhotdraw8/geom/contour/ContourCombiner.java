@@ -0,0 +1,644 @@
+/*
+ * @(#)ContourCombiner.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.geom.contour;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.collection.IntArrayDeque;
+import org.jhotdraw8.collection.IntArrayList;
+import org.jhotdraw8.geom.Geom;
+
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import static org.jhotdraw8.geom.contour.BulgeConversionFunctions.arcRadiusAndCenter;
+import static org.jhotdraw8.geom.contour.ContourIntersections.findIntersects;
+import static org.jhotdraw8.geom.contour.PlineVertex.closestPointOnSeg;
+import static org.jhotdraw8.geom.contour.PlineVertex.segLength;
+import static org.jhotdraw8.geom.contour.PlineVertex.segMidpoint;
+import static org.jhotdraw8.geom.contour.PlineVertex.splitAtPoint;
+import static org.jhotdraw8.geom.contour.PolyArcPath.createApproxSpatialIndex;
+
+/**
+ * Performs boolean operations on closed polylines.
+ * <p>
+ * A region is a list of closed polylines, in which the outlines are
+ * counter clockwise and the holes are clockwise. A point is inside a
+ * region if the sum of the winding numbers of the polylines at this
+ * point is not zero.
+ * <p>
+ * The boundaries of two regions are sliced at their intersects. Each slice
+ * is classified as inside, outside or coincident with the other region,
+ * and the slices that are needed for the boolean operation are stitched
+ * together into closed polylines.
+ * <p>
+ * All methods of this class are thread-safe.
+ */
+public class ContourCombiner {
+    /**
+     * Slices are classified by a point on them. If the distance of this
+     * point from the boundary of the other region is below this threshold,
+     * the slice is coincident with the boundary.
+     */
+    private static final double COINCIDENT_THRESHOLD = Utils.realPrecision;
+    /**
+     * Regions with fewer polylines are combined in the current thread
+     * by {@link #union(List, ForkJoinPool)}.
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 16;
+
+    private static final int OUTSIDE = 0;
+    private static final int INSIDE = 1;
+    private static final int COINCIDENT_SAME_DIRECTION = 2;
+    private static final int COINCIDENT_OPPOSITE_DIRECTION = 3;
+
+    private static final int DISCARD = 0;
+    private static final int KEEP = 1;
+    private static final int KEEP_INVERTED = 2;
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private ContourCombiner() {
+    }
+
+    /**
+     * Combines two closed polylines.
+     * <p>
+     * The polylines may have any orientation, and they are not modified.
+     *
+     * @param pline1 the first polyline
+     * @param pline2 the second polyline
+     * @param mode   the boolean operation
+     * @return the result
+     * @throws IllegalArgumentException if a polyline is not closed
+     */
+    public static @NonNull PlineCombineResult combine(@NonNull PolyArcPath pline1, @NonNull PolyArcPath pline2,
+                                                      @NonNull PlineCombineMode mode) {
+        return combineRegions(toRegion(List.of(pline1)), toRegion(List.of(pline2)), mode);
+    }
+
+    /**
+     * Combines two regions.
+     * <p>
+     * In each region, the outlines must be counter clockwise, and the holes
+     * must be clockwise, as in {@link PlineCombineResult#getAll()}. The
+     * polylines of a region must not intersect each other.
+     *
+     * @param region1 the first region
+     * @param region2 the second region
+     * @param mode    the boolean operation
+     * @return the result
+     * @throws IllegalArgumentException if a polyline is not closed
+     */
+    public static @NonNull PlineCombineResult combine(@NonNull List<PolyArcPath> region1,
+                                                      @NonNull List<PolyArcPath> region2,
+                                                      @NonNull PlineCombineMode mode) {
+        return combineRegions(copyOf(region1, false), copyOf(region2, false), mode);
+    }
+
+    /**
+     * Computes the union of the specified closed polylines.
+     * <p>
+     * The polylines may have any orientation, and they are not modified.
+     *
+     * @param plines the polylines
+     * @return the result
+     * @throws IllegalArgumentException if a polyline is not closed
+     */
+    public static @NonNull PlineCombineResult union(@NonNull List<PolyArcPath> plines) {
+        List<PolyArcPath> region = new UnionTask(toRegionList(plines), 0, plines.size(), Integer.MAX_VALUE).compute();
+        return toResult(region);
+    }
+
+    /**
+     * Computes the union of the specified closed polylines in parallel.
+     * <p>
+     * The polylines are unioned with divide-and-conquer: each half of the
+     * list is unioned in a separate task, and then the two results are
+     * unioned.
+     *
+     * @param plines the polylines
+     * @param pool   the pool that executes the tasks
+     * @return the result
+     * @throws IllegalArgumentException if a polyline is not closed
+     */
+    public static @NonNull PlineCombineResult union(@NonNull List<PolyArcPath> plines, @NonNull ForkJoinPool pool) {
+        List<PolyArcPath> region = pool.invoke(new UnionTask(toRegionList(plines), 0, plines.size(), SEQUENTIAL_THRESHOLD));
+        return toResult(region);
+    }
+
+    private static @NonNull PlineCombineResult combineRegions(@NonNull List<PolyArcPath> region1,
+                                                              @NonNull List<PolyArcPath> region2,
+                                                              @NonNull PlineCombineMode mode) {
+        if (mode == PlineCombineMode.XOR) {
+            // copy the regions before they are modified by the first operation
+            List<PolyArcPath> region1Copy = copyOf(region1, false);
+            List<PolyArcPath> region2Copy = copyOf(region2, false);
+            PlineCombineResult r1 = combineRegions(region1, region2, PlineCombineMode.Exclude);
+            PlineCombineResult r2 = combineRegions(region2Copy, region1Copy, PlineCombineMode.Exclude);
+            r1.getRemaining().addAll(r2.getRemaining());
+            r1.getSubtracted().addAll(r2.getSubtracted());
+            return r1;
+        }
+        return toResult(combineRegionsToList(region1, region2, mode));
+    }
+
+    /**
+     * Combines two regions.
+     *
+     * @param region1 the first region, the polylines will be modified
+     * @param region2 the second region, the polylines will be modified
+     * @param mode    the boolean operation, must not be XOR
+     * @return the resulting region
+     */
+    private static @NonNull List<PolyArcPath> combineRegionsToList(@NonNull List<PolyArcPath> region1,
+                                                                   @NonNull List<PolyArcPath> region2,
+                                                                   @NonNull PlineCombineMode mode) {
+        if (region1.isEmpty() || region2.isEmpty()) {
+            switch (mode) {
+            case Union:
+                region1.addAll(region2);
+                return region1;
+            case Exclude:
+                return region1;
+            default:
+                return new ArrayList<>();
+            }
+        }
+
+        Region r1 = new Region(region1);
+        Region r2 = new Region(region2);
+        List<Map<Integer, List<Point2D.Double>>> intersects1 = new ArrayList<>(Collections.nCopies(region1.size(), null));
+        List<Map<Integer, List<Point2D.Double>>> intersects2 = new ArrayList<>(Collections.nCopies(region2.size(), null));
+        findAllIntersects(r1, r2, intersects1, intersects2);
+
+        List<PolyArcPath> slices = new ArrayList<>();
+        List<PolyArcPath> result = new ArrayList<>();
+        addSlices(r1, intersects1, r2, true, mode, slices, result);
+        addSlices(r2, intersects2, r1, false, mode, slices, result);
+        stitchSlices(slices, result);
+        return result;
+    }
+
+    /**
+     * Finds all intersects between the polylines of two regions.
+     */
+    private static void findAllIntersects(@NonNull Region r1, @NonNull Region r2,
+                                          @NonNull List<Map<Integer, List<Point2D.Double>>> intersects1,
+                                          @NonNull List<Map<Integer, List<Point2D.Double>>> intersects2) {
+        IntArrayList candidates = new IntArrayList();
+        IntArrayDeque queryStack = new IntArrayDeque(8);
+        PlineIntersectsResult intrs = new PlineIntersectsResult();
+        for (int j = 0, n = r2.plines.size(); j < n; j++) {
+            candidates.clear();
+            r1.index.query(r2.minX(j), r2.minY(j), r2.maxX(j), r2.maxY(j), candidates, queryStack);
+            PolyArcPath pline2 = r2.plines.get(j);
+            for (int i : candidates) {
+                intrs.intersects.clear();
+                intrs.coincidentIntersects.clear();
+                findIntersects(r1.plines.get(i), pline2, r1.segmentIndexes[i], intrs);
+                if (intrs.intersects.isEmpty() && intrs.coincidentIntersects.isEmpty()) {
+                    continue;
+                }
+                Map<Integer, List<Point2D.Double>> lookup1 = intersects1.get(i);
+                if (lookup1 == null) {
+                    intersects1.set(i, lookup1 = new TreeMap<>());
+                }
+                Map<Integer, List<Point2D.Double>> lookup2 = intersects2.get(j);
+                if (lookup2 == null) {
+                    intersects2.set(j, lookup2 = new TreeMap<>());
+                }
+                for (PlineIntersect intr : intrs.intersects) {
+                    lookup1.computeIfAbsent(intr.sIndex1, k -> new ArrayList<>()).add(intr.pos);
+                    lookup2.computeIfAbsent(intr.sIndex2, k -> new ArrayList<>()).add(intr.pos);
+                }
+                for (PlineCoincidentIntersect intr : intrs.coincidentIntersects) {
+                    lookup1.computeIfAbsent(intr.sIndex1, k -> new ArrayList<>()).add(intr.point1);
+                    lookup1.computeIfAbsent(intr.sIndex1, k -> new ArrayList<>()).add(intr.point2);
+                    lookup2.computeIfAbsent(intr.sIndex2, k -> new ArrayList<>()).add(intr.point1);
+                    lookup2.computeIfAbsent(intr.sIndex2, k -> new ArrayList<>()).add(intr.point2);
+                }
+            }
+        }
+    }
+
+    /**
+     * Slices the polylines of a region at their intersects, classifies the
+     * slices against the other region, and adds the slices that are needed
+     * for the boolean operation.
+     *
+     * @param region     the region
+     * @param intersects the intersects of the polylines of the region
+     * @param other      the other region
+     * @param isFirst    whether the region is the first operand
+     * @param mode       the boolean operation
+     * @param slices     open slices are added to this list
+     * @param closed     polylines that have no intersects are added to this list
+     */
+    private static void addSlices(@NonNull Region region, @NonNull List<Map<Integer, List<Point2D.Double>>> intersects,
+                                  @NonNull Region other, boolean isFirst, @NonNull PlineCombineMode mode,
+                                  @NonNull List<PolyArcPath> slices, @NonNull List<PolyArcPath> closed) {
+        List<PolyArcPath> plineSlices = new ArrayList<>();
+        for (int i = 0, n = region.plines.size(); i < n; i++) {
+            PolyArcPath pline = region.plines.get(i);
+            plineSlices.clear();
+            Map<Integer, List<Point2D.Double>> intersectsLookup = intersects.get(i);
+            if (intersectsLookup == null) {
+                plineSlices.add(pline);
+            } else {
+                sliceAtIntersects(pline, intersectsLookup, plineSlices);
+            }
+            for (PolyArcPath slice : plineSlices) {
+                switch (selectSlice(isFirst, classifySlice(slice, other), mode)) {
+                case KEEP_INVERTED:
+                    PolyArcPath.invertDirection(slice);
+                    // fall through
+                case KEEP:
+                    (slice.isClosed() ? closed : slices).add(slice);
+                    break;
+                default:
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Decides what to do with a slice.
+     *
+     * @param isFirst        whether the slice belongs to the first operand
+     * @param classification the classification of the slice against the
+     *                       other operand
+     * @param mode           the boolean operation
+     * @return {@link #DISCARD}, {@link #KEEP} or {@link #KEEP_INVERTED}
+     */
+    private static int selectSlice(boolean isFirst, int classification, @NonNull PlineCombineMode mode) {
+        switch (mode) {
+        case Union:
+            return classification == OUTSIDE
+                    || isFirst && classification == COINCIDENT_SAME_DIRECTION ? KEEP : DISCARD;
+        case Intersect:
+            return classification == INSIDE
+                    || isFirst && classification == COINCIDENT_SAME_DIRECTION ? KEEP : DISCARD;
+        case Exclude:
+            if (isFirst) {
+                return classification == OUTSIDE
+                        || classification == COINCIDENT_OPPOSITE_DIRECTION ? KEEP : DISCARD;
+            }
+            return classification == INSIDE ? KEEP_INVERTED : DISCARD;
+        default:
+            throw new UnsupportedOperationException("mode " + mode);
+        }
+    }
+
+    /**
+     * Slices a closed polyline at the specified intersects into open
+     * polylines. Slices with zero length are skipped.
+     */
+    private static void sliceAtIntersects(@NonNull PolyArcPath pline,
+                                          @NonNull Map<Integer, List<Point2D.Double>> intersectsLookup,
+                                          @NonNull List<PolyArcPath> result) {
+        // sort the intersects by segment and by distance from the start vertex,
+        // and flatten them into one list in the order of the path
+        IntArrayList segments = new IntArrayList();
+        List<Point2D.Double> points = new ArrayList<>();
+        for (Map.Entry<Integer, List<Point2D.Double>> entry : intersectsLookup.entrySet()) {
+            Point2D.Double startPos = pline.get(entry.getKey()).pos();
+            entry.getValue().sort(Comparator.comparingDouble((Point2D.Double si) -> si.distanceSq(startPos)));
+            for (Point2D.Double p : entry.getValue()) {
+                segments.addAsInt(entry.getKey());
+                points.add(p);
+            }
+        }
+
+        for (int k = 0, n = segments.size(); k < n; k++) {
+            int startSeg = segments.getAsInt(k);
+            Point2D.Double startPoint = points.get(k);
+            int endSeg = segments.getAsInt((k + 1) % n);
+            Point2D.Double endPoint = points.get((k + 1) % n);
+
+            PolyArcPath slice = new PolyArcPath();
+            PlineVertex segEnd = pline.get(Utils.nextWrappingIndex(startSeg, pline));
+            PlineVertex first = new PlineVertex(startPoint,
+                    splitAtPoint(pline.get(startSeg), segEnd, startPoint).splitVertex.bulge());
+            slice.addVertex(first);
+            if (k + 1 < n && endSeg == startSeg) {
+                // the slice ends on the same segment
+                first.bulge(splitAtPoint(first, segEnd, endPoint).updatedStart.bulge());
+            } else {
+                int index = Utils.nextWrappingIndex(startSeg, pline);
+                while (true) {
+                    PlineVertex v = pline.get(index);
+                    addOrReplaceIfSamePos(slice, new PlineVertex(v.getX(), v.getY(), v.bulge()));
+                    if (index == endSeg) {
+                        break;
+                    }
+                    index = Utils.nextWrappingIndex(index, pline);
+                }
+                PlineVertex last = slice.lastVertex();
+                last.bulge(splitAtPoint(last, pline.get(Utils.nextWrappingIndex(endSeg, pline)), endPoint)
+                        .updatedStart.bulge());
+            }
+            addOrReplaceIfSamePos(slice, new PlineVertex(endPoint, 0.0));
+
+            if (slice.size() > 1 && slice.getPathLength() > COINCIDENT_THRESHOLD) {
+                result.add(slice);
+            }
+        }
+    }
+
+    /**
+     * Classifies a slice against a region.
+     *
+     * @param slice  a slice
+     * @param region a region
+     * @return {@link #OUTSIDE}, {@link #INSIDE},
+     * {@link #COINCIDENT_SAME_DIRECTION} or {@link #COINCIDENT_OPPOSITE_DIRECTION}
+     */
+    private static int classifySlice(@NonNull PolyArcPath slice, @NonNull Region region) {
+        // classify the slice by the mid point of its longest segment
+        int segCount = slice.isClosed() ? slice.size() : slice.size() - 1;
+        int longest = 0;
+        double longestLength = -1;
+        for (int i = 0; i < segCount; i++) {
+            double length = segLength(slice.get(i), slice.get(Utils.nextWrappingIndex(i, slice)));
+            if (length > longestLength) {
+                longest = i;
+                longestLength = length;
+            }
+        }
+        PlineVertex v1 = slice.get(longest);
+        PlineVertex v2 = slice.get(Utils.nextWrappingIndex(longest, slice));
+        Point2D.Double point = segMidpoint(v1, v2);
+        final double px = point.getX(), py = point.getY();
+
+        IntArrayList candidates = new IntArrayList();
+        IntArrayDeque queryStack = new IntArrayDeque(8);
+        region.index.query(px - COINCIDENT_THRESHOLD, py - COINCIDENT_THRESHOLD,
+                px + COINCIDENT_THRESHOLD, py + COINCIDENT_THRESHOLD, candidates, queryStack);
+
+        // test if the point is on the boundary of the region
+        IntArrayList segments = new IntArrayList();
+        for (int i : candidates) {
+            PolyArcPath pline = region.plines.get(i);
+            segments.clear();
+            region.segmentIndexes[i].query(px - COINCIDENT_THRESHOLD, py - COINCIDENT_THRESHOLD,
+                    px + COINCIDENT_THRESHOLD, py + COINCIDENT_THRESHOLD, segments, queryStack);
+            for (int s : segments) {
+                PlineVertex u1 = pline.get(s);
+                PlineVertex u2 = pline.get(Utils.nextWrappingIndex(s, pline));
+                Point2D.Double closest = closestPointOnSeg(u1, u2, point);
+                if (closest.distanceSq(point) < COINCIDENT_THRESHOLD * COINCIDENT_THRESHOLD) {
+                    Point2D.Double t1 = tangent(v1, v2, point);
+                    Point2D.Double t2 = tangent(u1, u2, closest);
+                    return t1.getX() * t2.getX() + t1.getY() * t2.getY() > 0
+                            ? COINCIDENT_SAME_DIRECTION : COINCIDENT_OPPOSITE_DIRECTION;
+                }
+            }
+        }
+
+        // test if the point is inside the region
+        int windingNumber = 0;
+        for (int i : candidates) {
+            windingNumber += region.plines.get(i).getWindingNumber(point);
+        }
+        return windingNumber != 0 ? INSIDE : OUTSIDE;
+    }
+
+    /**
+     * Returns the direction of a segment at a point on the segment.
+     */
+    private static @NonNull Point2D.Double tangent(@NonNull PlineVertex v1, @NonNull PlineVertex v2,
+                                                   @NonNull Point2D.Double point) {
+        if (v1.bulgeIsZero()) {
+            return new Point2D.Double(v2.getX() - v1.getX(), v2.getY() - v1.getY());
+        }
+        BulgeConversionFunctions.ArcRadiusAndCenter arc = arcRadiusAndCenter(v1, v2);
+        double dx = point.getX() - arc.center.getX();
+        double dy = point.getY() - arc.center.getY();
+        return v1.bulgeIsPos() ? new Point2D.Double(-dy, dx) : new Point2D.Double(dy, -dx);
+    }
+
+    /**
+     * Stitches open slices together into closed polylines, by joining the
+     * end point of a slice with the start point of another slice.
+     *
+     * @param slices the open slices, will be modified
+     * @param result the closed polylines are added to this list
+     */
+    private static void stitchSlices(@NonNull List<PolyArcPath> slices, @NonNull List<PolyArcPath> result) {
+        if (slices.isEmpty()) {
+            return;
+        }
+        final double threshold = Utils.sliceJoinThreshold;
+        StaticSpatialIndex startPoints = new StaticSpatialIndex(slices.size());
+        for (PolyArcPath slice : slices) {
+            PlineVertex v = slice.get(0);
+            startPoints.add(v.getX() - threshold, v.getY() - threshold, v.getX() + threshold, v.getY() + threshold);
+        }
+        startPoints.finish();
+
+        boolean[] visited = new boolean[slices.size()];
+        IntArrayList candidates = new IntArrayList();
+        IntArrayDeque queryStack = new IntArrayDeque(8);
+        for (int i = 0, n = slices.size(); i < n; i++) {
+            if (visited[i]) {
+                continue;
+            }
+            visited[i] = true;
+            PolyArcPath loop = slices.get(i);
+            Point2D.Double start = loop.get(0).pos();
+            for (int loopCount = 0; loopCount < n; loopCount++) {
+                Point2D.Double end = loop.lastVertex().pos();
+                if (Geom.almostEqual(start, end, threshold)) {
+                    break;
+                }
+
+                candidates.clear();
+                startPoints.query(end.getX(), end.getY(), end.getX(), end.getY(), candidates, queryStack);
+                int next = -1;
+                for (int j : candidates) {
+                    if (!visited[j] && Geom.almostEqual(slices.get(j).get(0).pos(), end, threshold)) {
+                        next = j;
+                        break;
+                    }
+                }
+                if (next == -1) {
+                    // no slice found, the loop is closed below
+                    break;
+                }
+
+                visited[next] = true;
+                PolyArcPath nextSlice = slices.get(next);
+                loop.lastVertex().bulge(nextSlice.get(0).bulge());
+                for (int k = 1, m = nextSlice.size(); k < m; k++) {
+                    loop.addVertex(nextSlice.get(k));
+                }
+            }
+
+            // remove the end point, it is the same as the start point
+            if (loop.size() > 2 && Geom.almostEqual(start, loop.lastVertex().pos(), threshold)) {
+                loop.removeLast();
+            }
+            loop.isClosed(true);
+            if (loop.size() > 1 && Math.abs(loop.getArea()) > Utils.realPrecision) {
+                result.add(loop);
+            }
+        }
+    }
+
+    private static void addOrReplaceIfSamePos(@NonNull PolyArcPath pline, @NonNull PlineVertex vertex) {
+        if (!pline.isEmpty() && Geom.almostEqual(pline.lastVertex().pos(), vertex.pos(), Utils.realPrecision)) {
+            pline.lastVertex().bulge(vertex.bulge());
+        } else {
+            pline.addVertex(vertex);
+        }
+    }
+
+    /**
+     * Copies the polylines of a region, so that they can be modified.
+     *
+     * @param plines          the polylines
+     * @param makeCounterClockwise whether clockwise polylines are inverted
+     * @return the copied polylines
+     */
+    private static @NonNull List<PolyArcPath> copyOf(@NonNull List<PolyArcPath> plines, boolean makeCounterClockwise) {
+        List<PolyArcPath> copy = new ArrayList<>(plines.size());
+        for (PolyArcPath pline : plines) {
+            if (!pline.isClosed()) {
+                throw new IllegalArgumentException("polyline must be closed");
+            }
+            if (pline.size() < 2) {
+                continue;
+            }
+            PolyArcPath p = new PolyArcPath(pline.size());
+            for (PlineVertex v : pline) {
+                p.addVertex(v.getX(), v.getY(), v.bulge());
+            }
+            p.isClosed(true);
+            if (makeCounterClockwise && p.getArea() < 0) {
+                PolyArcPath.invertDirection(p);
+            }
+            copy.add(p);
+        }
+        return copy;
+    }
+
+    private static @NonNull List<PolyArcPath> toRegion(@NonNull List<PolyArcPath> plines) {
+        return copyOf(plines, true);
+    }
+
+    /**
+     * Converts each polyline into a region.
+     */
+    private static @NonNull List<List<PolyArcPath>> toRegionList(@NonNull List<PolyArcPath> plines) {
+        List<List<PolyArcPath>> regions = new ArrayList<>(plines.size());
+        for (PolyArcPath pline : plines) {
+            regions.add(toRegion(List.of(pline)));
+        }
+        return regions;
+    }
+
+    private static @NonNull PlineCombineResult toResult(@NonNull List<PolyArcPath> region) {
+        List<PolyArcPath> remaining = new ArrayList<>();
+        List<PolyArcPath> subtracted = new ArrayList<>();
+        for (PolyArcPath pline : region) {
+            (pline.getArea() < 0 ? subtracted : remaining).add(pline);
+        }
+        return new PlineCombineResult(remaining, subtracted);
+    }
+
+    /**
+     * The polylines of a region with spatial indexes.
+     */
+    private static class Region {
+        final @NonNull List<PolyArcPath> plines;
+        /**
+         * The spatial indexes of the segments of each polyline.
+         */
+        final @NonNull StaticSpatialIndex @NonNull [] segmentIndexes;
+        /**
+         * The spatial index of the bounds of the polylines.
+         */
+        final @NonNull StaticSpatialIndex index;
+
+        Region(@NonNull List<PolyArcPath> plines) {
+            this.plines = plines;
+            segmentIndexes = new StaticSpatialIndex[plines.size()];
+            index = new StaticSpatialIndex(plines.size());
+            for (int i = 0, n = plines.size(); i < n; i++) {
+                StaticSpatialIndex segmentIndex = createApproxSpatialIndex(plines.get(i));
+                segmentIndexes[i] = segmentIndex;
+                index.add(segmentIndex.minX(), segmentIndex.minY(), segmentIndex.maxX(), segmentIndex.maxY());
+            }
+            index.finish();
+        }
+
+        double minX(int i) {
+            return segmentIndexes[i].minX();
+        }
+
+        double minY(int i) {
+            return segmentIndexes[i].minY();
+        }
+
+        double maxX(int i) {
+            return segmentIndexes[i].maxX();
+        }
+
+        double maxY(int i) {
+            return segmentIndexes[i].maxY();
+        }
+    }
+
+    /**
+     * Unions a range of regions with divide-and-conquer.
+     */
+    private static class UnionTask extends RecursiveTask<List<PolyArcPath>> {
+        private static final long serialVersionUID = 0L;
+        private final @NonNull List<List<PolyArcPath>> regions;
+        private final int from;
+        private final int to;
+        private final int sequentialThreshold;
+
+        UnionTask(@NonNull List<List<PolyArcPath>> regions, int from, int to, int sequentialThreshold) {
+            this.regions = regions;
+            this.from = from;
+            this.to = to;
+            this.sequentialThreshold = sequentialThreshold;
+        }
+
+        @Override
+        protected @NonNull List<PolyArcPath> compute() {
+            if (to - from == 0) {
+                return new ArrayList<>();
+            }
+            if (to - from == 1) {
+                return regions.get(from);
+            }
+            int mid = (from + to) >>> 1;
+            UnionTask left = new UnionTask(regions, from, mid, sequentialThreshold);
+            UnionTask right = new UnionTask(regions, mid, to, sequentialThreshold);
+            List<PolyArcPath> leftRegion;
+            List<PolyArcPath> rightRegion;
+            if (to - from > sequentialThreshold) {
+                left.fork();
+                rightRegion = right.compute();
+                leftRegion = left.join();
+            } else {
+                leftRegion = left.compute();
+                rightRegion = right.compute();
+            }
+            return combineRegionsToList(leftRegion, rightRegion, PlineCombineMode.Union);
+        }
+    }
+}
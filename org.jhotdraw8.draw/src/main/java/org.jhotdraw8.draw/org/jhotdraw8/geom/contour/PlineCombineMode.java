@@ -0,0 +1,29 @@
+/*
+ * @(#)PlineCombineMode.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.geom.contour;
+
+/**
+ * Specifies the boolean operation that is performed by
+ * {@link ContourCombiner#combine(PolyArcPath, PolyArcPath, PlineCombineMode)}.
+ */
+public enum PlineCombineMode {
+    /**
+     * The area that is covered by the first or the second polyline.
+     */
+    Union,
+    /**
+     * The area that is covered by the first polyline but not by the
+     * second polyline (difference).
+     */
+    Exclude,
+    /**
+     * The area that is covered by the first and the second polyline.
+     */
+    Intersect,
+    /**
+     * The area that is covered by exactly one of the polylines.
+     */
+    XOR
+}
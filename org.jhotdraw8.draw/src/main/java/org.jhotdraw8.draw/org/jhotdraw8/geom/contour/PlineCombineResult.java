@@ -0,0 +1,82 @@
+/*
+ * @(#)PlineCombineResult.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.geom.contour;
+
+import org.jhotdraw8.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The result of a boolean operation on closed polylines.
+ * <p>
+ * The remaining polylines are counter clockwise outlines. The subtracted
+ * polylines are clockwise holes in the remaining polylines.
+ */
+public class PlineCombineResult {
+    private final @NonNull List<PolyArcPath> remaining;
+    private final @NonNull List<PolyArcPath> subtracted;
+
+    PlineCombineResult(@NonNull List<PolyArcPath> remaining, @NonNull List<PolyArcPath> subtracted) {
+        this.remaining = remaining;
+        this.subtracted = subtracted;
+    }
+
+    /**
+     * Returns the outlines of the result.
+     *
+     * @return counter clockwise closed polylines
+     */
+    public @NonNull List<PolyArcPath> getRemaining() {
+        return remaining;
+    }
+
+    /**
+     * Returns the holes of the result.
+     *
+     * @return clockwise closed polylines
+     */
+    public @NonNull List<PolyArcPath> getSubtracted() {
+        return subtracted;
+    }
+
+    /**
+     * Returns the outlines and the holes of the result. The returned list
+     * can be passed to
+     * {@link ContourCombiner#combine(List, List, PlineCombineMode)}.
+     *
+     * @return a new list with all polylines
+     */
+    public @NonNull List<PolyArcPath> getAll() {
+        List<PolyArcPath> all = new ArrayList<>(remaining.size() + subtracted.size());
+        all.addAll(remaining);
+        all.addAll(subtracted);
+        return all;
+    }
+
+    /**
+     * Returns the signed area of the result.
+     *
+     * @return the area of the outlines minus the area of the holes
+     */
+    public double getArea() {
+        double area = 0.0;
+        for (PolyArcPath p : remaining) {
+            area += p.getArea();
+        }
+        for (PolyArcPath p : subtracted) {
+            area += p.getArea();
+        }
+        return area;
+    }
+
+    @Override
+    public String toString() {
+        return "PlineCombineResult{" +
+                "remaining=" + remaining +
+                ", subtracted=" + subtracted +
+                '}';
+    }
+}
@@ -9,10 +9,12 @@ import org.jhotdraw8.geom.PathIteratorPathBuilder;
 
 import java.awt.geom.AffineTransform;
 import java.awt.geom.PathIterator;
+import java.awt.geom.Point2D;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.function.BiPredicate;
 
+import static org.jhotdraw8.geom.contour.BulgeConversionFunctions.arcRadiusAndCenter;
 import static org.jhotdraw8.geom.contour.PlineVertex.createFastApproxBoundingBox;
 import static org.jhotdraw8.geom.contour.PlineVertex.segLength;
 
@@ -192,6 +194,131 @@ public class PolyArcPath extends ArrayList<PlineVertex> implements Cloneable {
         return result[0];
     }
 
+    /// Compute the signed area of a closed polyline. The area is positive if the polyline
+    /// is counter clockwise, and negative if it is clockwise. Returns 0 for open polylines.
+    public double getArea() {
+        if (!isClosed() || size() < 2) {
+            return 0.0;
+        }
+
+        // Using the shoelace formula modified to support arcs defined by a bulge value. The area of
+        // each circular segment defined by an arc is added if it is a counter clockwise arc, or
+        // subtracted if it is a clockwise arc. The area of a circular segment is the area of the arc
+        // sector minus the area of the triangle defined by the chord and center of the circle.
+        double doubleEdgeAreaTotal = 0.0;
+        double doubleArcAreaTotal = 0.0;
+        for (int i = 0, n = size(); i < n; i++) {
+            PlineVertex v1 = get(i);
+            PlineVertex v2 = get(i == n - 1 ? 0 : i + 1);
+            doubleEdgeAreaTotal += v1.getX() * v2.getY() - v1.getY() * v2.getX();
+            if (!v1.bulgeIsZero()) {
+                double b = Math.abs(v1.bulge());
+                double sweepAngle = 4.0 * Math.atan(b);
+                double triangleBase = v1.pos().distance(v2.pos());
+                double radius = triangleBase * ((b * b + 1.0) / (4.0 * b));
+                double sagitta = b * triangleBase / 2.0;
+                double triangleHeight = radius - sagitta;
+                double doubleSectorArea = sweepAngle * radius * radius;
+                double doubleTriangleArea = triangleBase * triangleHeight;
+                double doubleArcArea = doubleSectorArea - doubleTriangleArea;
+                doubleArcAreaTotal += v1.bulgeIsNeg() ? -doubleArcArea : doubleArcArea;
+            }
+        }
+
+        return (doubleEdgeAreaTotal + doubleArcAreaTotal) / 2.0;
+    }
+
+    /// Compute the winding number of a point relative to a closed polyline. The winding number
+    /// is 0 if the point is outside, positive if the point is inside a counter clockwise polyline,
+    /// and negative if the point is inside a clockwise polyline. Returns 0 for open polylines.
+    public int getWindingNumber(Point2D.Double point) {
+        if (!isClosed() || size() < 2) {
+            return 0;
+        }
+
+        final double px = point.getX(), py = point.getY();
+        int windingNumber = 0;
+        for (int i = 0, n = size(); i < n; i++) {
+            PlineVertex v1 = get(i);
+            PlineVertex v2 = get(i == n - 1 ? 0 : i + 1);
+            if (v1.bulgeIsZero()) {
+                if (v1.getY() <= py) {
+                    if (v2.getY() > py && isLeft(v1, v2, px, py)) {
+                        // upward crossing
+                        windingNumber += 1;
+                    }
+                } else if (v2.getY() <= py && !isLeft(v1, v2, px, py)) {
+                    // downward crossing
+                    windingNumber -= 1;
+                }
+                continue;
+            }
+
+            final boolean isCCW = v1.bulgeIsPos();
+            final boolean pointIsLeft = isCCW ? isLeft(v1, v2, px, py) : isLeftOrEqual(v1, v2, px, py);
+            if (v1.getY() <= py) {
+                if (v2.getY() > py) {
+                    // upward crossing of arc chord
+                    if (isCCW) {
+                        if (pointIsLeft || distToArcCenterLessThanRadius(v1, v2, point)) {
+                            windingNumber += 1;
+                        }
+                    } else if (pointIsLeft && !distToArcCenterLessThanRadius(v1, v2, point)) {
+                        windingNumber += 1;
+                    }
+                } else {
+                    // not crossing arc chord and chord is below, check if point is inside arc sector
+                    if (isCCW && !pointIsLeft) {
+                        if (v2.getX() < px && px < v1.getX() && distToArcCenterLessThanRadius(v1, v2, point)) {
+                            windingNumber += 1;
+                        }
+                    } else if (!isCCW && pointIsLeft) {
+                        if (v1.getX() < px && px < v2.getX() && distToArcCenterLessThanRadius(v1, v2, point)) {
+                            windingNumber -= 1;
+                        }
+                    }
+                }
+            } else {
+                if (v2.getY() <= py) {
+                    // downward crossing of arc chord
+                    if (isCCW) {
+                        if (!pointIsLeft && !distToArcCenterLessThanRadius(v1, v2, point)) {
+                            windingNumber -= 1;
+                        }
+                    } else if (!pointIsLeft || distToArcCenterLessThanRadius(v1, v2, point)) {
+                        windingNumber -= 1;
+                    }
+                } else {
+                    // not crossing arc chord and chord is above, check if point is inside arc sector
+                    if (isCCW && !pointIsLeft) {
+                        if (v1.getX() < px && px < v2.getX() && distToArcCenterLessThanRadius(v1, v2, point)) {
+                            windingNumber += 1;
+                        }
+                    } else if (!isCCW && pointIsLeft) {
+                        if (v2.getX() < px && px < v1.getX() && distToArcCenterLessThanRadius(v1, v2, point)) {
+                            windingNumber -= 1;
+                        }
+                    }
+                }
+            }
+        }
+
+        return windingNumber;
+    }
+
+    private static boolean isLeft(PlineVertex v1, PlineVertex v2, double px, double py) {
+        return (v2.getX() - v1.getX()) * (py - v1.getY()) - (v2.getY() - v1.getY()) * (px - v1.getX()) > 0.0;
+    }
+
+    private static boolean isLeftOrEqual(PlineVertex v1, PlineVertex v2, double px, double py) {
+        return (v2.getX() - v1.getX()) * (py - v1.getY()) - (v2.getY() - v1.getY()) * (px - v1.getX()) >= 0.0;
+    }
+
+    private static boolean distToArcCenterLessThanRadius(PlineVertex v1, PlineVertex v2, Point2D.Double point) {
+        BulgeConversionFunctions.ArcRadiusAndCenter arc = arcRadiusAndCenter(v1, v2);
+        return arc.center.distanceSq(point) < arc.radius * arc.radius;
+    }
+
 
 }
 
@@ -5,14 +5,53 @@
 package org.jhotdraw8.geom.contour;
 
 import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.annotation.Nullable;
+import org.jhotdraw8.collection.IndexedDoubleMinHeap;
 import org.jhotdraw8.collection.IntArrayDeque;
 import org.jhotdraw8.collection.IntArrayList;
 
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.function.IntPredicate;
 
 import static java.lang.Math.min;
 
+/**
+ * A static spatial index of axis-aligned bounding boxes, implemented as a
+ * packed Hilbert R-tree.
+ * <p>
+ * The index is built once, either by adding the bounding boxes one at a
+ * time with {@link #add} and then calling {@link #finish}, or with
+ * {@link #bulkLoad}. Once the index is built, it can not be changed, and it
+ * can be queried concurrently from multiple threads.
+ * <p>
+ * The index consists only of primitive arrays, it can be written to and
+ * read from a {@link ByteBuffer}, for example a memory-mapped file.
+ */
 public class StaticSpatialIndex {
+    /**
+     * Magic number of the binary format: the ASCII characters "SSIX".
+     */
+    private static final int MAGIC = 0x53534958;
+    /**
+     * Version of the binary format.
+     */
+    private static final int VERSION = 1;
+    /**
+     * Size of the header of the binary format in bytes.
+     */
+    private static final int HEADER_BYTES = 4 * Integer.BYTES + 4 * Double.BYTES;
+    /**
+     * Number of items below which work is not split up into parallel tasks.
+     */
+    private static final int PARALLEL_THRESHOLD = 4096;
+    /**
+     * Number of queries below which batched queries are not split up into
+     * parallel tasks.
+     */
+    private static final int QUERY_BATCH_THRESHOLD = 64;
     /**
      * Points for each added element to the first element in the m_boxes
      * array that describes the bounding box of the element.
@@ -142,6 +181,45 @@ public class StaticSpatialIndex {
         m_maxY = Double.NEGATIVE_INFINITY;
     }
 
+    /**
+     * Creates a new spatial index from the specified bounding boxes.
+     * <p>
+     * This method is equivalent to calling {@link #add} for each bounding box,
+     * and then calling {@link #finish(ForkJoinPool)}.
+     *
+     * @param boxes    the bounding boxes of the items, contains 4 entries for
+     *                 each item: minX,minY,maxX,maxY
+     * @param numItems the number of items
+     * @param nodeSize number of items per node
+     * @param pool     the pool on which the items are sorted, or null to sort
+     *                 them in the calling thread
+     * @return the spatial index
+     */
+    public static @NonNull StaticSpatialIndex bulkLoad(double @NonNull [] boxes, int numItems, int nodeSize,
+                                                       @Nullable ForkJoinPool pool) {
+        StaticSpatialIndex index = new StaticSpatialIndex(numItems, nodeSize);
+        Objects.checkFromIndexSize(0, numItems * 4, boxes.length);
+        System.arraycopy(boxes, 0, index.m_boxes, 0, numItems * 4);
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0, pos = 0; i < numItems; i++) {
+            index.m_indices[i] = i;
+            minX = Math.min(minX, boxes[pos++]);
+            minY = Math.min(minY, boxes[pos++]);
+            maxX = Math.max(maxX, boxes[pos++]);
+            maxY = Math.max(maxY, boxes[pos++]);
+        }
+        index.m_minX = minX;
+        index.m_minY = minY;
+        index.m_maxX = maxX;
+        index.m_maxY = maxY;
+        index.m_pos = numItems * 4;
+        index.finish(pool);
+        return index;
+    }
+
     /**
      * Returns the Hilbert curve index for the given vertex coordinates.
      * <p>
@@ -284,7 +362,34 @@ public class StaticSpatialIndex {
         }
     }
 
+    /**
+     * Returns the number of items in the spatial index.
+     *
+     * @return the number of items
+     */
+    public int size() {
+        return m_numItems;
+    }
+
+    /**
+     * Builds the spatial index after all items have been added.
+     * <p>
+     * This is a convenience method for calling {@link #finish(ForkJoinPool)}.
+     */
     public void finish() {
+        finish(null);
+    }
+
+    /**
+     * Builds the spatial index after all items have been added.
+     * <p>
+     * The items are sorted by the Hilbert value of the center of their
+     * bounding box. The result does not depend on whether a pool is used.
+     *
+     * @param pool the pool on which the items are sorted, or null to sort
+     *             them in the calling thread
+     */
+    public void finish(@Nullable ForkJoinPool pool) {
         assert m_pos >> 2 == m_numItems : "added item count should equal static size given";
 
         // if number of items is less than node size then skip sorting since
@@ -300,34 +405,19 @@ public class StaticSpatialIndex {
             return;
         }
 
-        double width = m_maxX - m_minX;
-        double height = m_maxY - m_minY;
         int[] hilbertValues = new int[m_numItems];
-
-        int pos = 0;
-
-        for (int i = 0; i < m_numItems; ++i) {
-            double minX = m_boxes[pos++];
-            double minY = m_boxes[pos++];
-            double maxX = m_boxes[pos++];
-            double maxY = m_boxes[pos++];
-
-            // hilbert max input value for x and y
-            final double hilbertMax = (1 << 16) - 1;
-            // mapping the x and y coordinates of the center of the box to values in the range
-            // [0 -> n - 1] such that the min of the entire set of bounding boxes maps to 0 and the max of
-            // the entire set of bounding boxes maps to n - 1 our 2d space is x: [0 -> n-1] and
-            // y: [0 -> n-1], our 1d hilbert curve value space is d: [0 -> n^2 - 1]
-            int hx = (int) (hilbertMax * ((minX + maxX) / 2 - m_minX) / width);
-            int hy = (int) (hilbertMax * ((minY + maxY) / 2 - m_minY) / height);
-            hilbertValues[i] = hilbertXYToIndex(hx, hy);
+        if (pool == null || m_numItems < PARALLEL_THRESHOLD) {
+            computeHilbertValues(hilbertValues, 0, m_numItems);
+
+            // sort items by their Hilbert value (for packing later)
+            sort(hilbertValues, m_boxes, m_indices, 0, m_numItems - 1);
+        } else {
+            pool.invoke(new HilbertTask(hilbertValues, 0, m_numItems));
+            pool.invoke(new SortTask(hilbertValues, 0, m_numItems - 1));
         }
 
-        // sort items by their Hilbert value (for packing later)
-        sort(hilbertValues, m_boxes, m_indices, 0, m_numItems - 1);
-
         // generate nodes at each tree level, bottom-up
-        pos = 0;
+        int pos = 0;
         for (int i = 0; i < m_numLevels - 1; i++) {
             int end = m_levelBounds[i];
 
@@ -369,6 +459,32 @@ public class StaticSpatialIndex {
         }
     }
 
+    /**
+     * Computes the Hilbert values of the items {@code from..to-1}.
+     */
+    private void computeHilbertValues(int @NonNull [] hilbertValues, int from, int to) {
+        double width = m_maxX - m_minX;
+        double height = m_maxY - m_minY;
+        int pos = from * 4;
+
+        for (int i = from; i < to; ++i) {
+            double minX = m_boxes[pos++];
+            double minY = m_boxes[pos++];
+            double maxX = m_boxes[pos++];
+            double maxY = m_boxes[pos++];
+
+            // hilbert max input value for x and y
+            final double hilbertMax = (1 << 16) - 1;
+            // mapping the x and y coordinates of the center of the box to values in the range
+            // [0 -> n - 1] such that the min of the entire set of bounding boxes maps to 0 and the max of
+            // the entire set of bounding boxes maps to n - 1 our 2d space is x: [0 -> n-1] and
+            // y: [0 -> n-1], our 1d hilbert curve value space is d: [0 -> n^2 - 1]
+            int hx = (int) (hilbertMax * ((minX + maxX) / 2 - m_minX) / width);
+            int hy = (int) (hilbertMax * ((minY + maxY) / 2 - m_minY) / height);
+            hilbertValues[i] = hilbertXYToIndex(hx, hy);
+        }
+    }
+
     /**
      * Visit all the bounding boxes in the spatial index. Visitor function has the signature
      * boolean(int level, double xmin, double ymin, double xmax, double ymax).
@@ -472,9 +588,7 @@ public class StaticSpatialIndex {
      */
     public void visitQuery(double minX, double minY, double maxX, double maxY, @NonNull IntPredicate visitor,
                            @NonNull IntArrayDeque stack) {
-        if (m_pos != 4 * m_numNodes) {
-            throw new IllegalStateException("data not yet indexed - call Finish() before querying");
-        }
+        checkFinished();
 
         int nodeIndex = 4 * m_numNodes - 4;
         int level = m_numLevels - 1;
@@ -517,6 +631,213 @@ public class StaticSpatialIndex {
         }
     }
 
+    /**
+     * Queries the spatial index for many bounding boxes at once.
+     * <p>
+     * The queries are independent of each other, and thus can be performed
+     * in parallel.
+     *
+     * @param queryBoxes the query bounding boxes, contains 4 entries for
+     *                   each query: minX,minY,maxX,maxY
+     * @param numQueries the number of queries
+     * @param pool       the pool on which the queries are performed, or null
+     *                   to perform them in the calling thread
+     * @return for each query, the indices of the items that overlap the
+     * query bounding box
+     */
+    public @NonNull IntArrayList @NonNull [] queryAll(double @NonNull [] queryBoxes, int numQueries,
+                                                      @Nullable ForkJoinPool pool) {
+        checkFinished();
+        Objects.checkFromIndexSize(0, numQueries * 4, queryBoxes.length);
+        IntArrayList[] results = new IntArrayList[numQueries];
+        if (pool == null || numQueries <= QUERY_BATCH_THRESHOLD) {
+            query(queryBoxes, results, 0, numQueries);
+        } else {
+            pool.invoke(new QueryTask(queryBoxes, results, 0, numQueries));
+        }
+        return results;
+    }
+
+    private void query(double @NonNull [] queryBoxes, @NonNull IntArrayList @NonNull [] results, int from, int to) {
+        IntArrayDeque stack = new IntArrayDeque(16);
+        for (int i = from, pos = from * 4; i < to; i++, pos += 4) {
+            IntArrayList result = new IntArrayList();
+            query(queryBoxes[pos], queryBoxes[pos + 1], queryBoxes[pos + 2], queryBoxes[pos + 3], result, stack);
+            results[i] = result;
+        }
+    }
+
+    /**
+     * Finds the items that are nearest to the specified point, and adds
+     * their indices to the results, ordered by increasing distance.
+     * <p>
+     * The distance of an item is the distance between the point and the
+     * bounding box of the item. The distance is 0 if the bounding box
+     * contains the point.
+     *
+     * @param x           the x-coordinate of the point
+     * @param y           the y-coordinate of the point
+     * @param maxResults  the maximal number of results
+     * @param maxDistance the maximal distance of an item
+     * @param results     the indices of the nearest items are added to this list
+     */
+    public void nearest(double x, double y, int maxResults, double maxDistance, @NonNull IntArrayList results) {
+        if (maxResults <= 0) {
+            return;
+        }
+        int start = results.size();
+        IntPredicate visitor = (index) -> {
+            results.addAsInt(index);
+            return results.size() - start < maxResults;
+        };
+        visitNearest(x, y, maxDistance, visitor, new IndexedDoubleMinHeap(m_numNodes));
+    }
+
+    /**
+     * Visits the items in the order of increasing distance from the
+     * specified point. Visitor function has the signature boolean(int index),
+     * if visitor returns false the search stops early, otherwise the search
+     * continues. This overload accepts an existing heap to use as a queue
+     * and takes care of clearing the heap before use.
+     *
+     * @param x           the x-coordinate of the point
+     * @param y           the y-coordinate of the point
+     * @param maxDistance the maximal distance of an item
+     * @param visitor     the visitor
+     * @param queue       a heap that is used as a priority queue
+     */
+    public void visitNearest(double x, double y, double maxDistance, @NonNull IntPredicate visitor,
+                             @NonNull IndexedDoubleMinHeap queue) {
+        checkFinished();
+        double maxSquaredDistance = maxDistance * maxDistance;
+
+        // the queue contains the indices of items and the positions of nodes,
+        // items are in the range [0, m_numItems), nodes in [m_numItems, m_numNodes)
+        queue.ensureCapacity(m_numNodes);
+        queue.clear();
+
+        int nodeIndex = 4 * m_numNodes - 4;
+        while (true) {
+            // find the end index of the node
+            int end = min(nodeIndex + nodeSize * 4, levelUpperBound(nodeIndex));
+            boolean isLeaf = nodeIndex < m_numItems * 4;
+
+            // add child nodes to the queue
+            for (int pos = nodeIndex; pos < end; pos += 4) {
+                double squaredDistance = squaredDistanceToBox(x, y, pos);
+                if (squaredDistance <= maxSquaredDistance) {
+                    queue.insertOrDecrease(isLeaf ? m_indices[pos >> 2] : pos >> 2, squaredDistance);
+                }
+            }
+
+            // visit all items that are nearer than any node in the queue
+            while (!queue.isEmpty() && queue.elementAsInt() < m_numItems) {
+                if (!visitor.test(queue.removeAsInt())) {
+                    return;
+                }
+            }
+
+            if (queue.isEmpty()) {
+                return;
+            }
+            nodeIndex = m_indices[queue.removeAsInt()];
+        }
+    }
+
+    /**
+     * Returns the end of the level that contains the specified node.
+     */
+    private int levelUpperBound(int nodeIndex) {
+        int i = 0;
+        while (m_levelBounds[i] <= nodeIndex) {
+            i++;
+        }
+        return m_levelBounds[i];
+    }
+
+    private double squaredDistanceToBox(double x, double y, int pos) {
+        double dx = x < m_boxes[pos] ? m_boxes[pos] - x : Math.max(0, x - m_boxes[pos + 2]);
+        double dy = y < m_boxes[pos + 1] ? m_boxes[pos + 1] - y : Math.max(0, y - m_boxes[pos + 3]);
+        return dx * dx + dy * dy;
+    }
+
+    private void checkFinished() {
+        if (m_pos != 4 * m_numNodes) {
+            throw new IllegalStateException("data not yet indexed - call Finish() before querying");
+        }
+    }
+
+    /**
+     * Returns the number of bytes that {@link #writeTo(ByteBuffer)} writes.
+     *
+     * @return the number of bytes
+     */
+    public int getByteSize() {
+        return HEADER_BYTES + m_numNodes * (4 * Double.BYTES + Integer.BYTES);
+    }
+
+    /**
+     * Writes the spatial index into the specified buffer, starting at the
+     * current position of the buffer. The data is written in the byte order
+     * of the buffer.
+     * <p>
+     * The buffer can be a memory-mapped file, which can later be read back
+     * with {@link #readFrom(ByteBuffer)}.
+     *
+     * @param buf a buffer with at least {@link #getByteSize()} remaining bytes
+     * @throws java.nio.BufferOverflowException if the buffer is too small
+     */
+    public void writeTo(@NonNull ByteBuffer buf) {
+        checkFinished();
+        buf.putInt(MAGIC);
+        buf.putInt(VERSION);
+        buf.putInt(nodeSize);
+        buf.putInt(m_numItems);
+        buf.putDouble(m_minX);
+        buf.putDouble(m_minY);
+        buf.putDouble(m_maxX);
+        buf.putDouble(m_maxY);
+        buf.asDoubleBuffer().put(m_boxes);
+        buf.position(buf.position() + m_boxes.length * Double.BYTES);
+        buf.asIntBuffer().put(m_indices);
+        buf.position(buf.position() + m_indices.length * Integer.BYTES);
+    }
+
+    /**
+     * Reads a spatial index that was written with {@link #writeTo(ByteBuffer)}
+     * from the specified buffer, starting at the current position of the
+     * buffer. The data is read in the byte order of the buffer.
+     * <p>
+     * The packed arrays are copied from the buffer in bulk. The index does not
+     * need to be built again.
+     *
+     * @param buf a buffer
+     * @return the spatial index
+     * @throws IllegalArgumentException         if the buffer does not contain
+     *                                          a spatial index
+     * @throws java.nio.BufferUnderflowException if the buffer is too small
+     */
+    public static @NonNull StaticSpatialIndex readFrom(@NonNull ByteBuffer buf) {
+        int magic = buf.getInt();
+        int version = buf.getInt();
+        if (magic != MAGIC || version != VERSION) {
+            throw new IllegalArgumentException("not a spatial index, magic=" + Integer.toHexString(magic) + ", version=" + version);
+        }
+        int nodeSize = buf.getInt();
+        int numItems = buf.getInt();
+        StaticSpatialIndex index = new StaticSpatialIndex(numItems, nodeSize);
+        index.m_minX = buf.getDouble();
+        index.m_minY = buf.getDouble();
+        index.m_maxX = buf.getDouble();
+        index.m_maxY = buf.getDouble();
+        buf.asDoubleBuffer().get(index.m_boxes);
+        buf.position(buf.position() + index.m_boxes.length * Double.BYTES);
+        buf.asIntBuffer().get(index.m_indices);
+        buf.position(buf.position() + index.m_indices.length * Integer.BYTES);
+        index.m_pos = index.m_boxes.length;
+        return index;
+    }
+
     /**
      * Quicksort that partially sorts the bounding box data alongside the Hilbert values.
      */
@@ -529,6 +850,18 @@ public class StaticSpatialIndex {
             return;
         }
 
+        int j = partition(values, boxes, indices, left, right);
+        sort(values, boxes, indices, left, j);
+        sort(values, boxes, indices, j + 1, right);
+    }
+
+    /**
+     * Partitions the bounding box data alongside the Hilbert values.
+     *
+     * @return the index of the last element of the left partition
+     */
+    private static int partition(int[] values, double[] boxes, int[] indices, int left,
+                                 int right) {
         int pivot = values[(left + right) >> 1];
         int i = left - 1;
         int j = right + 1;
@@ -545,9 +878,93 @@ public class StaticSpatialIndex {
             }
             swap(values, boxes, indices, i, j);
         }
+        return j;
+    }
 
-        sort(values, boxes, indices, left, j);
-        sort(values, boxes, indices, j + 1, right);
+    /**
+     * Computes the Hilbert values of the items {@code from..to-1} by
+     * recursively splitting the range in halves.
+     */
+    private class HilbertTask extends RecursiveAction {
+        private static final long serialVersionUID = 0L;
+        private final int @NonNull [] hilbertValues;
+        private final int from;
+        private final int to;
+
+        HilbertTask(int @NonNull [] hilbertValues, int from, int to) {
+            this.hilbertValues = hilbertValues;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                computeHilbertValues(hilbertValues, from, to);
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new HilbertTask(hilbertValues, from, mid),
+                        new HilbertTask(hilbertValues, mid, to));
+            }
+        }
+    }
+
+    /**
+     * Sorts the items {@code left..right} by their Hilbert value. The
+     * partitions are sorted in parallel.
+     */
+    private class SortTask extends RecursiveAction {
+        private static final long serialVersionUID = 0L;
+        private final int @NonNull [] hilbertValues;
+        private final int left;
+        private final int right;
+
+        SortTask(int @NonNull [] hilbertValues, int left, int right) {
+            this.hilbertValues = hilbertValues;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        protected void compute() {
+            if (right - left < PARALLEL_THRESHOLD) {
+                sort(hilbertValues, m_boxes, m_indices, left, right);
+            } else if (left / nodeSize < right / nodeSize) {
+                int j = partition(hilbertValues, m_boxes, m_indices, left, right);
+                invokeAll(new SortTask(hilbertValues, left, j),
+                        new SortTask(hilbertValues, j + 1, right));
+            }
+        }
+    }
+
+    /**
+     * Performs the queries {@code from..to-1} by recursively splitting the
+     * range in halves.
+     */
+    private class QueryTask extends RecursiveAction {
+        private static final long serialVersionUID = 0L;
+        private final double @NonNull [] queryBoxes;
+        private final @NonNull IntArrayList @NonNull [] results;
+        private final int from;
+        private final int to;
+
+        QueryTask(double @NonNull [] queryBoxes, @NonNull IntArrayList @NonNull [] results, int from, int to) {
+            this.queryBoxes = queryBoxes;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= QUERY_BATCH_THRESHOLD) {
+                query(queryBoxes, results, from, to);
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new QueryTask(queryBoxes, results, from, mid),
+                        new QueryTask(queryBoxes, results, mid, to));
+            }
+        }
     }
 
     @FunctionalInterface
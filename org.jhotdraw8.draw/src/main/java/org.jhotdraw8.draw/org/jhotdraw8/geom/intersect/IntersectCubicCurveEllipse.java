@@ -5,7 +5,6 @@
 package org.jhotdraw8.geom.intersect;
 
 import org.jhotdraw8.annotation.NonNull;
-import org.jhotdraw8.collection.DoubleArrayList;
 import org.jhotdraw8.geom.BezierCurves;
 import org.jhotdraw8.geom.Geom;
 import org.jhotdraw8.geom.Points2D;
@@ -125,22 +124,24 @@ public class IntersectCubicCurveEllipse {
         c0y = c0.getY();
         ecy = ec.getY();
 
-        Polynomial poly = new Polynomial(
-                c3x * c3x * ryry + c3y * c3y * rxrx,
-                2 * (c3x * c2x * ryry + c3y * c2y * rxrx),
-                2 * (c3x * c1x * ryry + c3y * c1y * rxrx) + c2x * c2x * ryry + c2y * c2y * rxrx,
-                2 * c3x * ryry * (c0x - ecx) + 2 * c3y * rxrx * (c0y - ecy)
-                        + 2 * (c2x * c1x * ryry + c2y * c1y * rxrx),
+        // the coefficients from lowest to highest degree
+        final double[] coefs = {
+                c0x * c0x * ryry - 2 * c0y * ecy * rxrx - 2 * c0x * ecx * ryry
+                        + c0y * c0y * rxrx + ecx * ecx * ryry + ecy * ecy * rxrx - rxrx * ryry,
+                2 * c1x * ryry * (c0x - ecx) + 2 * c1y * rxrx * (c0y - ecy),
                 2 * c2x * ryry * (c0x - ecx) + 2 * c2y * rxrx * (c0y - ecy)
                         + c1x * c1x * ryry + c1y * c1y * rxrx,
-                2 * c1x * ryry * (c0x - ecx) + 2 * c1y * rxrx * (c0y - ecy),
-                c0x * c0x * ryry - 2 * c0y * ecy * rxrx - 2 * c0x * ecx * ryry
-                        + c0y * c0y * rxrx + ecx * ecx * ryry + ecy * ecy * rxrx - rxrx * ryry
-        );
-        DoubleArrayList roots = poly.getRootsInInterval(-epsilon, 1 + epsilon);
+                2 * c3x * ryry * (c0x - ecx) + 2 * c3y * rxrx * (c0y - ecy)
+                        + 2 * (c2x * c1x * ryry + c2y * c1y * rxrx),
+                2 * (c3x * c1x * ryry + c3y * c1y * rxrx) + c2x * c2x * ryry + c2y * c2y * rxrx,
+                2 * (c3x * c2x * ryry + c3y * c2y * rxrx),
+                c3x * c3x * ryry + c3y * c3y * rxrx
+        };
+        final double[] roots = new double[6];
+        final int numRoots = Polynomial.getRootsInInterval(coefs, -epsilon, 1 + epsilon, roots, new double[6 * 6]);
 
-        for (int i = 0; i < roots.size(); i++) {
-            double t = Geom.clamp(roots.get(i), 0, 1);
+        for (int i = 0; i < numRoots; i++) {
+            double t = Geom.clamp(roots[i], 0, 1);
 
             result.add(new IntersectionPoint(
                     Points2D.sum(Points2D.multiply(c3, t * t * t), Points2D.multiply(c2, t * t), Points2D.multiply(c1, t), c0), t));
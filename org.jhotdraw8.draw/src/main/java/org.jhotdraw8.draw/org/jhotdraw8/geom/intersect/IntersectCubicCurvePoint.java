@@ -5,7 +5,6 @@
 package org.jhotdraw8.geom.intersect;
 
 import org.jhotdraw8.annotation.NonNull;
-import org.jhotdraw8.collection.DoubleArrayList;
 import org.jhotdraw8.geom.BezierCurves;
 import org.jhotdraw8.geom.Geom;
 import org.jhotdraw8.geom.Points2D;
@@ -130,12 +129,12 @@ public class IntersectCubicCurvePoint {
         f = 2 * (c0x * c1x + c0y * c1y - c1x * cx - c1y * cy);
 
         // Solve for roots in derivative
-        final DoubleArrayList clampedRoots = new Polynomial(6 * a, 5 * b, 4 * c, 3 * d, 2 * e, f).getRootsInInterval(0, 1);
+        final double[] roots = new double[5 + 2];
+        int numRoots = Polynomial.getRootsInInterval(new double[]{f, 2 * e, 3 * d, 4 * c, 5 * b, 6 * a}, 0, 1,
+                roots, new double[5 * 5]);
         // Add zero and one, because we have clamped the roots
-        final DoubleArrayList roots = new DoubleArrayList();
-        roots.addAll(clampedRoots);
-        roots.add(0.0);
-        roots.add(1.0);
+        roots[numRoots++] = 0.0;
+        roots[numRoots++] = 1.0;
 
         // Select roots with closest distance to point
         final List<IntersectionPoint> result = new ArrayList<>();
@@ -146,7 +145,8 @@ public class IntersectCubicCurvePoint {
         p3 = new Point2D.Double(x3, y3);
         final double rr = epsilon * epsilon;
         double bestDistance = Double.POSITIVE_INFINITY;
-        for (double t : roots) {
+        for (int i = 0; i < numRoots; i++) {
+            final double t = roots[i];
             final Point2D.Double p;
             p = Points2D.sum(Points2D.multiply(p0, (1 - t) * (1 - t) * (1 - t)),
                     Points2D.multiply(p1, 3 * (1 - t) * (1 - t) * t),
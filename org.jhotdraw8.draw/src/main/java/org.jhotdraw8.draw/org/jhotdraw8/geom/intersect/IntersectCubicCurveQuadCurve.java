@@ -5,7 +5,6 @@
 package org.jhotdraw8.geom.intersect;
 
 import org.jhotdraw8.annotation.NonNull;
-import org.jhotdraw8.collection.DoubleArrayList;
 import org.jhotdraw8.geom.BezierCurves;
 import org.jhotdraw8.geom.Geom;
 import org.jhotdraw8.geom.Points2D;
@@ -119,55 +118,61 @@ public class IntersectCubicCurveQuadCurve {
         c23x2 = c23x * c23x;
         c23y2 = c23y * c23y;
 
-        Polynomial poly = new Polynomial(
-                -2 * c12x * c12y * c23x * c23y + c12x2 * c23y2 + c12y2 * c23x2,
-                -2 * c12x * c12y * c22x * c23y - 2 * c12x * c12y * c22y * c23x + 2 * c12y2 * c22x * c23x
-                        + 2 * c12x2 * c22y * c23y,
-                -2 * c12x * c21x * c12y * c23y - 2 * c12x * c12y * c21y * c23x - 2 * c12x * c12y * c22x * c22y
-                        + 2 * c21x * c12y2 * c23x + c12y2 * c22x2 + c12x2 * (2 * c21y * c23y + c22y2),
-                2 * c10x * c12x * c12y * c23y + 2 * c10y * c12x * c12y * c23x + c11x * c11y * c12x * c23y
-                        + c11x * c11y * c12y * c23x - 2 * c20x * c12x * c12y * c23y - 2 * c12x * c20y * c12y * c23x
-                        - 2 * c12x * c21x * c12y * c22y - 2 * c12x * c12y * c21y * c22x - 2 * c10x * c12y2 * c23x
-                        - 2 * c10y * c12x2 * c23y + 2 * c20x * c12y2 * c23x + 2 * c21x * c12y2 * c22x
-                        - c11y2 * c12x * c23x - c11x2 * c12y * c23y + c12x2 * (2 * c20y * c23y + 2 * c21y * c22y),
-                2 * c10x * c12x * c12y * c22y + 2 * c10y * c12x * c12y * c22x + c11x * c11y * c12x * c22y
-                        + c11x * c11y * c12y * c22x - 2 * c20x * c12x * c12y * c22y - 2 * c12x * c20y * c12y * c22x
-                        - 2 * c12x * c21x * c12y * c21y - 2 * c10x * c12y2 * c22x - 2 * c10y * c12x2 * c22y
-                        + 2 * c20x * c12y2 * c22x - c11y2 * c12x * c22x - c11x2 * c12y * c22y + c21x2 * c12y2
-                        + c12x2 * (2 * c20y * c22y + c21y2),
-                2 * c10x * c12x * c12y * c21y + 2 * c10y * c12x * c21x * c12y + c11x * c11y * c12x * c21y
-                        + c11x * c11y * c21x * c12y - 2 * c20x * c12x * c12y * c21y - 2 * c12x * c20y * c21x * c12y
-                        - 2 * c10x * c21x * c12y2 - 2 * c10y * c12x2 * c21y + 2 * c20x * c21x * c12y2
-                        - c11y2 * c12x * c21x - c11x2 * c12y * c21y + 2 * c12x2 * c20y * c21y,
+        // the coefficients of the resultant from lowest to highest degree
+        final double[] coefs = {
                 -2 * c10x * c10y * c12x * c12y - c10x * c11x * c11y * c12y - c10y * c11x * c11y * c12x
                         + 2 * c10x * c12x * c20y * c12y + 2 * c10y * c20x * c12x * c12y + c11x * c20x * c11y * c12y
                         + c11x * c11y * c12x * c20y - 2 * c20x * c12x * c20y * c12y - 2 * c10x * c20x * c12y2
                         + c10x * c11y2 * c12x + c10y * c11x2 * c12y - 2 * c10y * c12x2 * c20y
                         - c20x * c11y2 * c12x - c11x2 * c20y * c12y + c10x2 * c12y2 + c10y2 * c12x2
-                        + c20x2 * c12y2 + c12x2 * c20y2
-        );
-        final DoubleArrayList roots = poly.getRootsInInterval(0, 1);
+                        + c20x2 * c12y2 + c12x2 * c20y2,
+                2 * c10x * c12x * c12y * c21y + 2 * c10y * c12x * c21x * c12y + c11x * c11y * c12x * c21y
+                        + c11x * c11y * c21x * c12y - 2 * c20x * c12x * c12y * c21y - 2 * c12x * c20y * c21x * c12y
+                        - 2 * c10x * c21x * c12y2 - 2 * c10y * c12x2 * c21y + 2 * c20x * c21x * c12y2
+                        - c11y2 * c12x * c21x - c11x2 * c12y * c21y + 2 * c12x2 * c20y * c21y,
+                2 * c10x * c12x * c12y * c22y + 2 * c10y * c12x * c12y * c22x + c11x * c11y * c12x * c22y
+                        + c11x * c11y * c12y * c22x - 2 * c20x * c12x * c12y * c22y - 2 * c12x * c20y * c12y * c22x
+                        - 2 * c12x * c21x * c12y * c21y - 2 * c10x * c12y2 * c22x - 2 * c10y * c12x2 * c22y
+                        + 2 * c20x * c12y2 * c22x - c11y2 * c12x * c22x - c11x2 * c12y * c22y + c21x2 * c12y2
+                        + c12x2 * (2 * c20y * c22y + c21y2),
+                2 * c10x * c12x * c12y * c23y + 2 * c10y * c12x * c12y * c23x + c11x * c11y * c12x * c23y
+                        + c11x * c11y * c12y * c23x - 2 * c20x * c12x * c12y * c23y - 2 * c12x * c20y * c12y * c23x
+                        - 2 * c12x * c21x * c12y * c22y - 2 * c12x * c12y * c21y * c22x - 2 * c10x * c12y2 * c23x
+                        - 2 * c10y * c12x2 * c23y + 2 * c20x * c12y2 * c23x + 2 * c21x * c12y2 * c22x
+                        - c11y2 * c12x * c23x - c11x2 * c12y * c23y + c12x2 * (2 * c20y * c23y + 2 * c21y * c22y),
+                -2 * c12x * c21x * c12y * c23y - 2 * c12x * c12y * c21y * c23x - 2 * c12x * c12y * c22x * c22y
+                        + 2 * c21x * c12y2 * c23x + c12y2 * c22x2 + c12x2 * (2 * c21y * c23y + c22y2),
+                -2 * c12x * c12y * c22x * c23y - 2 * c12x * c12y * c22y * c23x + 2 * c12y2 * c22x * c23x
+                        + 2 * c12x2 * c22y * c23y,
+                -2 * c12x * c12y * c23x * c23y + c12x2 * c23y2 + c12y2 * c23x2
+        };
+        final double[] roots = new double[6];
+        final int numRoots = Polynomial.getRootsInInterval(coefs, 0, 1, roots, new double[6 * 6]);
 
         List<IntersectionPoint> result = new ArrayList<>();
-        for (int i = 0; i < roots.size(); i++) {
-            double s = roots.get(i);
-            double[] xRoots = new Polynomial(
-                    c12x, c11x,
-                    c10x - c20x - s * c21x - s * s * c22x - s * s * s * c23x
-            ).getRoots();
-            double[] yRoots = new Polynomial(
-                    c12y, c11y,
-                    c10y - c20y - s * c21y - s * s * c22y - s * s * s * c23y
-            ).getRoots();
+        final double[] xCoefs = new double[3];
+        final double[] yCoefs = new double[3];
+        final double[] xRoots = new double[2];
+        final double[] yRoots = new double[2];
+        for (int i = 0; i < numRoots; i++) {
+            double s = roots[i];
+            xCoefs[0] = c10x - c20x - s * c21x - s * s * c22x - s * s * s * c23x;
+            xCoefs[1] = c11x;
+            xCoefs[2] = c12x;
+            int numXRoots = Polynomial.getRoots(xCoefs, xRoots);
+            yCoefs[0] = c10y - c20y - s * c21y - s * s * c22y - s * s * s * c23y;
+            yCoefs[1] = c11y;
+            yCoefs[2] = c12y;
+            int numYRoots = Polynomial.getRoots(yCoefs, yRoots);
 
-            if (xRoots.length > 0 && yRoots.length > 0) {
+            if (numXRoots > 0 && numYRoots > 0) {
 
                 checkRoots:
-                for (int j = 0; j < xRoots.length; j++) {
+                for (int j = 0; j < numXRoots; j++) {
                     double xRoot = xRoots[j];
 
                     if (0 <= xRoot && xRoot <= 1) {
-                        for (int k = 0; k < yRoots.length; k++) {
+                        for (int k = 0; k < numYRoots; k++) {
                             if (Math.abs(xRoot - yRoots[k]) < ROOT_X_Y_TOLERANCE) {
                                 result.add(
                                         new IntersectionPoint(
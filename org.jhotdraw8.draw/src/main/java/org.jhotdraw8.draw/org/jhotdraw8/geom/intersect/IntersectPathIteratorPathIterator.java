@@ -0,0 +1,269 @@
+/*
+ * @(#)IntersectPathIteratorPathIterator.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.geom.intersect;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.collection.IntArrayDeque;
+import org.jhotdraw8.collection.IntArrayList;
+import org.jhotdraw8.geom.AABB;
+import org.jhotdraw8.geom.Geom;
+import org.jhotdraw8.geom.contour.StaticSpatialIndex;
+
+import java.awt.geom.PathIterator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * Intersects two paths given by {@link PathIterator}s.
+ * <p>
+ * The segments of each path are packed into a {@link StaticSpatialIndex}
+ * over the bounding boxes of their control points. The segments of the
+ * smaller path are queried against the index of the larger path, and only
+ * the pairs with overlapping bounding boxes are intersected with the exact
+ * primitive intersectors. This takes O((n + m) log(n + m)) time for
+ * paths with n and m segments and few intersections, instead of O(n·m)
+ * for testing all pairs.
+ * <p>
+ * The segment indices in the result are the indices of the elements
+ * returned by the path iterators, including {@link PathIterator#SEG_MOVETO}
+ * elements. A {@link PathIterator#SEG_CLOSE} element is intersected as a
+ * line from the current point to the start point of the sub-path.
+ * Intersections at a point where two segments of a path meet are reported
+ * once for each segment.
+ */
+public class IntersectPathIteratorPathIterator {
+    private static final int LINE = 1;
+    private static final int QUAD = 2;
+    private static final int CUBIC = 3;
+    private static final int STRIDE = 8;
+
+    private IntersectPathIteratorPathIterator() {
+    }
+
+    public static @NonNull IntersectionResultEx intersectPathIteratorPathIteratorEx(@NonNull PathIterator a, @NonNull PathIterator b) {
+        return intersectPathIteratorPathIteratorEx(a, b, Geom.REAL_THRESHOLD);
+    }
+
+    /**
+     * Computes the intersections of two paths.
+     *
+     * @param a       path 'a'
+     * @param b       path 'b'
+     * @param epsilon the tolerance of the primitive intersectors
+     * @return the intersections, ordered by the segment index and the
+     * parameter of path 'a'. The argument A, tangent A and segment A of each
+     * intersection refer to path 'a', the argument B, tangent B and
+     * segment B refer to path 'b'.
+     */
+    public static @NonNull IntersectionResultEx intersectPathIteratorPathIteratorEx(@NonNull PathIterator a, @NonNull PathIterator b, double epsilon) {
+        Segments segmentsA = new Segments(a);
+        Segments segmentsB = new Segments(b);
+        List<IntersectionPointEx> result = new ArrayList<>();
+        if (segmentsA.size == 0 || segmentsB.size == 0 || !intersects(segmentsA.getBounds(), segmentsB.getBounds(), epsilon)) {
+            return new IntersectionResultEx(IntersectionStatus.NO_INTERSECTION, result);
+        }
+
+        // build the index over the larger path and query it with the segments of the smaller path
+        boolean swap = segmentsA.size < segmentsB.size;
+        Segments indexed = swap ? segmentsB : segmentsA;
+        Segments queried = swap ? segmentsA : segmentsB;
+        StaticSpatialIndex index = indexed.createSpatialIndex(epsilon);
+        IntArrayList candidates = new IntArrayList();
+        IntArrayDeque queryStack = new IntArrayDeque(8);
+        double[] scratch = new double[IntersectCubicCurveCubicCurve.SCRATCH_LENGTH];
+        double[] bounds = queried.bounds;
+        for (int q = 0; q < queried.size; q++) {
+            candidates.clear();
+            index.query(bounds[q * 4] - epsilon, bounds[q * 4 + 1] - epsilon,
+                    bounds[q * 4 + 2] + epsilon, bounds[q * 4 + 3] + epsilon, candidates, queryStack);
+            for (int i = 0, n = candidates.size(); i < n; i++) {
+                int c = candidates.getAsInt(i);
+                int ia = swap ? q : c;
+                int ib = swap ? c : q;
+                IntersectionResultEx inter = intersectSegments(segmentsA, ia, segmentsB, ib, epsilon, scratch);
+                if (inter.getStatus() == IntersectionStatus.INTERSECTION) {
+                    int segmentA = segmentsA.elementIndices[ia];
+                    int segmentB = segmentsB.elementIndices[ib];
+                    for (IntersectionPointEx p : inter) {
+                        result.add(new IntersectionPointEx(p, p.getArgumentA(), p.getTangentA(), segmentA,
+                                p.getArgumentB(), p.getTangentB(), segmentB));
+                    }
+                }
+            }
+        }
+
+        result.sort(Comparator.comparingInt(IntersectionPoint::getSegmentA)
+                .thenComparingDouble(IntersectionPoint::getArgumentA));
+        return new IntersectionResultEx(result.isEmpty() ? IntersectionStatus.NO_INTERSECTION : IntersectionStatus.INTERSECTION,
+                result);
+    }
+
+    private static boolean intersects(@NonNull AABB a, @NonNull AABB b, double epsilon) {
+        return a.getMinX() <= b.getMaxX() + epsilon && b.getMinX() <= a.getMaxX() + epsilon
+                && a.getMinY() <= b.getMaxY() + epsilon && b.getMinY() <= a.getMaxY() + epsilon;
+    }
+
+    private static @NonNull IntersectionResultEx intersectSegments(@NonNull Segments sa, int ia, @NonNull Segments sb, int ib, double epsilon,
+                                                                   double @NonNull [] scratch) {
+        final double[] a = sa.coords;
+        final double[] b = sb.coords;
+        final int i = ia * STRIDE;
+        final int j = ib * STRIDE;
+        switch (sa.types[ia] * 4 + sb.types[ib]) {
+        case LINE * 4 + LINE:
+            return IntersectLineLine.intersectLineLineEx(a[i], a[i + 1], a[i + 2], a[i + 3],
+                    b[j], b[j + 1], b[j + 2], b[j + 3], epsilon);
+        case LINE * 4 + QUAD:
+            return IntersectLineQuadCurve.intersectLineQuadCurveEx(a[i], a[i + 1], a[i + 2], a[i + 3],
+                    b[j], b[j + 1], b[j + 2], b[j + 3], b[j + 4], b[j + 5], epsilon);
+        case LINE * 4 + CUBIC:
+            return IntersectCubicCurveLine.intersectLineCubicCurveEx(a[i], a[i + 1], a[i + 2], a[i + 3],
+                    b[j], b[j + 1], b[j + 2], b[j + 3], b[j + 4], b[j + 5], b[j + 6], b[j + 7], epsilon);
+        case QUAD * 4 + LINE:
+            return IntersectLineQuadCurve.intersectQuadCurveLineEx(a[i], a[i + 1], a[i + 2], a[i + 3], a[i + 4], a[i + 5],
+                    b[j], b[j + 1], b[j + 2], b[j + 3], epsilon);
+        case QUAD * 4 + QUAD:
+            return IntersectQuadCurveQuadCurve.intersectQuadCurveQuadCurveEx(a[i], a[i + 1], a[i + 2], a[i + 3], a[i + 4], a[i + 5],
+                    b[j], b[j + 1], b[j + 2], b[j + 3], b[j + 4], b[j + 5], epsilon);
+        case QUAD * 4 + CUBIC:
+            return IntersectCubicCurveQuadCurve.intersectQuadCurveCubicCurveEx(a[i], a[i + 1], a[i + 2], a[i + 3], a[i + 4], a[i + 5],
+                    b[j], b[j + 1], b[j + 2], b[j + 3], b[j + 4], b[j + 5], b[j + 6], b[j + 7], epsilon);
+        case CUBIC * 4 + LINE:
+            return IntersectCubicCurveLine.intersectCubicCurveLineEx(a[i], a[i + 1], a[i + 2], a[i + 3], a[i + 4], a[i + 5], a[i + 6], a[i + 7],
+                    b[j], b[j + 1], b[j + 2], b[j + 3], epsilon);
+        case CUBIC * 4 + QUAD:
+            return IntersectCubicCurveQuadCurve.intersectCubicCurveQuadCurveEx(a[i], a[i + 1], a[i + 2], a[i + 3], a[i + 4], a[i + 5], a[i + 6], a[i + 7],
+                    b[j], b[j + 1], b[j + 2], b[j + 3], b[j + 4], b[j + 5], epsilon);
+        case CUBIC * 4 + CUBIC:
+            return IntersectCubicCurveCubicCurve.intersectCubicCurveCubicCurveEx(a[i], a[i + 1], a[i + 2], a[i + 3], a[i + 4], a[i + 5], a[i + 6], a[i + 7],
+                    b[j], b[j + 1], b[j + 2], b[j + 3], b[j + 4], b[j + 5], b[j + 6], b[j + 7], epsilon, scratch);
+        default:
+            throw new IllegalStateException("unexpected segment types " + sa.types[ia] + ", " + sb.types[ib]);
+        }
+    }
+
+    /**
+     * The drawing segments of a path in primitive arrays.
+     * <p>
+     * Each segment stores its start point followed by its control points
+     * and its end point in {@link #coords}, and the bounding box of these
+     * points in {@link #bounds}.
+     */
+    private static class Segments {
+        int @NonNull [] types = new int[16];
+        int @NonNull [] elementIndices = new int[16];
+        double @NonNull [] coords = new double[16 * STRIDE];
+        double @NonNull [] bounds = new double[16 * 4];
+        int size;
+
+        Segments(@NonNull PathIterator pit) {
+            final double[] seg = new double[6];
+            double firstx = 0, firsty = 0;
+            double lastx = 0, lasty = 0;
+            for (int elementIndex = 0; !pit.isDone(); pit.next(), elementIndex++) {
+                switch (pit.currentSegment(seg)) {
+                case PathIterator.SEG_CLOSE:
+                    if (lastx != firstx || lasty != firsty) {
+                        add(LINE, elementIndex, lastx, lasty, firstx, firsty, 0, 0, 0, 0);
+                    }
+                    lastx = firstx;
+                    lasty = firsty;
+                    break;
+                case PathIterator.SEG_CUBICTO:
+                    add(CUBIC, elementIndex, lastx, lasty, seg[0], seg[1], seg[2], seg[3], seg[4], seg[5]);
+                    lastx = seg[4];
+                    lasty = seg[5];
+                    break;
+                case PathIterator.SEG_LINETO:
+                    add(LINE, elementIndex, lastx, lasty, seg[0], seg[1], 0, 0, 0, 0);
+                    lastx = seg[0];
+                    lasty = seg[1];
+                    break;
+                case PathIterator.SEG_MOVETO:
+                    lastx = firstx = seg[0];
+                    lasty = firsty = seg[1];
+                    break;
+                case PathIterator.SEG_QUADTO:
+                    add(QUAD, elementIndex, lastx, lasty, seg[0], seg[1], seg[2], seg[3], 0, 0);
+                    lastx = seg[2];
+                    lasty = seg[3];
+                    break;
+                default:
+                    break;
+                }
+            }
+        }
+
+        private void add(int type, int elementIndex, double x0, double y0, double x1, double y1,
+                         double x2, double y2, double x3, double y3) {
+            if (size == types.length) {
+                int newCapacity = size * 2;
+                types = Arrays.copyOf(types, newCapacity);
+                elementIndices = Arrays.copyOf(elementIndices, newCapacity);
+                coords = Arrays.copyOf(coords, newCapacity * STRIDE);
+                bounds = Arrays.copyOf(bounds, newCapacity * 4);
+            }
+            types[size] = type;
+            elementIndices[size] = elementIndex;
+            int i = size * STRIDE;
+            coords[i] = x0;
+            coords[i + 1] = y0;
+            coords[i + 2] = x1;
+            coords[i + 3] = y1;
+            coords[i + 4] = x2;
+            coords[i + 5] = y2;
+            coords[i + 6] = x3;
+            coords[i + 7] = y3;
+
+            // the curve is inside the convex hull of its control points
+            double minX = min(x0, x1), minY = min(y0, y1);
+            double maxX = max(x0, x1), maxY = max(y0, y1);
+            if (type >= QUAD) {
+                minX = min(minX, x2);
+                minY = min(minY, y2);
+                maxX = max(maxX, x2);
+                maxY = max(maxY, y2);
+            }
+            if (type == CUBIC) {
+                minX = min(minX, x3);
+                minY = min(minY, y3);
+                maxX = max(maxX, x3);
+                maxY = max(maxY, y3);
+            }
+            int j = size * 4;
+            bounds[j] = minX;
+            bounds[j + 1] = minY;
+            bounds[j + 2] = maxX;
+            bounds[j + 3] = maxY;
+            size++;
+        }
+
+        @NonNull AABB getBounds() {
+            double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+            double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+            for (int j = 0, n = size * 4; j < n; j += 4) {
+                minX = min(minX, bounds[j]);
+                minY = min(minY, bounds[j + 1]);
+                maxX = max(maxX, bounds[j + 2]);
+                maxY = max(maxY, bounds[j + 3]);
+            }
+            return new AABB(minX, minY, maxX, maxY);
+        }
+
+        @NonNull StaticSpatialIndex createSpatialIndex(double epsilon) {
+            StaticSpatialIndex index = new StaticSpatialIndex(size);
+            for (int j = 0, n = size * 4; j < n; j += 4) {
+                index.add(bounds[j] - epsilon, bounds[j + 1] - epsilon, bounds[j + 2] + epsilon, bounds[j + 3] + epsilon);
+            }
+            index.finish();
+            return index;
+        }
+    }
+}
@@ -6,12 +6,12 @@ package org.jhotdraw8.geom.intersect;
 
 import javafx.geometry.Point2D;
 import org.jhotdraw8.annotation.NonNull;
-import org.jhotdraw8.annotation.Nullable;
 import org.jhotdraw8.collection.DoubleArrayList;
 import org.jhotdraw8.geom.Geom;
 import org.jhotdraw8.geom.IntegralAlgorithms;
 
-import java.util.function.ToDoubleFunction;
+import java.util.Arrays;
+import java.util.function.DoubleUnaryOperator;
 
 import static java.lang.Math.abs;
 import static java.lang.Math.cbrt;
@@ -22,7 +22,16 @@ import static java.lang.Math.max;
 import static java.lang.Math.sin;
 import static java.lang.Math.sqrt;
 
-public class Polynomial implements ToDoubleFunction<Double> {
+/**
+ * A polynomial with real coefficients.
+ * <p>
+ * Besides the object-oriented API, this class provides static root finders
+ * that work on a coefficient array and write the roots into a
+ * caller-supplied array. These methods do not allocate objects, so that
+ * the intersection algorithms can find the roots of their resultant
+ * polynomials without creating garbage.
+ */
+public class Polynomial implements DoubleUnaryOperator {
 
     private static final double ACCURACY = 6;
 
@@ -135,7 +144,7 @@ public class Polynomial implements ToDoubleFunction<Double> {
     }
 
     @Override
-    public double applyAsDouble(Double x) {
+    public double applyAsDouble(double x) {
         return eval(x);
     }
 
@@ -145,12 +154,12 @@ public class Polynomial implements ToDoubleFunction<Double> {
      * @param func the function
      * @param min  the lower bound of the interval
      * @param max  the upper bound of the interval
-     * @return the root, null if no root could be found
+     * @return the root, {@link Double#NaN} if no root could be found
      */
-    public static @Nullable Double bisection(final @NonNull ToDoubleFunction<Double> func, double min, double max) {
+    public static double bisection(final @NonNull DoubleUnaryOperator func, double min, double max) {
         double minValue = func.applyAsDouble(min);
         double maxValue = func.applyAsDouble(max);
-        Double result = null;
+        double result = Double.NaN;
 
         if (abs(minValue) <= EPSILON) {
             result = min;
@@ -182,6 +191,56 @@ public class Polynomial implements ToDoubleFunction<Double> {
         return result;
     }
 
+    /**
+     * Searches for a root of the polynomial with the coefficients
+     * {@code c[off..off+degree]} in the given interval using the bisection
+     * method.
+     * <p>
+     * This is the same algorithm as {@link #bisection(DoubleUnaryOperator, double, double)},
+     * but evaluates the polynomial directly, so that no function object is needed.
+     *
+     * @param c      the coefficients from lowest to highest degree
+     * @param off    the index of the coefficient of degree 0
+     * @param degree the degree of the polynomial
+     * @param min    the lower bound of the interval
+     * @param max    the upper bound of the interval
+     * @return the root, {@link Double#NaN} if no root could be found
+     */
+    private static double bisection(double @NonNull [] c, int off, int degree, double min, double max) {
+        double minValue = eval(c, off, degree, min);
+        double maxValue = eval(c, off, degree, max);
+        double result = Double.NaN;
+
+        if (abs(minValue) <= EPSILON) {
+            result = min;
+        } else if (abs(maxValue) <= EPSILON) {
+            result = max;
+        } else if (minValue * maxValue <= 0) {
+            double tmp1 = log(max - min);
+            double tmp2 = LN10 * Polynomial.ACCURACY;
+            double iters = ceil((tmp1 + tmp2) / LN2);
+
+            for (double i = 0; i < iters; i++) {
+                result = 0.5 * (min + max);
+                double value = eval(c, off, degree, result);
+
+                if (abs(value) <= EPSILON) {
+                    break;
+                }
+
+                if (value * minValue < 0) {
+                    max = result;
+                    maxValue = value;
+                } else {
+                    min = result;
+                    minValue = value;
+                }
+            }
+        }
+
+        return result;
+    }
+
     /**
      * Divides the coefficients of this polynomial by the provided scalar.
      * Does not change this polynomial.
@@ -205,30 +264,46 @@ public class Polynomial implements ToDoubleFunction<Double> {
      * @return the value of the polynomial at x
      */
     public double eval(double x) {
+        return eval(coefs, 0, coefs.length - 1, x);
+    }
+
+    /**
+     * Evaluates the polynomial with the coefficients {@code c[off..off+degree]}
+     * at the specified x value.
+     *
+     * @param c      the coefficients from lowest to highest degree
+     * @param off    the index of the coefficient of degree 0
+     * @param degree the degree of the polynomial
+     * @param x      the x value
+     * @return the value of the polynomial at x
+     */
+    private static double eval(double @NonNull [] c, int off, int degree, double x) {
         double result = 0;
-        for (int i = this.coefs.length - 1; i >= 0; i--) {
-            result = Geom.fma(result, x, this.coefs[i]);
+        for (int i = off + degree; i >= off; i--) {
+            result = Geom.fma(result, x, c[i]);
         }
         return result;
     }
 
     /**
-     * Returns the roots of a cubic polynomial (degree equals three).
+     * Computes the roots of a cubic polynomial (degree equals three).
      *
-     * @return the roots
+     * @param c3    the coefficient of degree 3
+     * @param c2    the coefficient of degree 2
+     * @param c1    the coefficient of degree 1
+     * @param c0    the coefficient of degree 0
+     * @param roots the array into which the roots are written
+     * @param off   the index of the first root in the array
+     * @return the number of roots
      */
-    private @NonNull double[] getCubicRoots() {
-        final double[] results = new double[4];
-        int numResults = 0;
-
-        final double c3, c2, c1, c0;
-        c3 = this.coefs[3];
-        c2 = this.coefs[2] / c3;
-        c1 = this.coefs[1] / c3;
-        c0 = this.coefs[0] / c3;
+    private static int getCubicRoots(double c3, double c2, double c1, double c0, double @NonNull [] roots, int off) {
         if (c3 == 0) {
-            throw new IllegalArgumentException("Not a cubic root! simplifiedDegree=" + simplifiedDegree());
+            throw new IllegalArgumentException("Not a cubic polynomial! c3=" + c3);
         }
+        int numResults = 0;
+        c2 /= c3;
+        c1 /= c3;
+        c0 /= c3;
 
         final double a, b, offset, halfB;
         a = (3 * c1 - c2 * c2) / 3;
@@ -260,7 +335,7 @@ public class Polynomial implements ToDoubleFunction<Double> {
             } else {
                 root -= cbrt(-tmp);
             }
-            results[numResults++] = root - offset;
+            roots[off + numResults++] = root - offset;
         } else if (discrim < 0) {
             double distance = sqrt(-a / 3);
             double angle = Geom.atan2(sqrt(-discrim), -halfB) / 3;
@@ -268,9 +343,9 @@ public class Polynomial implements ToDoubleFunction<Double> {
             double sin = sin(angle);
             final double sqrt3 = sqrt(3);
 
-            results[numResults++] = 2 * distance * cos - offset;
-            results[numResults++] = -distance * (cos + sqrt3 * sin) - offset;
-            results[numResults++] = -distance * (cos - sqrt3 * sin) - offset;
+            roots[off + numResults++] = 2 * distance * cos - offset;
+            roots[off + numResults++] = -distance * (cos + sqrt3 * sin) - offset;
+            roots[off + numResults++] = -distance * (cos - sqrt3 * sin) - offset;
         } else {
             double tmp;
 
@@ -280,12 +355,12 @@ public class Polynomial implements ToDoubleFunction<Double> {
                 tmp = cbrt(-halfB);
             }
 
-            results[numResults++] = 2 * tmp - offset;
+            roots[off + numResults++] = 2 * tmp - offset;
             // really should return next root twice, but we return only one
-            results[numResults++] = -tmp - offset;
+            roots[off + numResults++] = -tmp - offset;
         }
 
-        return trim(numResults, results);
+        return numResults;
     }
 
     /**
@@ -313,31 +388,20 @@ public class Polynomial implements ToDoubleFunction<Double> {
     }
 
     /**
-     * Returns the root of a linear polynomial (degree equals one).
+     * Computes the root of a linear polynomial (degree equals one).
      *
-     * @return the roots
+     * @param c1    the coefficient of degree 1
+     * @param c0    the coefficient of degree 0
+     * @param roots the array into which the root is written
+     * @param off   the index of the root in the array
+     * @return the number of roots
      */
-    private @NonNull double[] getLinearRoot() {
-        double[] result = new double[0];
-        double a = this.coefs[1];
-
-        if (a != 0) {
-            result = new double[]{-this.coefs[0] / a};
+    private static int getLinearRoot(double c1, double c0, double @NonNull [] roots, int off) {
+        if (c1 != 0) {
+            roots[off] = -c0 / c1;
+            return 1;
         }
-
-        return result;
-    }
-
-    /**
-     * Returns the roots of a quadratic polynomial (degree equals two).
-     *
-     * @return the roots
-     */
-    private @NonNull double[] getQuadraticRoots() {
-        double a = this.coefs[2];
-        double b = this.coefs[1] / a;
-        double c = this.coefs[0] / a;
-        return getQuadraticRoots(a, b, c);
+        return 0;
     }
 
     /**
@@ -353,41 +417,60 @@ public class Polynomial implements ToDoubleFunction<Double> {
      * @return the roots
      */
     public static @NonNull double[] getQuadraticRoots(double a, double b, double c) {
+        double[] roots = new double[2];
+        return trim(getQuadraticRoots(b, c, roots, 0), roots);
+    }
+
+    /**
+     * Computes the roots of a normalized quadratic polynomial
+     * {@code t^2 + b*t + c}.
+     *
+     * @param b     the coefficient of degree 1 divided by the coefficient of degree 2
+     * @param c     the coefficient of degree 0 divided by the coefficient of degree 2
+     * @param roots the array into which the roots are written
+     * @param off   the index of the first root in the array
+     * @return the number of roots
+     */
+    private static int getQuadraticRoots(double b, double c, double @NonNull [] roots, int off) {
         double d = b * b - 4 * c;
         if (d > 0) {
             double e = sqrt(d);
-            return new double[]{
-                    0.5 * (-b + e),
-                    0.5 * (-b - e)};
+            roots[off] = 0.5 * (-b + e);
+            roots[off + 1] = 0.5 * (-b - e);
+            return 2;
         } else if (d == 0) {
             // really two roots with same value, but we only return one
-            return new double[]{0.5 * -b};
+            roots[off] = 0.5 * -b;
+            return 1;
         }
 
-        return new double[0];
+        return 0;
     }
 
     /**
-     * Returns the roots of a quartic polynomial (degree equals four).
+     * Computes the roots of a quartic polynomial (degree equals four).
      *
-     * @return the roots
+     * @param c4    the coefficient of degree 4
+     * @param c3    the coefficient of degree 3
+     * @param c2    the coefficient of degree 2
+     * @param c1    the coefficient of degree 1
+     * @param c0    the coefficient of degree 0
+     * @param roots the array into which the roots are written, must
+     *              have room for 4 roots
+     * @param off   the index of the first root in the array
+     * @return the number of roots
      */
-    private @NonNull double[] getQuarticRoots() {
-
-        double[] results = new double[4];
+    private static int getQuarticRoots(double c4, double c3, double c2, double c1, double c0,
+                                       double @NonNull [] roots, int off) {
         int numResults = 0;
-
-        final double c4, c3, c2, c1, c0;
-        c4 = this.coefs[4];
-        c3 = this.coefs[3] / c4;
-        c2 = this.coefs[2] / c4;
-        c1 = this.coefs[1] / c4;
-        c0 = this.coefs[0] / c4;
-
-        double[] resolveRoots = new Polynomial(
-                1, -c2, c3 * c1 - 4 * c0, -c3 * c3 * c0 + 4 * c2 * c0 - c1 * c1
-        ).getCubicRoots();
-        double y = resolveRoots[0];
+        c3 /= c4;
+        c2 /= c4;
+        c1 /= c4;
+        c0 /= c4;
+
+        // the first root of the resolvent cubic is written into the roots array
+        getCubicRoots(1, -c2, c3 * c1 - 4 * c0, -c3 * c3 * c0 + 4 * c2 * c0 - c1 * c1, roots, off);
+        double y = roots[off];
         double discrim = c3 * c3 / 4 - c2 + y;
 
         // Note: setting epsilon too high results in roots not being found!
@@ -412,13 +495,13 @@ public class Polynomial implements ToDoubleFunction<Double> {
 
             if (plus >= 0) {
                 double f = sqrt(plus);
-                results[numResults++] = c3 / -4 + (e + f) / 2;
-                results[numResults++] = c3 / -4 + (e - f) / 2;
+                roots[off + numResults++] = c3 / -4 + (e + f) / 2;
+                roots[off + numResults++] = c3 / -4 + (e - f) / 2;
             }
             if (minus >= 0) {
                 double f = sqrt(minus);
-                results[numResults++] = c3 / -4 + (f - e) / 2;
-                results[numResults++] = c3 / -4 - (f + e) / 2;
+                roots[off + numResults++] = c3 / -4 + (f - e) / 2;
+                roots[off + numResults++] = c3 / -4 - (f + e) / 2;
             }
         } else if (discrim < 0) {
             // no roots
@@ -435,19 +518,19 @@ public class Polynomial implements ToDoubleFunction<Double> {
                 if (t1 + t2 >= EPSILON) {
                     double d = sqrt(t1 + t2);
 
-                    results[numResults++] = -c3 / 4 + d / 2;
-                    results[numResults++] = -c3 / 4 - d / 2;
+                    roots[off + numResults++] = -c3 / 4 + d / 2;
+                    roots[off + numResults++] = -c3 / 4 - d / 2;
                 }
                 if (t1 - t2 >= EPSILON) {
                     double d = sqrt(t1 - t2);
 
-                    results[numResults++] = -c3 / 4 + d / 2;
-                    results[numResults++] = -c3 / 4 - d / 2;
+                    roots[off + numResults++] = -c3 / 4 + d / 2;
+                    roots[off + numResults++] = -c3 / 4 - d / 2;
                 }
             }
         }
 
-        return trim(numResults, results);
+        return numResults;
     }
 
     /**
@@ -464,30 +547,58 @@ public class Polynomial implements ToDoubleFunction<Double> {
      * @return the roots of the polynomial
      */
     public double[] getRoots() {
-        double[] result;
-        final int simplifiedDegree = simplifiedDegree();
+        double[] roots = new double[getDegree()];
+        return trim(getRoots(coefs, 0, getDegree(), roots, 0), roots);
+    }
+
+    /**
+     * Attempts to find the roots of the polynomial with the given
+     * coefficients. Does not allocate memory.
+     * <p>
+     * NOTE This method does not find roots for polynomials, which can not be
+     * simplfied to 4th degree or less. Use
+     * {@link #getRootsInInterval(double[], double, double, double[], double[])}
+     * for polynomials above 4th degree.
+     *
+     * @param coefs the coefficients from lowest to highest degree
+     * @param roots the array into which the roots are written, must have
+     *              a length of at least {@code coefs.length - 1}
+     * @return the number of roots
+     */
+    public static int getRoots(double @NonNull [] coefs, double @NonNull [] roots) {
+        return getRoots(coefs, 0, coefs.length - 1, roots, 0);
+    }
 
+    /**
+     * Attempts to find the roots of the polynomial with the coefficients
+     * {@code c[off]} to {@code c[off + degree]}. Does not allocate memory.
+     *
+     * @param c      an array that contains the coefficients from lowest to
+     *               highest degree
+     * @param off    the index of the coefficient of degree 0
+     * @param degree the degree of the polynomial
+     * @param roots  the array into which the roots are written
+     * @param rOff   the index of the first root in the array
+     * @return the number of roots
+     */
+    static int getRoots(double @NonNull [] c, int off, int degree, double @NonNull [] roots, int rOff) {
+        final int simplifiedDegree = simplifiedDegree(c, off, degree);
         switch (simplifiedDegree) {
         case 0:
-            result = new double[0];
-            break;
+            return 0;
         case 1:
-            result = getLinearRoot();
-            break;
-        case 2:
-            result = getQuadraticRoots();
-            break;
+            return getLinearRoot(c[off + 1], c[off], roots, rOff);
+        case 2: {
+            double a = c[off + 2];
+            return getQuadraticRoots(c[off + 1] / a, c[off] / a, roots, rOff);
+        }
         case 3:
-            result = getCubicRoots();
-            break;
+            return getCubicRoots(c[off + 3], c[off + 2], c[off + 1], c[off], roots, rOff);
         case 4:
-            result = getQuarticRoots();
-            break;
+            return getQuarticRoots(c[off + 4], c[off + 3], c[off + 2], c[off + 1], c[off], roots, rOff);
         default:
             throw new UnsupportedOperationException("Degree is too high. simplifiedDegree=" + simplifiedDegree);
         }
-
-        return result;
     }
 
     /**
@@ -499,38 +610,130 @@ public class Polynomial implements ToDoubleFunction<Double> {
      * @return a list of roots
      */
     public @NonNull DoubleArrayList getRootsInInterval(double min, double max) {
-        DoubleArrayList roots = new DoubleArrayList(getDegree());
-        int numRoots = 0;
+        int degree = getDegree();
+        double[] roots = new double[degree];
+        int numRoots = getRootsInInterval(coefs, 0, degree, min, max, roots, 0, new double[degree * degree], 0);
+        return DoubleArrayList.of(trim(numRoots, roots));
+    }
 
-        switch (this.simplifiedDegree()) {
+    /**
+     * Gets the roots of the polynomial with the given coefficients in the
+     * given interval. Does not allocate memory.
+     * <p>
+     * Polynomials that can be simplified to 4th degree or less are solved
+     * in closed form. For higher degrees, the roots of the derivative
+     * are computed recursively; they split the interval into sub-intervals
+     * on which the polynomial is monotone, and each sub-interval is
+     * searched with the bisection method.
+     *
+     * @param coefs   the coefficients from lowest to highest degree
+     * @param min     the lower bound of the interval (inclusive)
+     * @param max     the upper bound of the interval (inclusive)
+     * @param roots   the array into which the roots are written in ascending
+     *                order, must have a length of at least {@code coefs.length - 1}
+     * @param scratch a work array for the derivatives and their roots, must
+     *                have a length of at least {@code (coefs.length - 1)^2}
+     * @return the number of roots
+     */
+    public static int getRootsInInterval(double @NonNull [] coefs, double min, double max,
+                                         double @NonNull [] roots, double @NonNull [] scratch) {
+        return getRootsInInterval(coefs, 0, coefs.length - 1, min, max, roots, 0, scratch, 0);
+    }
+
+    /**
+     * Gets the roots of the polynomial with the coefficients {@code c[off]}
+     * to {@code c[off + degree]} in the given interval. Does not allocate
+     * memory.
+     * <p>
+     * The coefficients, the roots and the scratch space may be
+     * non-overlapping ranges of the same array.
+     *
+     * @param c       an array that contains the coefficients from lowest to
+     *                highest degree
+     * @param off     the index of the coefficient of degree 0
+     * @param degree  the degree of the polynomial
+     * @param min     the lower bound of the interval (inclusive)
+     * @param max     the upper bound of the interval (inclusive)
+     * @param roots   the array into which the roots are written in ascending
+     *                order, must have room for {@code degree} roots
+     * @param rOff    the index of the first root in the array
+     * @param scratch a work array for the derivatives and their roots, must
+     *                have room for {@code degree^2} values
+     * @param sOff    the index of the first value in the work array
+     * @return the number of roots
+     */
+    static int getRootsInInterval(double @NonNull [] c, int off, int degree, double min, double max,
+                                  double @NonNull [] roots, int rOff, double @NonNull [] scratch, int sOff) {
+        int numRoots = 0;
+        switch (simplifiedDegree(c, off, degree)) {
         case 0:
             break;
         case 1:
         case 2:
         case 3:
         case 4: {
-            double[] allroots = getRoots();
-            for (int i = 0; i < allroots.length; i++) {
-                double root = allroots[i];
+            int numAllRoots = getRoots(c, off, degree, roots, rOff);
+            for (int i = 0; i < numAllRoots; i++) {
+                double root = roots[rOff + i];
                 if (min <= root && root <= max) {
-                    roots.add(root);
+                    roots[rOff + numRoots++] = root;
                 }
             }
             break;
         }
         default: {
-            // get roots of derivative
-            Polynomial deriv = this.getDerivative();
-            DoubleArrayList droots = deriv.getRootsInInterval(min, max);
-
-            roots = getRootsInInterval(this, droots, min, max);
-            numRoots = roots.size();
+            // get roots of derivative: the derivative has 'degree' coefficients,
+            // followed by room for its 'degree - 1' roots
+            int derivOff = sOff;
+            int drootsOff = derivOff + degree;
+            for (int i = 1; i <= degree; i++) {
+                scratch[derivOff + i - 1] = i * c[off + i];
+            }
+            int numDroots = getRootsInInterval(scratch, derivOff, degree - 1, min, max,
+                    scratch, drootsOff, scratch, drootsOff + degree - 1);
+            numRoots = getRootsInInterval(c, off, degree, scratch, drootsOff, numDroots, min, max, roots, rOff);
             break;
         }
         }
 
-        roots.sort();
-        return roots;
+        Arrays.sort(roots, rOff, rOff + numRoots);
+        return numRoots;
+    }
+
+    /**
+     * Gets the roots of a polynomial in the interval between the given
+     * roots of its derivative.
+     */
+    private static int getRootsInInterval(double @NonNull [] c, int off, int degree,
+                                          double @NonNull [] droots, int drootsOff, int numDroots,
+                                          double min, double max, double @NonNull [] roots, int rOff) {
+        int numRoots = 0;
+        double root;
+        if (numDroots > 0) {
+            // find root on [min, droots[0]]
+            root = bisection(c, off, degree, min, droots[drootsOff]);
+            if (!Double.isNaN(root)) {
+                roots[rOff + numRoots++] = root;
+            }
+
+            // find root on [droots[i],droots[i+1]] for 0 <= i <= count-2
+            for (int i = 0; i <= numDroots - 2; i++) {
+                root = bisection(c, off, degree, droots[drootsOff + i], droots[drootsOff + i + 1]);
+                if (!Double.isNaN(root)) {
+                    roots[rOff + numRoots++] = root;
+                }
+            }
+
+            // find root on [droots[count-1],xmax]
+            root = bisection(c, off, degree, droots[drootsOff + numDroots - 1], max);
+        } else {
+            // polynomial is monotone on [min,max], has at most one root
+            root = bisection(c, off, degree, min, max);
+        }
+        if (!Double.isNaN(root)) {
+            roots[rOff + numRoots++] = root;
+        }
+        return numRoots;
     }
 
     /**
@@ -543,39 +746,59 @@ public class Polynomial implements ToDoubleFunction<Double> {
      * @param max    the upper bound of the interval (inclusive)
      * @return a list of roots. The list if empty, if no roots have been found
      */
-    public static @NonNull DoubleArrayList getRootsInInterval(@NonNull ToDoubleFunction<Double> func, @NonNull DoubleArrayList droots, double min, double max) {
-        final DoubleArrayList roots = new DoubleArrayList(droots.size());
-        int numRoots = 0;
+    public static @NonNull DoubleArrayList getRootsInInterval(@NonNull DoubleUnaryOperator func, @NonNull DoubleArrayList droots, double min, double max) {
+        final DoubleArrayList roots = new DoubleArrayList(droots.size() + 1);
+        double[] buffer = new double[droots.size() + 1];
+        int numRoots = getRootsInInterval(func, droots.toArray(), droots.size(), min, max, buffer);
+        for (int i = 0; i < numRoots; i++) {
+            roots.add(buffer[i]);
+        }
+        return roots;
+    }
 
-        if (droots.size() > 0) {
+    /**
+     * Gets roots in the given interval. Uses the bisection method for root
+     * finding. Can work with a polynomial of any degree.
+     *
+     * @param func      the function
+     * @param droots    the roots of the derivative of the function in the
+     *                  interval [min,max] in ascending order
+     * @param numDroots the number of roots in {@code droots}
+     * @param min       the lower bound of the interval (inclusive)
+     * @param max       the upper bound of the interval (inclusive)
+     * @param roots     the array into which the roots are written, must
+     *                  have a length of at least {@code numDroots + 1}
+     * @return the number of roots
+     */
+    public static int getRootsInInterval(@NonNull DoubleUnaryOperator func, double @NonNull [] droots, int numDroots,
+                                         double min, double max, double @NonNull [] roots) {
+        int numRoots = 0;
+        double root;
+        if (numDroots > 0) {
             // find root on [min, droots[0]]
-            Double root = bisection(func, min, droots.get(0));
-            if (root != null) {
-                roots.add(root);
+            root = bisection(func, min, droots[0]);
+            if (!Double.isNaN(root)) {
+                roots[numRoots++] = root;
             }
 
             // find root on [droots[i],droots[i+1]] for 0 <= i <= count-2
-            for (int i = 0; i <= droots.size() - 2; i++) {
-                root = bisection(func, droots.get(i), droots.get(i + 1));
-                if (root != null) {
-                    roots.add(root);
+            for (int i = 0; i <= numDroots - 2; i++) {
+                root = bisection(func, droots[i], droots[i + 1]);
+                if (!Double.isNaN(root)) {
+                    roots[numRoots++] = root;
                 }
             }
 
             // find root on [droots[count-1],xmax]
-            root = bisection(func, droots.get(droots.size() - 1), max);
-            if (root != null) {
-                roots.add(root);
-            }
+            root = bisection(func, droots[numDroots - 1], max);
         } else {
             // polynomial is monotone on [min,max], has at most one root
-            Double root = bisection(func, min, max);
-            if (root != null) {
-                roots.add(root);
-            }
+            root = bisection(func, min, max);
         }
-
-        return roots;
+        if (!Double.isNaN(root)) {
+            roots[numRoots++] = root;
+        }
+        return numRoots;
     }
 
     /**
@@ -597,8 +820,12 @@ public class Polynomial implements ToDoubleFunction<Double> {
     }
 
     private int simplifiedDegree() {
-        int i = this.getDegree();
-        while (i > 0 && abs(this.coefs[i]) <= EPSILON) {
+        return simplifiedDegree(coefs, 0, getDegree());
+    }
+
+    private static int simplifiedDegree(double @NonNull [] c, int off, int degree) {
+        int i = degree;
+        while (i > 0 && abs(c[off + i]) <= EPSILON) {
             i--;
         }
         return i;
@@ -677,7 +904,7 @@ public class Polynomial implements ToDoubleFunction<Double> {
      * @param n    the number of trapezoids
      * @return the area of the function
      */
-    public static double trapezoid(@NonNull ToDoubleFunction<Double> func, double min, double max, int n) {
+    public static double trapezoid(@NonNull DoubleUnaryOperator func, double min, double max, int n) {
 
         double range = max - min;
         double _s = 0;
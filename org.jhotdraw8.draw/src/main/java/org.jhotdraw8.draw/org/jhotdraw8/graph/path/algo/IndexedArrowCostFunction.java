@@ -0,0 +1,36 @@
+/*
+ * @(#)IndexedArrowCostFunction.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+
+package org.jhotdraw8.graph.path.algo;
+
+/**
+ * Computes the cost of an arrow in an
+ * {@link org.jhotdraw8.graph.IndexedDirectedGraph}.
+ */
+@FunctionalInterface
+public interface IndexedArrowCostFunction {
+    /**
+     * Cost function that returns the arrow data as the cost.
+     * <p>
+     * Use this function with graphs that store integer costs as arrow data.
+     */
+    IndexedArrowCostFunction ARROW_DATA = (v, u, arrowData) -> arrowData;
+
+    /**
+     * Cost function that returns 1 for each arrow.
+     */
+    IndexedArrowCostFunction UNIT = (v, u, arrowData) -> 1.0;
+
+    /**
+     * Returns the cost of the arrow from {@code v} to {@code u}.
+     *
+     * @param v         the index of the start vertex of the arrow
+     * @param u         the index of the end vertex of the arrow
+     * @param arrowData the arrow data, as returned by
+     *                  {@link org.jhotdraw8.graph.IndexedDirectedGraph#getNextArrowAsInt}
+     * @return the cost, must be {@literal >= 0}
+     */
+    double applyAsDouble(int v, int u, int arrowData);
+}
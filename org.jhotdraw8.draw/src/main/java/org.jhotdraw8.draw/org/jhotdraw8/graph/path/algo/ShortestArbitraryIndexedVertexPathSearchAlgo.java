@@ -0,0 +1,248 @@
+/*
+ * @(#)ShortestArbitraryIndexedVertexPathSearchAlgo.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+
+package org.jhotdraw8.graph.path.algo;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.annotation.Nullable;
+import org.jhotdraw8.collection.IndexedDoubleMinHeap;
+import org.jhotdraw8.graph.IndexedDirectedGraph;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Searches an arbitrary shortest path from a set of start vertices to a
+ * goal vertex in an {@link IndexedDirectedGraph}, using Dijkstra's
+ * algorithm, or the A* algorithm if a heuristic is provided.
+ * <p>
+ * Unlike {@link ShortestArbitraryVertexPathSearchAlgo}, this class works
+ * directly on vertex indices and {@code double} costs. It keeps the best
+ * known costs in a {@code double[]} array, the predecessors in an
+ * {@code int[]} array, and uses an {@link IndexedDoubleMinHeap} with
+ * decrease-key as its priority queue. It does not create back-link objects.
+ * <p>
+ * The arrays are reused from one search to the next, so that a search does
+ * not allocate memory once the arrays have grown to the vertex count of the
+ * graph. Each search stamps the vertices that it reaches with a generation
+ * number, so that the arrays do not have to be cleared between searches.
+ * <p>
+ * Integer costs can be used with this algorithm, because sums of integer
+ * costs are exact in {@code double} arithmetic up to 2<sup>53</sup>.
+ * See {@link IndexedArrowCostFunction#ARROW_DATA}.
+ * <p>
+ * After a search, the results can be retrieved with {@link #getCost(int)},
+ * {@link #getPredecessor(int)}, {@link #getDepth(int)} and
+ * {@link #getVertexPath(int)}. The results are valid until the next search.
+ * <p>
+ * This class is not thread-safe.
+ */
+public class ShortestArbitraryIndexedVertexPathSearchAlgo {
+    private double[] costs = new double[0];
+    private int[] predecessors = new int[0];
+    private int[] depths = new int[0];
+    /**
+     * A vertex has been reached by the current search iff its stamp is
+     * equal to {@link #generation}.
+     */
+    private int[] stamps = new int[0];
+    private int generation;
+    private final @NonNull IndexedDoubleMinHeap queue = new IndexedDoubleMinHeap(0);
+
+    public ShortestArbitraryIndexedVertexPathSearchAlgo() {
+    }
+
+    /**
+     * Searches a shortest path from the start vertex to the goal vertex.
+     *
+     * @param graph        the graph
+     * @param start        the start vertex
+     * @param goal         the goal vertex
+     * @param costFunction the cost function
+     * @param heuristic    an optional heuristic for the A* algorithm, or null
+     * @return the goal vertex on success, {@code -1} if there is no path
+     */
+    public int search(@NonNull IndexedDirectedGraph graph,
+                      int start, int goal,
+                      @NonNull IndexedArrowCostFunction costFunction,
+                      @Nullable IntToDoubleFunction heuristic) {
+        return search(graph, new int[]{start}, v -> v == goal, costFunction, heuristic,
+                Integer.MAX_VALUE, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Searches a shortest path from the set of start vertices to a vertex
+     * that satisfies the goal predicate.
+     * <p>
+     * If a heuristic is provided, it must estimate the remaining cost from
+     * a vertex to the nearest goal vertex. The heuristic must be admissible
+     * (it never overestimates the remaining cost) and consistent (for each
+     * arrow from {@code v} to {@code u} with cost {@code c}:
+     * {@code h(v) <= c + h(u)}). Otherwise, the returned path may not be the
+     * shortest path.
+     *
+     * @param graph         the graph
+     * @param startVertices the start vertices
+     * @param goalPredicate the goal predicate
+     * @param costFunction  the cost function, must return costs {@literal >= 0}
+     * @param heuristic     an optional heuristic for the A* algorithm, or null
+     * @param maxDepth      the maximal depth (inclusive) of the search.
+     *                      Must be {@literal >= 0}.
+     * @param costLimit     the maximal cost (inclusive) of a path.
+     *                      Must be {@literal >= 0}.
+     * @return the goal vertex on success, {@code -1} if there is no path
+     * @throws IllegalStateException if the cost function returns a negative
+     *                               cost
+     */
+    public int search(@NonNull IndexedDirectedGraph graph,
+                      int @NonNull [] startVertices,
+                      @NonNull IntPredicate goalPredicate,
+                      @NonNull IndexedArrowCostFunction costFunction,
+                      @Nullable IntToDoubleFunction heuristic,
+                      int maxDepth, double costLimit) {
+        AlgoArguments.checkMaxDepth(maxDepth);
+        if (!(costLimit >= 0)) {
+            throw new IllegalArgumentException("costLimit must be >= 0. costLimit=" + costLimit);
+        }
+        prepare(graph.getVertexCount());
+
+        for (int start : startVertices) {
+            if (stamps[start] != generation) {
+                reach(start, 0.0, -1, 0);
+                queue.insertOrDecrease(start, heuristic == null ? 0.0 : heuristic.applyAsDouble(start));
+            }
+        }
+
+        // Loop until we have reached the goal, or queue is exhausted.
+        // A vertex that has been removed from the queue is never added again,
+        // because its cost is final.
+        while (!queue.isEmpty()) {
+            int v = queue.removeAsInt();
+            if (goalPredicate.test(v)) {
+                queue.clear();
+                return v;
+            }
+
+            int depth = depths[v];
+            if (depth < maxDepth) {
+                double vCost = costs[v];
+                for (int i = 0, n = graph.getNextCount(v); i < n; i++) {
+                    int u = graph.getNextAsInt(v, i);
+                    double arrowCost = costFunction.applyAsDouble(v, u, graph.getNextArrowAsInt(v, i));
+                    if (!(arrowCost >= 0)) {
+                        throw new IllegalStateException("cost must be >= 0. v1=" + v + ", v2=" + u + ", cost=" + arrowCost);
+                    }
+                    double cost = vCost + arrowCost;
+                    if (cost > costLimit) {
+                        continue;
+                    }
+                    if (stamps[u] != generation) {
+                        reach(u, cost, v, depth + 1);
+                        queue.insertOrDecrease(u, heuristic == null ? cost : cost + heuristic.applyAsDouble(u));
+                    } else if (queue.containsAsInt(u)
+                            && (cost < costs[u] || cost == costs[u] && depth + 1 < depths[u])) {
+                        // There is a cheaper path to u through v, or an equally
+                        // cheap path with fewer arrows. Preferring fewer arrows
+                        // prevents that the algorithm unnecessarily follows
+                        // zero-cost arrows.
+                        reach(u, cost, v, depth + 1);
+                        queue.insertOrDecrease(u, heuristic == null ? cost : cost + heuristic.applyAsDouble(u));
+                    }
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the cost of the best path to the specified vertex that was
+     * found by the last search.
+     *
+     * @param v a vertex
+     * @return the cost, or {@link Double#POSITIVE_INFINITY} if the vertex was
+     * not reached
+     */
+    public double getCost(int v) {
+        return isReached(v) ? costs[v] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Returns the predecessor of the specified vertex on the best path
+     * that was found by the last search.
+     *
+     * @param v a vertex
+     * @return the predecessor, or {@code -1} if the vertex is a start vertex
+     * or was not reached
+     */
+    public int getPredecessor(int v) {
+        return isReached(v) ? predecessors[v] : -1;
+    }
+
+    /**
+     * Returns the number of arrows on the best path to the specified vertex
+     * that was found by the last search.
+     *
+     * @param v a vertex
+     * @return the depth, or {@code -1} if the vertex was not reached
+     */
+    public int getDepth(int v) {
+        return isReached(v) ? depths[v] : -1;
+    }
+
+    /**
+     * Returns true if the specified vertex was reached by the last search.
+     *
+     * @param v a vertex
+     * @return true if reached
+     */
+    public boolean isReached(int v) {
+        return v >= 0 && v < stamps.length && stamps[v] == generation && generation != 0;
+    }
+
+    /**
+     * Returns the vertices on the best path to the specified vertex that was
+     * found by the last search.
+     *
+     * @param v a vertex
+     * @return the vertices from a start vertex to {@code v}, or null if
+     * the vertex was not reached
+     */
+    public int @Nullable [] getVertexPath(int v) {
+        if (!isReached(v)) {
+            return null;
+        }
+        int[] path = new int[depths[v] + 1];
+        for (int i = path.length - 1; i >= 0; i--) {
+            path[i] = v;
+            v = predecessors[v];
+        }
+        return path;
+    }
+
+    private void reach(int v, double cost, int predecessor, int depth) {
+        stamps[v] = generation;
+        costs[v] = cost;
+        predecessors[v] = predecessor;
+        depths[v] = depth;
+    }
+
+    private void prepare(int vertexCount) {
+        if (stamps.length < vertexCount) {
+            costs = Arrays.copyOf(costs, vertexCount);
+            predecessors = Arrays.copyOf(predecessors, vertexCount);
+            depths = Arrays.copyOf(depths, vertexCount);
+            stamps = Arrays.copyOf(stamps, vertexCount);
+            queue.ensureCapacity(vertexCount);
+        }
+        queue.clear();
+        if (++generation == 0) {
+            // The generation counter has wrapped around: clear all stamps.
+            Arrays.fill(stamps, 0);
+            generation = 1;
+        }
+    }
+}
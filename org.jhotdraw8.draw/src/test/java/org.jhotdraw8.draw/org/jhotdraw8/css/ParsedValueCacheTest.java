@@ -0,0 +1,87 @@
+/*
+ * @(#)ParsedValueCacheTest.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.css;
+
+import org.jhotdraw8.collection.ImmutableList;
+import org.jhotdraw8.collection.ImmutableLists;
+import org.jhotdraw8.css.text.CssConverter;
+import org.jhotdraw8.css.text.CssSizeConverter;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ParsedValueCacheTest {
+    private static ImmutableList<CssToken> tokens(String str) throws IOException {
+        return ImmutableLists.copyOf(new StreamCssTokenizer(str).toTokenList());
+    }
+
+    @Test
+    public void testSameTokensAreParsedOnce() throws Exception {
+        ParsedValueCache instance = new ParsedValueCache();
+        CssSizeConverter converter = new CssSizeConverter(false);
+        AtomicInteger parseCount = new AtomicInteger();
+        ParsedValueCache.ParseFunction function = (c, t) -> {
+            parseCount.incrementAndGet();
+            return ((CssConverter<?>) c).parse(new ListCssTokenizer(t), null);
+        };
+
+        Object first = instance.computeIfAbsent(converter, tokens("2px"), function);
+        Object second = instance.computeIfAbsent(converter, tokens("2px"), function);
+        Object third = instance.computeIfAbsent(converter, tokens("3px"), function);
+
+        assertEquals(CssSize.from(2, "px"), first);
+        assertSame(first, second);
+        assertEquals(CssSize.from(3, "px"), third);
+        assertEquals(2, parseCount.get());
+        assertEquals(1, instance.getHitCount());
+        assertEquals(2, instance.getMissCount());
+        assertEquals(2, instance.size());
+    }
+
+    @Test
+    public void testDifferentConvertersAreCachedSeparately() throws Exception {
+        ParsedValueCache instance = new ParsedValueCache();
+        ParsedValueCache.ParseFunction function = (c, t) -> ((CssConverter<?>) c).parse(new ListCssTokenizer(t), null);
+
+        instance.computeIfAbsent(new CssSizeConverter(false), tokens("2px"), function);
+        instance.computeIfAbsent(new CssSizeConverter(true), tokens("2px"), function);
+
+        assertEquals(2, instance.getMissCount());
+        assertEquals(0, instance.getHitCount());
+    }
+
+    @Test
+    public void testNullValuesAreCachedAndFailuresAreNot() throws Exception {
+        ParsedValueCache instance = new ParsedValueCache();
+        CssSizeConverter converter = new CssSizeConverter(true);
+        ParsedValueCache.ParseFunction function = (c, t) -> ((CssConverter<?>) c).parse(new ListCssTokenizer(t), null);
+
+        assertNull(instance.computeIfAbsent(converter, tokens("none"), function));
+        assertNull(instance.computeIfAbsent(converter, tokens("none"), function));
+        assertEquals(1, instance.getHitCount());
+
+        assertThrows(ParseException.class, () -> instance.computeIfAbsent(converter, tokens("red"), function));
+        assertEquals(1, instance.size());
+    }
+
+    @Test
+    public void testCacheIsBounded() throws Exception {
+        ParsedValueCache instance = new ParsedValueCache(4);
+        CssSizeConverter converter = new CssSizeConverter(false);
+        ParsedValueCache.ParseFunction function = (c, t) -> ((CssConverter<?>) c).parse(new ListCssTokenizer(t), null);
+        for (int i = 0; i < 10; i++) {
+            instance.computeIfAbsent(converter, tokens(i + "px"), function);
+        }
+        assertEquals(10, instance.getMissCount());
+        assertEquals(true, instance.size() <= 4);
+    }
+}
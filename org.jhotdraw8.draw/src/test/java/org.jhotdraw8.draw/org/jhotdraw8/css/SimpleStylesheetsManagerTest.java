@@ -0,0 +1,82 @@
+/*
+ * @(#)SimpleStylesheetsManagerTest.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.css;
+
+import javafx.css.StyleOrigin;
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.collection.ImmutableSets;
+import org.jhotdraw8.concurrent.BlackHoleWorkState;
+import org.jhotdraw8.draw.css.FigureSelectorModel;
+import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.draw.figure.FillableFigure;
+import org.jhotdraw8.draw.figure.RectangleFigure;
+import org.jhotdraw8.draw.figure.StyleableFigure;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SimpleStylesheetsManagerTest {
+    private static final String STYLESHEET = ".a { fill: red; } .b { fill: blue; }";
+
+    private static @NonNull List<Figure> createFigures(int count) {
+        List<Figure> list = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            RectangleFigure f = new RectangleFigure();
+            f.set(StyleableFigure.STYLE_CLASS, ImmutableSets.of(i % 3 == 0 ? "a" : "b"));
+            list.add(f);
+        }
+        return list;
+    }
+
+    private static @NonNull SimpleStylesheetsManager<Figure> createManager(ForkJoinPool pool) {
+        SimpleStylesheetsManager<Figure> instance = new SimpleStylesheetsManager<>(new FigureSelectorModel());
+        instance.addStylesheet(StyleOrigin.AUTHOR, STYLESHEET, null);
+        instance.setStylePool(pool);
+        instance.setChunkSize(16);
+        return instance;
+    }
+
+    @Test
+    public void testParallelAndSequentialStylingProduceSameResult() {
+        List<Figure> parallel = createFigures(1000);
+        List<Figure> sequential = createFigures(1000);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            SimpleStylesheetsManager<Figure> parallelManager = createManager(pool);
+            parallelManager.applyStylesheetsTo(parallel);
+            createManager(null).applyStylesheetsTo(sequential);
+
+            for (int i = 0; i < parallel.size(); i++) {
+                assertEquals(sequential.get(i).getStyled(FillableFigure.FILL), parallel.get(i).getStyled(FillableFigure.FILL));
+            }
+            assertEquals(new CssColor("red"), parallel.get(0).getStyled(FillableFigure.FILL));
+            assertEquals(new CssColor("blue"), parallel.get(1).getStyled(FillableFigure.FILL));
+
+            StyleMetrics metrics = parallelManager.getMetrics();
+            assertEquals(1000, metrics.getElementCount());
+            assertTrue(metrics.getElapsedNanos() > 0);
+            assertTrue(metrics.getOriginNanos(StyleOrigin.AUTHOR) > 0);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testCancelledWorkStateStylesNothing() {
+        List<Figure> figures = createFigures(100);
+        SimpleStylesheetsManager<Figure> instance = createManager(null);
+        BlackHoleWorkState<Void> workState = new BlackHoleWorkState<>();
+        workState.cancel();
+        instance.applyStylesheetsTo(figures, workState);
+
+        assertEquals(0, instance.getMetrics().getElementCount());
+        assertEquals(FillableFigure.FILL.getDefaultValue(), figures.get(0).getStyled(FillableFigure.FILL));
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * @(#)StyleDependenciesTest.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.css;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.css.StyleDependencies.Scope;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+public class StyleDependenciesTest {
+    @TestFactory
+    public @NonNull List<DynamicTest> dynamicTestsGetScopes() {
+        return Arrays.asList(
+                dynamicTest("1", () -> testGetScopes("a {x:1}", "class", EnumSet.noneOf(Scope.class))),
+                dynamicTest("2", () -> testGetScopes(".c {x:1}", "class", EnumSet.of(Scope.SELF))),
+                dynamicTest("3", () -> testGetScopes("#i {x:1}", "id", EnumSet.of(Scope.SELF))),
+                dynamicTest("4", () -> testGetScopes(".c a {x:1}", "class", EnumSet.of(Scope.DESCENDANTS))),
+                dynamicTest("5", () -> testGetScopes(".c > a {x:1}", "class", EnumSet.of(Scope.DESCENDANTS))),
+                dynamicTest("6", () -> testGetScopes(".c + a {x:1}", "class", EnumSet.of(Scope.FOLLOWING_SIBLINGS))),
+                dynamicTest("7", () -> testGetScopes(".c ~ a {x:1}", "class", EnumSet.of(Scope.FOLLOWING_SIBLINGS))),
+                dynamicTest("8", () -> testGetScopes(".c ~ a b {x:1}", "class", EnumSet.of(Scope.DESCENDANTS,
+                        Scope.FOLLOWING_SIBLINGS, Scope.DESCENDANTS_OF_FOLLOWING_SIBLINGS))),
+                dynamicTest("9", () -> testGetScopes("a.c b {x:1}", "class", EnumSet.of(Scope.DESCENDANTS))),
+                dynamicTest("10", () -> testGetScopes("a .c {x:1}", "class", EnumSet.of(Scope.SELF))),
+                dynamicTest("11", () -> testGetScopes("[fill=red] {x:1}", "fill", EnumSet.of(Scope.SELF))),
+                dynamicTest("12", () -> testGetScopes("a:not([fill]) b {x:1}", "fill", EnumSet.of(Scope.DESCENDANTS))),
+                dynamicTest("13", () -> testGetScopes("a:hover b {x:1}", "fill", EnumSet.allOf(Scope.class))),
+                dynamicTest("14", () -> testGetScopes("a {x:attr(label)}", "label", EnumSet.of(Scope.SELF))),
+                dynamicTest("15", () -> testGetScopes("a {x:1}", "style", EnumSet.of(Scope.SELF))),
+                dynamicTest("16", () -> testGetScopes(".c, .d a {x:1}", "class", EnumSet.of(Scope.SELF, Scope.DESCENDANTS)))
+        );
+    }
+
+    private static void testGetScopes(@NonNull String stylesheet, @NonNull String attributeName, @NonNull Set<Scope> expected) throws Exception {
+        StyleDependencies instance = StyleDependencies.of(Collections.singletonList(new CssParser().parseStylesheet(stylesheet, null)));
+        assertEquals(expected, instance.getScopes(attributeName));
+    }
+
+    @Test
+    public void testStructuralScopes() throws Exception {
+        assertEquals(EnumSet.noneOf(Scope.class),
+                StyleDependencies.of(Collections.singletonList(new CssParser().parseStylesheet(".c {x:1}", null))).getStructuralScopes());
+        assertEquals(EnumSet.of(Scope.FOLLOWING_SIBLINGS),
+                StyleDependencies.of(Collections.singletonList(new CssParser().parseStylesheet("a + b {x:1}", null))).getStructuralScopes());
+        assertEquals(EnumSet.allOf(Scope.class), StyleDependencies.ALL.getStructuralScopes());
+        assertEquals(EnumSet.allOf(Scope.class), StyleDependencies.ALL.getScopes("fill"));
+    }
+}
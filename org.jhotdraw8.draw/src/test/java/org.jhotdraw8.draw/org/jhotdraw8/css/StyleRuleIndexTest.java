@@ -0,0 +1,91 @@
+/*
+ * @(#)StyleRuleIndexTest.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.css;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.css.ast.StyleRule;
+import org.jhotdraw8.css.ast.Stylesheet;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+public class StyleRuleIndexTest {
+    private static final String XML = "<xml>"
+            + "<a id=\"id1\" class=\"c1 c2\"><b class=\"c2\"/><c/></a>"
+            + "<b id=\"id2\"/><a/><b class=\"c3\"/>"
+            + "</xml>";
+
+    @TestFactory
+    public @NonNull List<DynamicTest> dynamicTestsCandidatesContainAllMatchingRules() {
+        return Arrays.asList(
+                dynamicTest("1", () -> testCandidates("a {x:1} b {x:2} c {x:3}", 1)),
+                dynamicTest("2", () -> testCandidates("#id1 {x:1} #id2 {x:2} #id3 {x:3}", 1)),
+                dynamicTest("3", () -> testCandidates(".c1 {x:1} .c2 {x:2} .c3 {x:3} .c4 {x:4}", 2)),
+                dynamicTest("4", () -> testCandidates("* {x:1} a {x:2} [id] {x:3} :first-child {x:4}", 4)),
+                dynamicTest("5", () -> testCandidates("a b {x:1} a>c {x:2} a~b {x:3} b+a {x:4}", 2)),
+                dynamicTest("6", () -> testCandidates("a.c2 {x:1} b#id2 {x:2} a#id1.c1 {x:3}", 3)),
+                dynamicTest("7", () -> testCandidates("#id1, .c3, c {x:1} a, * {x:2} .c2, .c2 {x:3}", 3)),
+                dynamicTest("8", () -> testCandidates("a:not(.c1) {x:1} *|b {x:2} c {x:3}", 3))
+        );
+    }
+
+    /**
+     * Checks that the candidates of each element include all rules that
+     * match the element, in the order of the stylesheet.
+     *
+     * @param stylesheet    a stylesheet
+     * @param maxCandidates the maximal number of candidates per element
+     */
+    private static void testCandidates(@NonNull String stylesheet, int maxCandidates) throws Exception {
+        Stylesheet ast = new CssParser().parseStylesheet(stylesheet, null);
+        StyleRuleIndex instance = new StyleRuleIndex(ast);
+
+        DocumentBuilderFactory builderFactory = DocumentBuilderFactory.newInstance();
+        builderFactory.setNamespaceAware(true);
+        DocumentBuilder builder = builderFactory.newDocumentBuilder();
+        Document doc = builder.parse(new InputSource(new StringReader(XML)));
+        DocumentSelectorModel model = new DocumentSelectorModel();
+
+        NodeList elements = doc.getElementsByTagName("*");
+        for (int i = 0, n = elements.getLength(); i < n; i++) {
+            Element elem = (Element) elements.item(i);
+            List<StyleRule> candidates = instance.getCandidates(model, elem);
+            assertTrue(candidates.size() <= maxCandidates, "too many candidates for " + elem.getTagName() + ": " + candidates);
+            assertEquals(matchingRules(ast.getStyleRules(), model, elem), matchingRules(candidates, model, elem));
+
+            List<StyleRule> expectedOrder = new ArrayList<>();
+            for (StyleRule r : ast.getStyleRules()) {
+                if (candidates.contains(r)) {
+                    expectedOrder.add(r);
+                }
+            }
+            assertEquals(expectedOrder, candidates);
+        }
+    }
+
+    private static @NonNull List<StyleRule> matchingRules(@NonNull Iterable<StyleRule> rules, @NonNull DocumentSelectorModel model, @NonNull Element elem) {
+        List<StyleRule> list = new ArrayList<>();
+        for (StyleRule r : rules) {
+            if (r.getSelectorGroup().matches(model, elem)) {
+                list.add(r);
+            }
+        }
+        return list;
+    }
+}
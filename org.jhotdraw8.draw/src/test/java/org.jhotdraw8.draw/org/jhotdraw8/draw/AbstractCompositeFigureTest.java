@@ -4,6 +4,7 @@
  */
 package org.jhotdraw8.draw;
 
+import javafx.geometry.BoundingBox;
 import javafx.geometry.Bounds;
 import javafx.scene.Node;
 import javafx.scene.transform.Transform;
@@ -12,7 +13,9 @@ import org.jhotdraw8.collection.ReadOnlySet;
 import org.jhotdraw8.css.CssSize;
 import org.jhotdraw8.draw.figure.AbstractCompositeFigure;
 import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.draw.figure.GroupFigure;
 import org.jhotdraw8.draw.figure.NonTransformableFigure;
+import org.jhotdraw8.draw.figure.RectangleFigure;
 import org.jhotdraw8.draw.render.RenderContext;
 import org.jhotdraw8.styleable.StyleableBean;
 import org.junit.jupiter.api.Test;
@@ -109,6 +112,59 @@ public class AbstractCompositeFigureTest {
         assertEquals(child1.getParent(), parent1);
     }
 
+    @Test
+    public void testCachedBoundsAreInvalidatedAlongAncestorPath() {
+        Figure outer = new GroupFigure();
+        Figure inner = new GroupFigure();
+        Figure child1 = new RectangleFigure(0, 0, 10, 10);
+        Figure child2 = new RectangleFigure(20, 20, 10, 10);
+        outer.addChild(inner);
+        inner.addChild(child1);
+
+        assertEquals(new BoundingBox(0, 0, 10, 10), outer.getLayoutBounds());
+        assertEquals(new BoundingBox(0, 0, 10, 10), inner.getLayoutBoundsInParent());
+
+        // adding a child invalidates the caches of the ancestors
+        inner.addChild(child2);
+        assertEquals(new BoundingBox(0, 0, 30, 30), outer.getLayoutBounds());
+        assertEquals(new BoundingBox(0, 0, 30, 30), inner.getLayoutBounds());
+
+        // changing a property of a child invalidates the caches of the ancestors
+        child2.reshapeInLocal(40, 40, 10, 10);
+        assertEquals(new BoundingBox(0, 0, 50, 50), outer.getLayoutBounds());
+        assertEquals(new BoundingBox(0, 0, 50, 50), outer.getLayoutBoundsInParent());
+
+        // removing a child invalidates the caches of the ancestors
+        inner.removeChild(child2);
+        assertEquals(new BoundingBox(0, 0, 10, 10), outer.getLayoutBounds());
+        assertEquals(new BoundingBox(0, 0, 10, 10), inner.getLayoutBounds());
+    }
+
+    @Test
+    public void testCachedBoundsAreValidAfterRepeatedChangesOfDescendant() {
+        Figure outer = new GroupFigure();
+        Figure middle = new GroupFigure();
+        Figure inner = new GroupFigure();
+        Figure child = new RectangleFigure(0, 0, 10, 10);
+        outer.addChild(middle);
+        middle.addChild(inner);
+        inner.addChild(child);
+        assertEquals(new BoundingBox(0, 0, 10, 10), outer.getLayoutBounds());
+
+        // the second change stops at the middle figure, because only the
+        // bounds of the inner figure have been requested in between
+        child.reshapeInLocal(0, 0, 20, 20);
+        assertEquals(new BoundingBox(0, 0, 20, 20), inner.getLayoutBounds());
+        child.reshapeInLocal(0, 0, 30, 30);
+        assertEquals(new BoundingBox(0, 0, 30, 30), outer.getLayoutBounds());
+        assertEquals(new BoundingBox(0, 0, 30, 30), middle.getLayoutBoundsInParent());
+
+        // changes without any requests in between
+        child.reshapeInLocal(0, 0, 40, 40);
+        child.reshapeInLocal(0, 0, 50, 50);
+        assertEquals(child.getBoundsInParent(), outer.getBoundsInLocal());
+        assertEquals(new BoundingBox(0, 0, 50, 50), outer.getLayoutBounds());
+    }
 
     /**
      * Mock class.
@@ -0,0 +1,261 @@
+/*
+ * @(#)SimpleBinaryReaderTest.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.draw.io;
+
+import org.jhotdraw8.collection.ImmutableLists;
+import org.jhotdraw8.collection.ImmutableSets;
+import org.jhotdraw8.concurrent.BlackHoleWorkState;
+import org.jhotdraw8.css.CssSize;
+import org.jhotdraw8.draw.figure.Drawing;
+import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.draw.figure.GroupFigure;
+import org.jhotdraw8.draw.figure.HideableFigure;
+import org.jhotdraw8.draw.figure.LayerFigure;
+import org.jhotdraw8.draw.figure.LineConnectionFigure;
+import org.jhotdraw8.draw.figure.RectangleFigure;
+import org.jhotdraw8.draw.figure.SimpleLayeredDrawing;
+import org.jhotdraw8.draw.figure.StyleableFigure;
+import org.jhotdraw8.draw.model.SimpleDrawingModel;
+import org.jhotdraw8.io.IdFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SimpleBinaryReaderTest {
+    private static final URI DOCUMENT_HOME = URI.create("file:/drawings/");
+
+    private static Drawing createDrawing(int rectangleCount) {
+        SimpleLayeredDrawing drawing = new SimpleLayeredDrawing(400, 300);
+        drawing.set(Drawing.AUTHOR_STYLESHEETS, ImmutableLists.of(URI.create("file:/drawings/style.css")));
+        LayerFigure layer = new LayerFigure();
+        drawing.getChildren().add(layer);
+        GroupFigure group = new GroupFigure();
+        layer.getChildren().add(group);
+        RectangleFigure first = null;
+        for (int i = 0; i < rectangleCount; i++) {
+            RectangleFigure r = new RectangleFigure(i * 1.5, -i, 10 + i, 0.1 * i);
+            r.set(RectangleFigure.ARC_WIDTH, CssSize.from(i, "mm"));
+            r.set(StyleableFigure.STYLE_CLASS, ImmutableSets.of("c" + (i % 3)));
+            group.getChildren().add(r);
+            if (first == null) {
+                first = r;
+            }
+        }
+        LineConnectionFigure line = new LineConnectionFigure(0, 0, 50, 50);
+        line.set(LineConnectionFigure.START_TARGET, first);
+        layer.getChildren().add(line);
+        return drawing;
+    }
+
+    /**
+     * Creates a drawing with two layers, where a line in the first layer
+     * refers to a rectangle in the second layer.
+     */
+    private static Drawing createLayeredDrawing(int rectangleCount) {
+        SimpleLayeredDrawing drawing = new SimpleLayeredDrawing(400, 300);
+        LayerFigure layer1 = new LayerFigure();
+        LayerFigure layer2 = new LayerFigure();
+        layer2.set(HideableFigure.VISIBLE, false);
+        drawing.getChildren().add(layer1);
+        drawing.getChildren().add(layer2);
+        for (int i = 0; i < rectangleCount; i++) {
+            layer2.getChildren().add(new RectangleFigure(i, i, 10, 10));
+        }
+        LineConnectionFigure line = new LineConnectionFigure(0, 0, 50, 50);
+        line.set(LineConnectionFigure.START_TARGET, layer2.getChild(0));
+        layer1.getChildren().add(line);
+        return drawing;
+    }
+
+    private static String toXml(Figure drawing) throws IOException {
+        IdFactory idFactory = new SimpleFigureIdFactory();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new SimpleXmlWriter(new DefaultFigureFactory(idFactory), idFactory)
+                .write(out, DOCUMENT_HOME, (Drawing) drawing, new BlackHoleWorkState<>());
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static Figure fromXml(String xml) throws IOException {
+        IdFactory idFactory = new SimpleFigureIdFactory();
+        return new SimpleXmlStaxReader(new DefaultFigureFactory(idFactory), idFactory, null)
+                .read(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), null, DOCUMENT_HOME, new BlackHoleWorkState<>());
+    }
+
+    private static byte[] toBinary(Figure drawing) throws IOException {
+        IdFactory idFactory = new SimpleFigureIdFactory();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new SimpleBinaryWriter(new DefaultFigureFactory(idFactory), idFactory)
+                .write(out, DOCUMENT_HOME, (Drawing) drawing, new BlackHoleWorkState<>());
+        return out.toByteArray();
+    }
+
+    private static Figure fromBinary(byte[] data, BlackHoleWorkState<Void> workState) throws IOException {
+        IdFactory idFactory = new SimpleFigureIdFactory();
+        return new SimpleBinaryReader(new DefaultFigureFactory(idFactory), idFactory)
+                .read(new ByteArrayInputStream(data), null, DOCUMENT_HOME, workState);
+    }
+
+    private static SimpleBinaryReader createReader() {
+        IdFactory idFactory = new SimpleFigureIdFactory();
+        return new SimpleBinaryReader(new DefaultFigureFactory(idFactory), idFactory);
+    }
+
+    private static LazySubtrees readLazily(SimpleBinaryReader reader, byte[] data) throws IOException {
+        return reader.readLazily(new ByteArrayInputStream(data), DOCUMENT_HOME, new BlackHoleWorkState<>());
+    }
+
+    @Test
+    public void testRoundTripIsLosslessWithXml() throws IOException {
+        String xml = toXml(createDrawing(20));
+        byte[] binary = toBinary(fromXml(xml));
+        Figure actual = fromBinary(binary, new BlackHoleWorkState<>());
+
+        assertEquals(xml, toXml(actual));
+        assertTrue(binary.length < xml.length(), "binary is smaller than xml");
+    }
+
+    @Test
+    public void testReferencesAreResolved() throws IOException {
+        Figure actual = fromBinary(toBinary(createDrawing(3)), new BlackHoleWorkState<>());
+
+        Figure layer = actual.getChild(0);
+        Figure firstRectangle = layer.getChild(0).getChild(0);
+        assertSame(firstRectangle, layer.getChild(1).get(LineConnectionFigure.START_TARGET));
+        assertEquals(DOCUMENT_HOME, actual.get(Drawing.DOCUMENT_HOME));
+    }
+
+    @Test
+    public void testIllegalDataThrowsIOException() throws IOException {
+        byte[] binary = toBinary(createDrawing(3));
+        byte[] truncated = new byte[binary.length - 1];
+        System.arraycopy(binary, 0, truncated, 0, truncated.length);
+
+        assertThrows(IOException.class, () -> fromBinary(truncated, new BlackHoleWorkState<>()));
+        assertThrows(IOException.class, () -> fromBinary("<Drawing/>".getBytes(StandardCharsets.UTF_8), new BlackHoleWorkState<>()));
+    }
+
+    @Test
+    public void testCancel() throws IOException {
+        byte[] binary = toBinary(createDrawing(10_000));
+        BlackHoleWorkState<Void> workState = new BlackHoleWorkState<>();
+        workState.cancel();
+
+        assertThrows(CancellationException.class, () -> fromBinary(binary, workState));
+    }
+
+    @Test
+    public void testLazyReadLoadsSubtreesOnDemand() throws IOException {
+        Drawing expected = createLayeredDrawing(100);
+        LazySubtrees subtrees = readLazily(createReader(), toBinary(expected));
+
+        Figure actual = subtrees.getRoot();
+        Figure layer1 = actual.getChild(0);
+        Figure layer2 = actual.getChild(1);
+        assertTrue(layer1.getChildren().isEmpty());
+        assertTrue(layer2.getChildren().isEmpty());
+        assertFalse(layer2.isVisible(), "attributes of placeholders are read");
+
+        SimpleDrawingModel model = new SimpleDrawingModel();
+        model.setDrawing((Drawing) actual);
+        subtrees.load(layer1, model);
+        assertTrue(subtrees.isLoaded(layer1));
+        assertNull(layer1.getChild(0).get(LineConnectionFigure.START_TARGET), "reference into unloaded subtree is pending");
+
+        subtrees.load(layer2, model);
+        assertTrue(subtrees.isAllLoaded());
+        assertEquals(100, layer2.getChildren().size());
+        assertSame(layer2.getChild(0), layer1.getChild(0).get(LineConnectionFigure.START_TARGET));
+        assertEquals(toXml(expected), toXml(actual));
+    }
+
+    @Test
+    public void testLazyReadLoadsInBackground() throws IOException {
+        Drawing expected = createLayeredDrawing(100);
+        LazySubtrees subtrees = readLazily(createReader(), toBinary(expected));
+        Figure actual = subtrees.getRoot();
+        SimpleDrawingModel model = new SimpleDrawingModel();
+        model.setDrawing((Drawing) actual);
+
+        subtrees.loadInBackground(model, Runnable::run, Runnable::run).join();
+
+        assertTrue(subtrees.isAllLoaded());
+        assertEquals(toXml(expected), toXml(actual));
+    }
+
+    @Test
+    public void testLazyReadLoadsSubtreeWhenVisible() throws IOException {
+        LazySubtrees subtrees = readLazily(createReader(), toBinary(createLayeredDrawing(10)));
+        Figure actual = subtrees.getRoot();
+        SimpleDrawingModel model = new SimpleDrawingModel();
+        model.setDrawing((Drawing) actual);
+        subtrees.loadWhenVisible(model);
+
+        Figure layer1 = actual.getChild(0);
+        Figure layer2 = actual.getChild(1);
+        assertTrue(layer1.isVisible(), "layers are visible by default");
+        assertEquals(1, layer1.getChildren().size(), "visible placeholders are loaded immediately");
+        assertTrue(layer2.getChildren().isEmpty());
+
+        model.set(layer2, HideableFigure.VISIBLE, true);
+
+        assertEquals(10, layer2.getChildren().size());
+        assertTrue(subtrees.isAllLoaded());
+        assertSame(layer2.getChild(0), layer1.getChild(0).get(LineConnectionFigure.START_TARGET));
+    }
+
+    @Test
+    public void testLazyReadsOfTheSameReaderDoNotShareIds() throws IOException {
+        SimpleBinaryReader reader = createReader();
+        byte[] data = toBinary(createLayeredDrawing(10));
+        LazySubtrees first = readLazily(reader, data);
+        LazySubtrees second = readLazily(reader, data);
+        SimpleDrawingModel firstModel = new SimpleDrawingModel();
+        firstModel.setDrawing((Drawing) first.getRoot());
+        SimpleDrawingModel secondModel = new SimpleDrawingModel();
+        secondModel.setDrawing((Drawing) second.getRoot());
+        for (Figure placeholder : second.getUnloaded()) {
+            second.load(placeholder, secondModel);
+        }
+        for (Figure placeholder : first.getUnloaded()) {
+            first.load(placeholder, firstModel);
+        }
+
+        Figure root = first.getRoot();
+        assertSame(root.getChild(1).getChild(0), root.getChild(0).getChild(0).get(LineConnectionFigure.START_TARGET));
+    }
+
+    @Test
+    public void testLazyReadFromFile() throws IOException {
+        Drawing expected = createLayeredDrawing(10);
+        Path file = Files.createTempFile("drawing", ".bin");
+        // The file stays memory mapped until the buffer is garbage collected.
+        file.toFile().deleteOnExit();
+        Files.write(file, toBinary(expected));
+        LazySubtrees subtrees = createReader().readLazily(file, new BlackHoleWorkState<>());
+        Figure actual = subtrees.getRoot();
+        SimpleDrawingModel model = new SimpleDrawingModel();
+        model.setDrawing((Drawing) actual);
+        for (Figure placeholder : subtrees.getUnloaded()) {
+            subtrees.load(placeholder, model);
+        }
+
+        assertEquals(file.getParent().toUri(), actual.get(Drawing.DOCUMENT_HOME));
+        assertSame(actual.getChild(1).getChild(0), actual.getChild(0).getChild(0).get(LineConnectionFigure.START_TARGET));
+    }
+}
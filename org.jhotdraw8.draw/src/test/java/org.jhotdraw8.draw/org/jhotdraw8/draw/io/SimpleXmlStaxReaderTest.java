@@ -0,0 +1,120 @@
+/*
+ * @(#)SimpleXmlStaxReaderTest.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.draw.io;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.collection.MapAccessor;
+import org.jhotdraw8.concurrent.BlackHoleWorkState;
+import org.jhotdraw8.concurrent.WorkState;
+import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.draw.figure.LineConnectionFigure;
+import org.jhotdraw8.draw.figure.RectangleFigure;
+import org.jhotdraw8.io.IdFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SimpleXmlStaxReaderTest {
+
+    private static String createXml(int rectangleCount) {
+        StringBuilder buf = new StringBuilder();
+        buf.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<Drawing><Layer id=\"layer1\">");
+        for (int i = 0; i < rectangleCount; i++) {
+            buf.append("<Rectangle id=\"r").append(i).append("\" x=\"").append(i)
+                    .append("\" y=\"").append(-i).append("\" width=\"10\" height=\"5\"/>");
+        }
+        buf.append("<LineConnection id=\"l1\" startTarget=\"r").append(rectangleCount - 1).append("\"/>");
+        buf.append("</Layer></Drawing>");
+        return buf.toString();
+    }
+
+    private static Figure read(String xml, WorkState<Void> workState) throws IOException {
+        IdFactory idFactory = new SimpleFigureIdFactory();
+        return new SimpleXmlStaxReader(new DefaultFigureFactory(idFactory), idFactory, null)
+                .read(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), null, null, workState);
+    }
+
+    @Test
+    public void testReadManyBatches() throws IOException {
+        int n = 5_000;
+        List<Double> progress = new ArrayList<>();
+        Figure drawing = read(createXml(n), new BlackHoleWorkState<Void>() {
+            @Override
+            public void updateProgress(double value) {
+                progress.add(value);
+            }
+        });
+
+        Figure layer = drawing.getChild(0);
+        assertEquals(n + 1, layer.getChildren().size());
+        for (int i = 0; i < n; i++) {
+            Figure r = layer.getChild(i);
+            assertEquals(i, r.getNonNull(RectangleFigure.X).getValue());
+            assertEquals(-i, r.getNonNull(RectangleFigure.Y).getValue());
+        }
+        assertSame(layer.getChild(n - 1), layer.getChild(n).get(LineConnectionFigure.START_TARGET));
+        assertTrue(progress.size() > 2, "progress is reported while reading");
+        assertEquals(1.0, progress.get(progress.size() - 1));
+    }
+
+    @Test
+    public void testIllegalValueThrowsIOException() {
+        String xml = createXml(3000).replace("x=\"2000\"", "x=\"not a number\"");
+
+        assertThrows(IOException.class, () -> read(xml, new BlackHoleWorkState<>()));
+    }
+
+    @Test
+    public void testCancel() {
+        BlackHoleWorkState<Void> workState = new BlackHoleWorkState<>();
+        workState.cancel();
+
+        assertThrows(CancellationException.class, () -> read(createXml(5_000), workState));
+    }
+
+    @Test
+    public void testAttributesOfAFigureAreConvertedInTheSameBatch() throws IOException {
+        // Three attributes per figure, so that figures straddle the batch size.
+        int n = 5_000;
+        StringBuilder buf = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<Drawing><Layer>");
+        for (int i = 0; i < n; i++) {
+            buf.append("<Rectangle x=\"").append(i).append("\" y=\"").append(i).append("\" width=\"").append(i).append("\"/>");
+        }
+        buf.append("</Layer></Drawing>");
+        Map<String, Set<Thread>> threadsByValue = new ConcurrentHashMap<>();
+        IdFactory idFactory = new SimpleFigureIdFactory();
+        DefaultFigureFactory figureFactory = new DefaultFigureFactory(idFactory) {
+            @Override
+            public <T> T stringToValue(@NonNull MapAccessor<T> key, @NonNull String string) throws IOException {
+                threadsByValue.computeIfAbsent(string, k -> ConcurrentHashMap.newKeySet()).add(Thread.currentThread());
+                return super.stringToValue(key, string);
+            }
+        };
+        Figure drawing = new SimpleXmlStaxReader(figureFactory, idFactory, null)
+                .read(new ByteArrayInputStream(buf.toString().getBytes(StandardCharsets.UTF_8)), null, null, new BlackHoleWorkState<>());
+
+        Figure layer = drawing.getChild(0);
+        assertEquals(n, layer.getChildren().size());
+        for (int i = 0; i < n; i++) {
+            Figure r = layer.getChild(i);
+            assertEquals(i, r.getNonNull(RectangleFigure.X).getValue());
+            assertEquals(i, r.getNonNull(RectangleFigure.WIDTH).getValue());
+            assertEquals(1, threadsByValue.get(String.valueOf(i)).size(), "attributes of figure " + i + " are converted on one thread");
+        }
+    }
+}
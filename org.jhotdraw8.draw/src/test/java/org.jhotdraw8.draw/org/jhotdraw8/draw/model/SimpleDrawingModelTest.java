@@ -0,0 +1,107 @@
+/*
+ * @(#)SimpleDrawingModelTest.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.draw.model;
+
+import org.jhotdraw8.css.CssSize;
+import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.draw.figure.LayerFigure;
+import org.jhotdraw8.draw.figure.RectangleFigure;
+import org.jhotdraw8.draw.figure.SimpleLayeredDrawing;
+import org.jhotdraw8.tree.TreeModelEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SimpleDrawingModelTest {
+
+    private final SimpleLayeredDrawing drawing = new SimpleLayeredDrawing();
+    private final LayerFigure layer = new LayerFigure();
+    private final SimpleDrawingModel model = new SimpleDrawingModel();
+    private final List<TreeModelEvent<Figure>> treeEvents = new ArrayList<>();
+    private final List<DrawingModelEvent> drawingEvents = new ArrayList<>();
+
+    private void setUp() {
+        model.setDrawing(drawing);
+        model.addChildTo(layer, drawing);
+        model.addTreeModelListener(treeEvents::add);
+        model.addDrawingModelListener(drawingEvents::add);
+    }
+
+    @Test
+    public void testBatchFiresSingleTreeModelEvent() {
+        setUp();
+        List<Figure> figures = new ArrayList<>();
+        model.beginBatch();
+        assertTrue(model.isBatching());
+        for (int i = 0; i < 100; i++) {
+            RectangleFigure f = new RectangleFigure();
+            figures.add(f);
+            model.addChildTo(f, layer);
+        }
+        model.set(figures.get(0), RectangleFigure.ARC_WIDTH, CssSize.from(1));
+        model.set(figures.get(0), RectangleFigure.ARC_WIDTH, CssSize.from(2));
+        assertTrue(treeEvents.isEmpty());
+        assertTrue(drawingEvents.isEmpty());
+        model.commitBatch();
+        assertFalse(model.isBatching());
+
+        assertEquals(1, treeEvents.size());
+        TreeModelEvent<Figure> event = treeEvents.get(0);
+        assertEquals(TreeModelEvent.EventType.BATCH_COMMITTED, event.getEventType());
+        assertEquals(figures, event.getAddedSubtrees());
+        assertEquals(Collections.emptyList(), event.getRemovedSubtrees());
+        assertEquals(Collections.singletonList(layer), event.getChangedParents());
+
+        assertEquals(1, drawingEvents.size());
+        DrawingModelEvent propertyEvent = drawingEvents.get(0);
+        assertEquals(DrawingModelEvent.EventType.PROPERTY_VALUE_CHANGED, propertyEvent.getEventType());
+        assertEquals(CssSize.ZERO, propertyEvent.getOldValue());
+        assertEquals(CssSize.from(2), propertyEvent.getNewValue());
+    }
+
+    @Test
+    public void testBatchReportsSubtreeRootsOnly() {
+        setUp();
+        LayerFigure other = new LayerFigure();
+        RectangleFigure a = new RectangleFigure();
+        RectangleFigure b = new RectangleFigure();
+        model.addChildTo(other, drawing);
+        model.addChildTo(a, layer);
+        model.addChildTo(b, layer);
+        treeEvents.clear();
+
+        RectangleFigure transientFigure = new RectangleFigure();
+        model.beginBatch();
+        model.beginBatch();
+        model.removeFromParent(a);
+        model.addChildTo(transientFigure, layer);
+        model.removeFromParent(transientFigure);
+        model.commitBatch();
+        assertTrue(treeEvents.isEmpty());
+        model.insertChildAt(b, other, 0);
+        model.removeFromParent(other);
+        model.commitBatch();
+
+        assertEquals(1, treeEvents.size());
+        TreeModelEvent<Figure> event = treeEvents.get(0);
+        assertEquals(Arrays.asList(a, other), event.getRemovedSubtrees());
+        assertEquals(Collections.emptyList(), event.getAddedSubtrees());
+        assertEquals(Arrays.asList(layer, drawing), event.getChangedParents());
+    }
+
+    @Test
+    public void testCommitWithoutBeginThrows() {
+        setUp();
+        assertThrows(IllegalStateException.class, model::commitBatch);
+    }
+}
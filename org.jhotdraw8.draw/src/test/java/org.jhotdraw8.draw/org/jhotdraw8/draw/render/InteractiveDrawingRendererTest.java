@@ -0,0 +1,412 @@
+/*
+ * @(#)InteractiveDrawingRendererTest.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+
+package org.jhotdraw8.draw.render;
+
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import javafx.geometry.Bounds;
+import javafx.geometry.Point2D;
+import javafx.scene.Node;
+import javafx.scene.shape.Ellipse;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.transform.Scale;
+import javafx.scene.transform.Transform;
+import javafx.scene.transform.Translate;
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.draw.DrawingView;
+import org.jhotdraw8.draw.SimpleDrawingEditor;
+import org.jhotdraw8.draw.figure.Drawing;
+import org.jhotdraw8.draw.figure.EllipseFigure;
+import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.draw.figure.GroupFigure;
+import org.jhotdraw8.draw.figure.LayerFigure;
+import org.jhotdraw8.draw.figure.RectangleFigure;
+import org.jhotdraw8.draw.figure.SimpleLayeredDrawing;
+import org.jhotdraw8.draw.model.SimpleDrawingModel;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests {@link InteractiveDrawingRenderer}.
+ * <p>
+ * The renderer runs without a JavaFX application: repaints are performed
+ * synchronously, and the drawing view only provides the transform from
+ * view to world coordinates.
+ */
+public class InteractiveDrawingRendererTest {
+    /**
+     * Paints synchronously instead of on the JavaFX application thread.
+     * Like a drawing view, its render context provides the nodes of the
+     * renderer.
+     */
+    private static class HeadlessRenderer extends InteractiveDrawingRenderer {
+        private boolean repaintRequested;
+        private @NonNull Transform viewToWorld = new Translate();
+
+        HeadlessRenderer() {
+            setRenderContext(new SimpleRenderContext() {
+                @Override
+                public Node getNode(Figure figure) {
+                    return HeadlessRenderer.this.getNode(figure);
+                }
+            });
+            editorProperty().set(new SimpleDrawingEditor());
+            setDrawingView(createView());
+        }
+
+        /**
+         * Creates a drawing view, that only supports
+         * {@link DrawingView#getViewToWorld()}.
+         */
+        private @NonNull DrawingView createView() {
+            return (DrawingView) Proxy.newProxyInstance(DrawingView.class.getClassLoader(), new Class<?>[]{DrawingView.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                        case "getViewToWorld":
+                            return viewToWorld;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "HeadlessView";
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+        }
+
+        /**
+         * Zooms the view, like a drawing view does.
+         */
+        void zoom(double factor) {
+            viewToWorld = new Scale(1 / factor, 1 / factor);
+            setZoomFactor(factor);
+        }
+
+        @Override
+        public void repaint() {
+            repaintRequested = true;
+        }
+
+        void paintAll() {
+            do {
+                repaintRequested = false;
+                paintImmediately();
+            } while (repaintRequested);
+        }
+
+        void show(@NonNull Drawing drawing) {
+            SimpleDrawingModel model = new SimpleDrawingModel();
+            model.setDrawing(drawing);
+            setModel(model);
+            paintAll();
+        }
+
+        /**
+         * Returns the rectangles at the specified point.
+         */
+        @NonNull List<Figure> rectanglesAt(double x, double y) {
+            return findFigures(x, y, false, f -> f instanceof RectangleFigure).stream()
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+        }
+
+        boolean hasNode(@NonNull Figure f) {
+            Bounds b = f.getLayoutBoundsInWorld();
+            return findFigureNode(f, b.getCenterX(), b.getCenterY()) != null;
+        }
+    }
+
+    private static @NonNull GroupFigure group(@NonNull Figure... children) {
+        GroupFigure group = new GroupFigure();
+        for (Figure child : children) {
+            group.getChildren().add(child);
+        }
+        return group;
+    }
+
+    /**
+     * Asserts that {@link InteractiveDrawingRenderer#findFigures} finds the
+     * same rectangles at random points as a linear scan over their nodes.
+     */
+    private static void assertSameHitsAsLinearScan(@NonNull HeadlessRenderer renderer,
+                                                   @NonNull List<Figure> rectangles, @NonNull SplittableRandom random) {
+        NodeFinder nodeFinder = new NodeFinder();
+        double tolerance = renderer.getEditor().getTolerance();
+        Transform viewToWorld = renderer.getDrawingView().getViewToWorld();
+        int hits = 0;
+        for (int i = 0; i < 500; i++) {
+            double vx = random.nextDouble() * 400, vy = random.nextDouble() * 400;
+            Point2D p = viewToWorld.transform(vx, vy);
+            Set<Figure> expected = new HashSet<>();
+            for (Figure f : rectangles) {
+                if (nodeFinder.contains(renderer.getNode(f), p, tolerance) != null) {
+                    expected.add(f);
+                }
+            }
+            assertEquals(expected, new HashSet<>(renderer.rectanglesAt(vx, vy)), "at " + p);
+            hits += expected.size();
+        }
+        assertTrue(hits > 0);
+    }
+
+    @Test
+    public void testIndexedHitTestsMatchLinearScanAfterMoveScrollAndZoom() {
+        SplittableRandom random = new SplittableRandom(1);
+        List<Figure> rectangles = new ArrayList<>();
+        LayerFigure layer = new LayerFigure();
+        for (int i = 0; i < 10; i++) {
+            GroupFigure group = new GroupFigure();
+            for (int j = 0; j < 10; j++) {
+                double size = 5 + random.nextDouble() * 15;
+                RectangleFigure r = new RectangleFigure(random.nextDouble() * 180, random.nextDouble() * 180, size, size);
+                group.getChildren().add(r);
+                rectangles.add(r);
+            }
+            layer.getChildren().add(group);
+        }
+        Drawing drawing = new SimpleLayeredDrawing(400, 400);
+        drawing.getChildren().add(layer);
+
+        HeadlessRenderer renderer = new HeadlessRenderer();
+        renderer.setClipBounds(new BoundingBox(0, 0, 200, 200));
+        renderer.show(drawing);
+        assertSameHitsAsLinearScan(renderer, rectangles, random);
+
+        // move
+        for (int i = 0; i < rectangles.size(); i += 7) {
+            renderer.getModel().reshapeInLocal(rectangles.get(i), random.nextDouble() * 180, random.nextDouble() * 180, 10, 10);
+        }
+        renderer.paintAll();
+        assertSameHitsAsLinearScan(renderer, rectangles, random);
+
+        // scroll
+        renderer.setClipBounds(new BoundingBox(50, 50, 200, 200));
+        renderer.paintAll();
+        assertSameHitsAsLinearScan(renderer, rectangles, random);
+
+        // zoom
+        renderer.zoom(2);
+        renderer.paintAll();
+        assertSameHitsAsLinearScan(renderer, rectangles, random);
+    }
+
+    @Test
+    public void testPaintStopsWhenTheFrameBudgetIsUsedUp() {
+        LayerFigure layer = new LayerFigure();
+        for (int i = 0; i < 20; i++) {
+            layer.getChildren().add(new RectangleFigure(i * 10, 10, 5, 5));
+        }
+        Drawing drawing = new SimpleLayeredDrawing(400, 400);
+        drawing.getChildren().add(layer);
+
+        HeadlessRenderer renderer = new HeadlessRenderer();
+        renderer.setFrameBudget(1e-6);
+        renderer.show(drawing);
+        FrameStatistics statistics = renderer.getFrameStatistics();
+        assertTrue(statistics.getFrameCount() > 1, "painted in several frames");
+        assertEquals(statistics.getFrameCount(), statistics.getUpdatedNodeCount(), "one node per frame");
+        assertEquals(0, statistics.getPendingNodeCount());
+        for (Figure f : layer.getChildren()) {
+            assertTrue(renderer.hasNode(f));
+        }
+    }
+
+    @Test
+    public void testDeferredFiguresAreUpdatedWhenTheyScrollIntoView() {
+        RectangleFigure visible = new RectangleFigure(10, 10, 20, 20);
+        RectangleFigure offScreen = new RectangleFigure(1010, 1010, 20, 20);
+        LayerFigure layer = new LayerFigure();
+        layer.getChildren().add(visible);
+        layer.getChildren().add(offScreen);
+        Drawing drawing = new SimpleLayeredDrawing(2000, 2000);
+        drawing.getChildren().add(layer);
+
+        HeadlessRenderer renderer = new HeadlessRenderer();
+        renderer.setClipBounds(new BoundingBox(0, 0, 100, 100));
+        renderer.show(drawing);
+        assertEquals(1, renderer.getFrameStatistics().getDeferredNodeCount());
+        assertTrue(renderer.hasNode(visible));
+        assertEquals(false, renderer.hasNode(offScreen), "the node has not been updated");
+
+        renderer.setClipBounds(new BoundingBox(1000, 1000, 100, 100));
+        renderer.paintAll();
+        assertEquals(0, renderer.getFrameStatistics().getDeferredNodeCount());
+        assertTrue(renderer.hasNode(offScreen));
+        assertEquals(List.of(offScreen), renderer.rectanglesAt(1020, 1020));
+    }
+
+    @Test
+    public void testHitTestsFindReleasedAndRematerializedFigures() {
+        RectangleFigure near = new RectangleFigure(10, 10, 20, 20);
+        RectangleFigure far = new RectangleFigure(1010, 1010, 20, 20);
+        LayerFigure layer = new LayerFigure();
+        layer.getChildren().add(group(near, new RectangleFigure(40, 10, 20, 20)));
+        layer.getChildren().add(group(far));
+        Drawing drawing = new SimpleLayeredDrawing(2000, 2000);
+        drawing.getChildren().add(layer);
+
+        HeadlessRenderer renderer = new HeadlessRenderer();
+        renderer.setVirtualized(true);
+        renderer.setVirtualizationMargin(0);
+        renderer.setClipBounds(new BoundingBox(0, 0, 100, 100));
+        renderer.show(drawing);
+        assertNotNull(renderer.getNode(layer));
+        assertEquals(true, renderer.hasNode(near));
+        assertEquals(false, renderer.hasNode(far));
+        assertEquals(List.of(near), renderer.rectanglesAt(20, 20));
+        assertEquals(List.of(far), renderer.rectanglesAt(1020, 1020), "figure without node");
+        assertEquals(List.of(), renderer.rectanglesAt(1050, 1050));
+
+        // move the figure without node
+        renderer.getModel().reshapeInLocal(far, 1100, 1100, 20, 20);
+        renderer.paintAll();
+        assertEquals(false, renderer.hasNode(far));
+        assertEquals(List.of(), renderer.rectanglesAt(1020, 1020));
+        assertEquals(List.of(far), renderer.rectanglesAt(1110, 1110));
+
+        // scroll to the figure without node
+        renderer.setClipBounds(new BoundingBox(1050, 1050, 100, 100));
+        renderer.paintAll();
+        assertEquals(true, renderer.hasNode(far));
+        assertEquals(false, renderer.hasNode(near), "node has been released");
+        assertEquals(List.of(far), renderer.rectanglesAt(1110, 1110));
+        assertEquals(List.of(near), renderer.rectanglesAt(20, 20), "released figure");
+
+        // scroll back
+        renderer.setClipBounds(new BoundingBox(0, 0, 100, 100));
+        renderer.paintAll();
+        assertEquals(true, renderer.hasNode(near));
+        assertEquals(false, renderer.hasNode(far));
+        assertEquals(List.of(near), renderer.rectanglesAt(20, 20));
+        assertEquals(List.of(far), renderer.rectanglesAt(1110, 1110));
+    }
+    /**
+     * A figure that only sets the clip of its node if it is clipped.
+     */
+    private static class ConditionallyClippedFigure extends RectangleFigure {
+        private final boolean clipped;
+
+        ConditionallyClippedFigure(boolean clipped) {
+            super(0, 0, 10, 10);
+            this.clipped = clipped;
+        }
+
+        @Override
+        public void updateNode(@NonNull RenderContext ctx, @NonNull Node node) {
+            super.updateNode(ctx, node);
+            if (clipped) {
+                node.setClip(new Rectangle(5, 5));
+            }
+        }
+    }
+
+    @Test
+    public void testScrollingOnlyUpdatesGroupsThatCrossTheVirtualizationBounds() {
+        LayerFigure layer = new LayerFigure();
+        for (int i = 0; i < 10; i++) {
+            layer.getChildren().add(group(new RectangleFigure(10 + i * 10, 10, 5, 5)));
+        }
+        GroupFigure crossing = group(new RectangleFigure(190, 10, 20, 20));
+        layer.getChildren().add(crossing);
+        Drawing drawing = new SimpleLayeredDrawing(2000, 2000);
+        drawing.getChildren().add(layer);
+
+        HeadlessRenderer renderer = new HeadlessRenderer();
+        renderer.setVirtualized(true);
+        renderer.setVirtualizationMargin(0);
+        renderer.setClipBounds(new BoundingBox(0, 0, 200, 200));
+        renderer.show(drawing);
+        renderer.getFrameStatistics().reset();
+
+        renderer.setClipBounds(new BoundingBox(1, 1, 200, 200));
+        renderer.paintAll();
+        assertEquals(2, renderer.getFrameStatistics().getUpdatedNodeCount(), "the layer and the crossing group");
+    }
+
+    @Test
+    public void testProxiesAreSwappedAcrossMinDetailSize() {
+        EllipseFigure small = new EllipseFigure(10, 10, 5, 5);
+        EllipseFigure large = new EllipseFigure(30, 30, 50, 50);
+        LayerFigure layer = new LayerFigure();
+        layer.getChildren().add(small);
+        layer.getChildren().add(large);
+        Drawing drawing = new SimpleLayeredDrawing(2000, 2000);
+        drawing.getChildren().add(layer);
+
+        HeadlessRenderer renderer = new HeadlessRenderer();
+        renderer.setMinDetailSize(8);
+        renderer.show(drawing);
+        assertInstanceOf(Rectangle.class, renderer.getNode(small), "proxy");
+        Node largeNode = renderer.getNode(large);
+        assertInstanceOf(Ellipse.class, largeNode);
+        assertEquals(List.of(small), renderer.findFigures(12.5, 12.5, false, f -> f == small).stream()
+                .map(Map.Entry::getKey).collect(Collectors.toList()), "hit test on proxy");
+
+        // zoom in: the small figure is above the minimal detail size
+        renderer.getFrameStatistics().reset();
+        renderer.setZoomFactor(2);
+        renderer.paintAll();
+        assertInstanceOf(Ellipse.class, renderer.getNode(small));
+        assertSame(largeNode, renderer.getNode(large));
+        assertEquals(2, renderer.getFrameStatistics().getUpdatedNodeCount(), "the small figure and the layer");
+
+        // zoom out: both figures are below the minimal detail size
+        renderer.setZoomFactor(0.1);
+        renderer.paintAll();
+        assertInstanceOf(Rectangle.class, renderer.getNode(small), "proxy");
+        assertInstanceOf(Rectangle.class, renderer.getNode(large), "proxy");
+
+        // disable level-of-detail rendering
+        renderer.setMinDetailSize(0);
+        renderer.paintAll();
+        assertInstanceOf(Ellipse.class, renderer.getNode(small));
+        assertInstanceOf(Ellipse.class, renderer.getNode(large));
+    }
+
+    @Test
+    public void testNodesAreOnlyRecycledForRecyclableClasses() {
+        SimpleRenderContext ctx = new SimpleRenderContext();
+        InteractiveDrawingRenderer renderer = new InteractiveDrawingRenderer() {
+            @Override
+            public void repaint() {
+                // The test does not run on the FX application thread.
+            }
+        };
+        renderer.setVirtualized(true);
+        ConditionallyClippedFigure clipped = new ConditionallyClippedFigure(true);
+        ConditionallyClippedFigure unclipped = new ConditionallyClippedFigure(false);
+
+        Node node = clipped.createNode(ctx);
+        clipped.updateNode(ctx, node);
+        renderer.recycleNode(clipped, node);
+        assertNull(renderer.pollRecycledNode(unclipped), "recycling is opt-in");
+
+        renderer.getRecyclableFigureClasses().add(ConditionallyClippedFigure.class);
+        renderer.recycleNode(clipped, node);
+        Node recycled = renderer.pollRecycledNode(unclipped);
+        assertSame(node, recycled);
+        unclipped.updateNode(ctx, recycled);
+        assertNull(recycled.getClip(), "state of the previous figure is reset");
+    }
+}
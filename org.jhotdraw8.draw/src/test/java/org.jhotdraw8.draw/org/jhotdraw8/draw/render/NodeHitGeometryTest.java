@@ -0,0 +1,52 @@
+/*
+ * @(#)NodeHitGeometryTest.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.draw.render;
+
+import javafx.geometry.BoundingBox;
+import org.jhotdraw8.geom.Geom;
+import org.junit.jupiter.api.Test;
+
+import java.awt.BasicStroke;
+import java.awt.Shape;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class NodeHitGeometryTest {
+    @Test
+    public void testDistanceMatchesGeomDistanceFromShape() {
+        Random rnd = new Random(0);
+        Path2D.Double polyline = new Path2D.Double();
+        polyline.moveTo(0, 0);
+        for (int i = 1; i < 500; i++) {
+            polyline.lineTo(i * 2, rnd.nextDouble() * 100);
+        }
+        testDistance(polyline, rnd);
+        testDistance(new Ellipse2D.Double(10, 20, 300, 150), rnd);
+    }
+
+    @Test
+    public void testStrokedShapeContains() {
+        Path2D.Double line = new Path2D.Double();
+        line.moveTo(0, 0);
+        line.lineTo(100, 0);
+        NodeHitGeometry instance = new NodeHitGeometry(new BoundingBox(0, 0, 100, 0), line);
+
+        assertEquals(true, instance.strokedShapeContains(4f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 4f, 50, 1.5));
+        assertEquals(false, instance.strokedShapeContains(4f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 4f, 50, 2.5));
+        assertEquals(true, instance.strokedShapeContains(6f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER, 4f, 50, 2.5));
+    }
+
+    private static void testDistance(Shape shape, Random rnd) {
+        NodeHitGeometry instance = new NodeHitGeometry(new BoundingBox(0, 0, 0, 0), shape);
+        for (int i = 0; i < 1000; i++) {
+            double x = rnd.nextDouble() * 1200 - 100;
+            double y = rnd.nextDouble() * 400 - 100;
+            assertEquals(Geom.distanceFromShape(shape, x, y), instance.distance(x, y), 1e-9);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * @(#)RenderContextTest.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+
+package org.jhotdraw8.draw.render;
+
+import javafx.geometry.BoundingBox;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import org.jhotdraw8.draw.figure.GroupFigure;
+import org.jhotdraw8.draw.figure.RectangleFigure;
+import org.jhotdraw8.draw.figure.StrokableFigure;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the virtualization and level-of-detail support of
+ * {@link RenderContext}.
+ */
+public class RenderContextTest {
+    @Test
+    public void testIsMaterialized() {
+        SimpleRenderContext ctx = new SimpleRenderContext();
+        RectangleFigure inside = new RectangleFigure(10, 10, 10, 10);
+        RectangleFigure outside = new RectangleFigure(500, 500, 10, 10);
+
+        assertTrue(ctx.isMaterialized(inside));
+        assertTrue(ctx.isMaterialized(outside));
+
+        ctx.set(RenderContext.VIRTUALIZATION_BOUNDS, new BoundingBox(0, 0, 100, 100));
+        assertTrue(ctx.isMaterialized(inside));
+        assertFalse(ctx.isMaterialized(outside));
+    }
+
+    @Test
+    public void testIsBelowMinDetailSize() {
+        SimpleRenderContext ctx = new SimpleRenderContext();
+        RectangleFigure small = new RectangleFigure(0, 0, 4, 2);
+        RectangleFigure large = new RectangleFigure(0, 0, 40, 20);
+        small.set(StrokableFigure.STROKE, null);
+        large.set(StrokableFigure.STROKE, null);
+
+        assertFalse(ctx.isBelowMinDetailSize(small), "disabled by default");
+
+        ctx.set(RenderContext.MIN_DETAIL_SIZE, 8.0);
+        assertTrue(ctx.isBelowMinDetailSize(small));
+        assertFalse(ctx.isBelowMinDetailSize(large));
+
+        ctx.set(RenderContext.VIEW_SCALE, 0.1);
+        assertTrue(ctx.isBelowMinDetailSize(large));
+
+        ctx.set(RenderContext.VIEW_SCALE, 4.0);
+        assertFalse(ctx.isBelowMinDetailSize(small));
+
+        ctx.set(RenderContext.VIEW_SCALE, 0.1);
+        ctx.set(RenderContext.RENDERING_INTENT, RenderingIntent.EXPORT);
+        assertFalse(ctx.isBelowMinDetailSize(large), "only in the editor");
+    }
+
+    @Test
+    public void testGroupFigureOnlyMaterializesChildrenInVirtualizationBounds() {
+        SimpleRenderContext ctx = new SimpleRenderContext();
+        GroupFigure group = new GroupFigure();
+        RectangleFigure inside = new RectangleFigure(10, 10, 10, 10);
+        RectangleFigure outside = new RectangleFigure(500, 500, 10, 10);
+        group.getChildren().addAll(inside, outside);
+
+        ctx.set(RenderContext.VIRTUALIZATION_BOUNDS, new BoundingBox(0, 0, 100, 100));
+        Node node = ctx.getNode(group);
+        group.updateNode(ctx, node);
+        assertEquals(1, ((Group) node).getChildren().size());
+        assertSame(ctx.getNode(inside), ((Group) node).getChildren().get(0));
+
+        ctx.set(RenderContext.VIRTUALIZATION_BOUNDS, null);
+        group.updateNode(ctx, node);
+        assertEquals(2, ((Group) node).getChildren().size());
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * @(#)TiledCanvasRendererTest.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+
+package org.jhotdraw8.draw.render;
+
+import javafx.geometry.BoundingBox;
+import javafx.scene.Group;
+import org.jhotdraw8.draw.figure.Figure;
+import org.jhotdraw8.draw.figure.Layer;
+import org.jhotdraw8.draw.figure.LayerFigure;
+import org.jhotdraw8.draw.figure.RectangleFigure;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests the tile bookkeeping of {@link TiledCanvasRenderer}.
+ */
+public class TiledCanvasRendererTest {
+    @Test
+    public void testOnlyDirtyTilesAreRasterized() {
+        SimpleRenderContext ctx = new SimpleRenderContext();
+        Layer layer = new LayerFigure();
+        RectangleFigure r1 = new RectangleFigure(10, 10, 20, 20);
+        RectangleFigure r2 = new RectangleFigure(300, 300, 20, 20);
+        layer.getChildren().addAll(r1, r2);
+
+        TiledCanvasRenderer renderer = new TiledCanvasRenderer(layer, 256);
+        BoundingBox clip = new BoundingBox(0, 0, 512, 512);
+        assertEquals(4, renderer.paint(ctx, clip, 1.0));
+        assertEquals(4, ((Group) renderer.getNode()).getChildren().size());
+        assertEquals(0, renderer.paint(ctx, clip, 1.0), "static content");
+
+        r1.reshapeInLocal(20, 20, 20, 20);
+        renderer.invalidateFigure(r1);
+        assertEquals(1, renderer.getDirtyTileCount());
+        assertEquals(1, renderer.paint(ctx, clip, 1.0));
+
+        r2.reshapeInLocal(100, 100, 20, 20);
+        renderer.invalidateFigure(r2);
+        assertEquals(2, renderer.paint(ctx, clip, 1.0), "old and new region");
+
+        renderer.invalidateStructure();
+        assertEquals(4, renderer.paint(ctx, clip, 1.0));
+
+        assertEquals(1, renderer.paint(ctx, clip, 0.5), "scale changed");
+        assertEquals(1, renderer.getTileCount());
+    }
+
+    @Test
+    public void testTilesOutsideOfClipAreRemoved() {
+        SimpleRenderContext ctx = new SimpleRenderContext();
+        Layer layer = new LayerFigure();
+        TiledCanvasRenderer renderer = new TiledCanvasRenderer(layer, 256);
+
+        renderer.paint(ctx, new BoundingBox(0, 0, 512, 512), 1.0);
+        assertEquals(4, renderer.getTileCount());
+        assertEquals(2, renderer.paint(ctx, new BoundingBox(256, 0, 500, 500), 1.0));
+        assertEquals(4, renderer.getTileCount());
+        assertEquals(0, renderer.paint(ctx, new BoundingBox(300, 300, 100, 100), 1.0));
+        assertEquals(1, renderer.getTileCount());
+    }
+
+    @Test
+    public void testFindFiguresInFrontToBackOrder() {
+        Layer layer = new LayerFigure();
+        RectangleFigure r1 = new RectangleFigure(10, 10, 20, 20);
+        RectangleFigure r2 = new RectangleFigure(20, 20, 20, 20);
+        RectangleFigure r3 = new RectangleFigure(300, 300, 20, 20);
+        layer.getChildren().addAll(r1, r2, r3);
+        TiledCanvasRenderer renderer = new TiledCanvasRenderer(layer, 256);
+
+        List<Figure> found = new ArrayList<>();
+        renderer.findFigures(new BoundingBox(25, 25, 1, 1), found);
+        assertEquals(List.of(r2, r1), found);
+
+        found.clear();
+        renderer.findFigures(new BoundingBox(100, 100, 10, 10), found);
+        assertEquals(List.of(), found);
+    }
+}
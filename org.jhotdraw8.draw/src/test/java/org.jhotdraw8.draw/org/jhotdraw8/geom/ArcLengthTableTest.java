@@ -0,0 +1,91 @@
+/*
+ * @(#)ArcLengthTableTest.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+
+package org.jhotdraw8.geom;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.geom.CubicCurve2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Point2D;
+import java.awt.geom.QuadCurve2D;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ArcLengthTableTest {
+    private static final double EPSILON = 1e-6;
+
+    @Test
+    public void testPolyline() {
+        Path2D.Double path = new Path2D.Double();
+        path.moveTo(0, 0);
+        path.lineTo(10, 0);
+        path.lineTo(10, 0);// degenerated segment
+        path.lineTo(10, 5);
+        path.closePath();
+        ArcLengthTable instance = new ArcLengthTable(path);
+
+        assertEquals(3, instance.size());
+        assertEquals(15 + Math.hypot(10, 5), instance.getLength(), EPSILON);
+        assertEquals(1, instance.getElementIndex(0));
+        assertEquals(3, instance.getElementIndex(1));
+        assertEquals(4, instance.getElementIndex(2));
+        assertEquals(1, instance.getSegmentAt(12));
+        assertEquals(new Point2D.Double(4, 0), instance.getPointAt(4));
+        assertEquals(new Point2D.Double(10, 2), instance.getPointAt(12));
+
+        PointAndTangent pt = instance.getPointAndTangentAt(12);
+        assertEquals(0, pt.getTangentX(), EPSILON);
+        assertEquals(5, pt.getTangentY(), EPSILON);
+
+        // distances outside the path are clamped
+        assertEquals(new Point2D.Double(0, 0), instance.getPointAt(-1));
+        assertEquals(new Point2D.Double(0, 0), instance.getPointAt(instance.getLength() + 1));
+    }
+
+    @Test
+    public void testCubicCurve() {
+        double[] b = {0, 0, 0, 10, 10, 10, 10, 0};
+        CubicCurve2D.Double curve = new CubicCurve2D.Double(b[0], b[1], b[2], b[3], b[4], b[5], b[6], b[7]);
+        ArcLengthTable instance = new ArcLengthTable(curve);
+
+        double expectedLength = BezierCurves.arcLengthGravesen(b, 1e-9);
+        assertEquals(expectedLength, instance.getLength(), 1e-6);
+
+        // the curve is symmetric, the point at half the length is at t=0.5
+        assertEquals(0.5, instance.getParameterAt(0, expectedLength / 2), EPSILON);
+        Point2D.Double mid = instance.getPointAt(expectedLength / 2);
+        assertEquals(5, mid.x, EPSILON);
+        assertEquals(7.5, mid.y, EPSILON);
+
+        // distance and parameter are inverse functions
+        for (int i = 0; i <= 20; i++) {
+            double distance = expectedLength * i / 20;
+            double t = instance.getParameterAt(0, distance);
+            assertEquals(distance, instance.getLengthAt(0, t), 1e-6, "distance=" + distance);
+        }
+    }
+
+    @Test
+    public void testQuadCurve() {
+        QuadCurve2D.Double curve = new QuadCurve2D.Double(0, 0, 1, 0, 1, 1);
+        ArcLengthTable instance = new ArcLengthTable(curve);
+
+        double expectedLength = BezierCurves.arcLengthGravesen(new double[]{0, 0, 2 / 3.0, 0, 1, 1 / 3.0, 1, 1}, 1e-9);
+        assertEquals(expectedLength, instance.getLength(), 1e-6);
+        Point2D.Double mid = instance.getPointAt(instance.getLength() / 2);
+        assertEquals(0.75, mid.x, EPSILON);
+        assertEquals(0.25, mid.y, EPSILON);
+    }
+
+    @Test
+    public void testEmptyPath() {
+        ArcLengthTable instance = new ArcLengthTable(new Path2D.Double());
+        assertEquals(0, instance.size());
+        assertEquals(0, instance.getLength());
+        assertEquals(-1, instance.getSegmentAt(0));
+        assertEquals(new Point2D.Double(0, 0), instance.getPointAt(5));
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * @(#)BezierFitTest.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+
+package org.jhotdraw8.geom;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.geom.Path2D;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BezierFitTest {
+    /**
+     * Creates a noisy freehand stroke with occasional sharp turns and
+     * duplicated points.
+     */
+    private static double[] createStroke(long seed, int n) {
+        Random r = new Random(seed);
+        double[] xy = new double[n * 2];
+        double x = 0, y = 0, a = 0;
+        for (int i = 0; i < n; i++) {
+            if (i == 0 || r.nextInt(10) != 0) {
+                a += r.nextGaussian() * (r.nextInt(20) == 0 ? 2 : 0.2);
+                x += Math.cos(a) * 3 + r.nextGaussian() * 0.5;
+                y += Math.sin(a) * 3 + r.nextGaussian() * 0.5;
+            }
+            xy[i * 2] = x;
+            xy[i * 2 + 1] = y;
+        }
+        return xy;
+    }
+
+    private static String toSvg(AwtPathBuilder builder) {
+        Path2D.Double path = builder.build();
+        return SvgPaths.doubleSvgStringFromAwt(path);
+    }
+
+    @Test
+    public void testParallelFitIsSameAsSequentialFit() {
+        for (int k = 0; k < 50; k++) {
+            int n = k < 4 ? k : 100 + k * 20;
+            double[] xy = createStroke(k, n);
+            double error = 0.5 + (k % 8) * 0.5;
+
+            AwtPathBuilder sequential = new AwtPathBuilder();
+            BezierFit.fitBezierPath(sequential, xy, n, error);
+            AwtPathBuilder parallel = new AwtPathBuilder();
+            BezierFit.fitBezierPath(parallel, xy, n, error, ForkJoinPool.commonPool());
+
+            assertEquals(toSvg(sequential), toSvg(parallel), "k=" + k);
+        }
+    }
+
+    @Test
+    public void testIncrementalFitIsSameAsBatchFit() {
+        for (int k = 0; k < 50; k++) {
+            int n = k < 4 ? k : 100 + k * 20;
+            double[] xy = createStroke(k, n);
+            double error = 0.5 + (k % 8) * 0.5;
+
+            AwtPathBuilder batch = new AwtPathBuilder();
+            BezierFit.fitBezierPath(batch, xy, n, error);
+            AwtPathBuilder incremental = new AwtPathBuilder();
+            IncrementalBezierFit instance = new IncrementalBezierFit(incremental, error);
+            for (int i = 0; i < n; i++) {
+                instance.addPoint(xy[i * 2], xy[i * 2 + 1]);
+            }
+            instance.finish();
+
+            assertEquals(toSvg(batch), toSvg(incremental), "k=" + k);
+        }
+    }
+
+    @Test
+    public void testIncrementalFitWithMaxRunLength() {
+        int n = 2000;
+        double[] xy = createStroke(7, n);
+        AwtPathBuilder builder = new AwtPathBuilder();
+        IncrementalBezierFit instance = new IncrementalBezierFit(builder, 2.0, 32);
+        for (int i = 0; i < n; i++) {
+            instance.addPoint(xy[i * 2], xy[i * 2 + 1]);
+            assertTrue(instance.getPendingPointCount() <= 32, "pending points at i=" + i);
+        }
+        instance.finish();
+        assertEquals(0, instance.getPendingPointCount());
+
+        Path2D.Double path = builder.build();
+        assertEquals(xy[n * 2 - 2], path.getCurrentPoint().getX(), 1e-9);
+        assertEquals(xy[n * 2 - 1], path.getCurrentPoint().getY(), 1e-9);
+    }
+}
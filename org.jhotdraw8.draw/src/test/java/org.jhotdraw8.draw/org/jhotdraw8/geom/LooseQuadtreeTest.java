@@ -0,0 +1,120 @@
+/*
+ * @(#)LooseQuadtreeTest.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+package org.jhotdraw8.geom;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LooseQuadtreeTest {
+    @Test
+    public void testQueryFindsIntersectingElements() {
+        LooseQuadtree<String> instance = new LooseQuadtree<>(8);
+        instance.put("a", 0, 0, 10, 10);
+        instance.put("b", 100, 100, 110, 110);
+        instance.put("c", -5000, -5000, -4990, -4990);
+        instance.put("d", 5, 5, 5, 5);
+
+        assertEquals(Set.of("a", "d"), query(instance, 4, 4, 6, 6));
+        assertEquals(Set.of("b"), query(instance, 105, 105, 200, 200));
+        assertEquals(Set.of("c"), query(instance, -5000, -5000, -4000, -4000));
+        assertEquals(Set.of(), query(instance, 20, 20, 30, 30));
+    }
+
+    @Test
+    public void testPutUpdatesBounds() {
+        LooseQuadtree<String> instance = new LooseQuadtree<>();
+        instance.put("a", 0, 0, 10, 10);
+        instance.put("a", 1000, 1000, 1010, 1010);
+
+        assertEquals(1, instance.size());
+        assertEquals(Set.of(), query(instance, 0, 0, 10, 10));
+        assertEquals(Set.of("a"), query(instance, 1000, 1000, 1001, 1001));
+    }
+
+    @Test
+    public void testRemove() {
+        LooseQuadtree<String> instance = new LooseQuadtree<>();
+        instance.put("a", 0, 0, 10, 10);
+        instance.put("b", 0, 0, 10, 10);
+
+        assertTrue(instance.remove("a"));
+        assertFalse(instance.remove("a"));
+        assertFalse(instance.contains("a"));
+        assertEquals(Set.of("b"), query(instance, 0, 0, 10, 10));
+    }
+
+    @Test
+    public void testNonFiniteBoundsAreAlwaysFound() {
+        LooseQuadtree<String> instance = new LooseQuadtree<>();
+        instance.put("a", Double.NEGATIVE_INFINITY, 0, Double.POSITIVE_INFINITY, 10);
+        instance.put("b", Double.NaN, 0, 10, 10);
+
+        assertEquals(Set.of("a", "b"), query(instance, 500, 500, 501, 501));
+        instance.remove("a");
+        assertEquals(Set.of("b"), query(instance, 500, 500, 501, 501));
+    }
+
+    @Test
+    public void testRandomAgainstBruteForce() {
+        Random rnd = new Random(0);
+        int n = 2000;
+        LooseQuadtree<Integer> instance = new LooseQuadtree<>(16);
+        double[][] boxes = new double[n][];
+        // the tree compares elements by identity: we must reuse the boxed keys
+        Integer[] keys = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = i;
+        }
+        for (int i = 0; i < n; i++) {
+            boxes[i] = randomBox(rnd);
+            instance.put(keys[i], boxes[i][0], boxes[i][1], boxes[i][2], boxes[i][3]);
+        }
+        for (int i = 0; i < n; i += 3) {
+            boxes[i] = randomBox(rnd);
+            instance.put(keys[i], boxes[i][0], boxes[i][1], boxes[i][2], boxes[i][3]);
+        }
+        for (int i = 0; i < n; i += 7) {
+            boxes[i] = null;
+            instance.remove(keys[i]);
+        }
+
+        for (int q = 0; q < 200; q++) {
+            double[] r = randomBox(rnd);
+            Set<Integer> expected = new HashSet<>();
+            for (int i = 0; i < n; i++) {
+                double[] b = boxes[i];
+                if (b != null && !(r[2] < b[0] || r[3] < b[1] || r[0] > b[2] || r[1] > b[3])) {
+                    expected.add(i);
+                }
+            }
+            assertEquals(expected, query(instance, r[0], r[1], r[2], r[3]));
+        }
+    }
+
+    private static double[] randomBox(Random rnd) {
+        double x = rnd.nextDouble() * 10_000 - 5_000;
+        double y = rnd.nextDouble() * 10_000 - 5_000;
+        double w = rnd.nextDouble() * rnd.nextDouble() * 500;
+        double h = rnd.nextDouble() * rnd.nextDouble() * 500;
+        return new double[]{x, y, x + w, y + h};
+    }
+
+    private static <E> Set<E> query(LooseQuadtree<E> instance, double minX, double minY, double maxX, double maxY) {
+        List<E> list = new ArrayList<>();
+        instance.query(minX, minY, maxX, maxY, list);
+        Set<E> set = new HashSet<>(list);
+        assertEquals(list.size(), set.size(), "query must not return duplicates");
+        return set;
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * @(#)ContourCombinerTest.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+
+package org.jhotdraw8.geom.contour;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+public class ContourCombinerTest {
+    private static final double EPSILON = 1e-6;
+
+    @TestFactory
+    public @NonNull List<DynamicTest> dynamicTestsCombineSquares() {
+        PolyArcPath a = square(0, 0, 10);
+        PolyArcPath b = square(5, 5, 10);
+        PolyArcPath inner = square(2, 2, 4);
+        PolyArcPath adjacent = square(10, 0, 10);
+        PolyArcPath disjoint = square(20, 20, 5);
+        return Arrays.asList(
+                dynamicTest("overlapping union", () -> testCombine(a, b, PlineCombineMode.Union, 175, 1, 0)),
+                dynamicTest("overlapping intersect", () -> testCombine(a, b, PlineCombineMode.Intersect, 25, 1, 0)),
+                dynamicTest("overlapping exclude", () -> testCombine(a, b, PlineCombineMode.Exclude, 75, 1, 0)),
+                dynamicTest("overlapping xor", () -> testCombine(a, b, PlineCombineMode.XOR, 150, 2, 0)),
+                dynamicTest("contained union", () -> testCombine(a, inner, PlineCombineMode.Union, 100, 1, 0)),
+                dynamicTest("contained intersect", () -> testCombine(a, inner, PlineCombineMode.Intersect, 16, 1, 0)),
+                dynamicTest("contained exclude", () -> testCombine(a, inner, PlineCombineMode.Exclude, 84, 1, 1)),
+                dynamicTest("container exclude", () -> testCombine(inner, a, PlineCombineMode.Exclude, 0, 0, 0)),
+                dynamicTest("adjacent union", () -> testCombine(a, adjacent, PlineCombineMode.Union, 200, 1, 0)),
+                dynamicTest("adjacent intersect", () -> testCombine(a, adjacent, PlineCombineMode.Intersect, 0, 0, 0)),
+                dynamicTest("adjacent exclude", () -> testCombine(a, adjacent, PlineCombineMode.Exclude, 100, 1, 0)),
+                dynamicTest("identical union", () -> testCombine(a, square(0, 0, 10), PlineCombineMode.Union, 100, 1, 0)),
+                dynamicTest("disjoint union", () -> testCombine(a, disjoint, PlineCombineMode.Union, 125, 2, 0)),
+                dynamicTest("disjoint intersect", () -> testCombine(a, disjoint, PlineCombineMode.Intersect, 0, 0, 0)),
+                dynamicTest("clockwise input", () -> testCombine(reversed(a), b, PlineCombineMode.Union, 175, 1, 0))
+        );
+    }
+
+    private void testCombine(@NonNull PolyArcPath a, @NonNull PolyArcPath b, @NonNull PlineCombineMode mode,
+                             double expectedArea, int expectedRemaining, int expectedSubtracted) {
+        PlineCombineResult result = ContourCombiner.combine(a, b, mode);
+        assertEquals(expectedArea, result.getArea(), EPSILON, result.toString());
+        assertEquals(expectedRemaining, result.getRemaining().size(), result.toString());
+        assertEquals(expectedSubtracted, result.getSubtracted().size(), result.toString());
+    }
+
+    @Test
+    public void testCombineCirclesWithArcs() {
+        // two unit circles with their centers at a distance of 1
+        PolyArcPath a = circle(0, 0, 1);
+        PolyArcPath b = circle(1, 0, 1);
+        double lens = 2 * Math.PI / 3 - Math.sqrt(3) / 2;
+
+        assertEquals(Math.PI, a.getArea(), EPSILON);
+        assertEquals(2 * Math.PI - lens, ContourCombiner.combine(a, b, PlineCombineMode.Union).getArea(), EPSILON);
+        assertEquals(lens, ContourCombiner.combine(a, b, PlineCombineMode.Intersect).getArea(), EPSILON);
+        assertEquals(Math.PI - lens, ContourCombiner.combine(a, b, PlineCombineMode.Exclude).getArea(), EPSILON);
+        assertEquals(2 * (Math.PI - lens), ContourCombiner.combine(a, b, PlineCombineMode.XOR).getArea(), EPSILON);
+    }
+
+    @Test
+    public void testUnionOfRegionWithHole() {
+        PlineCombineResult ring = ContourCombiner.combine(square(0, 0, 10), square(3, 3, 4), PlineCombineMode.Exclude);
+        List<PolyArcPath> plug = List.of(square(2, 2, 6));
+        PlineCombineResult result = ContourCombiner.combine(ring.getAll(), plug, PlineCombineMode.Union);
+        assertEquals(100, result.getArea(), EPSILON);
+        assertEquals(0, result.getSubtracted().size());
+    }
+
+    @Test
+    public void testBatchUnion() {
+        // a grid of overlapping squares, the union covers 0..(n + 1) x 0..(n + 1)
+        int n = 12;
+        List<PolyArcPath> squares = new ArrayList<>();
+        for (int y = 0; y < n; y++) {
+            for (int x = 0; x < n; x++) {
+                squares.add(square(x, y, 2));
+            }
+        }
+        double expected = (n + 1) * (n + 1);
+
+        PlineCombineResult sequential = ContourCombiner.union(squares);
+        assertEquals(expected, sequential.getArea(), EPSILON);
+        assertEquals(1, sequential.getRemaining().size());
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            PlineCombineResult parallel = ContourCombiner.union(squares, pool);
+            assertEquals(expected, parallel.getArea(), EPSILON);
+            assertEquals(1, parallel.getRemaining().size());
+            assertEquals(0, parallel.getSubtracted().size());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static @NonNull PolyArcPath square(double x, double y, double size) {
+        PolyArcPath p = new PolyArcPath();
+        p.addVertex(x, y);
+        p.addVertex(x + size, y);
+        p.addVertex(x + size, y + size);
+        p.addVertex(x, y + size);
+        p.isClosed(true);
+        return p;
+    }
+
+    private static @NonNull PolyArcPath circle(double cx, double cy, double r) {
+        PolyArcPath p = new PolyArcPath();
+        p.addVertex(cx - r, cy, 1.0);
+        p.addVertex(cx + r, cy, 1.0);
+        p.isClosed(true);
+        return p;
+    }
+
+    private static @NonNull PolyArcPath reversed(@NonNull PolyArcPath pline) {
+        PolyArcPath p = new PolyArcPath();
+        for (PlineVertex v : pline) {
+            p.addVertex(v.getX(), v.getY(), v.bulge());
+        }
+        p.isClosed(true);
+        PolyArcPath.invertDirection(p);
+        return p;
+    }
+}
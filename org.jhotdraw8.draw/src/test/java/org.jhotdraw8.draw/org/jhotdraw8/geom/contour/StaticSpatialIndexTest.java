@@ -0,0 +1,156 @@
+/*
+ * @(#)StaticSpatialIndexTest.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+
+package org.jhotdraw8.geom.contour;
+
+import org.jhotdraw8.collection.IntArrayList;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class StaticSpatialIndexTest {
+    private static double[] createBoxes(long seed, int numItems) {
+        Random r = new Random(seed);
+        double[] boxes = new double[numItems * 4];
+        for (int i = 0; i < numItems; i++) {
+            double x = r.nextDouble() * 1000;
+            double y = r.nextDouble() * 1000;
+            boxes[i * 4] = x;
+            boxes[i * 4 + 1] = y;
+            boxes[i * 4 + 2] = x + r.nextDouble() * 20;
+            boxes[i * 4 + 3] = y + r.nextDouble() * 20;
+        }
+        return boxes;
+    }
+
+    private static int[] bruteForceQuery(double[] boxes, int numItems, double minX, double minY, double maxX, double maxY) {
+        IntArrayList result = new IntArrayList();
+        for (int i = 0; i < numItems; i++) {
+            if (!(maxX < boxes[i * 4] || maxY < boxes[i * 4 + 1] || minX > boxes[i * 4 + 2] || minY > boxes[i * 4 + 3])) {
+                result.addAsInt(i);
+            }
+        }
+        return result.toIntArray();
+    }
+
+    private static int[] sorted(IntArrayList list) {
+        IntArrayList copy = new IntArrayList(list.size());
+        copy.addAllAsInt(list);
+        copy.sort();
+        return copy.toIntArray();
+    }
+
+    private static double squaredDistance(double[] boxes, int i, double x, double y) {
+        double dx = Math.max(0, Math.max(boxes[i * 4] - x, x - boxes[i * 4 + 2]));
+        double dy = Math.max(0, Math.max(boxes[i * 4 + 1] - y, y - boxes[i * 4 + 3]));
+        return dx * dx + dy * dy;
+    }
+
+    @Test
+    public void testBulkLoadIsSameAsAdd() {
+        for (int numItems : new int[]{1, 16, 17, 1000, 10_000}) {
+            double[] boxes = createBoxes(numItems, numItems);
+            StaticSpatialIndex added = new StaticSpatialIndex(numItems);
+            for (int i = 0; i < numItems; i++) {
+                added.add(boxes[i * 4], boxes[i * 4 + 1], boxes[i * 4 + 2], boxes[i * 4 + 3]);
+            }
+            added.finish();
+            StaticSpatialIndex bulk = StaticSpatialIndex.bulkLoad(boxes, numItems, 16, ForkJoinPool.commonPool());
+
+            ByteBuffer expected = ByteBuffer.allocate(added.getByteSize());
+            added.writeTo(expected);
+            ByteBuffer actual = ByteBuffer.allocate(bulk.getByteSize());
+            bulk.writeTo(actual);
+            assertArrayEquals(expected.array(), actual.array(), "numItems=" + numItems);
+        }
+    }
+
+    @Test
+    public void testQueryAll() {
+        int numItems = 10_000;
+        double[] boxes = createBoxes(1, numItems);
+        StaticSpatialIndex instance = StaticSpatialIndex.bulkLoad(boxes, numItems, 16, null);
+
+        int numQueries = 500;
+        double[] queryBoxes = createBoxes(2, numQueries);
+        IntArrayList[] results = instance.queryAll(queryBoxes, numQueries, ForkJoinPool.commonPool());
+        assertEquals(numQueries, results.length);
+        for (int q = 0; q < numQueries; q++) {
+            int[] expected = bruteForceQuery(boxes, numItems,
+                    queryBoxes[q * 4], queryBoxes[q * 4 + 1], queryBoxes[q * 4 + 2], queryBoxes[q * 4 + 3]);
+            assertArrayEquals(expected, sorted(results[q]), "q=" + q);
+        }
+    }
+
+    @Test
+    public void testNearest() {
+        int numItems = 2000;
+        double[] boxes = createBoxes(3, numItems);
+        StaticSpatialIndex instance = StaticSpatialIndex.bulkLoad(boxes, numItems, 8, null);
+
+        Random r = new Random(4);
+        for (int q = 0; q < 100; q++) {
+            double x = r.nextDouble() * 1000;
+            double y = r.nextDouble() * 1000;
+            IntArrayList results = new IntArrayList();
+            instance.nearest(x, y, 10, Double.POSITIVE_INFINITY, results);
+            assertEquals(10, results.size());
+
+            // results are ordered by distance
+            for (int i = 1; i < results.size(); i++) {
+                assertTrue(squaredDistance(boxes, results.getAsInt(i - 1), x, y)
+                        <= squaredDistance(boxes, results.getAsInt(i), x, y));
+            }
+
+            // no other item is nearer than the last result
+            double maxSquaredDistance = squaredDistance(boxes, results.getLastAsInt(), x, y);
+            int nearer = 0;
+            for (int i = 0; i < numItems; i++) {
+                if (squaredDistance(boxes, i, x, y) < maxSquaredDistance) {
+                    nearer++;
+                }
+            }
+            assertTrue(nearer < 10);
+        }
+
+        IntArrayList results = new IntArrayList();
+        instance.nearest(-100, -100, 10, 1, results);
+        assertEquals(0, results.size());
+    }
+
+    @Test
+    public void testWriteToAndReadFrom() {
+        int numItems = 1000;
+        double[] boxes = createBoxes(5, numItems);
+        StaticSpatialIndex instance = StaticSpatialIndex.bulkLoad(boxes, numItems, 16, null);
+
+        ByteBuffer buf = ByteBuffer.allocateDirect(instance.getByteSize() + 8).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putLong(42L);
+        instance.writeTo(buf);
+        assertEquals(instance.getByteSize() + 8, buf.position());
+
+        buf.flip();
+        assertEquals(42L, buf.getLong());
+        StaticSpatialIndex read = StaticSpatialIndex.readFrom(buf);
+        assertEquals(numItems, read.size());
+        assertEquals(buf.limit(), buf.position());
+
+        IntArrayList expected = new IntArrayList();
+        instance.query(100, 100, 400, 300, expected);
+        IntArrayList actual = new IntArrayList();
+        read.query(100, 100, 400, 300, actual);
+        assertEquals(expected, actual);
+
+        assertThrows(IllegalArgumentException.class, () -> StaticSpatialIndex.readFrom(ByteBuffer.allocate(64)));
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * @(#)IntersectPathIteratorPathIteratorTest.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+
+package org.jhotdraw8.geom.intersect;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.geom.SvgPaths;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+public class IntersectPathIteratorPathIteratorTest {
+    @TestFactory
+    public @NonNull List<DynamicTest> dynamicTestsIntersectPathIteratorPathIterator() {
+        return Arrays.asList(
+                dynamicTest("lines crossing", () -> testIntersectPathIteratorPathIterator(
+                        "M0,0 L10,10", "M0,10 L10,0", 1)),
+                dynamicTest("quad crossing line", () -> testIntersectPathIteratorPathIterator(
+                        "M0,0 Q5,10 10,0", "M0,4 L10,4", 2)),
+                dynamicTest("closed rectangles", () -> testIntersectPathIteratorPathIterator(
+                        "M0,0 L10,0 10,10 0,10 Z", "M5,5 L15,5 15,15 5,15 Z", 2)),
+                dynamicTest("disjoint", () -> testIntersectPathIteratorPathIterator(
+                        "M0,0 L10,0 10,10 0,10 Z", "M20,20 L30,20 30,30 Z", 0))
+        );
+    }
+
+    private void testIntersectPathIteratorPathIterator(String a, String b, int expectedCount) throws ParseException {
+        IntersectionResultEx actual = IntersectPathIteratorPathIterator.intersectPathIteratorPathIteratorEx(
+                SvgPaths.awtShapeFromSvgString(a).getPathIterator(null),
+                SvgPaths.awtShapeFromSvgString(b).getPathIterator(null));
+        assertEquals(expectedCount, actual.size(), actual.toString());
+        assertEquals(expectedCount == 0 ? IntersectionStatus.NO_INTERSECTION : IntersectionStatus.INTERSECTION,
+                actual.getStatus());
+    }
+
+    @Test
+    public void testCirclesReportSegmentsAndArguments() {
+        Ellipse2D.Double a = new Ellipse2D.Double(0, 0, 10, 10);
+        Ellipse2D.Double b = new Ellipse2D.Double(5, 0, 10, 10);
+        IntersectionResultEx actual = IntersectPathIteratorPathIterator.intersectPathIteratorPathIteratorEx(
+                a.getPathIterator(null), b.getPathIterator(null));
+        assertEquals(2, actual.size(), actual.toString());
+        double dy = Math.sqrt(5.0 * 5.0 - 2.5 * 2.5);
+        assertEquals(7.5, actual.get(0).getX(), 1e-3);
+        assertEquals(7.5, actual.get(1).getX(), 1e-3);
+        assertEquals(10.0, actual.get(0).getY() + actual.get(1).getY(), 1e-3);
+        assertEquals(dy, Math.abs(actual.get(0).getY() - 5.0), 1e-3);
+        for (IntersectionPointEx p : actual) {
+            // the ellipse path consists of a move-to, 4 cubic curves, and a close
+            assertTrue(1 <= p.getSegmentA() && p.getSegmentA() <= 4, p.toString());
+            assertTrue(1 <= p.getSegmentB() && p.getSegmentB() <= 4, p.toString());
+            assertTrue(0 <= p.getArgumentA() && p.getArgumentA() <= 1, p.toString());
+        }
+    }
+
+    @Test
+    public void testManySegmentsMatchesAllPairs() {
+        // a zig-zag polyline crossed by a sine-like polyline
+        int n = 200;
+        Path2D.Double a = new Path2D.Double();
+        Path2D.Double b = new Path2D.Double();
+        a.moveTo(0, 0);
+        b.moveTo(0, 0.5);
+        for (int i = 1; i <= n; i++) {
+            a.lineTo(i, (i % 2 == 0) ? 0 : 1);
+            b.lineTo(i, 0.5 + 0.25 * Math.sin(i));
+        }
+        IntersectionResultEx actual = IntersectPathIteratorPathIterator.intersectPathIteratorPathIteratorEx(
+                a.getPathIterator(null), b.getPathIterator(null));
+
+        int expected = 0;
+        for (int i = 1; i <= n; i++) {
+            IntersectionResultEx inter = IntersectLinePathIterator.intersectLinePathIteratorEx(
+                    i - 1, ((i - 1) % 2 == 0) ? 0 : 1, i, (i % 2 == 0) ? 0 : 1, b.getPathIterator(null));
+            expected += inter.size();
+        }
+        assertEquals(expected, actual.size());
+        for (IntersectionPointEx p : actual) {
+            assertEquals(p.getSegmentA(), p.getSegmentB());
+        }
+    }
+}
@@ -7,6 +7,7 @@ package org.jhotdraw8.geom.intersect;
 import org.jhotdraw8.annotation.NonNull;
 import org.jhotdraw8.collection.DoubleArrayList;
 import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestFactory;
 
 import java.util.Arrays;
@@ -14,6 +15,7 @@ import java.util.List;
 
 import static java.lang.Math.sqrt;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.DynamicTest.dynamicTest;
 
 /**
@@ -53,6 +55,68 @@ public class PolynomialTest {
         );
     }
 
+    @TestFactory
+    public @NonNull List<DynamicTest> dynamicTestsGetRootsInIntervalWithBuffers() {
+        return Arrays.asList(
+                // (x - 0.1)(x - 0.2)(x - 0.3)(x - 0.4)(x - 0.5)(x - 0.6)
+                dynamicTest("degree 6", () -> testGetRootsInIntervalWithBuffers(
+                        new double[]{0.00072, -0.01764, 0.1624, -0.735, 1.75, -2.1, 1.0}, 0.0, 1.0,
+                        new double[]{0.1, 0.2, 0.3, 0.4, 0.5, 0.6})),
+                dynamicTest("degree 6 partial interval", () -> testGetRootsInIntervalWithBuffers(
+                        new double[]{0.00072, -0.01764, 0.1624, -0.735, 1.75, -2.1, 1.0}, 0.25, 0.45,
+                        new double[]{0.3, 0.4})),
+                dynamicTest("degree 5", () -> testGetRootsInIntervalWithBuffers(
+                        new double[]{-288000.0, 2330400.0, -7454400.0, 1.25376E7, -1.1616E7, 4646400.0}, -5.0, 5.0,
+                        new double[]{0.327910033575923, 0.5, 0.838094098688656})),
+                dynamicTest("quartic", () -> testGetRootsInIntervalWithBuffers(
+                        new double[]{2330400.0, -1.49088E7, 3.76128E7, -4.6464E7, 2.3232E7}, 0.0, 1.0,
+                        new double[]{0.405180683762359, 0.722769898622671})),
+                dynamicTest("constant", () -> testGetRootsInIntervalWithBuffers(
+                        new double[]{5}, -5.0, 5.0,
+                        new double[]{}))
+        );
+    }
+
+    public static void testGetRootsInIntervalWithBuffers(@NonNull double[] coefs, double from, double to, @NonNull double[] expected) {
+        int degree = coefs.length - 1;
+        double[] roots = new double[degree];
+        int numRoots = Polynomial.getRootsInInterval(coefs, from, to, roots, new double[degree * degree]);
+        assertEquals(expected.length, numRoots);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], roots[i], 1e-6, "root #" + i);
+        }
+
+        // the object-oriented API must yield the same roots
+        DoubleArrayList actual = new Polynomial(false, coefs).getRootsInInterval(from, to);
+        assertEquals(numRoots, actual.size());
+        for (int i = 0; i < numRoots; i++) {
+            assertEquals(roots[i], actual.get(i), "root #" + i);
+        }
+    }
+
+    @Test
+    public void testGetRootsWithBuffer() {
+        double[] roots = new double[4];
+        // x^3 - 6x^2 + 11x - 6 = (x - 1)(x - 2)(x - 3)
+        int numRoots = Polynomial.getRoots(new double[]{-6, 11, -6, 1}, roots);
+        assertEquals(3, numRoots);
+        Arrays.sort(roots, 0, numRoots);
+        assertEquals(1.0, roots[0], 1e-6);
+        assertEquals(2.0, roots[1], 1e-6);
+        assertEquals(3.0, roots[2], 1e-6);
+
+        // the leading coefficient is zero: 2x + 1
+        numRoots = Polynomial.getRoots(new double[]{1, 2, 0, 0}, roots);
+        assertEquals(1, numRoots);
+        assertEquals(-0.5, roots[0], 1e-6);
+    }
+
+    @Test
+    public void testBisection() {
+        assertEquals(sqrt(2), Polynomial.bisection(x -> x * x - 2, 0, 2), 1e-6);
+        assertTrue(Double.isNaN(Polynomial.bisection(x -> x * x + 2, 0, 2)));
+    }
+
     public static void testGetRoots(@NonNull Polynomial instance, @NonNull double[] expected) {
         Arrays.sort(expected);
         double[] actual = instance.getRoots();
@@ -0,0 +1,203 @@
+/*
+ * @(#)ShortestArbitraryIndexedVertexPathSearchAlgoTest.java
+ * Copyright © 2022 The authors and contributors of JHotDraw. MIT License.
+ */
+
+package org.jhotdraw8.graph.path.algo;
+
+import org.jhotdraw8.annotation.NonNull;
+import org.jhotdraw8.graph.MutableIntAttributed16BitIndexedBidiGraph;
+import org.jhotdraw8.graph.path.backlink.VertexBackLinkWithCost;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+/**
+ * Tests {@link ShortestArbitraryIndexedVertexPathSearchAlgo}.
+ */
+public class ShortestArbitraryIndexedVertexPathSearchAlgoTest {
+
+    /**
+     * Creates the graph of {@link ArbitraryShortestArcPathSearchAlgoTest},
+     * with vertex indices starting at 0, and the costs stored as arrow data.
+     * <pre>
+     * __|  0  |  1  |  2  |  3  |  4  |   5
+     * 0 |        7     9                  14
+     * 1 |  7          10    15
+     * 2 |                   11             2
+     * 3 |                          6
+     * 4 |                                 9
+     * 5 | 14                       9
+     * </pre>
+     */
+    private @NonNull MutableIntAttributed16BitIndexedBidiGraph createGraph() {
+        MutableIntAttributed16BitIndexedBidiGraph g = new MutableIntAttributed16BitIndexedBidiGraph(6, 4);
+        for (int i = 0; i < 6; i++) {
+            g.addVertexAsInt();
+        }
+        g.addArrowAsInt(0, 1, 7);
+        g.addArrowAsInt(1, 0, 7);
+        g.addArrowAsInt(0, 2, 9);
+        g.addArrowAsInt(0, 5, 14);
+        g.addArrowAsInt(5, 0, 14);
+        g.addArrowAsInt(1, 2, 10);
+        g.addArrowAsInt(1, 3, 15);
+        g.addArrowAsInt(2, 3, 11);
+        g.addArrowAsInt(2, 5, 2);
+        g.addArrowAsInt(3, 4, 6);
+        g.addArrowAsInt(4, 5, 9);
+        g.addArrowAsInt(5, 4, 9);
+        return g;
+    }
+
+    @TestFactory
+    public @NonNull List<DynamicTest> dynamicTestsSearch() {
+        return Arrays.asList(
+                dynamicTest("1", () -> testSearch(0, 4, new int[]{0, 2, 5, 4}, 20)),
+                dynamicTest("2", () -> testSearch(0, 3, new int[]{0, 2, 3}, 20)),
+                dynamicTest("3", () -> testSearch(1, 5, new int[]{1, 2, 5}, 12)),
+                dynamicTest("4", () -> testSearch(4, 0, new int[]{4, 5, 0}, 23)),
+                dynamicTest("5", () -> testSearch(2, 2, new int[]{2}, 0)),
+                dynamicTest("6", () -> testSearch(3, 1, new int[]{3, 4, 5, 0, 1}, 36))
+        );
+    }
+
+    private void testSearch(int start, int goal, int[] expectedPath, double expectedCost) {
+        ShortestArbitraryIndexedVertexPathSearchAlgo algo = new ShortestArbitraryIndexedVertexPathSearchAlgo();
+        assertEquals(goal, algo.search(createGraph(), start, goal, IndexedArrowCostFunction.ARROW_DATA, null));
+        assertArrayEquals(expectedPath, algo.getVertexPath(goal));
+        assertEquals(expectedCost, algo.getCost(goal));
+        assertEquals(expectedPath.length - 1, algo.getDepth(goal));
+    }
+
+    @Test
+    public void testCostLimitAndMaxDepth() {
+        MutableIntAttributed16BitIndexedBidiGraph g = createGraph();
+        ShortestArbitraryIndexedVertexPathSearchAlgo algo = new ShortestArbitraryIndexedVertexPathSearchAlgo();
+        assertEquals(-1, algo.search(g, new int[]{0}, v -> v == 4, IndexedArrowCostFunction.ARROW_DATA, null,
+                Integer.MAX_VALUE, 19));
+        assertFalse(algo.isReached(4));
+        assertNull(algo.getVertexPath(4));
+
+        assertEquals(-1, algo.search(g, new int[]{0}, v -> v == 4, IndexedArrowCostFunction.ARROW_DATA, null,
+                1, Double.POSITIVE_INFINITY));
+        assertEquals(4, algo.search(g, new int[]{0}, v -> v == 4, IndexedArrowCostFunction.ARROW_DATA, null,
+                3, 20));
+        assertArrayEquals(new int[]{0, 2, 5, 4}, algo.getVertexPath(4));
+    }
+
+    @Test
+    public void testNegativeCostThrowsException() {
+        ShortestArbitraryIndexedVertexPathSearchAlgo algo = new ShortestArbitraryIndexedVertexPathSearchAlgo();
+        assertThrows(IllegalStateException.class, () -> algo.search(createGraph(), 0, 4, (v, u, a) -> -a, null));
+    }
+
+    /**
+     * Compares the costs with the costs found by
+     * {@link ShortestArbitraryVertexPathSearchAlgo} on a random graph.
+     */
+    @Test
+    public void testSameCostsAsShortestArbitraryVertexPathSearchAlgo() {
+        int n = 200;
+        Random rng = new Random(0);
+        MutableIntAttributed16BitIndexedBidiGraph g = new MutableIntAttributed16BitIndexedBidiGraph(n, 8);
+        for (int i = 0; i < n; i++) {
+            g.addVertexAsInt();
+        }
+        for (int i = 0; i < n * 3; i++) {
+            int v = rng.nextInt(n), u = rng.nextInt(n);
+            if (v != u && !g.isNextAsInt(v, u) && g.getNextCount(v) < 8 && g.getPrevCount(u) < 8) {
+                g.addArrowAsInt(v, u, rng.nextInt(100));
+            }
+        }
+
+        ShortestArbitraryIndexedVertexPathSearchAlgo algo = new ShortestArbitraryIndexedVertexPathSearchAlgo();
+        ShortestArbitraryVertexPathSearchAlgo<Integer, Integer> expectedAlgo = new ShortestArbitraryVertexPathSearchAlgo<>();
+        for (int i = 0; i < 50; i++) {
+            int start = rng.nextInt(n), goal = rng.nextInt(n);
+            int actual = algo.search(g, start, goal, IndexedArrowCostFunction.ARROW_DATA, null);
+            VertexBackLinkWithCost<Integer, Integer> expected = expectedAlgo.search(
+                    Collections.singletonList(start), v -> v == goal,
+                    v -> {
+                        List<Integer> next = new ArrayList<>();
+                        g.nextVerticesEnumerator(v).forEachRemaining((int u) -> next.add(u));
+                        return next;
+                    },
+                    Integer.MAX_VALUE, 0, Integer.MAX_VALUE,
+                    (v, u) -> g.getNextArrowAsInt(v, g.findIndexOfNextAsInt(v, u)),
+                    Integer::sum, new HashSet<>()::add);
+            if (expected == null) {
+                assertEquals(-1, actual);
+            } else {
+                assertEquals(goal, actual);
+                assertEquals(expected.getCost().doubleValue(), algo.getCost(goal));
+                int[] path = algo.getVertexPath(goal);
+                double sum = 0;
+                for (int j = 1; j < path.length; j++) {
+                    sum += g.getNextArrowAsInt(path[j - 1], g.findIndexOfNextAsInt(path[j - 1], path[j]));
+                }
+                assertEquals(algo.getCost(goal), sum);
+            }
+        }
+    }
+
+    /**
+     * Searches paths on a grid with obstacles, with and without the
+     * manhattan distance as an A* heuristic.
+     */
+    @Test
+    public void testAStarFindsSameCostsAsDijkstra() {
+        int w = 40;
+        Random rng = new Random(1);
+        boolean[] blocked = new boolean[w * w];
+        for (int i = 0; i < blocked.length; i++) {
+            blocked[i] = rng.nextInt(4) == 0;
+        }
+        MutableIntAttributed16BitIndexedBidiGraph g = new MutableIntAttributed16BitIndexedBidiGraph(w * w, 4);
+        for (int i = 0; i < w * w; i++) {
+            g.addVertexAsInt();
+        }
+        for (int y = 0; y < w; y++) {
+            for (int x = 0; x < w; x++) {
+                int v = y * w + x;
+                if (blocked[v]) {
+                    continue;
+                }
+                if (x + 1 < w && !blocked[v + 1]) {
+                    g.addArrowAsInt(v, v + 1, 1);
+                    g.addArrowAsInt(v + 1, v, 1);
+                }
+                if (y + 1 < w && !blocked[v + w]) {
+                    g.addArrowAsInt(v, v + w, 1);
+                    g.addArrowAsInt(v + w, v, 1);
+                }
+            }
+        }
+
+        ShortestArbitraryIndexedVertexPathSearchAlgo dijkstra = new ShortestArbitraryIndexedVertexPathSearchAlgo();
+        ShortestArbitraryIndexedVertexPathSearchAlgo astar = new ShortestArbitraryIndexedVertexPathSearchAlgo();
+        for (int i = 0; i < 100; i++) {
+            int start = rng.nextInt(w * w), goal = rng.nextInt(w * w);
+            int gx = goal % w, gy = goal / w;
+            int expected = dijkstra.search(g, start, goal, IndexedArrowCostFunction.ARROW_DATA, null);
+            int actual = astar.search(g, start, goal, IndexedArrowCostFunction.ARROW_DATA,
+                    v -> Math.abs(v % w - gx) + Math.abs(v / w - gy));
+            assertEquals(expected, actual);
+            assertEquals(dijkstra.getCost(goal), astar.getCost(goal));
+        }
+    }
+}
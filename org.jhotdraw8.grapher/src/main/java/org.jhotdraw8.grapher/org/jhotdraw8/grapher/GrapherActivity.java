@@ -28,6 +28,7 @@ import org.jhotdraw8.app.action.view.ToggleBooleanAction;
 import org.jhotdraw8.collection.ImmutableLists;
 import org.jhotdraw8.collection.Key;
 import org.jhotdraw8.collection.ReadOnlyMap;
+import org.jhotdraw8.concurrent.BlackHoleWorkState;
 import org.jhotdraw8.concurrent.FXWorker;
 import org.jhotdraw8.concurrent.WorkState;
 import org.jhotdraw8.css.CssDimension2D;
@@ -198,7 +199,7 @@ public class GrapherActivity extends AbstractFileBasedActivity implements FileBa
         for (final Figure f : d.preorderIterable()) {
             f.addedToDrawing(d);
         }
-        applyUserAgentStylesheet(d);
+        applyUserAgentStylesheet(d, new BlackHoleWorkState<>());
         drawingView.setDrawing(d);
         return CompletableFuture.completedFuture(null);
     }
@@ -466,7 +467,7 @@ public class GrapherActivity extends AbstractFileBasedActivity implements FileBa
             AbstractDrawing drawing = (AbstractDrawing) io.read(uri, null, workState);
             System.out.println("READING..." + uri);
             if (drawing != null) {
-                applyUserAgentStylesheet(drawing);
+                applyUserAgentStylesheet(drawing, workState);
             }
             return drawing;
         }).thenApply(drawing -> {
@@ -511,16 +512,14 @@ public class GrapherActivity extends AbstractFileBasedActivity implements FileBa
         });
     }
 
-    private void applyUserAgentStylesheet(final @NonNull Drawing d) {
+    private void applyUserAgentStylesheet(final @NonNull Drawing d, final @NonNull WorkState<?> workState) {
         try {
             d.set(Drawing.USER_AGENT_STYLESHEETS,
                     ImmutableLists.of(
                             GrapherActivity.class.getResource("user-agent.css").toURI()));
             d.updateStyleManager();
             final SimpleRenderContext ctx = new SimpleRenderContext();
-            for (final Figure f : d.preorderIterable()) {
-                f.updateCss(ctx);
-            }
+            d.updateAllCss(ctx, workState);
             // d.layoutAll(ctx);
 
         } catch (final URISyntaxException e) {